@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.xml.bind.annotation.XmlTransient;
+
+import graph.algorithm.DynamicTopologicalOrder;
+import graph.error.CycleDetectedException;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.EdgeCreatesCycleException;
+import graph.error.EdgeDoesNotExistException;
+import graph.error.VertexAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Directed acyclic graph, an edge that would close a cycle is rejected with
+ * {@link EdgeCreatesCycleException}. A topological order is maintained online
+ * as edges are added (Pearce-Kelly), so the cycle check only searches the
+ * vertices positioned between the two edge vertices instead of rebuilding paths
+ * for the whole graph.
+ * 
+ * Removing an edge keeps the order valid. Removing a vertex drops the order,
+ * it is then rebuilt on the next edge added or order requested.
+ */
+public class AcyclicGraph extends Graph {
+
+	@XmlTransient
+	private DynamicTopologicalOrder order = null;
+	@XmlTransient
+	private Map<Vertex, Integer> orderIndex = null;
+	@XmlTransient
+	private List<Vertex> orderVertices = null;
+
+	/**
+	 * Default constructor
+	 */
+	public AcyclicGraph() {
+		super();
+	}
+
+	/**
+	 * Custom constructor that takes list of vertices and edges, the edges must not
+	 * contain a cycle
+	 * 
+	 * @param vList list of vertices
+	 * @param eList list of edges
+	 */
+	public AcyclicGraph(List<Vertex> vList, List<Edge> eList) {
+		super(vList, eList);
+	}
+
+	/**
+	 * @return the topological order, rebuilt if a removal dropped it
+	 * @throws CycleDetectedException error if the graph was constructed with a
+	 *                                cycle
+	 */
+	private synchronized DynamicTopologicalOrder getOrder() throws CycleDetectedException {
+		if (order == null) {
+			List<Vertex> vl = getVertices();
+			DynamicTopologicalOrder dto = new DynamicTopologicalOrder(vl.size());
+			orderIndex = new HashMap<Vertex, Integer>(vl.size() * 2);
+			orderVertices = new ArrayList<Vertex>(vl.size());
+			for (Vertex v : super.topologicalOrder()) {
+				orderIndex.put(v, dto.add());
+				orderVertices.add(v);
+			}
+			for (Edge e : getEdges()) {
+				dto.addEdge(orderIndex.get(e.getV1()), orderIndex.get(e.getV2()));
+			}
+			order = dto;
+		}
+		return order;
+	}
+
+	private synchronized List<Vertex> toVertices(int[] nodes) {
+		List<Vertex> ret = new ArrayList<Vertex>(nodes.length);
+		for (int n : nodes) {
+			ret.add(orderVertices.get(n));
+		}
+		return ret;
+	}
+
+	/**
+	 * @see graph.Graph#addVertex(graph.Vertex)
+	 */
+	@Override
+	public synchronized void addVertex(Vertex v) throws VertexAlreadyExistsException {
+		super.addVertex(v);
+		if (v != null && order != null) {
+			orderIndex.put(v, order.add());
+			orderVertices.add(v);
+		}
+	}
+
+	/**
+	 * @see graph.Graph#removeVertex(graph.Vertex)
+	 */
+	@Override
+	public synchronized void removeVertex(Vertex v) throws VertexDoesNotExistException {
+		super.removeVertex(v);
+		order = null;
+		orderIndex = null;
+		orderVertices = null;
+	}
+
+	/**
+	 * Edge is added only if it keeps the graph acyclic
+	 * 
+	 * @throws EdgeCreatesCycleException error if edge would close a cycle, the
+	 *                                   exception carries the cycle
+	 * @see graph.Graph#addEdge(graph.Edge)
+	 */
+	@Override
+	public synchronized void addEdge(Edge e) throws VertexDoesNotExistException, EdgeAlreadyExistsException {
+		if (e != null) {
+			validateVertexInGraph(e.getV1());
+			validateVertexInGraph(e.getV2());
+			if (getEdges().contains(e)) {
+				throw new EdgeAlreadyExistsException(e);
+			}
+			DynamicTopologicalOrder dto;
+			try {
+				dto = getOrder();
+			} catch (CycleDetectedException ex) {
+				throw new EdgeCreatesCycleException(e, ex.getCycle());
+			}
+			if (!dto.addEdge(orderIndex.get(e.getV1()), orderIndex.get(e.getV2()))) {
+				throw new EdgeCreatesCycleException(e, toVertices(dto.getCycle()));
+			}
+			super.addEdge(e);
+		}
+	}
+
+	/**
+	 * @see graph.Graph#removeEdge(graph.Edge)
+	 */
+	@Override
+	public synchronized void removeEdge(Edge e) throws EdgeDoesNotExistException {
+		super.removeEdge(e);
+		if (order != null) {
+			order.removeEdge(orderIndex.get(e.getV1()), orderIndex.get(e.getV2()));
+		}
+	}
+
+	/**
+	 * Returns the maintained order without a graph traversal
+	 * 
+	 * @see graph.Graph#topologicalOrder()
+	 */
+	@Override
+	public synchronized List<Vertex> topologicalOrder() throws CycleDetectedException {
+		return toVertices(getOrder().getOrder());
+	}
+
+	/**
+	 * @param v1 vertex
+	 * @param v2 vertex
+	 * @return true if v1 comes before v2 in the topological order, always true
+	 *         when there is a path from v1 to v2
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws CycleDetectedException      error if the graph was constructed with
+	 *                                     a cycle
+	 */
+	public synchronized boolean isBefore(Vertex v1, Vertex v2)
+			throws VertexDoesNotExistException, CycleDetectedException {
+		validateVertexInGraph(v1);
+		validateVertexInGraph(v2);
+		DynamicTopologicalOrder dto = getOrder();
+		return dto.getPosition(orderIndex.get(v1)) < dto.getPosition(orderIndex.get(v2));
+	}
+
+	/**
+	 * @return the number of vertices visited by cycle checks since the order was
+	 *         built, a measure of the work beyond constant time edge inserts
+	 */
+	public synchronized long getCycleCheckVisits() {
+		return order == null ? 0 : order.getVisited();
+	}
+
+}
@@ -0,0 +1,416 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous facade of a graph, every call returns a CompletableFuture
+ * instead of blocking the caller on the graph monitor. Calls are queued and at
+ * most {@link #getMaxConcurrency()} of them run at the same time on the
+ * executor, virtual threads by default. A full queue rejects new calls with a
+ * RejectedExecutionException in the returned future, so overload shows up as
+ * back-pressure to the caller rather than as a growing number of blocked
+ * threads.
+ * 
+ * Writes (mutations) and reads (queries) are queued separately. With
+ * {@link Scheduling#WRITER_PRIORITY} a queued write starts before any queued
+ * read, so readers see changes as soon as possible. With
+ * {@link Scheduling#FAIR} calls start in the order they were submitted.
+ */
+public class AsyncGraph implements AutoCloseable {
+
+	/**
+	 * Order in which queued calls start
+	 */
+	public enum Scheduling {
+		WRITER_PRIORITY, FAIR
+	}
+
+	/**
+	 * Operation run against the graph
+	 * 
+	 * @param <T> result type
+	 */
+	@FunctionalInterface
+	public interface GraphTask<T> {
+		T apply(Graph g) throws Exception;
+	}
+
+	private static class Queued<T> {
+		final GraphTask<T> task;
+		final CompletableFuture<T> future;
+		final long seq;
+
+		Queued(GraphTask<T> task, long seq) {
+			this.task = task;
+			this.future = new CompletableFuture<T>();
+			this.seq = seq;
+		}
+	}
+
+	private final Graph graph;
+	private final Executor executor;
+	private final boolean ownsExecutor;
+	private final ArrayDeque<Queued<?>> reads = new ArrayDeque<Queued<?>>();
+	private final ArrayDeque<Queued<?>> writes = new ArrayDeque<Queued<?>>();
+	private Scheduling scheduling = Scheduling.WRITER_PRIORITY;
+	private int maxConcurrency = Runtime.getRuntime().availableProcessors() * 2;
+	private int maxQueueDepth = 10000;
+	private int active = 0;
+	private long seq = 0;
+	private long completed = 0;
+	private long rejected = 0;
+	private int peakQueueDepth = 0;
+	private boolean closed = false;
+
+	/**
+	 * Custom constructor that takes a graph, calls run on virtual threads
+	 * 
+	 * @param g graph
+	 */
+	public AsyncGraph(Graph g) {
+		this(g, Executors.newVirtualThreadPerTaskExecutor(), true);
+	}
+
+	/**
+	 * Custom constructor that takes a graph and the executor calls run on, the
+	 * executor is not shut down by {@link #close()}
+	 * 
+	 * @param g        graph
+	 * @param executor executor
+	 */
+	public AsyncGraph(Graph g, Executor executor) {
+		this(g, executor, false);
+	}
+
+	private AsyncGraph(Graph g, Executor executor, boolean ownsExecutor) {
+		this.graph = g;
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	/**
+	 * @return the graph
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the scheduling
+	 */
+	public synchronized Scheduling getScheduling() {
+		return scheduling;
+	}
+
+	/**
+	 * @param scheduling the scheduling to set (default WRITER_PRIORITY)
+	 */
+	public synchronized void setScheduling(Scheduling scheduling) {
+		this.scheduling = scheduling;
+	}
+
+	/**
+	 * @return the maximum number of calls running at the same time
+	 */
+	public synchronized int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * @param maxConcurrency the maximum number of calls running at the same time
+	 *                       to set (default twice the number of processors)
+	 */
+	public synchronized void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = Math.max(1, maxConcurrency);
+		dispatch();
+	}
+
+	/**
+	 * @return the maximum number of queued calls
+	 */
+	public synchronized int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * @param maxQueueDepth the maximum number of queued calls to set (default
+	 *                      10000), further calls are rejected
+	 */
+	public synchronized void setMaxQueueDepth(int maxQueueDepth) {
+		this.maxQueueDepth = Math.max(0, maxQueueDepth);
+	}
+
+	/**
+	 * Run a query
+	 * 
+	 * @param <T>  result type
+	 * @param task query, must not change the graph
+	 * @return future result
+	 */
+	public <T> CompletableFuture<T> read(GraphTask<T> task) {
+		return submit(task, false);
+	}
+
+	/**
+	 * Run a mutation
+	 * 
+	 * @param <T>  result type
+	 * @param task mutation
+	 * @return future result
+	 */
+	public <T> CompletableFuture<T> write(GraphTask<T> task) {
+		return submit(task, true);
+	}
+
+	private synchronized <T> CompletableFuture<T> submit(GraphTask<T> task, boolean write) {
+		Queued<T> q = new Queued<T>(task, seq++);
+		if (closed) {
+			q.future.completeExceptionally(new RejectedExecutionException("AsyncGraph is closed."));
+		} else if (getQueueDepth() >= maxQueueDepth && active >= maxConcurrency) {
+			rejected++;
+			q.future.completeExceptionally(
+					new RejectedExecutionException("AsyncGraph queue is full (" + maxQueueDepth + ")."));
+		} else {
+			(write ? writes : reads).add(q);
+			peakQueueDepth = Math.max(peakQueueDepth, getQueueDepth());
+			dispatch();
+		}
+		return q.future;
+	}
+
+	/**
+	 * Start queued calls while below the concurrency limit, must hold the lock
+	 */
+	private void dispatch() {
+		while (active < maxConcurrency && !(reads.isEmpty() && writes.isEmpty())) {
+			Queued<?> next;
+			if (writes.isEmpty()) {
+				next = reads.poll();
+			} else if (reads.isEmpty() || scheduling == Scheduling.WRITER_PRIORITY) {
+				next = writes.poll();
+			} else {
+				next = writes.peek().seq < reads.peek().seq ? writes.poll() : reads.poll();
+			}
+			// Cancelled while queued, nothing to run
+			if (!next.future.isDone()) {
+				active++;
+				start(next);
+			}
+		}
+	}
+
+	private <T> void start(Queued<T> q) {
+		try {
+			executor.execute(() -> {
+				try {
+					if (!q.future.isDone()) {
+						q.future.complete(q.task.apply(graph));
+					}
+				} catch (Throwable ex) {
+					q.future.completeExceptionally(ex);
+				} finally {
+					finished();
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			q.future.completeExceptionally(ex);
+			active--;
+		}
+	}
+
+	private synchronized void finished() {
+		active--;
+		completed++;
+		dispatch();
+		notifyAll();
+	}
+
+	/**
+	 * @param v1 starting vertex
+	 * @param v2 ending vertex
+	 * @return future shortest path, see {@link Graph#findShortestPath(Vertex, Vertex)}
+	 */
+	public CompletableFuture<Path> findShortestPath(Vertex v1, Vertex v2) {
+		return read(g -> g.findShortestPath(v1, v2));
+	}
+
+	/**
+	 * @param v1      starting vertex
+	 * @param v2      ending vertex
+	 * @param options query budget, null for no limits
+	 * @return future shortest path, see
+	 *         {@link Graph#findShortestPath(Vertex, Vertex, QueryOptions)}
+	 */
+	public CompletableFuture<Path> findShortestPath(Vertex v1, Vertex v2, QueryOptions options) {
+		return read(g -> g.findShortestPath(v1, v2, options));
+	}
+
+	/**
+	 * @return future connected vertices, see {@link Graph#getConnectedVertices()}
+	 */
+	public CompletableFuture<List<Vertex>> getConnectedVertices() {
+		return read(g -> g.getConnectedVertices());
+	}
+
+	/**
+	 * @param options query budget, null for no limits
+	 * @return future connected vertices, see
+	 *         {@link Graph#getConnectedVertices(QueryOptions)}
+	 */
+	public CompletableFuture<List<Vertex>> getConnectedVertices(QueryOptions options) {
+		return read(g -> g.getConnectedVertices(options));
+	}
+
+	/**
+	 * @return future percentage connectivity, see
+	 *         {@link Graph#calculateConnectivity()}
+	 */
+	public CompletableFuture<Integer> calculateConnectivity() {
+		return read(g -> g.calculateConnectivity());
+	}
+
+	/**
+	 * @return future XML of the graph, see {@link Graph#convertToXML()}
+	 */
+	public CompletableFuture<String> convertToXML() {
+		return read(g -> g.convertToXML());
+	}
+
+	/**
+	 * @param v vertex to be added
+	 * @return future completed when the vertex was added
+	 */
+	public CompletableFuture<Void> addVertex(Vertex v) {
+		return write(g -> {
+			g.addVertex(v);
+			return null;
+		});
+	}
+
+	/**
+	 * @param v vertex to be removed
+	 * @return future completed when the vertex was removed
+	 */
+	public CompletableFuture<Void> removeVertex(Vertex v) {
+		return write(g -> {
+			g.removeVertex(v);
+			return null;
+		});
+	}
+
+	/**
+	 * @param e edge to be added
+	 * @return future completed when the edge was added
+	 */
+	public CompletableFuture<Void> addEdge(Edge e) {
+		return write(g -> {
+			g.addEdge(e);
+			return null;
+		});
+	}
+
+	/**
+	 * @param e edge to be removed
+	 * @return future completed when the edge was removed
+	 */
+	public CompletableFuture<Void> removeEdge(Edge e) {
+		return write(g -> {
+			g.removeEdge(e);
+			return null;
+		});
+	}
+
+	/**
+	 * @return the number of calls waiting to start
+	 */
+	public synchronized int getQueueDepth() {
+		return reads.size() + writes.size();
+	}
+
+	/**
+	 * @return the number of queued writes
+	 */
+	public synchronized int getWriteQueueDepth() {
+		return writes.size();
+	}
+
+	/**
+	 * @return the largest queue depth seen
+	 */
+	public synchronized int getPeakQueueDepth() {
+		return peakQueueDepth;
+	}
+
+	/**
+	 * @return the number of calls running
+	 */
+	public synchronized int getActive() {
+		return active;
+	}
+
+	/**
+	 * @return the number of calls finished, successfully or not
+	 */
+	public synchronized long getCompleted() {
+		return completed;
+	}
+
+	/**
+	 * @return the number of calls rejected because the queue was full
+	 */
+	public synchronized long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Reject new calls, queued and running calls still complete. An executor
+	 * created by this facade is shut down once they have.
+	 * 
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+			boolean interrupted = false;
+			while (active > 0 || getQueueDepth() > 0) {
+				try {
+					wait();
+				} catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (ownsExecutor) {
+			((ExecutorService) executor).close();
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return this.getClass().getSimpleName() + ": Active=" + active + " Queued=" + getQueueDepth() + " Completed="
+				+ completed + " Rejected=" + rejected;
+	}
+
+}
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+/**
+ * Token used to cooperatively cancel a running graph query. The same token can
+ * be shared by several queries, cancelling it stops all of them at their next
+ * budget check.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Request cancellation of all queries using this token
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return true if cancellation was requested
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.EdgeDoesNotExistException;
+import graph.error.VertexAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * A change made to a graph, published on its {@link ChangeFeed}. Edge events
+ * carry the weight and label the edge had when the change was made, later
+ * changes to the edge object are not seen through the event.
+ */
+public final class ChangeEvent {
+
+	/**
+	 * Kind of change
+	 */
+	public enum Type {
+		VERTEX_ADDED, VERTEX_REMOVED, EDGE_ADDED, EDGE_REMOVED, WEIGHT_CHANGED, LABEL_CHANGED
+	}
+
+	private final long sequence;
+	private final Type type;
+	private final Vertex vertex;
+	private final Vertex v1;
+	private final Vertex v2;
+	private final int weight;
+	// Null for the default label
+	private final String label;
+
+	ChangeEvent(long sequence, Type type, Vertex v) {
+		this.sequence = sequence;
+		this.type = type;
+		this.vertex = v;
+		this.v1 = null;
+		this.v2 = null;
+		this.weight = 0;
+		this.label = null;
+	}
+
+	ChangeEvent(long sequence, Type type, Edge e) {
+		this.sequence = sequence;
+		this.type = type;
+		this.vertex = null;
+		this.v1 = e.getV1();
+		this.v2 = e.getV2();
+		this.weight = e.getWeight();
+		this.label = e.hasDefaultLabel() ? null : e.getLabel();
+	}
+
+	/**
+	 * @return the sequence number, consecutive from 0 on the feed
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the vertex of a vertex event, null for edge events
+	 */
+	public Vertex getVertex() {
+		return vertex;
+	}
+
+	/**
+	 * @return a new edge with the vertices, weight and label of an edge event,
+	 *         null for vertex events
+	 */
+	public Edge getEdge() {
+		return v1 == null ? null : new Edge(v1, v2, weight, label);
+	}
+
+	/**
+	 * @return the edge weight after the change, 0 for vertex events
+	 */
+	public int getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return the edge label after the change, null for the default label and for
+	 *         vertex events
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Make the same change to another graph
+	 * 
+	 * @param g graph
+	 * @throws VertexAlreadyExistsException error if vertex is already in graph
+	 * @throws VertexDoesNotExistException  error if vertex does not exist
+	 * @throws EdgeAlreadyExistsException   error if edge is already in graph
+	 * @throws EdgeDoesNotExistException    error if edge does not exist
+	 */
+	public void apply(Graph g) throws VertexAlreadyExistsException, VertexDoesNotExistException,
+			EdgeAlreadyExistsException, EdgeDoesNotExistException {
+		switch (type) {
+		case VERTEX_ADDED:
+			g.addVertex(vertex);
+			break;
+		case VERTEX_REMOVED:
+			g.removeVertex(vertex);
+			break;
+		case EDGE_ADDED:
+			g.addEdge(getEdge());
+			break;
+		case EDGE_REMOVED:
+			g.removeEdge(new Edge(v1, v2));
+			break;
+		case WEIGHT_CHANGED:
+			g.updateWeight(new Edge(v1, v2), weight);
+			break;
+		case LABEL_CHANGED:
+			g.setEdgeLabel(new Edge(v1, v2), label);
+			break;
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ChangeEvent: Sequence=" + sequence + " Type=" + type
+				+ (v1 == null ? " Vertex=" + vertex : " V1=" + v1 + " V2=" + v2 + " Weight=" + weight + " Label=" + label);
+	}
+
+}
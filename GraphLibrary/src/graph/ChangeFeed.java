@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import graph.error.ChangeFeedOverrunException;
+
+/**
+ * Change data capture for a graph, see {@link Graph#getChangeFeed()}. Every
+ * change is published as a sequence numbered {@link ChangeEvent} into a fixed
+ * size ring buffer. Publishing never waits for readers: a reader that falls
+ * more than the capacity behind loses the overwritten events and is told so
+ * with a {@link ChangeFeedOverrunException}, after which it has to be seeded
+ * again from the graph.
+ * 
+ * Readers take a {@link Cursor} each and poll it from their own thread, no
+ * locks are taken on either side. Events are published while the graph lock
+ * is held, so a cursor opened while holding the graph lock starts exactly
+ * after the state the holder sees.
+ */
+public class ChangeFeed {
+
+	private final AtomicReferenceArray<ChangeEvent> ring;
+	private final int mask;
+	// Sequence number of the last published event, -1 if none
+	private final AtomicLong published = new AtomicLong(-1);
+
+	/**
+	 * Custom constructor that takes the capacity
+	 * 
+	 * @param capacity number of events kept for readers, rounded up to a power of
+	 *                 two
+	 */
+	ChangeFeed(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+		ring = new AtomicReferenceArray<ChangeEvent>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * Publish a vertex event, called by the graph while holding its lock
+	 * 
+	 * @param type event type
+	 * @param v    vertex
+	 */
+	void publish(ChangeEvent.Type type, Vertex v) {
+		final long seq = published.get() + 1;
+		ring.set((int) (seq & mask), new ChangeEvent(seq, type, v));
+		published.setRelease(seq);
+	}
+
+	/**
+	 * Publish an edge event, called by the graph while holding its lock
+	 * 
+	 * @param type event type
+	 * @param e    edge
+	 */
+	void publish(ChangeEvent.Type type, Edge e) {
+		final long seq = published.get() + 1;
+		ring.set((int) (seq & mask), new ChangeEvent(seq, type, e));
+		published.setRelease(seq);
+	}
+
+	/**
+	 * @return the number of events kept for readers
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * @return the sequence number of the last published event, -1 if none
+	 */
+	public long getLastSequence() {
+		return published.getAcquire();
+	}
+
+	/**
+	 * Open a cursor that reads the events published after this call
+	 * 
+	 * @return the cursor
+	 */
+	public Cursor subscribe() {
+		return new Cursor(published.getAcquire() + 1);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ChangeFeed: Capacity=" + getCapacity() + " LastSequence=" + getLastSequence();
+	}
+
+	/**
+	 * Read position of a single reader on the feed. A cursor is not thread safe,
+	 * it is meant to be polled by one thread.
+	 */
+	public class Cursor {
+
+		private long next;
+
+		private Cursor(long next) {
+			this.next = next;
+		}
+
+		/**
+		 * Take the next event
+		 * 
+		 * @return the next event, null if the reader is up to date
+		 * @throws ChangeFeedOverrunException error if the next event was overwritten
+		 */
+		public ChangeEvent poll() throws ChangeFeedOverrunException {
+			ChangeEvent ret = null;
+			if (next <= published.getAcquire()) {
+				ret = ring.get((int) (next & mask));
+				if (ret.getSequence() != next) {
+					throw new ChangeFeedOverrunException(next);
+				}
+				next++;
+			}
+			return ret;
+		}
+
+		/**
+		 * Take all events published so far
+		 * 
+		 * @param listener called for every event in sequence order
+		 * @return the number of events
+		 * @throws ChangeFeedOverrunException error if the next event was overwritten
+		 */
+		public int drain(ChangeListener listener) throws ChangeFeedOverrunException {
+			int ret = 0;
+			ChangeEvent ce;
+			while ((ce = poll()) != null) {
+				listener.onChange(ce);
+				ret++;
+			}
+			return ret;
+		}
+
+		/**
+		 * @return the sequence number of the next event to read
+		 */
+		public long getPosition() {
+			return next;
+		}
+
+		/**
+		 * @return the number of published events not read yet
+		 */
+		public long getLag() {
+			return published.getAcquire() + 1 - next;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "Cursor: Position=" + next + " Lag=" + getLag();
+		}
+
+	}
+
+}
@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+/**
+ * Callback for events drained from a {@link ChangeFeed.Cursor}
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+	/**
+	 * @param ce change event
+	 */
+	void onChange(ChangeEvent ce);
+
+}
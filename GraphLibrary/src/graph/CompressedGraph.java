@@ -0,0 +1,425 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only compressed snapshot of a graph for very large graphs. Successors of
+ * every vertex are sorted and stored as variable length integers in one byte
+ * array: the out-degree, then the gaps between successive targets, the first
+ * target relative to the vertex itself. Web-like graphs have small gaps, most
+ * of them fit in one byte.
+ * 
+ * With a reference window w each list may instead refer to one of the w
+ * previous lists and copy the targets it shares with it (copy blocks, in the
+ * style of WebGraph), only the remaining targets are gap encoded. The encoder
+ * picks whichever is shortest. A referenced list can itself refer to another,
+ * the chain is limited so that random access decodes a bounded number of
+ * lists.
+ * 
+ * Weights are stored separately in successor order, and not at all when every
+ * weight is 1. Offsets are int, so the encoded graph is limited to 2 GB.
+ */
+public class CompressedGraph implements IndexedGraph {
+
+	private final Vertex[] vertices;
+	private final Map<Vertex, Integer> index;
+	private final byte[] data;
+	private final int[] offsets;
+	private final byte[] weightData;
+	private final int[] weightOffsets;
+	private final int edgeCount;
+	private final int maxOutDegree;
+	private final int window;
+	private final int maxChain;
+	private final long version;
+	private final ThreadLocal<int[][]> scratch;
+
+	/**
+	 * Custom constructor that takes a graph, compressed without references
+	 * 
+	 * @param g graph
+	 */
+	public CompressedGraph(Graph g) {
+		this(new CsrGraph(g), 0, 0);
+	}
+
+	/**
+	 * Custom constructor that takes a graph and reference settings
+	 * 
+	 * @param g        graph
+	 * @param window   number of previous lists a list may refer to, 0 for none
+	 * @param maxChain maximum length of a chain of references
+	 */
+	public CompressedGraph(Graph g, int window, int maxChain) {
+		this(new CsrGraph(g), window, maxChain);
+	}
+
+	/**
+	 * Custom constructor that takes a graph snapshot and reference settings
+	 * 
+	 * @param g        graph snapshot
+	 * @param window   number of previous lists a list may refer to, 0 for none
+	 * @param maxChain maximum length of a chain of references
+	 */
+	public CompressedGraph(IndexedGraph g, int window, int maxChain) {
+		final int n = g.getVertexCount();
+		this.window = Math.max(0, window);
+		this.maxChain = Math.max(0, maxChain);
+		vertices = new Vertex[n];
+		index = new HashMap<Vertex, Integer>(n * 2);
+		for (int i = 0; i < n; i++) {
+			vertices[i] = g.getVertex(i);
+			index.put(vertices[i], i);
+		}
+		version = g instanceof CsrGraph ? ((CsrGraph) g).getVersion() : -1;
+		edgeCount = g.getEdgeCount();
+		maxOutDegree = g.getMaxOutDegree();
+		offsets = new int[n];
+		Encoder out = new Encoder(Math.max(16, edgeCount * 2));
+		Encoder wout = new Encoder(16);
+		int[] wo = new int[n];
+		boolean unitWeights = true;
+		int[] chain = new int[n];
+		// Sorted successors of the last window + 1 vertices, as reference candidates
+		int[][] recent = new int[this.window + 1][];
+		int[] t = new int[maxOutDegree];
+		int[] w = new int[maxOutDegree];
+		long[] keys = new long[maxOutDegree];
+		Encoder best = new Encoder(64);
+		Encoder trial = new Encoder(64);
+		for (int i = 0; i < n; i++) {
+			final int d = g.getSuccessors(i, t, w);
+			// Sort targets with their weights
+			for (int k = 0; k < d; k++) {
+				keys[k] = ((long) t[k] << 32) | (w[k] & 0xffffffffL);
+			}
+			Arrays.sort(keys, 0, d);
+			int[] s = new int[d];
+			for (int k = 0; k < d; k++) {
+				s[k] = (int) (keys[k] >>> 32);
+				w[k] = (int) keys[k];
+				unitWeights &= w[k] == 1;
+			}
+			best.reset();
+			encode(best, i, s, null, 0);
+			int bestRef = 0;
+			for (int r = 1; r <= this.window && r <= i && d > 0; r++) {
+				if (chain[i - r] < this.maxChain) {
+					trial.reset();
+					encode(trial, i, s, recent[(i - r) % recent.length], r);
+					if (trial.size() < best.size()) {
+						Encoder tmp = best;
+						best = trial;
+						trial = tmp;
+						bestRef = r;
+					}
+				}
+			}
+			chain[i] = bestRef == 0 ? 0 : chain[i - bestRef] + 1;
+			recent[i % recent.length] = s;
+			offsets[i] = out.size();
+			out.write(best);
+			wo[i] = wout.size();
+			for (int k = 0; k < d; k++) {
+				wout.writeVarint(zigzag(w[k]));
+			}
+		}
+		data = out.toArray();
+		weightData = unitWeights ? null : wout.toArray();
+		weightOffsets = unitWeights ? null : wo;
+		final int depth = this.maxChain;
+		scratch = ThreadLocal.withInitial(() -> new int[depth][maxOutDegree]);
+	}
+
+	/**
+	 * Encode successors s of vertex i, referring to list ref at distance r if r
+	 * is greater than 0
+	 */
+	private void encode(Encoder out, int i, int[] s, int[] ref, int r) {
+		out.writeVarint(s.length);
+		int[] extra = s;
+		int extras = s.length;
+		if (window > 0) {
+			out.writeVarint(r);
+		}
+		if (r > 0) {
+			// Mark which targets of the reference list are copied, as alternating
+			// runs of copy and skip; the last run is implied
+			boolean[] copy = new boolean[ref.length];
+			extra = new int[s.length];
+			extras = 0;
+			int a = 0;
+			for (int b = 0; b < s.length; b++) {
+				while (a < ref.length && ref[a] < s[b]) {
+					a++;
+				}
+				if (a < ref.length && ref[a] == s[b]) {
+					copy[a++] = true;
+				} else {
+					extra[extras++] = s[b];
+				}
+			}
+			int[] runs = new int[ref.length + 1];
+			int nr = 0;
+			int len = 0;
+			boolean cur = true;
+			for (int k = 0; k < ref.length; k++) {
+				if (copy[k] != cur) {
+					runs[nr++] = len;
+					cur = !cur;
+					len = 0;
+				}
+				len++;
+			}
+			out.writeVarint(nr);
+			for (int k = 0; k < nr; k++) {
+				// Only the first run can be empty
+				out.writeVarint(k == 0 ? runs[k] : runs[k] - 1);
+			}
+		}
+		for (int k = 0; k < extras; k++) {
+			out.writeVarint(k == 0 ? zigzag(extra[0] - i) : extra[k] - extra[k - 1] - 1);
+		}
+	}
+
+	private static int zigzag(int v) {
+		return (v << 1) ^ (v >> 31);
+	}
+
+	private static int unzigzag(int v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	/**
+	 * Growable byte buffer with variable length integer encoding, 7 bits per byte
+	 */
+	private static class Encoder {
+		private byte[] buf;
+		private int size = 0;
+
+		Encoder(int capacity) {
+			buf = new byte[capacity];
+		}
+
+		void writeVarint(int v) {
+			if (size + 5 > buf.length) {
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + 5));
+			}
+			while ((v & ~0x7f) != 0) {
+				buf[size++] = (byte) ((v & 0x7f) | 0x80);
+				v >>>= 7;
+			}
+			buf[size++] = (byte) v;
+		}
+
+		void write(Encoder e) {
+			if (size + e.size > buf.length) {
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + e.size));
+			}
+			System.arraycopy(e.buf, 0, buf, size, e.size);
+			size += e.size;
+		}
+
+		int size() {
+			return size;
+		}
+
+		void reset() {
+			size = 0;
+		}
+
+		byte[] toArray() {
+			return Arrays.copyOf(buf, size);
+		}
+	}
+
+	/**
+	 * Variable length integer reader over a byte array
+	 */
+	private static class Decoder {
+		private final byte[] buf;
+		private int pos;
+
+		Decoder(byte[] buf, int pos) {
+			this.buf = buf;
+			this.pos = pos;
+		}
+
+		int readVarint() {
+			int ret = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = buf[pos++];
+				ret |= (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0);
+			return ret;
+		}
+	}
+
+	/**
+	 * Decode the successors of vertex i into out
+	 * 
+	 * @param depth reference chain depth, selects the scratch buffer
+	 * @return out-degree
+	 */
+	private int decode(int i, int[] out, int depth) {
+		Decoder in = new Decoder(data, offsets[i]);
+		final int d = in.readVarint();
+		final int r = window > 0 ? in.readVarint() : 0;
+		int copied = 0;
+		if (r > 0) {
+			int[] ref = scratch.get()[depth];
+			final int rd = decode(i - r, ref, depth + 1);
+			final int nr = in.readVarint();
+			int k = 0;
+			boolean copy = true;
+			for (int run = 0; run <= nr; run++) {
+				final int len = run == nr ? rd - k : (run == 0 ? in.readVarint() : in.readVarint() + 1);
+				if (copy) {
+					System.arraycopy(ref, k, ref, copied, len);
+					copied += len;
+				}
+				k += len;
+				copy = !copy;
+			}
+			// Extras are decoded to the front of out and merged from the back, so the
+			// write position never passes an extra not yet merged
+			decodeExtras(in, i, out, d - copied);
+			int a = copied - 1;
+			int b = d - copied - 1;
+			for (int p = d - 1; p >= 0; p--) {
+				if (b >= 0 && (a < 0 || out[b] > ref[a])) {
+					out[p] = out[b--];
+				} else {
+					out[p] = ref[a--];
+				}
+			}
+		} else {
+			decodeExtras(in, i, out, d);
+		}
+		return d;
+	}
+
+	private static void decodeExtras(Decoder in, int i, int[] out, int count) {
+		int prev = 0;
+		for (int k = 0; k < count; k++) {
+			prev = k == 0 ? i + unzigzag(in.readVarint()) : prev + in.readVarint() + 1;
+			out[k] = prev;
+		}
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getVertexCount()
+	 */
+	@Override
+	public int getVertexCount() {
+		return vertices.length;
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getEdgeCount()
+	 */
+	@Override
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getVertex(int)
+	 */
+	@Override
+	public Vertex getVertex(int i) {
+		return vertices[i];
+	}
+
+	/**
+	 * @see graph.IndexedGraph#indexOf(graph.Vertex)
+	 */
+	@Override
+	public int indexOf(Vertex v) {
+		Integer ret = index.get(v);
+		return ret == null ? -1 : ret;
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getOutDegree(int)
+	 */
+	@Override
+	public int getOutDegree(int i) {
+		return new Decoder(data, offsets[i]).readVarint();
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getMaxOutDegree()
+	 */
+	@Override
+	public int getMaxOutDegree() {
+		return maxOutDegree;
+	}
+
+	/**
+	 * Successors are returned sorted by dense target index
+	 * 
+	 * @see graph.IndexedGraph#getSuccessors(int, int[], int[])
+	 */
+	@Override
+	public int getSuccessors(int i, int[] targets, int[] weights) {
+		final int ret = decode(i, targets, 0);
+		if (weights != null) {
+			if (weightData == null) {
+				Arrays.fill(weights, 0, ret, 1);
+			} else {
+				Decoder in = new Decoder(weightData, weightOffsets[i]);
+				for (int k = 0; k < ret; k++) {
+					weights[k] = unzigzag(in.readVarint());
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the graph version this snapshot was taken from, -1 if built from a
+	 *         snapshot without version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the size of the encoded targets and weights in bytes
+	 */
+	public long getEncodedSize() {
+		return data.length + (weightData == null ? 0 : weightData.length);
+	}
+
+	/**
+	 * @return the average number of bits per edge for targets
+	 */
+	public double getBitsPerEdge() {
+		return edgeCount == 0 ? 0 : data.length * 8.0 / edgeCount;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": Vertices=" + getVertexCount() + " Edges=" + getEdgeCount()
+				+ " Bytes=" + getEncodedSize() + " Version=" + version;
+	}
+
+}
@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only compressed sparse row (CSR) snapshot of a graph. Vertices are given
+ * a dense index 0..n-1 in the order they were added to the graph, the out-edges
+ * of vertex i are the edge indexes getFirstEdge(i) until getFirstEdge(i + 1).
+ * Targets and weights are held in primitive arrays so that algorithms can scan
+ * them without touching Vertex or Edge objects.
+ * 
+ * The snapshot does not follow later changes to the graph, compare
+ * {@link #getVersion()} with {@link Graph#getVersion()} to detect that it is
+ * stale.
+ */
+public class CsrGraph implements IndexedGraph {
+
+	private final Vertex[] vertices;
+	private final Map<Vertex, Integer> index;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] weights;
+	private final Edge[] edges;
+	private final long version;
+	private int maxOutDegree = -1;
+	private LabelDictionary labelDictionary = null;
+	private volatile int[] labels = null;
+
+	/**
+	 * Custom constructor that takes a graph, the snapshot is taken while holding
+	 * the graph lock.
+	 * 
+	 * @param g graph
+	 */
+	public CsrGraph(Graph g) {
+		synchronized (g) {
+			List<Vertex> vl = g.getVertices();
+			List<Edge> el = g.getEdges();
+			final int n = vl.size();
+			vertices = vl.toArray(new Vertex[n]);
+			index = new HashMap<Vertex, Integer>(n * 2);
+			for (int i = 0; i < n; i++) {
+				index.put(vertices[i], i);
+			}
+			// Count out-degrees, then place edges with a prefix sum
+			int[] src = new int[el.size()];
+			int[] dst = new int[el.size()];
+			offsets = new int[n + 1];
+			int m = 0;
+			for (Edge e : el) {
+				Integer s = index.get(e.getV1());
+				Integer d = index.get(e.getV2());
+				if (s != null && d != null) {
+					src[m] = s;
+					dst[m] = d;
+					offsets[s + 1]++;
+					m++;
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				offsets[i + 1] += offsets[i];
+			}
+			targets = new int[m];
+			weights = new int[m];
+			edges = new Edge[m];
+			int[] pos = new int[n];
+			int k = 0;
+			for (Edge e : el) {
+				if (k < m && index.containsKey(e.getV1()) && index.containsKey(e.getV2())) {
+					final int s = src[k];
+					final int p = offsets[s] + pos[s]++;
+					targets[p] = dst[k];
+					weights[p] = e.getWeight();
+					edges[p] = e;
+					k++;
+				}
+			}
+			version = g.getVersion();
+		}
+	}
+
+	/**
+	 * Copy of a snapshot with one edge weight changed. Everything but the weights
+	 * is shared with the original.
+	 */
+	private CsrGraph(CsrGraph base, int e, int weight, long version) {
+		vertices = base.vertices;
+		index = base.index;
+		offsets = base.offsets;
+		targets = base.targets;
+		weights = base.weights.clone();
+		weights[e] = weight;
+		edges = base.edges;
+		// Labels first, a built label column publishes its dictionary
+		labels = base.labels;
+		labelDictionary = base.labelDictionary;
+		maxOutDegree = base.maxOutDegree;
+		this.version = version;
+	}
+
+	/**
+	 * @param e       edge index
+	 * @param weight  new weight of the edge
+	 * @param version graph version after the change
+	 * @return a snapshot of the graph after the weight change
+	 */
+	CsrGraph withWeight(int e, int weight, long version) {
+		return new CsrGraph(this, e, weight, version);
+	}
+
+	/**
+	 * @param s source vertex index
+	 * @param t target vertex index
+	 * @return the index of the edge from s to t, -1 if there is none
+	 */
+	int findEdge(int s, int t) {
+		int ret = -1;
+		for (int e = offsets[s]; e < offsets[s + 1] && ret < 0; e++) {
+			if (targets[e] == t) {
+				ret = e;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the number of vertices
+	 */
+	@Override
+	public int getVertexCount() {
+		return vertices.length;
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	@Override
+	public int getEdgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * @param i dense vertex index
+	 * @return the vertex
+	 */
+	@Override
+	public Vertex getVertex(int i) {
+		return vertices[i];
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the dense index of the vertex, -1 if vertex is not in snapshot
+	 */
+	@Override
+	public int indexOf(Vertex v) {
+		Integer ret = index.get(v);
+		return ret == null ? -1 : ret;
+	}
+
+	/**
+	 * @param i dense vertex index, 0..n (n gives the end of the last vertex)
+	 * @return the index of the first out-edge of vertex i
+	 */
+	public int getFirstEdge(int i) {
+		return offsets[i];
+	}
+
+	/**
+	 * @param i dense vertex index
+	 * @return the number of out-edges of vertex i
+	 */
+	@Override
+	public int getOutDegree(int i) {
+		return offsets[i + 1] - offsets[i];
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getMaxOutDegree()
+	 */
+	@Override
+	public synchronized int getMaxOutDegree() {
+		if (maxOutDegree < 0) {
+			int max = 0;
+			for (int i = 0; i < vertices.length; i++) {
+				max = Math.max(max, offsets[i + 1] - offsets[i]);
+			}
+			maxOutDegree = max;
+		}
+		return maxOutDegree;
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getSuccessors(int, int[], int[])
+	 */
+	@Override
+	public int getSuccessors(int i, int[] targets, int[] weights) {
+		final int first = offsets[i];
+		final int ret = offsets[i + 1] - first;
+		System.arraycopy(this.targets, first, targets, 0, ret);
+		if (weights != null) {
+			System.arraycopy(this.weights, first, weights, 0, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * @param e edge index
+	 * @return the dense index of the edge target vertex
+	 */
+	public int getTarget(int e) {
+		return targets[e];
+	}
+
+	/**
+	 * @param e edge index
+	 * @return the edge weight at the time of the snapshot
+	 */
+	public int getWeight(int e) {
+		return weights[e];
+	}
+
+	/**
+	 * Label of edge e as an id of the {@link #getLabelDictionary()} of this
+	 * snapshot, so label filters compare ints instead of strings. The label
+	 * column is built on the first call from the labels the edges have at that
+	 * time.
+	 * 
+	 * @param e edge index
+	 * @return the label id, -1 for the default label
+	 */
+	public int getLabelId(int e) {
+		int[] ll = labels;
+		if (ll == null) {
+			ll = buildLabels();
+		}
+		return ll[e];
+	}
+
+	/**
+	 * @return the dictionary of the label ids of this snapshot
+	 */
+	public LabelDictionary getLabelDictionary() {
+		buildLabels();
+		return labelDictionary;
+	}
+
+	private synchronized int[] buildLabels() {
+		if (labels == null) {
+			LabelDictionary ld = new LabelDictionary();
+			int[] ll = new int[edges.length];
+			for (int e = 0; e < ll.length; e++) {
+				ll[e] = edges[e].hasDefaultLabel() ? -1 : ld.getId(edges[e].getLabel());
+			}
+			labelDictionary = ld;
+			labels = ll;
+		}
+		return labels;
+	}
+
+	/**
+	 * @param e edge index
+	 * @return the edge
+	 */
+	public Edge getEdge(int e) {
+		return edges[e];
+	}
+
+	/**
+	 * @return the graph version this snapshot was taken from
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Create the transpose of this snapshot, where every edge is reversed. The
+	 * edges of the transpose refer to the original {@link Edge} objects, their
+	 * target is the original source vertex.
+	 * 
+	 * @return transposed snapshot
+	 */
+	public CsrGraph transpose() {
+		return new CsrGraph(this);
+	}
+
+	private CsrGraph(CsrGraph g) {
+		final int n = g.vertices.length;
+		final int m = g.targets.length;
+		vertices = g.vertices;
+		index = g.index;
+		version = g.version;
+		offsets = new int[n + 1];
+		targets = new int[m];
+		weights = new int[m];
+		edges = new Edge[m];
+		for (int e = 0; e < m; e++) {
+			offsets[g.targets[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] pos = new int[n];
+		for (int s = 0; s < n; s++) {
+			for (int e = g.offsets[s]; e < g.offsets[s + 1]; e++) {
+				final int d = g.targets[e];
+				final int p = offsets[d] + pos[d]++;
+				targets[p] = s;
+				weights[p] = g.weights[e];
+				edges[p] = g.edges[e];
+			}
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + ": Vertices=" + getVertexCount() + " Edges=" + getEdgeCount()
+				+ " Version=" + version;
+	}
+
+}
@@ -11,9 +11,12 @@ package graph;
 
 import java.util.Objects;
 
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 
 @XmlRootElement(name = "edge")
 @XmlAccessorType(XmlAccessType.FIELD)
@@ -21,13 +24,18 @@ import jakarta.xml.bind.annotation.XmlRootElement;
 /**
  * Graph library class to represent an edge, all edges need two vertices. Edges
  * could have weights and/or labels, both of these are optional.
+ * 
+ * The default label vertex1 to vertex2 is not stored at all but built when
+ * asked for.
  */
 public class Edge {
 
 	private final Vertex v1, v2;
 
 	private int weight = 1;
-	private String label = "";
+	// null for the default label, XML has the label in full, see getXmlLabel
+	@XmlTransient
+	private String label = null;
 
 	@SuppressWarnings("unused")
 	private Edge() {
@@ -45,7 +53,6 @@ public class Edge {
 	public Edge(Vertex vertex1, Vertex vertex2) {
 		v1 = vertex1;
 		v2 = vertex2;
-		label = v1.getVname() + "->" + v2.getVname();
 	}
 
 	/**
@@ -54,13 +61,13 @@ public class Edge {
 	 * @param vertex1 vertex1
 	 * @param vertex2 vertex2
 	 * @param weight  weight assigned to this edge (default 1)
-	 * @param label   label string for this edge
+	 * @param label   label string for this edge, null for the default label
 	 */
 	public Edge(Vertex vertex1, Vertex vertex2, int weight, String label) {
 		v1 = vertex1;
 		v2 = vertex2;
 		this.weight = weight;
-		this.label = label;
+		assignLabel(label);
 	}
 
 	/**
@@ -85,6 +92,10 @@ public class Edge {
 	}
 
 	/**
+	 * Set the weight. For an edge of a graph use
+	 * {@link Graph#updateWeight(Edge, int)}, changing the weight directly is not
+	 * supported and leaves the path caches of the graph out of date.
+	 * 
 	 * @param weight the weight to set
 	 */
 	public void setWeight(int weight) {
@@ -95,16 +106,57 @@ public class Edge {
 	 * @return the label
 	 */
 	public String getLabel() {
-		return label;
+		return label == null ? v1.getVname() + "->" + v2.getVname() : label;
 	}
 
 	/**
-	 * @param label the label to set
+	 * Set the label. For an edge of a graph use
+	 * {@link Graph#setEdgeLabel(Edge, String)}, changing the label directly is not
+	 * supported once the graph has a label index and leaves it out of date.
+	 * 
+	 * @param label the label to set, null for the default label
 	 */
 	public void setLabel(String label) {
+		assignLabel(label);
+	}
+
+	private void assignLabel(String label) {
+		this.label = label == null || isDefaultLabel(label) ? null : label;
+	}
+
+	@SuppressWarnings("unused")
+	@XmlElement(name = "label")
+	private String getXmlLabel() {
+		return getLabel();
+	}
+
+	@SuppressWarnings("unused")
+	private void setXmlLabel(String label) {
+		// Vertices may not be read yet, see afterUnmarshal
 		this.label = label;
 	}
 
+	@SuppressWarnings("unused")
+	private void afterUnmarshal(Unmarshaller u, Object parent) {
+		if (label != null) {
+			assignLabel(label);
+		}
+	}
+
+	/**
+	 * @return true if the label is the default label vertex1 to vertex2
+	 */
+	public boolean hasDefaultLabel() {
+		return label == null;
+	}
+
+	private boolean isDefaultLabel(String l) {
+		final String n1 = v1.getVname();
+		final String n2 = v2.getVname();
+		return l.length() == n1.length() + 2 + n2.length() && l.startsWith(n1) && l.startsWith("->", n1.length())
+				&& l.endsWith(n2);
+	}
+
 	/**
 	 * @see java.lang.Object#equals(java.lang.Object)
 	 */
@@ -131,7 +183,7 @@ public class Edge {
 	 */
 	@Override
 	public String toString() {
-		return "(" + v1 + " -> " + v2 + ") Label='" + label + "' Weight=" + weight;
+		return "(" + v1 + " -> " + v2 + ") Label='" + getLabel() + "' Weight=" + weight;
 	}
 
 }
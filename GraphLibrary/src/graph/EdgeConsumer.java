@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+/**
+ * Callback for edges visited by {@link Graph#forEachOutEdge(Vertex, EdgeConsumer)}
+ * and {@link Graph#forEachEdge(EdgeConsumer)}
+ */
+@FunctionalInterface
+public interface EdgeConsumer {
+
+	/**
+	 * @param e edge
+	 */
+	void accept(Edge e);
+
+}
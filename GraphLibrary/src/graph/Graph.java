@@ -14,8 +14,15 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
@@ -26,10 +33,14 @@ import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 import javax.xml.namespace.QName;
 
+import graph.algorithm.ReachabilityIndex;
+import graph.error.CycleDetectedException;
 import graph.error.EdgeAlreadyExistsException;
 import graph.error.EdgeDoesNotExistException;
+import graph.error.QueryAbortedException;
 import graph.error.VertexAlreadyExistsException;
 import graph.error.VertexDoesNotExistException;
 
@@ -41,11 +52,36 @@ import graph.error.VertexDoesNotExistException;
  * direction is from vertex v1 to vertex v2.
  */
 public class Graph {
+	// Added edges the reachability index answers around before it is rebuilt
+	private static final int REACHABILITY_PENDING_LIMIT = 64;
+	// Events kept for change feed readers
+	private static final int CHANGE_FEED_CAPACITY = 4096;
+	// Shortest path trees kept, least recently used are dropped
+	private static final int SHORTEST_PATH_TREE_LIMIT = 16;
+
 	@XmlElement(name = "vertex")
 	private final List<Vertex> vertices;
 	@XmlElement(name = "edge")
 	private final List<Edge> edges;
 	private List<Path> paths = null;
+	@XmlTransient
+	private long version = 0;
+	@XmlTransient
+	private TopologicalOrder topological = null;
+	@XmlTransient
+	private GraphIndex index = null;
+	@XmlTransient
+	private ReachabilityIndex reachability = null;
+	@XmlTransient
+	private Map<Vertex, Integer> reachabilityNodes = null;
+	@XmlTransient
+	private PropertyStore<Vertex> vertexProperties = null;
+	@XmlTransient
+	private PropertyStore<Edge> edgeProperties = null;
+	@XmlTransient
+	private ChangeFeed changes = null;
+	@XmlTransient
+	private Map<Vertex, ShortestPathTree> trees = null;
 
 	/**
 	 * Default constructor
@@ -82,17 +118,332 @@ public class Graph {
 
 	private synchronized void resetPaths() {
 		paths = null;
+		version++;
+	}
+
+	/**
+	 * Version of the graph, incremented on every change to vertices or edges.
+	 * Snapshots and caches built from the graph record the version they were
+	 * built from to detect that they are stale.
+	 * 
+	 * @return the version
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Change data capture feed of the graph, created on first use. Every later
+	 * change to vertices, edges, edge weights and edge labels made through the
+	 * graph is published on it. Readers open a cursor while holding the graph
+	 * lock to start from a consistent state, see {@link graph.stream.ChangeReplica}.
+	 * 
+	 * @return the change feed
+	 */
+	public synchronized ChangeFeed getChangeFeed() {
+		if (changes == null) {
+			changes = new ChangeFeed(CHANGE_FEED_CAPACITY);
+		}
+		return changes;
+	}
+
+	private synchronized GraphIndex getIndex() {
+		if (index == null) {
+			index = new GraphIndex(vertices, edges);
+		}
+		return index;
+	}
+
+	private synchronized ReachabilityIndex getReachability() {
+		if (reachability == null || reachability.getPendingEdges() > REACHABILITY_PENDING_LIMIT) {
+			CsrGraph csr = getTopological().getCsr();
+			reachability = new ReachabilityIndex(csr);
+			reachabilityNodes = new HashMap<Vertex, Integer>(csr.getVertexCount() * 2);
+			for (int i = 0; i < csr.getVertexCount(); i++) {
+				reachabilityNodes.put(csr.getVertex(i), i);
+			}
+		}
+		return reachability;
+	}
+
+	/**
+	 * Check if there is a path from vertex v1 to v2 using a reachability index
+	 * that is built on first use and updated in place when edges or vertices are
+	 * added. Removals rebuild it on the next query.
+	 * 
+	 * @param v1 starting vertex
+	 * @param v2 ending vertex
+	 * @return true if v2 can be reached from v1, every vertex reaches itself
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public synchronized boolean isReachable(Vertex v1, Vertex v2) throws VertexDoesNotExistException {
+		validateVertexInGraph(v1);
+		validateVertexInGraph(v2);
+		ReachabilityIndex ri = getReachability();
+		return ri.isReachable(reachabilityNodes.get(v1), reachabilityNodes.get(v2));
+	}
+
+	/**
+	 * Find a vertex by name using a hash index that is built on first use and
+	 * kept up to date by every change to the graph
+	 * 
+	 * @param name vertex name
+	 * @return the vertex, the first added if several have the name, null if there
+	 *         is none
+	 */
+	public synchronized Vertex findVertexByName(String name) {
+		return getIndex().getVertex(name);
+	}
+
+	/**
+	 * @param name vertex name
+	 * @return all vertices with the name, in the order they were added
+	 */
+	public synchronized List<Vertex> findVerticesByName(String name) {
+		return getIndex().getVertices(name);
+	}
+
+	/**
+	 * Find vertices with names in a range using a sorted index that is built on
+	 * first use
+	 * 
+	 * @param from smallest name (inclusive)
+	 * @param to   largest name (exclusive), null for no limit
+	 * @return vertices ordered by name
+	 */
+	public synchronized List<Vertex> findVerticesByNameRange(String from, String to) {
+		return getIndex().getVertices(from, to);
+	}
+
+	/**
+	 * @param prefix name prefix
+	 * @return vertices with names starting with prefix, ordered by name
+	 */
+	public synchronized List<Vertex> findVerticesByNamePrefix(String prefix) {
+		return getIndex().getVertices(prefix, GraphIndex.prefixEnd(prefix));
+	}
+
+	/**
+	 * Find edges by label using a hash index that is built on first use and kept
+	 * up to date by every change to the graph. Edges with the default label are
+	 * found by their vertex1 to vertex2 label.
+	 * 
+	 * @param label edge label
+	 * @return edges with the label, in the order they were added
+	 */
+	public synchronized List<Edge> findEdgesByLabel(String label) {
+		return getIndex().getEdges(label);
+	}
+
+	/**
+	 * Find edges with labels in a range using a sorted index that is built on
+	 * first use
+	 * 
+	 * @param from smallest label (inclusive)
+	 * @param to   largest label (exclusive), null for no limit
+	 * @return edges ordered by label
+	 */
+	public synchronized List<Edge> findEdgesByLabelRange(String from, String to) {
+		return getIndex().getEdges(from, to);
+	}
+
+	/**
+	 * @param prefix label prefix
+	 * @return edges with labels starting with prefix, ordered by label
+	 */
+	public synchronized List<Edge> findEdgesByLabelPrefix(String prefix) {
+		return getIndex().getEdges(prefix, GraphIndex.prefixEnd(prefix));
+	}
+
+	/**
+	 * Change the label of an edge of the graph and update the label index in
+	 * place. Relabelling an edge of the graph with {@link Edge#setLabel(String)}
+	 * is not supported, the label index would miss the change.
+	 * 
+	 * @param e     edge
+	 * @param label the label to set, null for the default label
+	 * @throws EdgeDoesNotExistException error if edge does not exist
+	 */
+	public synchronized void setEdgeLabel(Edge e, String label) throws EdgeDoesNotExistException {
+		validateEdgeInGraph(e);
+		Edge ge = edges.get(edges.indexOf(e));
+		final String old = ge.getLabel();
+		ge.setLabel(label);
+		if (index != null) {
+			index.relabelEdge(ge, old);
+		}
+		if (changes != null) {
+			changes.publish(ChangeEvent.Type.LABEL_CHANGED, ge);
+		}
+		version++;
+	}
+
+	/**
+	 * Change the weight of an edge of the graph and bump the version. Instead of
+	 * dropping everything built from the old weights, the graph snapshot is
+	 * patched, cached path lengths are adjusted and the kept shortest path trees
+	 * are repaired in place, see {@link #getShortestPathTree(Vertex)}. Changing
+	 * the weight of an edge of the graph with {@link Edge#setWeight(int)} is not
+	 * supported, the caches would miss the change.
+	 * 
+	 * @param e      edge
+	 * @param weight the weight to set
+	 * @throws EdgeDoesNotExistException error if edge does not exist
+	 */
+	public synchronized void updateWeight(Edge e, int weight) throws EdgeDoesNotExistException {
+		validateEdgeInGraph(e);
+		Edge ge = edges.get(edges.indexOf(e));
+		final int old = ge.getWeight();
+		if (old != weight) {
+			ge.setWeight(weight);
+			version++;
+			repairWeight(ge, old);
+			if (changes != null) {
+				changes.publish(ChangeEvent.Type.WEIGHT_CHANGED, ge);
+			}
+		}
+	}
+
+	/**
+	 * Bring the caches built from the weights up to date with one changed edge,
+	 * the version is already bumped
+	 */
+	private synchronized void repairWeight(Edge ge, int old) {
+		final int delta = ge.getWeight() - old;
+		// Paths of length 0 or less are not kept, so lengths can only be adjusted
+		// while every weight stays positive
+		final boolean positive = old > 0 && ge.getWeight() > 0 && topological != null
+				&& topological.getCsr().getVersion() == version - 1 && topological.hasPositiveWeights();
+		if (paths != null && !positive) {
+			paths = null;
+		} else if (paths != null) {
+			List<Path> pl = new ArrayList<Path>(paths.size());
+			for (Path p : paths) {
+				pl.add(p.getEdges().contains(ge) ? p.reweigh(delta) : p);
+			}
+			paths = pl;
+		}
+		if (topological != null && topological.getCsr().getVersion() == version - 1) {
+			CsrGraph csr = topological.getCsr();
+			final int e = csr.findEdge(csr.indexOf(ge.getV1()), csr.indexOf(ge.getV2()));
+			CsrGraph next = csr.withWeight(e, ge.getWeight(), version);
+			topological = new TopologicalOrder(topological, next, e);
+			if (trees != null && ge.getWeight() >= 0) {
+				Iterator<ShortestPathTree> it = trees.values().iterator();
+				while (it.hasNext()) {
+					ShortestPathTree spt = it.next();
+					if (spt.getVersion() == version - 1) {
+						spt.repair(next, e, old);
+					} else {
+						it.remove();
+					}
+				}
+			} else {
+				trees = null;
+			}
+		} else {
+			topological = null;
+			trees = null;
+		}
+	}
+
+	/**
+	 * Shortest path tree from a source vertex, kept by the graph and repaired in
+	 * place by {@link #updateWeight(Edge, int)} instead of being rebuilt. Adding
+	 * or removing vertices or edges makes kept trees stale, a new tree is then
+	 * built on the next call. Only a limited number of trees is kept.
+	 * 
+	 * @param source source vertex
+	 * @return the tree
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws IllegalArgumentException    error if an edge weight is negative
+	 */
+	public synchronized ShortestPathTree getShortestPathTree(Vertex source) throws VertexDoesNotExistException {
+		validateVertexInGraph(source);
+		CsrGraph csr = getTopological().getCsr();
+		if (trees == null) {
+			trees = new LinkedHashMap<Vertex, ShortestPathTree>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Vertex, ShortestPathTree> eldest) {
+					return size() > SHORTEST_PATH_TREE_LIMIT;
+				}
+			};
+		}
+		ShortestPathTree ret = trees.get(source);
+		if (ret == null || ret.getVersion() != version) {
+			ret = new ShortestPathTree(this, csr, csr.indexOf(source));
+			trees.put(source, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Typed vertex properties, kept in columns outside the vertex objects.
+	 * Properties of a vertex are dropped when it is removed.
+	 * 
+	 * @return the vertex property store
+	 */
+	public synchronized PropertyStore<Vertex> getVertexProperties() {
+		if (vertexProperties == null) {
+			vertexProperties = new PropertyStore<Vertex>();
+		}
+		return vertexProperties;
+	}
+
+	/**
+	 * Typed edge properties, kept in columns outside the edge objects.
+	 * Properties of an edge are dropped when it is removed.
+	 * 
+	 * @return the edge property store
+	 */
+	public synchronized PropertyStore<Edge> getEdgeProperties() {
+		if (edgeProperties == null) {
+			edgeProperties = new PropertyStore<Edge>();
+		}
+		return edgeProperties;
+	}
+
+	private synchronized TopologicalOrder getTopological() {
+		if (topological == null || topological.getCsr().getVersion() != version) {
+			topological = new TopologicalOrder(new CsrGraph(this));
+		}
+		return topological;
+	}
+
+	/**
+	 * Orders the vertices so that every edge goes from an earlier to a later
+	 * vertex (Kahn's algorithm, O(V + E)). The order is cached until the graph
+	 * changes.
+	 * 
+	 * @return vertices in topological order
+	 * @throws CycleDetectedException error if graph has a cycle, the exception
+	 *                                carries one cycle
+	 */
+	public synchronized List<Vertex> topologicalOrder() throws CycleDetectedException {
+		return getTopological().getOrder();
+	}
+
+	/**
+	 * @return true if graph has no cycle (directed acyclic graph)
+	 */
+	public synchronized boolean isAcyclic() {
+		return getTopological().isAcyclic();
 	}
 
-	private synchronized void buildPaths() {
+	private synchronized void buildPaths(List<Path> pl, QueryBudget qb) {
 		for (Vertex v : vertices) {
 			List<Vertex> processedVL = new ArrayList<Vertex>();
-			buildPathForVertex(v, processedVL);
+			buildPathForVertex(v, processedVL, pl, qb);
+			if (qb.isExhausted()) {
+				break;
+			}
 		}
 	}
 
-	private synchronized void buildPathForVertex(Vertex v, List<Vertex> processedVL) {
-		if (!processedVL.contains(v)) {
+	private synchronized void buildPathForVertex(Vertex v, List<Vertex> processedVL, List<Path> pl, QueryBudget qb) {
+		if (!processedVL.contains(v) && qb.visit()) {
 			processedVL.add(v);
 			List<Edge> vel = findEdgesForValidVertex(v);
 			for (Edge e : vel) {
@@ -100,26 +451,32 @@ public class Graph {
 				final Vertex ev2 = e.getV2();
 				boolean newEdge = true;
 				ArrayList<Path> ap = new ArrayList<Path>();
-				for (Path p : paths) {
+				for (Path p : pl) {
 					final Vertex pStart = p.getStart();
 					final Vertex pEnd = p.getEnd();
 					if (pStart.equals(ev1) && p.getEnd().equals(ev2)) {
 						newEdge = false;
 					} else if (pEnd.equals(ev1)) {
 						Path np = new Path(p, e);
-						if (np.isValid() && !paths.contains(np)) {
+						if (np.isValid() && !pl.contains(np)) {
+							if (!qb.produce()) {
+								break;
+							}
 							ap.add(np);
 						}
 					}
 				}
-				paths.addAll(ap);
-				if (newEdge) {
+				pl.addAll(ap);
+				if (newEdge && !qb.isExhausted()) {
 					Path np = new Path(e);
-					if (np.isValid()) {
-						paths.add(np);
+					if (np.isValid() && qb.produce()) {
+						pl.add(np);
 					}
 				}
-				buildPathForVertex(ev2, processedVL);
+				if (qb.isExhausted()) {
+					break;
+				}
+				buildPathForVertex(ev2, processedVL, pl, qb);
 			}
 		}
 	}
@@ -130,11 +487,36 @@ public class Graph {
 	 * @return all the paths
 	 */
 	public synchronized List<Path> getPaths() {
-		if (paths == null) {
-			paths = new ArrayList<Path>();
-			buildPaths();
+		return getPaths(new QueryBudget(null));
+	}
+
+	/**
+	 * This method finds all the paths in graph within a query budget. Only a
+	 * complete result is cached, a partial result is returned but not kept.
+	 * 
+	 * @param options query budget, null for no limits
+	 * @return all the paths, or the paths found before the budget was exhausted
+	 *         if partial results are allowed
+	 * @throws QueryAbortedException error if budget was exhausted and partial
+	 *                               results are not allowed
+	 */
+	public synchronized List<Path> getPaths(QueryOptions options) throws QueryAbortedException {
+		QueryBudget qb = new QueryBudget(options);
+		List<Path> ret = getPaths(qb);
+		qb.complete();
+		return ret;
+	}
+
+	private synchronized List<Path> getPaths(QueryBudget qb) {
+		List<Path> ret = paths;
+		if (ret == null) {
+			ret = new ArrayList<Path>();
+			buildPaths(ret, qb);
+			if (!qb.isExhausted()) {
+				paths = ret;
+			}
 		}
-		return paths;
+		return ret;
 	}
 
 	/**
@@ -175,6 +557,21 @@ public class Graph {
 				}
 			}
 			vertices.add(v);
+			if (index != null) {
+				index.addVertex(v);
+			}
+			if (reachability != null) {
+				reachabilityNodes.put(v, reachability.getNodes());
+				if (!reachability.addNode()) {
+					// Rebuilt on the next query, in interval mode past the limit
+					reachability = null;
+					reachabilityNodes = null;
+				}
+			}
+			if (changes != null) {
+				changes.publish(ChangeEvent.Type.VERTEX_ADDED, v);
+			}
+			version++;
 		}
 	}
 
@@ -193,7 +590,21 @@ public class Graph {
 				System.out.println("WARNING: Unable to remove edge that does not exist:\n" + ex.getMessage());
 			}
 		}
-		vertices.remove(v);
+		final int k = vertices.indexOf(v);
+		if (k >= 0) {
+			Vertex rv = vertices.remove(k);
+			if (index != null) {
+				index.removeVertex(rv);
+			}
+			if (changes != null) {
+				changes.publish(ChangeEvent.Type.VERTEX_REMOVED, rv);
+			}
+		}
+		if (vertexProperties != null) {
+			vertexProperties.remove(v);
+		}
+		reachability = null;
+		reachabilityNodes = null;
 		resetPaths();
 	}
 
@@ -204,7 +615,7 @@ public class Graph {
 	 * @return list of edges with v1 equal to v
 	 * @throws VertexDoesNotExistException error if vertex does not exist
 	 */
-	public List<Edge> findEdgesForVertex(Vertex v) throws VertexDoesNotExistException {
+	public synchronized List<Edge> findEdgesForVertex(Vertex v) throws VertexDoesNotExistException {
 		validateVertexInGraph(v);
 		return findEdgesForValidVertex(v);
 	}
@@ -226,6 +637,55 @@ public class Graph {
 		return ret;
 	}
 
+	/**
+	 * Visit the edges that have vertex v as edge vertex v1, without creating a
+	 * list. Edges are read from a snapshot of the graph that is kept until the
+	 * graph changes, so repeated calls take time proportional to the out-degree
+	 * and allocate nothing. The consumer is called while holding the graph lock
+	 * and must not change the graph.
+	 * 
+	 * @param v        vertex
+	 * @param consumer called once for every out-edge of v
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public synchronized void forEachOutEdge(Vertex v, EdgeConsumer consumer) throws VertexDoesNotExistException {
+		CsrGraph csr = getTopological().getCsr();
+		final int i = v == null ? -1 : csr.indexOf(v);
+		if (i < 0) {
+			throw new VertexDoesNotExistException(v);
+		}
+		for (int e = csr.getFirstEdge(i); e < csr.getFirstEdge(i + 1); e++) {
+			consumer.accept(csr.getEdge(e));
+		}
+	}
+
+	/**
+	 * Visit all edges in the order they were added to the graph, without
+	 * creating a list. The consumer is called while holding the graph lock and
+	 * must not change the graph.
+	 * 
+	 * @param consumer called once for every edge
+	 */
+	public synchronized void forEachEdge(EdgeConsumer consumer) {
+		for (Edge e : getEdges()) {
+			consumer.accept(e);
+		}
+	}
+
+	/**
+	 * Lazy filtered view of the graph, built on a snapshot that is kept until the
+	 * graph changes. No vertices or edges are copied, edges are filtered when an
+	 * algorithm visits them. The view does not follow later changes, use
+	 * {@link SubgraphView#refresh()} to apply the filters to the current graph.
+	 * 
+	 * @param vertexFilter vertices in the view, null for all
+	 * @param edgeFilter   edges in the view, null for all
+	 * @return the view
+	 */
+	public synchronized SubgraphView subgraph(Predicate<Vertex> vertexFilter, Predicate<Edge> edgeFilter) {
+		return new SubgraphView(this, getTopological().getCsr(), vertexFilter, edgeFilter);
+	}
+
 	/**
 	 * Find a list of edges that have vertex v as edge vertex v1 or v2
 	 * 
@@ -270,6 +730,15 @@ public class Graph {
 				throw new EdgeAlreadyExistsException(e);
 			}
 			edges.add(e);
+			if (index != null) {
+				index.addEdge(e);
+			}
+			if (reachability != null) {
+				reachability.addEdge(reachabilityNodes.get(e.getV1()), reachabilityNodes.get(e.getV2()));
+			}
+			if (changes != null) {
+				changes.publish(ChangeEvent.Type.EDGE_ADDED, e);
+			}
 			resetPaths();
 		}
 	}
@@ -282,20 +751,69 @@ public class Graph {
 	 */
 	public synchronized void removeEdge(Edge e) throws EdgeDoesNotExistException {
 		validateEdgeInGraph(e);
-		edges.remove(e);
+		Edge re = edges.remove(edges.indexOf(e));
+		if (index != null) {
+			index.removeEdge(re);
+		}
+		if (edgeProperties != null) {
+			edgeProperties.remove(e);
+		}
+		if (changes != null) {
+			changes.publish(ChangeEvent.Type.EDGE_REMOVED, re);
+		}
+		reachability = null;
+		reachabilityNodes = null;
 		resetPaths();
 	}
 
 	/**
 	 * Find a list of vertices in graph that are connected. A connected vertex is
-	 * one that has a path to all other vertices in the graph.
+	 * one that has a path to all other vertices in the graph. Answered from the
+	 * reachability index, see {@link #isReachable(Vertex, Vertex)}.
 	 * 
 	 * @return list of connected vertices
 	 */
-	public List<Vertex> getConnectedVertices() {
+	public synchronized List<Vertex> getConnectedVertices() {
+		ArrayList<Vertex> ret = new ArrayList<Vertex>();
+		if (vertices.size() > 1) {
+			if (reachability != null && reachability.getPendingEdges() > 0) {
+				// Rebuilt so that the root of the condensation answers for every vertex
+				reachability = null;
+			}
+			ReachabilityIndex ri = getReachability();
+			for (Vertex cv : vertices) {
+				if (ri.reachesAll(reachabilityNodes.get(cv))) {
+					ret.add(cv);
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Find a list of vertices in graph that are connected within a query budget.
+	 * Partial results may be missing connected vertices but never contain a
+	 * vertex that is not connected.
+	 * 
+	 * @param options query budget, null for no limits
+	 * @return list of connected vertices
+	 * @throws QueryAbortedException error if budget was exhausted and partial
+	 *                               results are not allowed
+	 */
+	public synchronized List<Vertex> getConnectedVertices(QueryOptions options) throws QueryAbortedException {
+		QueryBudget qb = new QueryBudget(options);
+		List<Vertex> ret = findConnectedVertices(getPaths(qb), qb);
+		qb.complete();
+		return ret;
+	}
+
+	private List<Vertex> findConnectedVertices(List<Path> cgpl, QueryBudget qb) {
 		ArrayList<Vertex> ret = new ArrayList<Vertex>();
 		List<Vertex> vl = getVertices();
 		for (Vertex cv : vl) {
+			if (!qb.visit()) {
+				break;
+			}
 			ArrayList<Vertex> ovl = new ArrayList<Vertex>();
 			ovl.addAll(vl);
 			ovl.remove(cv);
@@ -304,7 +822,7 @@ public class Graph {
 				ivc = false;
 			} else {
 				for (Vertex cve : ovl) {
-					List<Path> cvepl = findPaths(cv, cve);
+					List<Path> cvepl = findPaths(cgpl, cv, cve);
 					if (cvepl.isEmpty()) {
 						ivc = false;
 						break;
@@ -318,9 +836,8 @@ public class Graph {
 		return ret;
 	}
 
-	private List<Path> findPaths(Vertex cv, Vertex cve) {
+	private List<Path> findPaths(List<Path> cgpl, Vertex cv, Vertex cve) {
 		List<Path> ret = new ArrayList<Path>();
-		List<Path> cgpl = getPaths();
 		for (Path cp : cgpl) {
 			if (cp.getStart().equals(cv) && cp.getEnd().equals(cve)) {
 				ret.add(cp);
@@ -335,10 +852,22 @@ public class Graph {
 	 * 
 	 * @return percentage connectivity
 	 */
-	public int calculateConnectivity() {
+	public synchronized int calculateConnectivity() {
 		return (getConnectedVertices().size() * 100) / getVertices().size();
 	}
 
+	/**
+	 * Calculates the percentage connectivity of graph within a query budget
+	 * 
+	 * @param options query budget, null for no limits
+	 * @return percentage connectivity
+	 * @throws QueryAbortedException error if budget was exhausted and partial
+	 *                               results are not allowed
+	 */
+	public synchronized int calculateConnectivity(QueryOptions options) throws QueryAbortedException {
+		return (getConnectedVertices(options).size() * 100) / getVertices().size();
+	}
+
 	/**
 	 * Finds the shortest path between vertex v1 and v2
 	 * 
@@ -348,10 +877,133 @@ public class Graph {
 	 * @throws VertexDoesNotExistException error if vertex does not exist
 	 */
 	public Path findShortestPath(Vertex v1, Vertex v2) throws VertexDoesNotExistException {
-		Path ret = null;
 		validateVertexInGraph(v1);
 		validateVertexInGraph(v2);
-		List<Path> cgpvl = findPaths(v1, v2);
+		Path ret;
+		TopologicalOrder to = getShortestPathOrder();
+		if (to != null) {
+			ret = to.findPath(v1, v2, false);
+		} else {
+			ret = findShortestPath(getPaths(), v1, v2);
+		}
+		return ret;
+	}
+
+	/**
+	 * Finds the shortest path between vertex v1 and v2 within a query budget. A
+	 * partial result is the shortest of the paths found before the budget was
+	 * exhausted.
+	 * 
+	 * @param v1      starting vertex
+	 * @param v2      ending vertex
+	 * @param options query budget, null for no limits
+	 * @return shortest path between v1 and v2
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws QueryAbortedException       error if budget was exhausted and
+	 *                                     partial results are not allowed
+	 */
+	public Path findShortestPath(Vertex v1, Vertex v2, QueryOptions options)
+			throws VertexDoesNotExistException, QueryAbortedException {
+		validateVertexInGraph(v1);
+		validateVertexInGraph(v2);
+		Path ret;
+		TopologicalOrder to = getShortestPathOrder();
+		if (to != null) {
+			ret = to.findPath(v1, v2, false);
+		} else {
+			ret = findShortestPath(getPaths(options), v1, v2);
+		}
+		return ret;
+	}
+
+	/**
+	 * Finds the shortest paths for many pairs of vertices at once. Pairs are
+	 * grouped so that one Dijkstra search serves all pairs with the same source,
+	 * or with the same target when more pairs share the target (the search then
+	 * runs on the reversed graph). Each search stops once all its pairs are
+	 * settled and searches run in parallel over a snapshot of the graph. If an
+	 * edge weight is not positive every pair is answered by
+	 * {@link #findShortestPath(Vertex, Vertex)} instead.
+	 * 
+	 * @param pairs source and target vertex pairs
+	 * @return shortest path per pair in input order, null if there is no path
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public List<Path> findShortestPaths(Collection<VertexPair> pairs) throws VertexDoesNotExistException {
+		List<VertexPair> pl = new ArrayList<VertexPair>(pairs);
+		// Validate against the snapshot that is searched, the graph may change
+		// once the lock is released
+		TopologicalOrder to = getTopological();
+		CsrGraph csr = to.getCsr();
+		int[] src = new int[pl.size()];
+		int[] dst = new int[pl.size()];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = indexOf(csr, pl.get(i).getSource());
+			dst[i] = indexOf(csr, pl.get(i).getTarget());
+		}
+		List<Path> ret = new ArrayList<Path>(pl.size());
+		if (to.hasPositiveWeights()) {
+			ret.addAll(Arrays.asList(MultiPairSearch.findPaths(csr, src, dst)));
+		} else {
+			for (VertexPair vp : pl) {
+				ret.add(findShortestPath(vp.getSource(), vp.getTarget()));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the index of vertex v in the snapshot
+	 * @throws VertexDoesNotExistException error if vertex is not in the snapshot
+	 */
+	private static int indexOf(CsrGraph csr, Vertex v) throws VertexDoesNotExistException {
+		final int ret = v == null ? -1 : csr.indexOf(v);
+		if (ret < 0) {
+			throw new VertexDoesNotExistException(v);
+		}
+		return ret;
+	}
+
+	/**
+	 * Linear time shortest path by relaxing edges in topological order, only used
+	 * when the graph is acyclic and all weights are positive so that the result,
+	 * including no path, is the same as picking the shortest of the enumerated
+	 * paths.
+	 * 
+	 * @return topological order of the current graph, null if the fast path does
+	 *         not apply
+	 */
+	private synchronized TopologicalOrder getShortestPathOrder() {
+		TopologicalOrder ret = getTopological();
+		if (!ret.isAcyclic() || !ret.hasPositiveWeights()) {
+			ret = null;
+		}
+		return ret;
+	}
+
+	/**
+	 * Finds the longest (critical) path between vertex v1 and v2 of a directed
+	 * acyclic graph in O(V + E), example the critical path of a task graph where
+	 * edge weights are task durations
+	 * 
+	 * @param v1 starting vertex
+	 * @param v2 ending vertex
+	 * @return longest path between v1 and v2, null if v2 is not reachable from v1
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws CycleDetectedException      error if graph has a cycle
+	 */
+	public synchronized Path findLongestPath(Vertex v1, Vertex v2)
+			throws VertexDoesNotExistException, CycleDetectedException {
+		validateVertexInGraph(v1);
+		validateVertexInGraph(v2);
+		TopologicalOrder to = getTopological();
+		to.requireAcyclic();
+		return to.findPath(v1, v2, true);
+	}
+
+	private Path findShortestPath(List<Path> cgpl, Vertex v1, Vertex v2) {
+		Path ret = null;
+		List<Path> cgpvl = findPaths(cgpl, v1, v2);
 		if (!cgpvl.isEmpty()) {
 			int sl = 0;
 			for (Path cp : cgpvl) {
@@ -373,10 +1025,20 @@ public class Graph {
 		boolean ret = (this == obj);
 		if (!ret && obj != null && obj instanceof Graph) {
 			Graph ce = (Graph) obj;
-			List<Vertex> cvl = getVertices();
-			List<Edge> cel = getEdges();
-			List<Vertex> ovl = ce.getVertices();
-			List<Edge> oel = ce.getEdges();
+			// Copy each side under its own lock, one graph at a time, so that
+			// comparing two graphs never holds both locks
+			List<Vertex> cvl;
+			List<Edge> cel;
+			synchronized (this) {
+				cvl = new ArrayList<Vertex>(getVertices());
+				cel = new ArrayList<Edge>(getEdges());
+			}
+			List<Vertex> ovl;
+			List<Edge> oel;
+			synchronized (ce) {
+				ovl = new ArrayList<Vertex>(ce.getVertices());
+				oel = new ArrayList<Edge>(ce.getEdges());
+			}
 			ret = ovl.equals(cvl) && oel.equals(cel);
 		}
 		return ret;
@@ -386,7 +1048,7 @@ public class Graph {
 	 * @see java.lang.Object#hashCode()
 	 */
 	@Override
-	public int hashCode() {
+	public synchronized int hashCode() {
 		return Objects.hash(getVertices(), getEdges());
 	}
 
@@ -394,7 +1056,7 @@ public class Graph {
 	 * @see java.lang.Object#toString()
 	 */
 	@Override
-	public String toString() {
+	public synchronized String toString() {
 		StringBuilder br = new StringBuilder(this.getClass().getSimpleName() + ":\n\tVertices:\n");
 		for (Vertex ev : getVertices()) {
 			br.append("\t" + ev + "\n");
@@ -412,7 +1074,7 @@ public class Graph {
 	 * @return string XML for graph
 	 * @throws JAXBException error during XML conversion
 	 */
-	public String convertToXML() throws JAXBException {
+	public synchronized String convertToXML() throws JAXBException {
 		JAXBContext jaxbContext = JAXBContext.newInstance(Graph.class);
 		Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
 		jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Bulk builder of a graph from primitive vertex IDs, for loading large graphs
+ * without the per call validation of addVertex and addEdge. Vertices are
+ * created on first use in order of appearance, a duplicate edge (same two
+ * vertices) is dropped and counted. An undirected builder adds both directions
+ * of every edge, as {@link UndirectedGraph#addEdge(Edge)} does. The graph is
+ * constructed once from the collected lists.
+ */
+public class GraphBuilder {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+	// Expected edge counts above this only size the tables as far as this, they
+	// grow by doubling from there
+	private static final int PRESIZE_LIMIT = 1 << 20;
+	private final boolean directed;
+	private final Map<Integer, Vertex> vertices;
+	private final List<Vertex> vertexList;
+	private final List<Edge> edgeList;
+	private long[] edgeKeys;
+	private int edgeKeyCount = 0;
+	private boolean emptyKey = false;
+	private long duplicates = 0;
+
+	/**
+	 * Default constructor
+	 */
+	public GraphBuilder() {
+		this(16);
+	}
+
+	/**
+	 * Custom constructor that takes the expected number of edges, large
+	 * estimates are capped and the tables grow as edges are added
+	 * 
+	 * @param expectedEdges expected number of edges
+	 */
+	public GraphBuilder(int expectedEdges) {
+		this(expectedEdges, true);
+	}
+
+	/**
+	 * Custom constructor that takes the expected number of edges and whether the
+	 * graph is directed, large estimates are capped and the tables grow as edges
+	 * are added
+	 * 
+	 * @param expectedEdges expected number of edges, one per direction
+	 * @param directed      false to add both directions of every edge and build
+	 *                      an {@link UndirectedGraph}
+	 */
+	public GraphBuilder(int expectedEdges, boolean directed) {
+		this.directed = directed;
+		expectedEdges = Math.max(16, Math.min(PRESIZE_LIMIT, expectedEdges));
+		vertices = new HashMap<Integer, Vertex>();
+		vertexList = new ArrayList<Vertex>();
+		edgeList = new ArrayList<Edge>(expectedEdges);
+		edgeKeys = new long[Integer.highestOneBit(expectedEdges) * 4];
+		Arrays.fill(edgeKeys, EMPTY);
+	}
+
+	/**
+	 * Add a vertex unless a vertex with the same ID was already added
+	 * 
+	 * @param v vertex
+	 * @return the vertex in the builder with the ID of v
+	 */
+	public Vertex addVertex(Vertex v) {
+		Vertex ret = vertices.putIfAbsent(v.getVid(), v);
+		if (ret == null) {
+			vertexList.add(v);
+			ret = v;
+		}
+		return ret;
+	}
+
+	/**
+	 * Add a vertex unless a vertex with the ID was already added
+	 * 
+	 * @param vid vertex ID
+	 * @return the vertex in the builder with the ID
+	 */
+	public Vertex addVertex(int vid) {
+		Vertex ret = vertices.get(vid);
+		if (ret == null) {
+			ret = new Vertex(vid);
+			vertices.put(vid, ret);
+			vertexList.add(ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Add an edge, adding its vertices if needed. An undirected builder also
+	 * adds the reverse edge with the default label, an edge is a duplicate if
+	 * either direction was added before.
+	 * 
+	 * @param v1     vertex ID of edge vertex v1
+	 * @param v2     vertex ID of edge vertex v2
+	 * @param weight edge weight
+	 * @param label  edge label, null for the default label
+	 * @return true if edge was added, false if it is a duplicate
+	 */
+	public boolean addEdge(int v1, int v2, int weight, String label) {
+		final boolean ret = insertKey(key(v1, v2));
+		if (ret) {
+			Vertex ev1 = addVertex(v1);
+			Vertex ev2 = addVertex(v2);
+			edgeList.add(new Edge(ev1, ev2, weight, label));
+			if (!directed && v1 != v2) {
+				insertKey(key(v2, v1));
+				edgeList.add(new Edge(ev2, ev1, weight, null));
+			}
+		} else {
+			duplicates++;
+		}
+		return ret;
+	}
+
+	private static long key(int v1, int v2) {
+		return ((long) v1 << 32) | (v2 & 0xffffffffL);
+	}
+
+	/**
+	 * Open addressing set of edge keys, cheaper than hashing Edge objects
+	 */
+	private boolean insertKey(long key) {
+		boolean ret;
+		if (key == EMPTY) {
+			// Marker value of free slots, kept outside the table
+			ret = !emptyKey;
+			emptyKey = true;
+		} else {
+			if ((edgeKeyCount + 1) * 2 > edgeKeys.length) {
+				long[] old = edgeKeys;
+				edgeKeys = new long[old.length * 2];
+				Arrays.fill(edgeKeys, EMPTY);
+				for (long k : old) {
+					if (k != EMPTY) {
+						place(k);
+					}
+				}
+			}
+			ret = place(key);
+			if (ret) {
+				edgeKeyCount++;
+			}
+		}
+		return ret;
+	}
+
+	private boolean place(long key) {
+		final int mask = edgeKeys.length - 1;
+		int i = (int) (mix(key) & mask);
+		while (edgeKeys[i] != EMPTY && edgeKeys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		final boolean ret = edgeKeys[i] == EMPTY;
+		edgeKeys[i] = key;
+		return ret;
+	}
+
+	private static long mix(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		return k;
+	}
+
+	/**
+	 * @return the number of vertices added
+	 */
+	public int getVertexCount() {
+		return vertexList.size();
+	}
+
+	/**
+	 * @return true if the builder is directed
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * @return the number of edges added, both directions count for an
+	 *         undirected builder
+	 */
+	public int getEdgeCount() {
+		return edgeList.size();
+	}
+
+	/**
+	 * @return the number of duplicate edges dropped
+	 */
+	public long getDuplicateCount() {
+		return duplicates;
+	}
+
+	/**
+	 * Build a {@link Graph}, or an {@link UndirectedGraph} if the builder is not
+	 * directed. The builder must not be used afterwards.
+	 * 
+	 * @return graph
+	 */
+	public Graph build() {
+		return directed ? build(Graph::new) : build(UndirectedGraph::new);
+	}
+
+	/**
+	 * Build a graph with a factory that takes the vertex and edge lists, the
+	 * lists are used as is. The builder must not be used afterwards.
+	 * 
+	 * @param <G>     graph type
+	 * @param factory graph factory, UndirectedGraph::new only for a builder that
+	 *                is not directed
+	 * @return graph
+	 */
+	public <G extends Graph> G build(BiFunction<List<Vertex>, List<Edge>, G> factory) {
+		return factory.apply(vertexList, edgeList);
+	}
+
+}
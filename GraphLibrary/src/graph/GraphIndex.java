@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes of a graph: vertex name to vertices and edge label to
+ * edges, kept in hash maps and updated by every change to the graph. A sorted
+ * copy of each index, sharing the same lists, is built on the first prefix or
+ * range query and maintained from then on. Labels are changed through
+ * {@link Graph#setEdgeLabel(Edge, String)}, which moves the edge in place.
+ */
+class GraphIndex {
+
+	private final Map<String, List<Vertex>> names = new HashMap<String, List<Vertex>>();
+	private final Map<String, List<Edge>> labels = new HashMap<String, List<Edge>>();
+	private TreeMap<String, List<Vertex>> sortedNames = null;
+	private TreeMap<String, List<Edge>> sortedLabels = null;
+
+	GraphIndex(List<Vertex> vl, List<Edge> el) {
+		for (Vertex v : vl) {
+			addVertex(v);
+		}
+		for (Edge e : el) {
+			addEdge(e);
+		}
+	}
+
+	void addVertex(Vertex v) {
+		add(names, sortedNames, v.getVname(), v);
+	}
+
+	void removeVertex(Vertex v) {
+		remove(names, sortedNames, v.getVname(), v);
+	}
+
+	void addEdge(Edge e) {
+		add(labels, sortedLabels, e.getLabel(), e);
+	}
+
+	void removeEdge(Edge e) {
+		remove(labels, sortedLabels, e.getLabel(), e);
+	}
+
+	void relabelEdge(Edge e, String oldLabel) {
+		remove(labels, sortedLabels, oldLabel, e);
+		addEdge(e);
+	}
+
+	private static <T> void add(Map<String, List<T>> map, NavigableMap<String, List<T>> sorted, String key, T item) {
+		List<T> l = map.get(key);
+		if (l == null) {
+			// Most names and many labels are unique
+			l = new ArrayList<T>(1);
+			map.put(key, l);
+			if (sorted != null && key != null) {
+				sorted.put(key, l);
+			}
+		}
+		l.add(item);
+	}
+
+	private static <T> void remove(Map<String, List<T>> map, NavigableMap<String, List<T>> sorted, String key, T item) {
+		List<T> l = map.get(key);
+		if (l != null) {
+			l.remove(item);
+			if (l.isEmpty()) {
+				map.remove(key);
+				if (sorted != null && key != null) {
+					sorted.remove(key);
+				}
+			}
+		}
+	}
+
+	Vertex getVertex(String name) {
+		List<Vertex> l = names.get(name);
+		return l == null ? null : l.get(0);
+	}
+
+	List<Vertex> getVertices(String name) {
+		List<Vertex> l = names.get(name);
+		return l == null ? new ArrayList<Vertex>() : new ArrayList<Vertex>(l);
+	}
+
+	List<Edge> getEdges(String label) {
+		List<Edge> l = labels.get(label);
+		return l == null ? new ArrayList<Edge>() : new ArrayList<Edge>(l);
+	}
+
+	/**
+	 * @return vertices with names from (inclusive) to (exclusive), by name
+	 */
+	List<Vertex> getVertices(String from, String to) {
+		if (sortedNames == null) {
+			sortedNames = sort(names);
+		}
+		return collect(sortedNames, from, to);
+	}
+
+	/**
+	 * @return edges with labels from (inclusive) to (exclusive), by label
+	 */
+	List<Edge> getEdges(String from, String to) {
+		if (sortedLabels == null) {
+			sortedLabels = sort(labels);
+		}
+		return collect(sortedLabels, from, to);
+	}
+
+	private static <T> TreeMap<String, List<T>> sort(Map<String, List<T>> map) {
+		// Null names stay out of the sorted index
+		TreeMap<String, List<T>> ret = new TreeMap<String, List<T>>();
+		for (Map.Entry<String, List<T>> me : map.entrySet()) {
+			if (me.getKey() != null) {
+				ret.put(me.getKey(), me.getValue());
+			}
+		}
+		return ret;
+	}
+
+	private static <T> List<T> collect(NavigableMap<String, List<T>> sorted, String from, String to) {
+		List<T> ret = new ArrayList<T>();
+		NavigableMap<String, List<T>> range = to == null ? sorted.tailMap(from, true) : sorted.subMap(from, true, to, false);
+		for (List<T> l : range.values()) {
+			ret.addAll(l);
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the smallest string greater than every string starting with prefix,
+	 *         null if there is none
+	 */
+	static String prefixEnd(String prefix) {
+		String ret = null;
+		for (int i = prefix.length() - 1; i >= 0 && ret == null; i--) {
+			final char c = prefix.charAt(i);
+			if (c != Character.MAX_VALUE) {
+				ret = prefix.substring(0, i) + (char) (c + 1);
+			}
+		}
+		return ret;
+	}
+
+}
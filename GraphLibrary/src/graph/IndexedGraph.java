@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+/**
+ * Read-only graph with vertices numbered by a dense index 0..n-1, the common
+ * view of snapshot formats ({@link CsrGraph}, {@link CompressedGraph}) used by
+ * traversal algorithms. Neighbours are read a whole vertex at a time into
+ * caller buffers, so formats that decode adjacency lists serve them as fast as
+ * formats that store them plainly.
+ */
+public interface IndexedGraph {
+
+	/**
+	 * @return the number of vertices
+	 */
+	int getVertexCount();
+
+	/**
+	 * @return the number of edges
+	 */
+	int getEdgeCount();
+
+	/**
+	 * @param i dense vertex index
+	 * @return the vertex
+	 */
+	Vertex getVertex(int i);
+
+	/**
+	 * @param v vertex
+	 * @return the dense index of the vertex, -1 if vertex is not in graph
+	 */
+	int indexOf(Vertex v);
+
+	/**
+	 * @param i dense vertex index
+	 * @return the number of out-edges of vertex i
+	 */
+	int getOutDegree(int i);
+
+	/**
+	 * @return the largest out-degree, the buffer size needed by
+	 *         {@link #getSuccessors(int, int[], int[])}
+	 */
+	int getMaxOutDegree();
+
+	/**
+	 * Read the out-edges of vertex i
+	 * 
+	 * @param i       dense vertex index
+	 * @param targets buffer for the dense indexes of the edge targets
+	 * @param weights buffer for the edge weights, null if not needed
+	 * @return the number of out-edges written to the buffers
+	 */
+	int getSuccessors(int i, int[] targets, int[] weights);
+
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of edge labels. Every distinct label is given a dense id, so a
+ * snapshot can keep labels as an int column. Each {@link CsrGraph} builds its
+ * own dictionary from the labels of its edges and it goes with the snapshot,
+ * labels are never removed from a dictionary.
+ */
+public class LabelDictionary {
+
+	private final Map<String, Integer> ids = new HashMap<String, Integer>();
+	private String[] labels = new String[16];
+	private int size = 0;
+
+	/**
+	 * @param label label
+	 * @return the id of the label, added to the dictionary if new
+	 */
+	public synchronized int getId(String label) {
+		Integer ret = ids.get(label);
+		if (ret == null) {
+			if (size == labels.length) {
+				labels = Arrays.copyOf(labels, size * 2);
+			}
+			labels[size] = label;
+			ret = size++;
+			ids.put(label, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * @param label label
+	 * @return the id of the label, -1 if it is not in the dictionary
+	 */
+	public synchronized int findId(String label) {
+		Integer ret = ids.get(label);
+		return ret == null ? -1 : ret;
+	}
+
+	/**
+	 * @param id label id
+	 * @return the label
+	 */
+	public synchronized String getLabel(int id) {
+		return labels[id];
+	}
+
+	/**
+	 * @param label label
+	 * @return the dictionary copy of the label, equal to label
+	 */
+	public synchronized String intern(String label) {
+		return getLabel(getId(label));
+	}
+
+	/**
+	 * @return the number of labels
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "LabelDictionary: Labels=" + size();
+	}
+
+}
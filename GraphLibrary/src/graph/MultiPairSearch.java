@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import graph.algorithm.IndexedMinHeap;
+
+/**
+ * Dijkstra search from one source over a CSR snapshot that stops as soon as a
+ * given set of targets is settled, with the edge each vertex was reached by for
+ * path reconstruction. Only the entries touched by the previous run are reset,
+ * so one instance serves many sources. Not thread-safe, use one instance per
+ * thread.
+ */
+class MultiPairSearch {
+
+	private final CsrGraph csr;
+	private final long[] dist;
+	private final int[] via;
+	private final int[] prev;
+	private final int[] targetMark;
+	private final int[] touched;
+	private final IndexedMinHeap heap;
+	private int touchedCount = 0;
+	private int stamp = 0;
+	private long settled = 0;
+
+	MultiPairSearch(CsrGraph csr) {
+		this.csr = csr;
+		final int n = csr.getVertexCount();
+		dist = new long[n];
+		Arrays.fill(dist, Long.MAX_VALUE);
+		via = new int[n];
+		prev = new int[n];
+		targetMark = new int[n];
+		touched = new int[n];
+		heap = new IndexedMinHeap(n);
+	}
+
+	/**
+	 * Search from s until all targets are settled or no vertex is left
+	 * 
+	 * @param s       dense index of source vertex
+	 * @param targets dense indexes of targets, may repeat
+	 * @param count   number of targets
+	 */
+	void run(int s, int[] targets, int count) {
+		for (int i = 0; i < touchedCount; i++) {
+			dist[touched[i]] = Long.MAX_VALUE;
+		}
+		touchedCount = 0;
+		heap.clear();
+		stamp++;
+		int remaining = 0;
+		for (int i = 0; i < count; i++) {
+			if (targetMark[targets[i]] != stamp) {
+				targetMark[targets[i]] = stamp;
+				remaining++;
+			}
+		}
+		dist[s] = 0;
+		via[s] = -1;
+		prev[s] = -1;
+		touched[touchedCount++] = s;
+		heap.offer(s, 0);
+		while (remaining > 0 && !heap.isEmpty()) {
+			final int v = heap.poll();
+			settled++;
+			if (targetMark[v] == stamp) {
+				remaining--;
+			}
+			final long dv = dist[v];
+			for (int e = csr.getFirstEdge(v); e < csr.getFirstEdge(v + 1); e++) {
+				final int w = csr.getTarget(e);
+				final long nd = dv + csr.getWeight(e);
+				if (nd < dist[w]) {
+					if (dist[w] == Long.MAX_VALUE) {
+						touched[touchedCount++] = w;
+					}
+					dist[w] = nd;
+					via[w] = e;
+					prev[w] = v;
+					heap.offer(w, nd);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return true if the last run reached v
+	 */
+	boolean isReached(int v) {
+		return dist[v] != Long.MAX_VALUE;
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return the edge index v was reached by, -1 for the source
+	 */
+	int getVia(int v) {
+		return via[v];
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return the vertex v was reached from, -1 for the source
+	 */
+	int getPrevious(int v) {
+		return prev[v];
+	}
+
+	/**
+	 * @return the total number of vertices settled by all runs
+	 */
+	long getSettled() {
+		return settled;
+	}
+
+	/**
+	 * Shortest paths for many pairs with one search per group of pairs. A pair
+	 * joins the group of its source (forward search) unless more pairs share its
+	 * target, then it joins the group of its target (search on the transpose).
+	 * Groups run in parallel, each stops when all its pairs are settled.
+	 * 
+	 * @param csr snapshot, all weights positive
+	 * @param src dense source index per pair, -1 if not in snapshot
+	 * @param dst dense target index per pair, -1 if not in snapshot
+	 * @return shortest path per pair in input order, null if there is none
+	 */
+	static Path[] findPaths(CsrGraph csr, int[] src, int[] dst) {
+		final int m = src.length;
+		Path[] ret = new Path[m];
+		Map<Integer, Integer> sourceCount = new HashMap<Integer, Integer>();
+		Map<Integer, Integer> targetCount = new HashMap<Integer, Integer>();
+		for (int i = 0; i < m; i++) {
+			if (src[i] >= 0 && dst[i] >= 0 && src[i] != dst[i]) {
+				sourceCount.merge(src[i], 1, Integer::sum);
+				targetCount.merge(dst[i], 1, Integer::sum);
+			}
+		}
+		Map<Integer, List<Integer>> forward = new LinkedHashMap<Integer, List<Integer>>();
+		Map<Integer, List<Integer>> backward = new LinkedHashMap<Integer, List<Integer>>();
+		for (int i = 0; i < m; i++) {
+			if (src[i] >= 0 && dst[i] >= 0 && src[i] != dst[i]) {
+				if (targetCount.get(dst[i]) > sourceCount.get(src[i])) {
+					backward.computeIfAbsent(dst[i], k -> new ArrayList<Integer>()).add(i);
+				} else {
+					forward.computeIfAbsent(src[i], k -> new ArrayList<Integer>()).add(i);
+				}
+			}
+		}
+		final CsrGraph transposed = backward.isEmpty() ? null : csr.transpose();
+		final List<Map.Entry<Integer, List<Integer>>> groups = new ArrayList<Map.Entry<Integer, List<Integer>>>();
+		groups.addAll(forward.entrySet());
+		groups.addAll(backward.entrySet());
+		final int forwardGroups = forward.size();
+		final ThreadLocal<MultiPairSearch> fs = ThreadLocal.withInitial(() -> new MultiPairSearch(csr));
+		final ThreadLocal<MultiPairSearch> bs = ThreadLocal.withInitial(() -> new MultiPairSearch(transposed));
+		IntStream.range(0, groups.size()).parallel().forEach(g -> {
+			final boolean reverse = g >= forwardGroups;
+			final int root = groups.get(g).getKey();
+			final List<Integer> pairs = groups.get(g).getValue();
+			MultiPairSearch mps = reverse ? bs.get() : fs.get();
+			int[] ends = new int[pairs.size()];
+			for (int k = 0; k < ends.length; k++) {
+				ends[k] = reverse ? src[pairs.get(k)] : dst[pairs.get(k)];
+			}
+			mps.run(root, ends, ends.length);
+			for (int k = 0; k < ends.length; k++) {
+				if (mps.isReached(ends[k])) {
+					ret[pairs.get(k)] = reverse ? mps.pathFrom(transposed, ends[k]) : mps.pathTo(csr, ends[k]);
+				}
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * @return path from the source of the last run to t
+	 */
+	private Path pathTo(CsrGraph g, int t) {
+		List<Edge> el = new ArrayList<Edge>();
+		for (int v = t; via[v] >= 0; v = prev[v]) {
+			el.add(g.getEdge(via[v]));
+		}
+		Path ret = null;
+		for (int k = el.size() - 1; k >= 0; k--) {
+			ret = ret == null ? new Path(el.get(k)) : new Path(ret, el.get(k));
+		}
+		return ret;
+	}
+
+	/**
+	 * Search ran on the transpose, following predecessors from s walks the
+	 * original edges forward to the source of the last run
+	 * 
+	 * @return path from s to the source of the last run
+	 */
+	private Path pathFrom(CsrGraph transposed, int s) {
+		Path ret = null;
+		for (int v = s; via[v] >= 0; v = prev[v]) {
+			Edge e = transposed.getEdge(via[v]);
+			ret = ret == null ? new Path(e) : new Path(ret, e);
+		}
+		return ret;
+	}
+
+}
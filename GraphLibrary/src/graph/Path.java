@@ -72,6 +72,25 @@ public class Path {
 		}
 	}
 
+	/**
+	 * Copy of a path whose length changed by delta because an edge weight changed
+	 */
+	private Path(Path p, int delta) {
+		start = p.start;
+		end = p.end;
+		length = p.length + delta;
+		vertices.addAll(p.vertices);
+		edges.addAll(p.edges);
+	}
+
+	/**
+	 * @param delta change of the length
+	 * @return copy of this path with the length changed by delta
+	 */
+	Path reweigh(int delta) {
+		return new Path(this, delta);
+	}
+
 	/**
 	 * Is this a valid path
 	 * 
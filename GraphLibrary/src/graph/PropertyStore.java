@@ -0,0 +1,401 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Columnar store of typed properties of vertices or edges. Every key (vertex
+ * or edge) that has a property gets a slot number, and each property is a
+ * column holding the values of all slots in one array, primitive for int and
+ * double properties. Keys that were never set read the column default, slots of
+ * removed keys are reused. Columns are defined by name once and then accessed
+ * through the returned column object.
+ * 
+ * @param <K> key type, {@link Vertex} or {@link Edge}
+ */
+public class PropertyStore<K> {
+
+	/**
+	 * Column of one property
+	 */
+	public abstract class Column {
+
+		private final String name;
+
+		Column(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @return the property name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @param key vertex or edge
+		 * @return true if the property was set for key
+		 */
+		public boolean isSet(K key) {
+			synchronized (PropertyStore.this) {
+				final Integer s = slots.get(key);
+				return s != null && isSet(s);
+			}
+		}
+
+		/**
+		 * Reset the property of key to the default
+		 * 
+		 * @param key vertex or edge
+		 */
+		public void unset(K key) {
+			synchronized (PropertyStore.this) {
+				final Integer s = slots.get(key);
+				if (s != null) {
+					clear(s);
+				}
+			}
+		}
+
+		abstract boolean isSet(int slot);
+
+		abstract void grow(int capacity);
+
+		abstract void clear(int slot);
+
+	}
+
+	/**
+	 * Int property column
+	 */
+	public class IntColumn extends Column {
+
+		private final int defaultValue;
+		private int[] values;
+		private long[] set;
+
+		IntColumn(String name, int defaultValue) {
+			super(name);
+			this.defaultValue = defaultValue;
+			grow(capacity);
+		}
+
+		/**
+		 * @param key vertex or edge
+		 * @return the value, the default if not set
+		 */
+		public int get(K key) {
+			synchronized (PropertyStore.this) {
+				final Integer s = slots.get(key);
+				return s == null ? defaultValue : values[s];
+			}
+		}
+
+		/**
+		 * @param key   vertex or edge
+		 * @param value the value to set
+		 */
+		public void set(K key, int value) {
+			synchronized (PropertyStore.this) {
+				final int s = slotFor(key);
+				values[s] = value;
+				set[s >> 6] |= 1L << s;
+			}
+		}
+
+		@Override
+		boolean isSet(int slot) {
+			return (set[slot >> 6] & (1L << slot)) != 0;
+		}
+
+		@Override
+		void grow(int capacity) {
+			final int old = values == null ? 0 : values.length;
+			values = values == null ? new int[capacity] : Arrays.copyOf(values, capacity);
+			Arrays.fill(values, old, capacity, defaultValue);
+			set = set == null ? new long[(capacity + 63) >> 6] : Arrays.copyOf(set, (capacity + 63) >> 6);
+		}
+
+		@Override
+		void clear(int slot) {
+			values[slot] = defaultValue;
+			set[slot >> 6] &= ~(1L << slot);
+		}
+
+	}
+
+	/**
+	 * Double property column
+	 */
+	public class DoubleColumn extends Column {
+
+		private final double defaultValue;
+		private double[] values;
+		private long[] set;
+
+		DoubleColumn(String name, double defaultValue) {
+			super(name);
+			this.defaultValue = defaultValue;
+			grow(capacity);
+		}
+
+		/**
+		 * @param key vertex or edge
+		 * @return the value, the default if not set
+		 */
+		public double get(K key) {
+			synchronized (PropertyStore.this) {
+				final Integer s = slots.get(key);
+				return s == null ? defaultValue : values[s];
+			}
+		}
+
+		/**
+		 * @param key   vertex or edge
+		 * @param value the value to set
+		 */
+		public void set(K key, double value) {
+			synchronized (PropertyStore.this) {
+				final int s = slotFor(key);
+				values[s] = value;
+				set[s >> 6] |= 1L << s;
+			}
+		}
+
+		@Override
+		boolean isSet(int slot) {
+			return (set[slot >> 6] & (1L << slot)) != 0;
+		}
+
+		@Override
+		void grow(int capacity) {
+			final int old = values == null ? 0 : values.length;
+			values = values == null ? new double[capacity] : Arrays.copyOf(values, capacity);
+			Arrays.fill(values, old, capacity, defaultValue);
+			set = set == null ? new long[(capacity + 63) >> 6] : Arrays.copyOf(set, (capacity + 63) >> 6);
+		}
+
+		@Override
+		void clear(int slot) {
+			values[slot] = defaultValue;
+			set[slot >> 6] &= ~(1L << slot);
+		}
+
+	}
+
+	/**
+	 * Object property column, values are kept as set
+	 * 
+	 * @param <T> value type
+	 */
+	public class ObjectColumn<T> extends Column {
+
+		private final Class<T> type;
+		private Object[] values;
+
+		ObjectColumn(String name, Class<T> type) {
+			super(name);
+			this.type = type;
+			grow(capacity);
+		}
+
+		/**
+		 * @return the value type
+		 */
+		public Class<T> getType() {
+			return type;
+		}
+
+		/**
+		 * @param key vertex or edge
+		 * @return the value, null if not set
+		 */
+		public T get(K key) {
+			synchronized (PropertyStore.this) {
+				final Integer s = slots.get(key);
+				return s == null ? null : type.cast(values[s]);
+			}
+		}
+
+		/**
+		 * @param key   vertex or edge
+		 * @param value the value to set, null to unset
+		 */
+		public void set(K key, T value) {
+			synchronized (PropertyStore.this) {
+				if (value == null) {
+					unset(key);
+				} else {
+					values[slotFor(key)] = value;
+				}
+			}
+		}
+
+		@Override
+		boolean isSet(int slot) {
+			return values[slot] != null;
+		}
+
+		@Override
+		void grow(int capacity) {
+			values = values == null ? new Object[capacity] : Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void clear(int slot) {
+			values[slot] = null;
+		}
+
+	}
+
+	private final Map<K, Integer> slots = new HashMap<K, Integer>();
+	private final Map<String, Column> columns = new LinkedHashMap<String, Column>();
+	private int[] free = new int[16];
+	private int freeCount = 0;
+	private int used = 0;
+	private int capacity = 16;
+
+	/**
+	 * Define an int property, or get it if already defined
+	 * 
+	 * @param name         property name
+	 * @param defaultValue value of keys that were not set
+	 * @return the column
+	 * @throws IllegalArgumentException error if name is defined with another type
+	 */
+	public synchronized IntColumn defineInt(String name, int defaultValue) {
+		Column ret = columns.get(name);
+		if (ret == null) {
+			ret = new IntColumn(name, defaultValue);
+			columns.put(name, ret);
+		}
+		return (IntColumn) checkType(ret, IntColumn.class);
+	}
+
+	/**
+	 * Define a double property, or get it if already defined
+	 * 
+	 * @param name         property name
+	 * @param defaultValue value of keys that were not set
+	 * @return the column
+	 * @throws IllegalArgumentException error if name is defined with another type
+	 */
+	public synchronized DoubleColumn defineDouble(String name, double defaultValue) {
+		Column ret = columns.get(name);
+		if (ret == null) {
+			ret = new DoubleColumn(name, defaultValue);
+			columns.put(name, ret);
+		}
+		return (DoubleColumn) checkType(ret, DoubleColumn.class);
+	}
+
+	/**
+	 * Define an object property, or get it if already defined
+	 * 
+	 * @param <T>  value type
+	 * @param name property name
+	 * @param type value type
+	 * @return the column
+	 * @throws IllegalArgumentException error if name is defined with another type
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> ObjectColumn<T> defineObject(String name, Class<T> type) {
+		Column ret = columns.get(name);
+		if (ret == null) {
+			ret = new ObjectColumn<T>(name, type);
+			columns.put(name, ret);
+		}
+		checkType(ret, ObjectColumn.class);
+		if (((ObjectColumn<?>) ret).getType() != type) {
+			throw new IllegalArgumentException("Property " + name + " has type " + ((ObjectColumn<?>) ret).getType());
+		}
+		return (ObjectColumn<T>) ret;
+	}
+
+	private Column checkType(Column c, Class<?> type) {
+		if (!type.isInstance(c)) {
+			throw new IllegalArgumentException("Property " + c.getName() + " is a " + c.getClass().getSimpleName());
+		}
+		return c;
+	}
+
+	/**
+	 * @param name property name
+	 * @return the column, null if not defined
+	 */
+	public synchronized Column getColumn(String name) {
+		return columns.get(name);
+	}
+
+	/**
+	 * @return the names of the defined properties
+	 */
+	public synchronized String[] getNames() {
+		return columns.keySet().toArray(new String[columns.size()]);
+	}
+
+	/**
+	 * @return the number of keys with a slot
+	 */
+	public synchronized int size() {
+		return slots.size();
+	}
+
+	/**
+	 * Drop all properties of a key, called when the vertex or edge is removed
+	 * 
+	 * @param key vertex or edge
+	 */
+	public synchronized void remove(K key) {
+		final Integer s = slots.remove(key);
+		if (s != null) {
+			for (Column c : columns.values()) {
+				c.clear(s);
+			}
+			if (freeCount == free.length) {
+				free = Arrays.copyOf(free, freeCount * 2);
+			}
+			free[freeCount++] = s;
+		}
+	}
+
+	private int slotFor(K key) {
+		Integer ret = slots.get(key);
+		if (ret == null) {
+			if (freeCount > 0) {
+				ret = free[--freeCount];
+			} else {
+				if (used == capacity) {
+					capacity *= 2;
+					for (Column c : columns.values()) {
+						c.grow(capacity);
+					}
+				}
+				ret = used++;
+			}
+			slots.put(key, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "PropertyStore: Keys=" + size() + " Properties=" + getNames().length;
+	}
+
+}
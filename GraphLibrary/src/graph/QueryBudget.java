@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import graph.error.QueryAbortedException;
+import graph.error.QueryAbortedException.Reason;
+
+/**
+ * Running state of a query budget, one instance per query. Created from
+ * {@link QueryOptions} when the query starts, a null options argument means no
+ * limits.
+ */
+class QueryBudget {
+
+	// Clock, token and interrupt flag are only checked every CHECK_INTERVAL steps
+	private static final int CHECK_INTERVAL = 64;
+
+	private final QueryOptions options;
+	private final long deadline;
+	private int visited = 0;
+	private int produced = 0;
+	private int steps = 0;
+	private Reason reason = null;
+
+	/**
+	 * Custom constructor that takes query options
+	 * 
+	 * @param o query options, null for no limits
+	 */
+	QueryBudget(QueryOptions o) {
+		options = o;
+		long dl = Long.MAX_VALUE;
+		if (o != null) {
+			if (o.getDeadline() != null) {
+				dl = o.getDeadline().toEpochMilli();
+			}
+			if (o.getTimeout() != null) {
+				dl = Math.min(dl, System.currentTimeMillis() + o.getTimeout().toMillis());
+			}
+		}
+		deadline = dl;
+	}
+
+	/**
+	 * Record expansion of a vertex
+	 * 
+	 * @return false if the budget is exhausted and the query should stop
+	 */
+	boolean visit() {
+		if (reason == null && options != null) {
+			if (++visited > options.getMaxVisited()) {
+				reason = Reason.MAX_VISITED;
+			} else {
+				step();
+			}
+		}
+		return reason == null;
+	}
+
+	/**
+	 * Record production of a path
+	 * 
+	 * @return false if the budget is exhausted and the query should stop
+	 */
+	boolean produce() {
+		if (reason == null && options != null) {
+			if (++produced > options.getMaxPaths()) {
+				reason = Reason.MAX_PATHS;
+			} else {
+				step();
+			}
+		}
+		return reason == null;
+	}
+
+	private void step() {
+		if (++steps % CHECK_INTERVAL == 0 || steps == 1) {
+			if (System.currentTimeMillis() > deadline) {
+				reason = Reason.DEADLINE;
+			} else if (options.getCancellationToken() != null && options.getCancellationToken().isCancelled()) {
+				reason = Reason.CANCELLED;
+			} else if (options.isInterruptible() && Thread.currentThread().isInterrupted()) {
+				reason = Reason.INTERRUPTED;
+			}
+		}
+	}
+
+	/**
+	 * @return true if the budget is exhausted
+	 */
+	boolean isExhausted() {
+		return reason != null;
+	}
+
+	/**
+	 * @return the reason the budget was exhausted, null if not exhausted
+	 */
+	Reason getReason() {
+		return reason;
+	}
+
+	/**
+	 * Called when the query ends, throws if the budget was exhausted and partial
+	 * results are not allowed
+	 * 
+	 * @throws QueryAbortedException error if the query did not complete
+	 */
+	void complete() throws QueryAbortedException {
+		if (reason != null && !options.isPartialResults()) {
+			throw new QueryAbortedException(reason);
+		}
+	}
+
+}
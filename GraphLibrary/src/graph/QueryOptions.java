@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Budget for a single graph query (traversal or path search). A query stops
+ * when the wall-clock deadline passes, when the maximum number of expanded
+ * vertices or produced paths is reached, when the cancellation token is
+ * cancelled or when the calling thread is interrupted. Depending on
+ * {@link #isPartialResults()} the query then either returns what it has found
+ * so far or throws {@link graph.error.QueryAbortedException}.
+ * 
+ * All limits are optional, a default instance places no limit on the query.
+ */
+public class QueryOptions {
+
+	private Instant deadline = null;
+	private Duration timeout = null;
+	private int maxVisited = Integer.MAX_VALUE;
+	private int maxPaths = Integer.MAX_VALUE;
+	private CancellationToken cancellationToken = null;
+	private boolean interruptible = true;
+	private boolean partialResults = false;
+
+	/**
+	 * Default constructor, no limits
+	 */
+	public QueryOptions() {
+	}
+
+	/**
+	 * @return the absolute wall-clock deadline, null if none
+	 */
+	public Instant getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * @param deadline the absolute wall-clock deadline to set, null for none
+	 */
+	public void setDeadline(Instant deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * @return the timeout measured from the start of the query, null if none
+	 */
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param timeout the timeout measured from the start of the query to set, null
+	 *                for none
+	 */
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @return the maximum number of vertices expanded
+	 */
+	public int getMaxVisited() {
+		return maxVisited;
+	}
+
+	/**
+	 * @param maxVisited the maximum number of vertices expanded to set
+	 */
+	public void setMaxVisited(int maxVisited) {
+		this.maxVisited = maxVisited;
+	}
+
+	/**
+	 * @return the maximum number of paths produced
+	 */
+	public int getMaxPaths() {
+		return maxPaths;
+	}
+
+	/**
+	 * @param maxPaths the maximum number of paths produced to set
+	 */
+	public void setMaxPaths(int maxPaths) {
+		this.maxPaths = maxPaths;
+	}
+
+	/**
+	 * @return the cancellation token, null if none
+	 */
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * @param cancellationToken the cancellation token to set, null for none
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+
+	/**
+	 * @return true if the query stops when the calling thread is interrupted
+	 */
+	public boolean isInterruptible() {
+		return interruptible;
+	}
+
+	/**
+	 * @param interruptible true if the query should stop when the calling thread
+	 *                      is interrupted (default true)
+	 */
+	public void setInterruptible(boolean interruptible) {
+		this.interruptible = interruptible;
+	}
+
+	/**
+	 * @return true if partial results are returned instead of an exception
+	 */
+	public boolean isPartialResults() {
+		return partialResults;
+	}
+
+	/**
+	 * @param partialResults true to return partial results when the budget is
+	 *                       exhausted, false to throw an exception (default)
+	 */
+	public void setPartialResults(boolean partialResults) {
+		this.partialResults = partialResults;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "QueryOptions: Deadline=" + deadline + " Timeout=" + timeout + " MaxVisited=" + maxVisited
+				+ " MaxPaths=" + maxPaths + " Interruptible=" + interruptible + " PartialResults=" + partialResults;
+	}
+
+}
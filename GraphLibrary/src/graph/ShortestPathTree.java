@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import graph.algorithm.IndexedMinHeap;
+
+/**
+ * Single source shortest path tree kept by a graph, see
+ * {@link Graph#getShortestPathTree(Vertex)}. The tree is built once with
+ * Dijkstra and then repaired in place when the graph changes an edge weight
+ * with {@link Graph#updateWeight(Edge, int)}: a lower weight only relaxes the
+ * vertices that get closer, a higher weight on a tree edge only recomputes the
+ * subtree below that edge. Other changes to the graph make the tree stale.
+ * Edge weights must not be negative.
+ */
+public class ShortestPathTree {
+
+	/**
+	 * Distance of a vertex that cannot be reached from the source
+	 */
+	public static final long UNREACHED = Long.MAX_VALUE;
+
+	private final Graph graph;
+	private final int source;
+	private final long[] dist;
+	// Edge from the parent in the tree, -1 for the source and unreached vertices
+	private final int[] via;
+	// Source vertex of every edge and the in-edges of every vertex
+	private final int[] from;
+	private final int[] inOffsets;
+	private final int[] inEdges;
+	private final IndexedMinHeap heap;
+	private final int[] affected;
+	private final int[] marks;
+	private CsrGraph csr;
+	private volatile long version;
+	private int mark = 0;
+	private int lastVisits = 0;
+	private long repairs = 0;
+
+	/**
+	 * Custom constructor that takes the graph snapshot and source vertex index
+	 * 
+	 * @param g      graph the snapshot was taken from
+	 * @param csr    snapshot
+	 * @param source dense index of the source vertex
+	 */
+	ShortestPathTree(Graph g, CsrGraph csr, int source) {
+		final int n = csr.getVertexCount();
+		final int m = csr.getEdgeCount();
+		this.graph = g;
+		this.csr = csr;
+		this.source = source;
+		this.version = csr.getVersion();
+		from = new int[m];
+		inOffsets = new int[n + 1];
+		inEdges = new int[m];
+		for (int u = 0; u < n; u++) {
+			for (int e = csr.getFirstEdge(u); e < csr.getFirstEdge(u + 1); e++) {
+				if (csr.getWeight(e) < 0) {
+					throw new IllegalArgumentException("Negative edge weight: " + csr.getEdge(e));
+				}
+				from[e] = u;
+				inOffsets[csr.getTarget(e) + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			inOffsets[v + 1] += inOffsets[v];
+		}
+		int[] pos = new int[n];
+		for (int e = 0; e < m; e++) {
+			final int v = csr.getTarget(e);
+			inEdges[inOffsets[v] + pos[v]++] = e;
+		}
+		dist = new long[n];
+		via = new int[n];
+		heap = new IndexedMinHeap(n);
+		affected = new int[n];
+		marks = new int[n];
+		Arrays.fill(dist, UNREACHED);
+		Arrays.fill(via, -1);
+		dist[source] = 0;
+		heap.offer(source, 0);
+		lastVisits = settle();
+	}
+
+	/**
+	 * Dijkstra from the vertices in the heap, their distances are already set
+	 * 
+	 * @return the number of vertices settled
+	 */
+	private int settle() {
+		int ret = 0;
+		while (!heap.isEmpty()) {
+			final int u = heap.poll();
+			final long du = dist[u];
+			for (int e = csr.getFirstEdge(u); e < csr.getFirstEdge(u + 1); e++) {
+				final int v = csr.getTarget(e);
+				final long nd = du + csr.getWeight(e);
+				if (nd < dist[v]) {
+					dist[v] = nd;
+					via[v] = e;
+					heap.offer(v, nd);
+				}
+			}
+			ret++;
+		}
+		return ret;
+	}
+
+	/**
+	 * Repair the tree after the weight of one edge changed
+	 * 
+	 * @param next      snapshot with the new weight, same vertices and edges
+	 * @param e         index of the changed edge
+	 * @param oldWeight weight of the edge before the change
+	 */
+	synchronized void repair(CsrGraph next, int e, int oldWeight) {
+		csr = next;
+		final int w = csr.getWeight(e);
+		final int u = from[e];
+		final int v = csr.getTarget(e);
+		lastVisits = 0;
+		if (w < oldWeight) {
+			// Only vertices that get closer through e change
+			if (dist[u] != UNREACHED && dist[u] + w < dist[v]) {
+				dist[v] = dist[u] + w;
+				via[v] = e;
+				heap.offer(v, dist[v]);
+				lastVisits = settle();
+			}
+		} else if (w > oldWeight && via[v] == e) {
+			// Collect the subtree below e, the rest of the tree is still shortest
+			mark++;
+			int count = 0;
+			affected[count++] = v;
+			marks[v] = mark;
+			for (int i = 0; i < count; i++) {
+				final int x = affected[i];
+				for (int f = csr.getFirstEdge(x); f < csr.getFirstEdge(x + 1); f++) {
+					final int y = csr.getTarget(f);
+					if (via[y] == f && marks[y] != mark) {
+						marks[y] = mark;
+						affected[count++] = y;
+					}
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				dist[affected[i]] = UNREACHED;
+				via[affected[i]] = -1;
+			}
+			// Best entry into the subtree from outside, then Dijkstra inside it
+			for (int i = 0; i < count; i++) {
+				final int y = affected[i];
+				for (int k = inOffsets[y]; k < inOffsets[y + 1]; k++) {
+					final int f = inEdges[k];
+					final int x = from[f];
+					if (marks[x] != mark && dist[x] != UNREACHED && dist[x] + csr.getWeight(f) < dist[y]) {
+						dist[y] = dist[x] + csr.getWeight(f);
+						via[y] = f;
+					}
+				}
+				if (dist[y] != UNREACHED) {
+					heap.offer(y, dist[y]);
+				}
+			}
+			lastVisits = Math.max(count, settle());
+		}
+		version = next.getVersion();
+		repairs++;
+	}
+
+	/**
+	 * @return the graph version the tree is up to date with
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return true if the graph changed in a way the tree was not repaired for
+	 */
+	public boolean isStale() {
+		return graph.getVersion() != version;
+	}
+
+	/**
+	 * @return the source vertex
+	 */
+	public synchronized Vertex getSource() {
+		return csr.getVertex(source);
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the distance from the source, UNREACHED if v is not reachable or
+	 *         not in the graph
+	 */
+	public synchronized long getDistance(Vertex v) {
+		final int i = csr.indexOf(v);
+		return i < 0 ? UNREACHED : dist[i];
+	}
+
+	/**
+	 * @param v vertex
+	 * @return true if v is reachable from the source
+	 */
+	public boolean isReachable(Vertex v) {
+		return getDistance(v) != UNREACHED;
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the last edge of the shortest path to v, null for the source and
+	 *         vertices that are not reachable
+	 */
+	public synchronized Edge getParentEdge(Vertex v) {
+		final int i = csr.indexOf(v);
+		return i < 0 || via[i] < 0 ? null : csr.getEdge(via[i]);
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the shortest path from the source to v, null if v is the source or
+	 *         not reachable
+	 */
+	public synchronized Path getPath(Vertex v) {
+		Path ret = null;
+		final int t = csr.indexOf(v);
+		if (t >= 0 && via[t] >= 0) {
+			List<Edge> el = new ArrayList<Edge>();
+			for (int x = t; x != source; x = from[via[x]]) {
+				el.add(csr.getEdge(via[x]));
+			}
+			Collections.reverse(el);
+			for (Edge e : el) {
+				ret = ret == null ? new Path(e) : new Path(ret, e);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the number of vertices visited by the last build or repair
+	 */
+	public synchronized int getLastVisits() {
+		return lastVisits;
+	}
+
+	/**
+	 * @return the number of weight changes repaired since the tree was built
+	 */
+	public synchronized long getRepairs() {
+		return repairs;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "ShortestPathTree: Source=" + csr.getVertex(source) + " Version=" + version + " Repairs=" + repairs;
+	}
+
+}
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import graph.algorithm.IndexedMinHeap;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Read-only filtered view of a {@link CsrGraph} snapshot. Nothing is copied:
+ * out-edges are read from the snapshot and filtered as they are visited, so an
+ * algorithm working on an {@link IndexedGraph} (example
+ * {@link graph.algorithm.Traversal} or {@link graph.algorithm.Centrality}) can
+ * run on "only edges with weight below x" or "only these vertices" without
+ * building a new graph.
+ * 
+ * Vertices are selected by a predicate or by a bitset of snapshot indexes and
+ * are renumbered to a dense index 0..n-1 in snapshot order, an edge is in the
+ * view when both its vertices are and it passes the edge predicate or bitset.
+ * Edge predicates are evaluated on every visit and must be cheap and stable.
+ * 
+ * A view created by {@link Graph#subgraph(Predicate, Predicate)} records the
+ * graph version of its snapshot, {@link #isStale()} tells that the graph has
+ * changed since and {@link #refresh()} applies the same filters to the current
+ * graph.
+ */
+public class SubgraphView implements IndexedGraph {
+
+	private final Graph graph;
+	private final CsrGraph base;
+	private final Predicate<Vertex> vertexFilter;
+	private final Predicate<Edge> edgeFilter;
+	private final BitSet edgeMask;
+	// View to snapshot index and back, null when every vertex is in the view
+	private final int[] members;
+	private final int[] position;
+	private int edgeCount = -1;
+
+	/**
+	 * Custom constructor that takes a snapshot and vertex and edge predicates
+	 * 
+	 * @param base         graph snapshot
+	 * @param vertexFilter vertices in the view, null for all
+	 * @param edgeFilter   edges in the view, null for all
+	 */
+	public SubgraphView(CsrGraph base, Predicate<Vertex> vertexFilter, Predicate<Edge> edgeFilter) {
+		this(null, base, vertexFilter, edgeFilter);
+	}
+
+	/**
+	 * Custom constructor that takes a snapshot and vertex and edge bitsets
+	 * 
+	 * @param base     graph snapshot
+	 * @param vertices dense indexes of the snapshot vertices in the view, null
+	 *                 for all
+	 * @param edges    edge indexes of the snapshot edges in the view (see
+	 *                 {@link CsrGraph#getFirstEdge(int)}), null for all
+	 */
+	public SubgraphView(CsrGraph base, BitSet vertices, BitSet edges) {
+		this.graph = null;
+		this.base = base;
+		this.vertexFilter = null;
+		this.edgeFilter = null;
+		this.edgeMask = edges;
+		if (vertices == null) {
+			members = null;
+			position = null;
+		} else {
+			final int n = base.getVertexCount();
+			position = new int[n];
+			Arrays.fill(position, -1);
+			members = new int[vertices.get(0, n).cardinality()];
+			int k = 0;
+			for (int i = vertices.nextSetBit(0); i >= 0 && i < n; i = vertices.nextSetBit(i + 1)) {
+				position[i] = k;
+				members[k++] = i;
+			}
+		}
+	}
+
+	SubgraphView(Graph graph, CsrGraph base, Predicate<Vertex> vertexFilter, Predicate<Edge> edgeFilter) {
+		this.graph = graph;
+		this.base = base;
+		this.vertexFilter = vertexFilter;
+		this.edgeFilter = edgeFilter;
+		this.edgeMask = null;
+		if (vertexFilter == null) {
+			members = null;
+			position = null;
+		} else {
+			final int n = base.getVertexCount();
+			position = new int[n];
+			int k = 0;
+			for (int i = 0; i < n; i++) {
+				position[i] = vertexFilter.test(base.getVertex(i)) ? k++ : -1;
+			}
+			members = new int[k];
+			for (int i = 0; i < n; i++) {
+				if (position[i] >= 0) {
+					members[position[i]] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the snapshot the view filters
+	 */
+	public CsrGraph getBase() {
+		return base;
+	}
+
+	/**
+	 * @return the graph version of the snapshot
+	 */
+	public long getVersion() {
+		return base.getVersion();
+	}
+
+	/**
+	 * @return true if the view was created from a graph that has changed since
+	 */
+	public boolean isStale() {
+		return graph != null && graph.getVersion() != base.getVersion();
+	}
+
+	/**
+	 * @return this view if it is not stale, else a view with the same filters
+	 *         over the current graph
+	 */
+	public SubgraphView refresh() {
+		return isStale() ? graph.subgraph(vertexFilter, edgeFilter) : this;
+	}
+
+	private int toBase(int i) {
+		return members == null ? i : members[i];
+	}
+
+	private int toView(int b) {
+		return position == null ? b : position[b];
+	}
+
+	private boolean includes(int e) {
+		return (edgeMask == null || edgeMask.get(e)) && (edgeFilter == null || edgeFilter.test(base.getEdge(e)));
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getVertexCount()
+	 */
+	@Override
+	public int getVertexCount() {
+		return members == null ? base.getVertexCount() : members.length;
+	}
+
+	/**
+	 * Counted on first call by visiting every edge of the view
+	 * 
+	 * @see graph.IndexedGraph#getEdgeCount()
+	 */
+	@Override
+	public synchronized int getEdgeCount() {
+		if (edgeCount < 0) {
+			int m = 0;
+			for (int i = 0; i < getVertexCount(); i++) {
+				m += getOutDegree(i);
+			}
+			edgeCount = m;
+		}
+		return edgeCount;
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getVertex(int)
+	 */
+	@Override
+	public Vertex getVertex(int i) {
+		return base.getVertex(toBase(i));
+	}
+
+	/**
+	 * @see graph.IndexedGraph#indexOf(graph.Vertex)
+	 */
+	@Override
+	public int indexOf(Vertex v) {
+		final int b = base.indexOf(v);
+		return b < 0 ? -1 : toView(b);
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getOutDegree(int)
+	 */
+	@Override
+	public int getOutDegree(int i) {
+		final int b = toBase(i);
+		int ret = 0;
+		for (int e = base.getFirstEdge(b); e < base.getFirstEdge(b + 1); e++) {
+			if (toView(base.getTarget(e)) >= 0 && includes(e)) {
+				ret++;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * The largest out-degree of the snapshot, an upper bound of the view's
+	 * 
+	 * @see graph.IndexedGraph#getMaxOutDegree()
+	 */
+	@Override
+	public int getMaxOutDegree() {
+		return base.getMaxOutDegree();
+	}
+
+	/**
+	 * @see graph.IndexedGraph#getSuccessors(int, int[], int[])
+	 */
+	@Override
+	public int getSuccessors(int i, int[] targets, int[] weights) {
+		final int b = toBase(i);
+		int ret = 0;
+		for (int e = base.getFirstEdge(b); e < base.getFirstEdge(b + 1); e++) {
+			final int t = toView(base.getTarget(e));
+			if (t >= 0 && includes(e)) {
+				targets[ret] = t;
+				if (weights != null) {
+					weights[ret] = base.getWeight(e);
+				}
+				ret++;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Visit the out-edges of vertex i that are in the view
+	 * 
+	 * @param i        dense vertex index
+	 * @param consumer called once for every out-edge
+	 */
+	public void forEachOutEdge(int i, EdgeConsumer consumer) {
+		final int b = toBase(i);
+		for (int e = base.getFirstEdge(b); e < base.getFirstEdge(b + 1); e++) {
+			if (toView(base.getTarget(e)) >= 0 && includes(e)) {
+				consumer.accept(base.getEdge(e));
+			}
+		}
+	}
+
+	/**
+	 * Finds the shortest path between vertex v1 and v2 using only vertices and
+	 * edges of the view, by Dijkstra search. Edge weights must not be negative.
+	 * 
+	 * @param v1 starting vertex
+	 * @param v2 ending vertex
+	 * @return shortest path between v1 and v2, null if there is no path or v1
+	 *         equals v2
+	 * @throws VertexDoesNotExistException error if vertex is not in the view
+	 * @throws IllegalArgumentException    error if an edge of the view reached by
+	 *                                     the search has a negative weight
+	 */
+	public Path findShortestPath(Vertex v1, Vertex v2) throws VertexDoesNotExistException {
+		final int s = indexOf(v1);
+		final int t = indexOf(v2);
+		if (s < 0) {
+			throw new VertexDoesNotExistException(v1);
+		}
+		if (t < 0) {
+			throw new VertexDoesNotExistException(v2);
+		}
+		final int n = getVertexCount();
+		long[] dist = new long[n];
+		int[] via = new int[n];
+		Arrays.fill(dist, Long.MAX_VALUE);
+		Arrays.fill(via, -1);
+		IndexedMinHeap heap = new IndexedMinHeap(n);
+		dist[s] = 0;
+		heap.offer(s, 0);
+		boolean found = false;
+		while (!heap.isEmpty() && !found) {
+			final int v = heap.poll();
+			found = v == t;
+			final int b = toBase(v);
+			for (int e = base.getFirstEdge(b); e < base.getFirstEdge(b + 1) && !found; e++) {
+				final int w = toView(base.getTarget(e));
+				if (w >= 0 && includes(e)) {
+					if (base.getWeight(e) < 0) {
+						throw new IllegalArgumentException("Negative edge weight: " + base.getEdge(e));
+					}
+					final long nd = dist[v] + base.getWeight(e);
+					if (nd < dist[w]) {
+						dist[w] = nd;
+						via[w] = e;
+						heap.offer(w, nd);
+					}
+				}
+			}
+		}
+		Path ret = null;
+		if (t != s && via[t] >= 0) {
+			List<Edge> el = new ArrayList<Edge>();
+			for (int v = t; v != s; v = indexOf(el.get(el.size() - 1).getV1())) {
+				el.add(base.getEdge(via[v]));
+			}
+			for (int k = el.size() - 1; k >= 0; k--) {
+				ret = ret == null ? new Path(el.get(k)) : new Path(ret, el.get(k));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "SubgraphView: Vertices=" + getVertexCount() + " Version=" + getVersion();
+	}
+
+}
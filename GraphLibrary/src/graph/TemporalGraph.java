@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.algorithm.Traversal;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Graph of timestamped edge events over a sliding window. An edge event at time
+ * t is valid from t until t + window, repeated events of the same edge extend
+ * it and the latest event before the query time gives the weight and label.
+ * 
+ * Events are stored in time buckets of primitive columns held in a ring, so
+ * adding an event costs the same however long the history is. History is
+ * retained for the retention period behind the latest event time (the
+ * watermark); when the watermark moves, whole buckets that fall out of the
+ * retention period are dropped at once and their arrays reused, instead of
+ * removing edges one by one. Vertices live as long as they have retained
+ * events, or for ever if added with {@link #addVertex(Vertex)}.
+ * 
+ * Queries are made "as of" a time T and see the edges valid at T. They work on
+ * a {@link Graph} snapshot built from the buckets overlapping (T - window, T],
+ * so their cost depends on the window, not on the history. Times before the
+ * retained history see only the retained events.
+ */
+public class TemporalGraph {
+
+	/**
+	 * Events of one time bucket in columns
+	 */
+	private static class Bucket {
+		long number = Long.MIN_VALUE;
+		int size = 0;
+		int[] v1 = new int[16];
+		int[] v2 = new int[16];
+		int[] weight = new int[16];
+		long[] time = new long[16];
+		String[] label = new String[16];
+
+		void add(int ev1, int ev2, int w, String l, long t) {
+			if (size == time.length) {
+				final int cap = size * 2;
+				v1 = Arrays.copyOf(v1, cap);
+				v2 = Arrays.copyOf(v2, cap);
+				weight = Arrays.copyOf(weight, cap);
+				time = Arrays.copyOf(time, cap);
+				label = Arrays.copyOf(label, cap);
+			}
+			v1[size] = ev1;
+			v2[size] = ev2;
+			weight[size] = w;
+			time[size] = t;
+			label[size++] = l;
+		}
+
+		void clear(long n) {
+			Arrays.fill(label, 0, size, null);
+			size = 0;
+			number = n;
+		}
+	}
+
+	private final long window;
+	private final long retention;
+	private final long bucketWidth;
+	private final Bucket[] ring;
+	private final Map<Integer, Vertex> vertices = new HashMap<Integer, Vertex>();
+	private final Map<Integer, Integer> references = new HashMap<Integer, Integer>();
+	private long watermark = Long.MIN_VALUE;
+	// Oldest bucket number that may hold retained events
+	private long firstBucket = Long.MIN_VALUE;
+	private long events = 0;
+	private long expired = 0;
+	private long late = 0;
+
+	/**
+	 * Custom constructor that takes the window, history is retained for one
+	 * window
+	 * 
+	 * @param window time an edge event stays valid, greater than 0
+	 */
+	public TemporalGraph(long window) {
+		this(window, window, 16);
+	}
+
+	/**
+	 * Custom constructor that takes the window, the retention and the number of
+	 * buckets per retention period
+	 * 
+	 * @param window    time an edge event stays valid, greater than 0
+	 * @param retention time events are kept behind the watermark, at least window
+	 * @param buckets   number of time buckets per retention period, the
+	 *                  granularity of expiry
+	 */
+	public TemporalGraph(long window, long retention, int buckets) {
+		this.window = window;
+		this.retention = Math.max(window, retention);
+		this.bucketWidth = Math.max(1, (this.retention + buckets - 1) / buckets);
+		ring = new Bucket[(int) ((this.retention + bucketWidth - 1) / bucketWidth) + 2];
+		for (int i = 0; i < ring.length; i++) {
+			ring[i] = new Bucket();
+		}
+	}
+
+	/**
+	 * @return the time an edge event stays valid
+	 */
+	public long getWindow() {
+		return window;
+	}
+
+	/**
+	 * @return the time events are kept behind the watermark
+	 */
+	public long getRetention() {
+		return retention;
+	}
+
+	/**
+	 * @return the latest event time seen, or the time given to advanceTo
+	 */
+	public synchronized long getWatermark() {
+		return watermark;
+	}
+
+	/**
+	 * Add a vertex that stays in the graph without events, example to give it a
+	 * name. Vertices of edge events are added automatically.
+	 * 
+	 * @param v vertex
+	 */
+	public synchronized void addVertex(Vertex v) {
+		vertices.put(v.getVid(), v);
+		reference(v.getVid(), 1);
+	}
+
+	private void reference(int vid, int delta) {
+		final int r = references.getOrDefault(vid, 0) + delta;
+		if (r > 0) {
+			references.put(vid, r);
+		} else {
+			references.remove(vid);
+			vertices.remove(vid);
+		}
+	}
+
+	/**
+	 * Add an edge event, the watermark moves to time if it is later
+	 * 
+	 * @param e    edge
+	 * @param time event time
+	 * @return true if added, false if time is before the retained history
+	 */
+	public synchronized boolean addEdge(Edge e, long time) {
+		advanceTo(time);
+		final boolean ret = time > minus(watermark, retention);
+		if (ret) {
+			final long n = Math.floorDiv(time, bucketWidth);
+			Bucket b = ring[(int) Math.floorMod(n, (long) ring.length)];
+			if (b.number != n) {
+				b.clear(n);
+			}
+			Vertex ev1 = e.getV1();
+			Vertex ev2 = e.getV2();
+			vertices.putIfAbsent(ev1.getVid(), ev1);
+			vertices.putIfAbsent(ev2.getVid(), ev2);
+			reference(ev1.getVid(), 1);
+			reference(ev2.getVid(), 1);
+			b.add(ev1.getVid(), ev2.getVid(), e.getWeight(), e.hasDefaultLabel() ? null : e.getLabel(), time);
+			events++;
+		} else {
+			late++;
+		}
+		return ret;
+	}
+
+	/**
+	 * Move the watermark forward and drop the buckets that fall out of the
+	 * retention period. Times before the watermark are ignored.
+	 * 
+	 * @param time new watermark
+	 * @return the number of events dropped
+	 */
+	public synchronized long advanceTo(long time) {
+		long ret = 0;
+		if (time > watermark) {
+			watermark = time;
+			// Bucket holding the oldest retained time, watermark - retention + 1
+			final long keep = Math.floorDiv(minus(time, retention) + 1, bucketWidth);
+			if (firstBucket == Long.MIN_VALUE || keep - firstBucket >= ring.length) {
+				// First event, or a jump past every bucket
+				for (Bucket b : ring) {
+					ret += drop(b, keep);
+				}
+			} else {
+				for (long n = firstBucket; n < keep; n++) {
+					ret += drop(ring[(int) Math.floorMod(n, (long) ring.length)], keep);
+				}
+			}
+			// The oldest bucket may hold expired events until it leaves entirely,
+			// queries filter by time
+			firstBucket = keep;
+		}
+		return ret;
+	}
+
+	/**
+	 * @return t - d, not below Long.MIN_VALUE
+	 */
+	private static long minus(long t, long d) {
+		return t < Long.MIN_VALUE + d ? Long.MIN_VALUE : t - d;
+	}
+
+	private long drop(Bucket b, long keep) {
+		long ret = 0;
+		if (b.size > 0 && b.number < keep) {
+			for (int i = 0; i < b.size; i++) {
+				reference(b.v1[i], -1);
+				reference(b.v2[i], -1);
+			}
+			ret = b.size;
+			expired += ret;
+			events -= ret;
+			b.clear(Long.MIN_VALUE);
+		}
+		return ret;
+	}
+
+	/**
+	 * Snapshot of the edges valid at time t: edge events in (t - window, t], the
+	 * latest event of an edge gives its weight and label. All retained vertices
+	 * are included.
+	 * 
+	 * @param t query time
+	 * @return graph as of t
+	 */
+	public synchronized Graph snapshot(long t) {
+		GraphBuilder gb = new GraphBuilder();
+		for (Vertex v : vertices.values()) {
+			gb.addVertex(v);
+		}
+		final long from = minus(t, window);
+		final long last = Math.floorDiv(t, bucketWidth);
+		final long first = Math.max(firstBucket, Math.floorDiv(from + 1, bucketWidth));
+		// Newest events first, the builder keeps the first event of an edge
+		for (long n = last; n >= first; n--) {
+			Bucket b = ring[(int) Math.floorMod(n, (long) ring.length)];
+			if (b.number == n) {
+				int[] order = newestFirst(b);
+				for (int k = 0; k < b.size; k++) {
+					final int i = order[k];
+					if (b.time[i] > from && b.time[i] <= t) {
+						gb.addEdge(b.v1[i], b.v2[i], b.weight[i], b.label[i]);
+					}
+				}
+			}
+		}
+		return gb.build();
+	}
+
+	/**
+	 * @return event positions of a bucket by time, latest first
+	 */
+	private int[] newestFirst(Bucket b) {
+		boolean sorted = true;
+		for (int i = 1; i < b.size && sorted; i++) {
+			sorted = b.time[i] >= b.time[i - 1];
+		}
+		int[] ret = new int[b.size];
+		if (sorted) {
+			// Usual case, events arrived in time order
+			for (int i = 0; i < b.size; i++) {
+				ret[i] = b.size - 1 - i;
+			}
+		} else {
+			final long[] time = b.time;
+			Integer[] boxed = new Integer[b.size];
+			for (int i = 0; i < b.size; i++) {
+				boxed[i] = i;
+			}
+			// Equal times: the event added last wins
+			Arrays.sort(boxed, (x, y) -> time[x] != time[y] ? Long.compare(time[y], time[x]) : Integer.compare(y, x));
+			for (int i = 0; i < b.size; i++) {
+				ret[i] = boxed[i];
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return snapshot of the edges valid at the watermark
+	 */
+	public Graph snapshot() {
+		return snapshot(getWatermark());
+	}
+
+	/**
+	 * Finds the shortest path between vertex v1 and v2 using the edges valid at
+	 * time t
+	 * 
+	 * @param v1 starting vertex
+	 * @param v2 ending vertex
+	 * @param t  query time
+	 * @return shortest path between v1 and v2, null if there is none
+	 * @throws VertexDoesNotExistException error if vertex is not retained
+	 */
+	public Path findShortestPath(Vertex v1, Vertex v2, long t) throws VertexDoesNotExistException {
+		return snapshot(t).findShortestPaths(List.of(new VertexPair(v1, v2))).get(0);
+	}
+
+	/**
+	 * Check if there is a path from vertex v1 to v2 using the edges valid at time
+	 * t
+	 * 
+	 * @param v1 starting vertex
+	 * @param v2 ending vertex
+	 * @param t  query time
+	 * @return true if v2 can be reached from v1, every vertex reaches itself
+	 * @throws VertexDoesNotExistException error if vertex is not retained
+	 */
+	public boolean isReachable(Vertex v1, Vertex v2, long t) throws VertexDoesNotExistException {
+		CsrGraph csr = new CsrGraph(snapshot(t));
+		final int s = csr.indexOf(v1);
+		final int d = csr.indexOf(v2);
+		if (s < 0) {
+			throw new VertexDoesNotExistException(v1);
+		}
+		if (d < 0) {
+			throw new VertexDoesNotExistException(v2);
+		}
+		Traversal tr = new Traversal(csr);
+		tr.breadthFirst(s, null);
+		return tr.isReached(d);
+	}
+
+	/**
+	 * @return the number of retained vertices
+	 */
+	public synchronized int getVertexCount() {
+		return vertices.size();
+	}
+
+	/**
+	 * @return the number of retained edge events
+	 */
+	public synchronized long getEventCount() {
+		return events;
+	}
+
+	/**
+	 * @return the number of edge events dropped by expiry
+	 */
+	public synchronized long getExpiredCount() {
+		return expired;
+	}
+
+	/**
+	 * @return the number of edge events rejected for being older than the
+	 *         retained history
+	 */
+	public synchronized long getLateCount() {
+		return late;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "TemporalGraph: Window=" + window + " Watermark=" + getWatermark() + " Events=" + getEventCount();
+	}
+
+}
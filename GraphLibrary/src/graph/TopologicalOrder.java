@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import graph.error.CycleDetectedException;
+
+/**
+ * Topological order of a graph snapshot (Kahn's algorithm), or one cycle if the
+ * graph is not acyclic. On an acyclic graph shortest and longest paths from a
+ * source are found in O(V + E) by relaxing the out-edges of every vertex in
+ * topological order, without a heap and without enumerating paths.
+ */
+class TopologicalOrder {
+
+	private final CsrGraph csr;
+	private final int[] order;
+	private final List<Vertex> cycle;
+	private final boolean positiveWeights;
+
+	TopologicalOrder(CsrGraph csr) {
+		this.csr = csr;
+		final int n = csr.getVertexCount();
+		int[] indegree = new int[n];
+		boolean pw = true;
+		for (int e = 0; e < csr.getEdgeCount(); e++) {
+			indegree[csr.getTarget(e)]++;
+			pw &= csr.getWeight(e) > 0;
+		}
+		positiveWeights = pw;
+		// Kahn: the output array doubles as the queue of vertices with no in-edges
+		int[] out = new int[n];
+		int tail = 0;
+		for (int v = 0; v < n; v++) {
+			if (indegree[v] == 0) {
+				out[tail++] = v;
+			}
+		}
+		for (int head = 0; head < tail; head++) {
+			final int u = out[head];
+			for (int e = csr.getFirstEdge(u); e < csr.getFirstEdge(u + 1); e++) {
+				final int v = csr.getTarget(e);
+				if (--indegree[v] == 0) {
+					out[tail++] = v;
+				}
+			}
+		}
+		if (tail == n) {
+			order = out;
+			cycle = null;
+		} else {
+			order = null;
+			cycle = findCycle(indegree);
+		}
+	}
+
+	/**
+	 * Order of a snapshot that differs from the base snapshot only in the weight
+	 * of edge e, the order and cycle do not depend on weights
+	 */
+	TopologicalOrder(TopologicalOrder base, CsrGraph csr, int e) {
+		this.csr = csr;
+		order = base.order;
+		cycle = base.cycle;
+		if (csr.getWeight(e) <= 0) {
+			positiveWeights = false;
+		} else if (base.positiveWeights) {
+			positiveWeights = true;
+		} else {
+			boolean pw = true;
+			for (int f = 0; f < csr.getEdgeCount() && pw; f++) {
+				pw = csr.getWeight(f) > 0;
+			}
+			positiveWeights = pw;
+		}
+	}
+
+	/**
+	 * Vertices left with in-edges after Kahn's algorithm all have a predecessor
+	 * that is also left, walking predecessors must therefore return to a vertex
+	 * already seen.
+	 */
+	private List<Vertex> findCycle(int[] indegree) {
+		final int n = csr.getVertexCount();
+		CsrGraph in = csr.transpose();
+		int[] seenAt = new int[n];
+		Arrays.fill(seenAt, -1);
+		List<Integer> walk = new ArrayList<Integer>();
+		int v = 0;
+		while (indegree[v] == 0) {
+			v++;
+		}
+		while (seenAt[v] < 0) {
+			seenAt[v] = walk.size();
+			walk.add(v);
+			int next = -1;
+			for (int e = in.getFirstEdge(v); e < in.getFirstEdge(v + 1) && next < 0; e++) {
+				if (indegree[in.getTarget(e)] > 0) {
+					next = in.getTarget(e);
+				}
+			}
+			v = next;
+		}
+		List<Vertex> ret = new ArrayList<Vertex>();
+		for (int i = walk.size() - 1; i >= seenAt[v]; i--) {
+			ret.add(csr.getVertex(walk.get(i)));
+		}
+		return ret;
+	}
+
+	CsrGraph getCsr() {
+		return csr;
+	}
+
+	boolean isAcyclic() {
+		return order != null;
+	}
+
+	boolean hasPositiveWeights() {
+		return positiveWeights;
+	}
+
+	void requireAcyclic() throws CycleDetectedException {
+		if (order == null) {
+			throw new CycleDetectedException(cycle);
+		}
+	}
+
+	List<Vertex> getOrder() throws CycleDetectedException {
+		requireAcyclic();
+		List<Vertex> ret = new ArrayList<Vertex>(order.length);
+		for (int v : order) {
+			ret.add(csr.getVertex(v));
+		}
+		return ret;
+	}
+
+	/**
+	 * Shortest (or longest) path from v1 to v2 by relaxing edges in topological
+	 * order, graph must be acyclic
+	 * 
+	 * @return path, null if v2 is not reachable from v1 or v1 equals v2
+	 */
+	Path findPath(Vertex v1, Vertex v2, boolean longest) {
+		final int n = csr.getVertexCount();
+		final int s = csr.indexOf(v1);
+		final int t = csr.indexOf(v2);
+		Path ret = null;
+		if (s >= 0 && t >= 0 && s != t) {
+			final long unset = longest ? Long.MIN_VALUE : Long.MAX_VALUE;
+			long[] dist = new long[n];
+			int[] via = new int[n];
+			Arrays.fill(dist, unset);
+			dist[s] = 0;
+			int i = 0;
+			while (order[i] != s) {
+				i++;
+			}
+			// Vertices after t in the order cannot lead back to t
+			for (; i < n && order[i] != t; i++) {
+				final int u = order[i];
+				if (dist[u] != unset) {
+					for (int e = csr.getFirstEdge(u); e < csr.getFirstEdge(u + 1); e++) {
+						final int v = csr.getTarget(e);
+						final long nd = dist[u] + csr.getWeight(e);
+						if (dist[v] == unset || (longest ? nd > dist[v] : nd < dist[v])) {
+							dist[v] = nd;
+							via[v] = e;
+						}
+					}
+				}
+			}
+			if (dist[t] != unset) {
+				List<Edge> el = new ArrayList<Edge>();
+				for (int v = t; v != s; v = csr.indexOf(csr.getEdge(via[v]).getV1())) {
+					el.add(csr.getEdge(via[v]));
+				}
+				Collections.reverse(el);
+				for (Edge e : el) {
+					ret = ret == null ? new Path(e) : new Path(ret, e);
+				}
+			}
+		}
+		return ret;
+	}
+
+}
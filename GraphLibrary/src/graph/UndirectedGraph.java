@@ -9,19 +9,37 @@
  ******************************************************************************/
 package graph;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import jakarta.xml.bind.annotation.XmlTransient;
+
+import graph.algorithm.UnionFind;
 import graph.error.EdgeAlreadyExistsException;
 import graph.error.EdgeDoesNotExistException;
+import graph.error.QueryAbortedException;
+import graph.error.VertexAlreadyExistsException;
 import graph.error.VertexDoesNotExistException;
 
 /**
  * Undirected graph represents graphs with edges that do not have a direction,
  * example if a graph has two vertices (A, B) then an edge traversal for "A - B"
  * would be bi-directional i.e. "A to B" and "B to A" are both allowed.
+ * 
+ * Connected components are kept in a union-find that is updated as vertices
+ * and edges are added, so connectivity queries do not need to enumerate
+ * paths. Removing a vertex or edge may split a component, the union-find is
+ * then rebuilt on the next connectivity query.
  */
 public class UndirectedGraph extends Graph {
 
+	@XmlTransient
+	private UnionFind components = null;
+	@XmlTransient
+	private Map<Vertex, Integer> componentIndex = null;
+
 	/**
 	 * Default constructor
 	 */
@@ -39,6 +57,55 @@ public class UndirectedGraph extends Graph {
 		super(vList, eList);
 	}
 
+	/**
+	 * @return the union-find of vertex components, rebuilt if a removal made it
+	 *         stale
+	 */
+	private synchronized UnionFind getComponents() {
+		if (components == null) {
+			List<Vertex> vl = getVertices();
+			components = new UnionFind(vl.size());
+			componentIndex = new HashMap<Vertex, Integer>(vl.size() * 2);
+			for (Vertex v : vl) {
+				componentIndex.put(v, components.add());
+			}
+			for (Edge e : getEdges()) {
+				components.union(componentIndex.get(e.getV1()), componentIndex.get(e.getV2()));
+			}
+		}
+		return components;
+	}
+
+	private synchronized int componentOf(Vertex v) throws VertexDoesNotExistException {
+		UnionFind uf = getComponents();
+		Integer i = v == null ? null : componentIndex.get(v);
+		if (i == null) {
+			throw new VertexDoesNotExistException(v);
+		}
+		return uf.find(i);
+	}
+
+	/**
+	 * @see graph.Graph#addVertex(graph.Vertex)
+	 */
+	@Override
+	public synchronized void addVertex(Vertex v) throws VertexAlreadyExistsException {
+		super.addVertex(v);
+		if (v != null && components != null) {
+			componentIndex.put(v, components.add());
+		}
+	}
+
+	/**
+	 * @see graph.Graph#removeVertex(graph.Vertex)
+	 */
+	@Override
+	public synchronized void removeVertex(Vertex v) throws VertexDoesNotExistException {
+		super.removeVertex(v);
+		components = null;
+		componentIndex = null;
+	}
+
 	/**
 	 * Due to bi-directional nature of edge in undirected graph, two directed edges
 	 * are added for each edge.
@@ -51,8 +118,11 @@ public class UndirectedGraph extends Graph {
 			super.addEdge(e);
 			Vertex ev1 = e.getV1();
 			Vertex ev2 = e.getV2();
-			Edge rev = new Edge(ev2, ev1, e.getWeight(), ev2.getVname() + "->" + ev1.getVname());
+			Edge rev = new Edge(ev2, ev1, e.getWeight(), null);
 			super.addEdge(rev);
+			if (components != null) {
+				components.union(componentIndex.get(ev1), componentIndex.get(ev2));
+			}
 		}
 	}
 
@@ -66,6 +136,109 @@ public class UndirectedGraph extends Graph {
 	public synchronized void removeEdge(Edge e) throws EdgeDoesNotExistException {
 		super.removeEdge(e);
 		super.removeEdge(new Edge(e.getV2(), e.getV1()));
+		components = null;
+		componentIndex = null;
+	}
+
+	/**
+	 * Due to bi-directional nature of edge in undirected graph, the weight of both
+	 * directed edges is changed.
+	 * 
+	 * @see graph.Graph#updateWeight(graph.Edge, int)
+	 */
+	@Override
+	public synchronized void updateWeight(Edge e, int weight) throws EdgeDoesNotExistException {
+		super.updateWeight(e, weight);
+		super.updateWeight(new Edge(e.getV2(), e.getV1()), weight);
+	}
+
+	/**
+	 * @return the number of connected components
+	 */
+	public synchronized int getComponentCount() {
+		return getComponents().getCount();
+	}
+
+	/**
+	 * Check if two vertices are in the same connected component, i.e. there is a
+	 * path between them
+	 * 
+	 * @param v1 vertex
+	 * @param v2 vertex
+	 * @return true if v1 and v2 are connected
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public synchronized boolean isConnected(Vertex v1, Vertex v2) throws VertexDoesNotExistException {
+		return componentOf(v1) == componentOf(v2);
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the number of vertices in the connected component of v
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public synchronized int getComponentSize(Vertex v) throws VertexDoesNotExistException {
+		return getComponents().getSize(componentOf(v));
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the vertices in the connected component of v
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public synchronized List<Vertex> getComponent(Vertex v) throws VertexDoesNotExistException {
+		final int c = componentOf(v);
+		List<Vertex> ret = new ArrayList<Vertex>();
+		for (Vertex cv : getVertices()) {
+			if (components.find(componentIndex.get(cv)) == c) {
+				ret.add(cv);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * In an undirected graph either every vertex is connected (one component of
+	 * at least two vertices) or none is.
+	 * 
+	 * @see graph.Graph#getConnectedVertices()
+	 */
+	@Override
+	public synchronized List<Vertex> getConnectedVertices() {
+		List<Vertex> ret = new ArrayList<Vertex>();
+		if (isSingleComponent()) {
+			ret.addAll(getVertices());
+		}
+		return ret;
+	}
+
+	/**
+	 * Answered from the union-find in one step of the budget, so a deadline that
+	 * has passed, a cancelled token or an interrupt still abort the query. A
+	 * partial result is empty.
+	 * 
+	 * @see graph.Graph#getConnectedVertices(graph.QueryOptions)
+	 */
+	@Override
+	public synchronized List<Vertex> getConnectedVertices(QueryOptions options) throws QueryAbortedException {
+		QueryBudget qb = new QueryBudget(options);
+		List<Vertex> ret = qb.visit() ? getConnectedVertices() : new ArrayList<Vertex>();
+		qb.complete();
+		return ret;
+	}
+
+	/**
+	 * @see graph.Graph#calculateConnectivity()
+	 */
+	@Override
+	public synchronized int calculateConnectivity() {
+		final int n = getVertices().size();
+		return (isSingleComponent() ? n * 100 : 0) / n;
+	}
+
+	private synchronized boolean isSingleComponent() {
+		UnionFind uf = getComponents();
+		return uf.getElements() > 1 && uf.getCount() == 1;
 	}
 
 }
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph;
+
+import java.util.Objects;
+
+/**
+ * Ordered pair of vertices, the source and target of a path query
+ */
+public class VertexPair {
+
+	private final Vertex source;
+	private final Vertex target;
+
+	/**
+	 * Custom constructor that takes source and target vertex
+	 * 
+	 * @param source source vertex
+	 * @param target target vertex
+	 */
+	public VertexPair(Vertex source, Vertex target) {
+		this.source = source;
+		this.target = target;
+	}
+
+	/**
+	 * @return the source vertex
+	 */
+	public Vertex getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the target vertex
+	 */
+	public Vertex getTarget() {
+		return target;
+	}
+
+	/**
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		boolean ret = (this == obj);
+		if (!ret && obj != null && obj instanceof VertexPair) {
+			VertexPair cp = (VertexPair) obj;
+			ret = Objects.equals(cp.getSource(), source) && Objects.equals(cp.getTarget(), target);
+		}
+		return ret;
+	}
+
+	/**
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(source, target);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "(" + source + ") -> (" + target + ")";
+	}
+
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.UndirectedGraph;
+
+/**
+ * Vertex and edge betweenness centrality using Brandes' algorithm: one shortest
+ * path search per source vertex followed by dependency accumulation in reverse
+ * order of distance, O(VE) unweighted and O(VE + V^2 log V) weighted. Sources
+ * are split over one worker per processor, each worker with its own search
+ * and accumulators, which are summed at the end.
+ * 
+ * For graphs too large for the exact computation a sample of k sources can be
+ * used instead, scores are then scaled by n / k and
+ * {@link BetweennessResult#getErrorBound(double)} gives the error bound.
+ * 
+ * For an {@link UndirectedGraph} every pair of vertices is seen from both ends,
+ * vertex scores are halved so that each undirected shortest path counts once.
+ * Each arc only sees the pairs routed through it in its own direction, the
+ * score of an undirected edge is the sum of its two arcs halved, given to both
+ * arcs.
+ */
+public class Betweenness {
+
+	private final CsrGraph csr;
+	private final boolean undirected;
+	private boolean weighted = false;
+	private int samples = 0;
+	private long seed = 0;
+
+	/**
+	 * Custom constructor that takes a graph, a snapshot is taken immediately
+	 * 
+	 * @param g graph
+	 */
+	public Betweenness(Graph g) {
+		csr = new CsrGraph(g);
+		undirected = g instanceof UndirectedGraph;
+	}
+
+	/**
+	 * @return true if distances use edge weights
+	 */
+	public boolean isWeighted() {
+		return weighted;
+	}
+
+	/**
+	 * @param weighted true to measure distances by (positive) edge weights, false
+	 *                 to count edges (default)
+	 */
+	public void setWeighted(boolean weighted) {
+		this.weighted = weighted;
+	}
+
+	/**
+	 * @return the number of sampled sources, 0 for exact
+	 */
+	public int getSamples() {
+		return samples;
+	}
+
+	/**
+	 * @param samples the number of source vertices to sample, 0 (default) or not
+	 *                less than the number of vertices for the exact computation
+	 */
+	public void setSamples(int samples) {
+		this.samples = samples;
+	}
+
+	/**
+	 * @return the random seed used for sampling
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed the random seed used for sampling to set
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Run the computation
+	 * 
+	 * @return vertex and edge betweenness
+	 * @throws IllegalArgumentException error if weighted and an edge weight is not
+	 *                                  positive
+	 */
+	public BetweennessResult compute() {
+		if (weighted) {
+			SingleSource.checkWeights(csr);
+		}
+		final int n = csr.getVertexCount();
+		final int m = csr.getEdgeCount();
+		final int[] sources = selectSources(n);
+		final int k = sources.length;
+		final int workers = Math.max(1, Math.min(k, Runtime.getRuntime().availableProcessors()));
+		double[][] parts = IntStream.range(0, workers).parallel().mapToObj(c -> {
+			SingleSource ss = new SingleSource(csr, weighted, true);
+			double[] acc = new double[n + m];
+			double[] delta = new double[n];
+			// Strided sources, costs of neighbouring sources even out
+			for (int i = c; i < k; i += workers) {
+				accumulate(ss, sources[i], acc, delta);
+			}
+			return acc;
+		}).toArray(double[][]::new);
+		final double scale = (double) n / k;
+		double[] vs = new double[n];
+		double[] es = new double[m];
+		for (double[] acc : parts) {
+			for (int v = 0; v < n; v++) {
+				vs[v] += acc[v];
+			}
+			for (int e = 0; e < m; e++) {
+				es[e] += acc[n + e];
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			vs[v] *= undirected ? scale / 2 : scale;
+		}
+		if (undirected) {
+			es = combineArcs(es);
+		}
+		for (int e = 0; e < m; e++) {
+			es[e] *= scale;
+		}
+		// Largest dependency of a vertex on one source: n - 2 target vertices
+		final double maxDependency = Math.max(0, n - 2) * (undirected ? 0.5 : 1);
+		return new BetweennessResult(csr, vs, es, k, maxDependency);
+	}
+
+	/**
+	 * Undirected edge score from the scores of its two arcs, each arc sees the
+	 * pairs routed through the edge in one direction
+	 */
+	private double[] combineArcs(double[] es) {
+		double[] ret = new double[es.length];
+		for (int v = 0; v < csr.getVertexCount(); v++) {
+			for (int e = csr.getFirstEdge(v); e < csr.getFirstEdge(v + 1); e++) {
+				final int w = csr.getTarget(e);
+				double sum = es[e];
+				for (int r = csr.getFirstEdge(w); r < csr.getFirstEdge(w + 1); r++) {
+					if (csr.getTarget(r) == v) {
+						sum += es[r];
+						break;
+					}
+				}
+				ret[e] = sum / 2;
+			}
+		}
+		return ret;
+	}
+
+	private int[] selectSources(int n) {
+		int[] ret;
+		if (samples <= 0 || samples >= n) {
+			ret = new int[n];
+			for (int i = 0; i < n; i++) {
+				ret[i] = i;
+			}
+		} else {
+			// Partial Fisher-Yates shuffle, k distinct sources
+			int[] all = new int[n];
+			for (int i = 0; i < n; i++) {
+				all[i] = i;
+			}
+			Random r = new Random(seed);
+			for (int i = 0; i < samples; i++) {
+				final int j = i + r.nextInt(n - i);
+				final int t = all[i];
+				all[i] = all[j];
+				all[j] = t;
+			}
+			ret = new int[samples];
+			System.arraycopy(all, 0, ret, 0, samples);
+		}
+		return ret;
+	}
+
+	/**
+	 * Search from s and add the dependencies of s to the accumulators, vertex
+	 * scores in acc[0..n-1] and edge scores in acc[n..n+m-1]
+	 */
+	private void accumulate(SingleSource ss, int s, double[] acc, double[] delta) {
+		final int n = csr.getVertexCount();
+		final int r = ss.run(s);
+		for (int i = r - 1; i >= 0; i--) {
+			final int v = ss.getSettled(i);
+			final long dv = ss.getDistance(v);
+			final double sv = ss.getPathCount(v);
+			double dep = 0;
+			for (int e = csr.getFirstEdge(v); e < csr.getFirstEdge(v + 1); e++) {
+				final int w = csr.getTarget(e);
+				final long dw = ss.getDistance(w);
+				if (dw != SingleSource.UNREACHED && dw == dv + (weighted ? csr.getWeight(e) : 1)) {
+					final double c = sv / ss.getPathCount(w) * (1 + delta[w]);
+					acc[n + e] += c;
+					dep += c;
+				}
+			}
+			delta[v] = dep;
+			if (v != s) {
+				acc[v] += dep;
+			}
+		}
+		for (int i = 0; i < r; i++) {
+			delta[ss.getSettled(i)] = 0;
+		}
+	}
+
+}
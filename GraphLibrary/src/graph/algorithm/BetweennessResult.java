@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Vertex;
+
+/**
+ * Result of a {@link Betweenness} run. Vertex scores are keyed by dense vertex
+ * index and edge scores by edge index of the snapshot the run used.
+ */
+public class BetweennessResult {
+
+	private final CsrGraph csr;
+	private final double[] vertexScores;
+	private final double[] edgeScores;
+	private final int samples;
+	private final double maxDependency;
+
+	BetweennessResult(CsrGraph csr, double[] vertexScores, double[] edgeScores, int samples, double maxDependency) {
+		this.csr = csr;
+		this.vertexScores = vertexScores;
+		this.edgeScores = edgeScores;
+		this.samples = samples;
+		this.maxDependency = maxDependency;
+	}
+
+	/**
+	 * @return the snapshot scores are keyed by
+	 */
+	public CsrGraph getCsr() {
+		return csr;
+	}
+
+	/**
+	 * @return the betweenness of every vertex by dense vertex index
+	 */
+	public double[] getVertexScores() {
+		return vertexScores;
+	}
+
+	/**
+	 * @return the betweenness of every edge by edge index
+	 */
+	public double[] getEdgeScores() {
+		return edgeScores;
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the betweenness of the vertex, NaN if vertex was not in graph
+	 */
+	public double getScore(Vertex v) {
+		final int i = csr.indexOf(v);
+		return i < 0 ? Double.NaN : vertexScores[i];
+	}
+
+	/**
+	 * @param e edge
+	 * @return the betweenness of the edge, NaN if edge was not in graph
+	 */
+	public double getScore(Edge e) {
+		double ret = Double.NaN;
+		final int v = csr.indexOf(e.getV1());
+		if (v >= 0) {
+			for (int k = csr.getFirstEdge(v); k < csr.getFirstEdge(v + 1); k++) {
+				if (csr.getEdge(k).equals(e)) {
+					ret = edgeScores[k];
+					break;
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the number of source vertices used, equal to the number of vertices
+	 *         for an exact run
+	 */
+	public int getSamples() {
+		return samples;
+	}
+
+	/**
+	 * @return true if every vertex was used as a source
+	 */
+	public boolean isExact() {
+		return samples == csr.getVertexCount();
+	}
+
+	/**
+	 * Bound on the absolute error of every vertex score of a sampled run, holding
+	 * for all vertices at once with probability at least 1 - delta. Each sample
+	 * contributes an unbiased estimate bounded by n times the largest possible
+	 * dependency of a single source, so Hoeffding's inequality with a union bound
+	 * over the n vertices gives range * sqrt(ln(2n / delta) / (2k)).
+	 * 
+	 * @param delta allowed failure probability, example 0.05
+	 * @return absolute error bound, 0 for an exact run
+	 */
+	public double getErrorBound(double delta) {
+		double ret = 0;
+		final int n = csr.getVertexCount();
+		if (!isExact() && samples > 0) {
+			final double range = n * maxDependency;
+			ret = range * Math.sqrt(Math.log(2.0 * n / delta) / (2.0 * samples));
+		}
+		return ret;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "BetweennessResult: Samples=" + samples + " Exact=" + isExact() + " ErrorBound(0.05)="
+				+ getErrorBound(0.05);
+	}
+
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.stream.IntStream;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.IndexedGraph;
+
+/**
+ * Degree, closeness and harmonic centrality over a snapshot of a graph, CSR or
+ * compressed. Scores are returned as arrays keyed by dense vertex index of
+ * {@link #getSnapshot()}. Closeness and harmonic centrality run one search per
+ * source vertex, in parallel over contiguous ranges of sources with one
+ * reusable search per range.
+ */
+public class Centrality {
+
+	private final IndexedGraph snapshot;
+	private boolean weighted = false;
+
+	/**
+	 * Custom constructor that takes a graph, a snapshot is taken immediately
+	 * 
+	 * @param g graph
+	 */
+	public Centrality(Graph g) {
+		this(new CsrGraph(g));
+	}
+
+	/**
+	 * Custom constructor that takes a snapshot of a graph
+	 * 
+	 * @param snapshot graph snapshot
+	 */
+	public Centrality(IndexedGraph snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * @return the snapshot scores are keyed by
+	 */
+	public IndexedGraph getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * @return true if distances use edge weights
+	 */
+	public boolean isWeighted() {
+		return weighted;
+	}
+
+	/**
+	 * @param weighted true to measure distances by (positive) edge weights, false
+	 *                 to count edges (default)
+	 */
+	public void setWeighted(boolean weighted) {
+		this.weighted = weighted;
+	}
+
+	/**
+	 * @return the number of out-edges of every vertex
+	 */
+	public double[] outDegree() {
+		final int n = snapshot.getVertexCount();
+		double[] ret = new double[n];
+		for (int v = 0; v < n; v++) {
+			ret[v] = snapshot.getOutDegree(v);
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the number of in-edges of every vertex
+	 */
+	public double[] inDegree() {
+		final int n = snapshot.getVertexCount();
+		double[] ret = new double[n];
+		int[] targets = new int[snapshot.getMaxOutDegree()];
+		for (int v = 0; v < n; v++) {
+			final int d = snapshot.getSuccessors(v, targets, null);
+			for (int k = 0; k < d; k++) {
+				ret[targets[k]]++;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Closeness centrality with the Wasserman-Faust correction for graphs that
+	 * are not connected: (r / (n - 1)) * (r / total distance to the r reachable
+	 * vertices). Vertices that reach no other vertex score 0.
+	 * 
+	 * @return closeness of every vertex
+	 * @throws IllegalArgumentException error if weighted and an edge weight is not
+	 *                                  positive
+	 */
+	public double[] closeness() {
+		if (weighted) {
+			SingleSource.checkWeights(snapshot);
+		}
+		final int n = snapshot.getVertexCount();
+		final int workers = workers(n);
+		double[] ret = new double[n];
+		IntStream.range(0, workers).parallel().forEach(c -> {
+			SingleSource ss = new SingleSource(snapshot, weighted);
+			for (int s = first(n, c, workers); s < first(n, c + 1, workers); s++) {
+				final int r = ss.run(s) - 1;
+				long total = 0;
+				for (int i = 1; i <= r; i++) {
+					total += ss.getDistance(ss.getSettled(i));
+				}
+				ret[s] = total == 0 ? 0 : ((double) r / (n - 1)) * ((double) r / total);
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * Harmonic centrality: sum of 1 / distance to every other reachable vertex,
+	 * divided by n - 1
+	 * 
+	 * @return harmonic centrality of every vertex
+	 * @throws IllegalArgumentException error if weighted and an edge weight is not
+	 *                                  positive
+	 */
+	public double[] harmonic() {
+		if (weighted) {
+			SingleSource.checkWeights(snapshot);
+		}
+		final int n = snapshot.getVertexCount();
+		final int workers = workers(n);
+		double[] ret = new double[n];
+		IntStream.range(0, workers).parallel().forEach(c -> {
+			SingleSource ss = new SingleSource(snapshot, weighted);
+			for (int s = first(n, c, workers); s < first(n, c + 1, workers); s++) {
+				final int r = ss.run(s);
+				double sum = 0;
+				for (int i = 1; i < r; i++) {
+					final long d = ss.getDistance(ss.getSettled(i));
+					if (d > 0) {
+						sum += 1.0 / d;
+					}
+				}
+				ret[s] = n > 1 ? sum / (n - 1) : 0;
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * @return the number of source ranges searched in parallel
+	 */
+	private static int workers(int n) {
+		return Math.max(1, Math.min(n, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * @return the first source of range c, c == workers gives n
+	 */
+	private static int first(int n, int c, int workers) {
+		return (int) ((long) n * c / workers);
+	}
+
+}
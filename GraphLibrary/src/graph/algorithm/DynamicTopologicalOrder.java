@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Topological order of dense integer nodes maintained online as edges are added
+ * (Pearce-Kelly). Adding an edge x -> y that agrees with the current order costs
+ * O(1). Otherwise only the nodes positioned between y and x are searched,
+ * forward from y and backward from x, and the visited nodes are reordered among
+ * their own positions, so the cost is proportional to the affected region
+ * rather than the whole graph. If the forward search reaches x the edge would
+ * close a cycle and it is rejected.
+ * 
+ * Removing an edge never invalidates the order. Deleting nodes is not
+ * supported, rebuild instead.
+ */
+public class DynamicTopologicalOrder {
+
+	private int[] ord;
+	private int[] at;
+	private int[][] out;
+	private int[][] in;
+	private int[] outDegree;
+	private int[] inDegree;
+	private int[] mark;
+	private int[] parent;
+	private int[] stack;
+	private int[] deltaF;
+	private int[] deltaB;
+	private int stamp = 0;
+	private int nodes = 0;
+	private int edges = 0;
+	private long visited = 0;
+	private int[] cycle = new int[0];
+
+	/**
+	 * Default constructor
+	 */
+	public DynamicTopologicalOrder() {
+		this(16);
+	}
+
+	/**
+	 * Custom constructor that takes the initial capacity
+	 * 
+	 * @param capacity initial capacity
+	 */
+	public DynamicTopologicalOrder(int capacity) {
+		capacity = Math.max(1, capacity);
+		ord = new int[capacity];
+		at = new int[capacity];
+		out = new int[capacity][];
+		in = new int[capacity][];
+		outDegree = new int[capacity];
+		inDegree = new int[capacity];
+		mark = new int[capacity];
+		parent = new int[capacity];
+		stack = new int[capacity];
+		deltaF = new int[capacity];
+		deltaB = new int[capacity];
+	}
+
+	/**
+	 * Add a new node without edges, placed last in the order
+	 * 
+	 * @return the new node, equal to the number of nodes before the call
+	 */
+	public int add() {
+		if (nodes == ord.length) {
+			final int cap = ord.length * 2;
+			ord = Arrays.copyOf(ord, cap);
+			at = Arrays.copyOf(at, cap);
+			out = Arrays.copyOf(out, cap);
+			in = Arrays.copyOf(in, cap);
+			outDegree = Arrays.copyOf(outDegree, cap);
+			inDegree = Arrays.copyOf(inDegree, cap);
+			mark = Arrays.copyOf(mark, cap);
+			parent = Arrays.copyOf(parent, cap);
+			stack = Arrays.copyOf(stack, cap);
+			deltaF = Arrays.copyOf(deltaF, cap);
+			deltaB = Arrays.copyOf(deltaB, cap);
+		}
+		final int ret = nodes++;
+		ord[ret] = ret;
+		at[ret] = ret;
+		out[ret] = new int[2];
+		in[ret] = new int[2];
+		return ret;
+	}
+
+	/**
+	 * Add edge x -> y unless it would close a cycle, the cycle is then available
+	 * from {@link #getCycle()}
+	 * 
+	 * @param x source node
+	 * @param y target node
+	 * @return true if edge was added, false if it would close a cycle
+	 */
+	public boolean addEdge(int x, int y) {
+		boolean ret = true;
+		if (x == y) {
+			cycle = new int[] { x };
+			ret = false;
+		} else if (ord[y] < ord[x]) {
+			final int fc = searchForward(y, x);
+			if (fc < 0) {
+				ret = false;
+			} else {
+				reorder(fc, searchBackward(x, ord[y]));
+			}
+		}
+		if (ret) {
+			out[x] = append(out[x], outDegree[x]++, y);
+			in[y] = append(in[y], inDegree[y]++, x);
+			edges++;
+		}
+		return ret;
+	}
+
+	/**
+	 * Remove edge x -> y, the order stays valid
+	 * 
+	 * @param x source node
+	 * @param y target node
+	 * @return true if edge was removed
+	 */
+	public boolean removeEdge(int x, int y) {
+		boolean ret = remove(out[x], outDegree[x], y);
+		if (ret) {
+			outDegree[x]--;
+			remove(in[y], inDegree[y]--, x);
+			edges--;
+		}
+		return ret;
+	}
+
+	/**
+	 * Depth first search from y over nodes positioned before x, visited nodes are
+	 * collected in deltaF
+	 * 
+	 * @return number of visited nodes, -1 if x was reached
+	 */
+	private int searchForward(int y, int x) {
+		final int ub = ord[x];
+		int top = 0;
+		int ret = 0;
+		mark[y] = ++stamp;
+		stack[top++] = y;
+		while (top > 0 && ret >= 0) {
+			final int n = stack[--top];
+			deltaF[ret++] = n;
+			for (int i = 0; i < outDegree[n] && ret >= 0; i++) {
+				final int w = out[n][i];
+				if (w == x) {
+					parent[x] = n;
+					cycle = tracePath(y, x);
+					ret = -1;
+				} else if (mark[w] != stamp && ord[w] < ub) {
+					mark[w] = stamp;
+					parent[w] = n;
+					stack[top++] = w;
+				}
+			}
+		}
+		visited += Math.max(ret, 0);
+		return ret;
+	}
+
+	/**
+	 * Depth first search backward from x over nodes positioned after lb, visited
+	 * nodes are collected in deltaB. The forward and backward regions are
+	 * disjoint when there is no cycle.
+	 * 
+	 * @return number of visited nodes
+	 */
+	private int searchBackward(int x, int lb) {
+		int top = 0;
+		int ret = 0;
+		mark[x] = ++stamp;
+		stack[top++] = x;
+		while (top > 0) {
+			final int n = stack[--top];
+			deltaB[ret++] = n;
+			for (int i = 0; i < inDegree[n]; i++) {
+				final int w = in[n][i];
+				if (mark[w] != stamp && ord[w] > lb) {
+					mark[w] = stamp;
+					stack[top++] = w;
+				}
+			}
+		}
+		visited += ret;
+		return ret;
+	}
+
+	/**
+	 * Place the backward region before the forward region, reusing the positions
+	 * they already occupy and keeping the relative order within each region
+	 */
+	private void reorder(int fc, int bc) {
+		long[] keys = new long[fc + bc];
+		for (int i = 0; i < bc; i++) {
+			keys[i] = ((long) ord[deltaB[i]] << 32) | deltaB[i];
+		}
+		for (int i = 0; i < fc; i++) {
+			keys[bc + i] = ((long) ord[deltaF[i]] << 32) | deltaF[i];
+		}
+		Arrays.sort(keys, 0, bc);
+		Arrays.sort(keys, bc, bc + fc);
+		int[] positions = new int[fc + bc];
+		for (int i = 0; i < keys.length; i++) {
+			positions[i] = (int) (keys[i] >>> 32);
+		}
+		Arrays.sort(positions);
+		for (int i = 0; i < keys.length; i++) {
+			final int n = (int) keys[i];
+			ord[n] = positions[i];
+			at[positions[i]] = n;
+		}
+	}
+
+	/**
+	 * @return cycle x, y, ..., back to x following parents of the forward search
+	 */
+	private int[] tracePath(int y, int x) {
+		int len = 1;
+		for (int n = parent[x]; n != y; n = parent[n]) {
+			len++;
+		}
+		int[] ret = new int[len + 1];
+		ret[0] = x;
+		int i = len;
+		for (int n = parent[x]; n != y; n = parent[n]) {
+			ret[i--] = n;
+		}
+		ret[1] = y;
+		return ret;
+	}
+
+	private static int[] append(int[] a, int count, int v) {
+		int[] ret = count == a.length ? Arrays.copyOf(a, count * 2) : a;
+		ret[count] = v;
+		return ret;
+	}
+
+	private static boolean remove(int[] a, int count, int v) {
+		boolean ret = false;
+		for (int i = 0; i < count && !ret; i++) {
+			if (a[i] == v) {
+				a[i] = a[count - 1];
+				ret = true;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @param n node
+	 * @return the position of node n in the order, 0 is first
+	 */
+	public int getPosition(int n) {
+		return ord[n];
+	}
+
+	/**
+	 * @param position position in the order
+	 * @return the node at the position
+	 */
+	public int getNode(int position) {
+		return at[position];
+	}
+
+	/**
+	 * @return the nodes in topological order
+	 */
+	public int[] getOrder() {
+		return Arrays.copyOf(at, nodes);
+	}
+
+	/**
+	 * @return the cycle that made the last rejected edge fail, nodes in edge order
+	 *         starting with the source of the rejected edge
+	 */
+	public int[] getCycle() {
+		return cycle;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public int getEdges() {
+		return edges;
+	}
+
+	/**
+	 * @return the total number of nodes visited by reordering searches, a measure
+	 *         of the work done beyond constant time edge inserts
+	 */
+	public long getVisited() {
+		return visited;
+	}
+
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of dense integer items 0..capacity-1 with long keys, backed
+ * by primitive arrays. Each item is in the heap at most once and its key can be
+ * decreased in place, which is what Dijkstra and Prim need. Once created the
+ * heap allocates nothing, call {@link #clear()} to reuse it.
+ */
+public class IndexedMinHeap {
+
+	private final int[] heap;
+	private final int[] pos;
+	private final long[] keys;
+	private int size = 0;
+
+	/**
+	 * Custom constructor that takes the capacity
+	 * 
+	 * @param capacity number of distinct items
+	 */
+	public IndexedMinHeap(int capacity) {
+		heap = new int[capacity];
+		pos = new int[capacity];
+		keys = new long[capacity];
+		Arrays.fill(pos, -1);
+	}
+
+	/**
+	 * @return true if the heap is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the number of items in the heap
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param item item
+	 * @return true if item is in the heap
+	 */
+	public boolean contains(int item) {
+		return pos[item] >= 0;
+	}
+
+	/**
+	 * @param item item in the heap
+	 * @return the key of the item
+	 */
+	public long getKey(int item) {
+		return keys[item];
+	}
+
+	/**
+	 * Insert an item, or lower its key if it is in the heap with a higher key
+	 * 
+	 * @param item item
+	 * @param key  key
+	 * @return true if the item was inserted or its key lowered
+	 */
+	public boolean offer(int item, long key) {
+		boolean ret = false;
+		if (pos[item] < 0) {
+			keys[item] = key;
+			pos[item] = size;
+			heap[size++] = item;
+			siftUp(pos[item]);
+			ret = true;
+		} else if (key < keys[item]) {
+			keys[item] = key;
+			siftUp(pos[item]);
+			ret = true;
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the item with the smallest key, without removing it
+	 */
+	public int peek() {
+		return heap[0];
+	}
+
+	/**
+	 * Remove the item with the smallest key
+	 * 
+	 * @return the item
+	 */
+	public int poll() {
+		final int ret = heap[0];
+		pos[ret] = -1;
+		if (--size > 0) {
+			heap[0] = heap[size];
+			pos[heap[0]] = 0;
+			siftDown(0);
+		}
+		return ret;
+	}
+
+	/**
+	 * Remove all items
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			pos[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	private void siftUp(int i) {
+		final int item = heap[i];
+		final long key = keys[item];
+		while (i > 0) {
+			final int p = (i - 1) >>> 1;
+			if (keys[heap[p]] <= key) {
+				break;
+			}
+			heap[i] = heap[p];
+			pos[heap[i]] = i;
+			i = p;
+		}
+		heap[i] = item;
+		pos[item] = i;
+	}
+
+	private void siftDown(int i) {
+		final int item = heap[i];
+		final long key = keys[item];
+		final int half = size >>> 1;
+		while (i < half) {
+			int c = 2 * i + 1;
+			if (c + 1 < size && keys[heap[c + 1]] < keys[heap[c]]) {
+				c++;
+			}
+			if (key <= keys[heap[c]]) {
+				break;
+			}
+			heap[i] = heap[c];
+			pos[heap[i]] = i;
+			i = c;
+		}
+		heap[i] = item;
+		pos[item] = i;
+	}
+
+}
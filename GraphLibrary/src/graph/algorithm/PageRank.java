@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+/**
+ * PageRank over a CSR snapshot of a graph. Each iteration pulls rank along the
+ * in-edges of every vertex, in parallel over vertices, so no two threads write
+ * to the same score. Rank of vertices without out-edges is spread evenly over
+ * all vertices. With weights enabled a vertex passes rank to its successors in
+ * proportion to the edge weights (non-positive weights pass no rank).
+ */
+public class PageRank {
+
+	private final CsrGraph csr;
+	private double damping = 0.85;
+	private double tolerance = 1e-6;
+	private int maxIterations = 100;
+	private boolean weighted = false;
+
+	/**
+	 * Custom constructor that takes a graph, a snapshot is taken immediately
+	 * 
+	 * @param g graph
+	 */
+	public PageRank(Graph g) {
+		this(new CsrGraph(g));
+	}
+
+	/**
+	 * Custom constructor that takes a snapshot of a graph
+	 * 
+	 * @param csr graph snapshot
+	 */
+	public PageRank(CsrGraph csr) {
+		this.csr = csr;
+	}
+
+	/**
+	 * @return the damping factor
+	 */
+	public double getDamping() {
+		return damping;
+	}
+
+	/**
+	 * @param damping the damping factor to set (default 0.85)
+	 */
+	public void setDamping(double damping) {
+		this.damping = damping;
+	}
+
+	/**
+	 * @return the tolerance
+	 */
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	/**
+	 * @param tolerance the L1 change below which the ranking has converged
+	 *                  (default 1e-6)
+	 */
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * @return the maximum number of iterations
+	 */
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	/**
+	 * @param maxIterations the maximum number of iterations to set (default 100)
+	 */
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * @return true if edge weights are used
+	 */
+	public boolean isWeighted() {
+		return weighted;
+	}
+
+	/**
+	 * @param weighted true to use edge weights, false to treat all edges equally
+	 *                 (default)
+	 */
+	public void setWeighted(boolean weighted) {
+		this.weighted = weighted;
+	}
+
+	/**
+	 * Run the ranking
+	 * 
+	 * @return scores summing to 1 and per-iteration statistics
+	 */
+	public RankResult compute() {
+		final int n = csr.getVertexCount();
+		final CsrGraph in = csr.transpose();
+		// Total outgoing weight per vertex
+		final double[] outWeight = new double[n];
+		IntStream.range(0, n).parallel().forEach(u -> {
+			double w = 0;
+			for (int e = csr.getFirstEdge(u); e < csr.getFirstEdge(u + 1); e++) {
+				w += edgeWeight(csr.getWeight(e));
+			}
+			outWeight[u] = w;
+		});
+		double[] rank = new double[n];
+		double[] next = new double[n];
+		Arrays.fill(rank, n == 0 ? 0 : 1.0 / n);
+		double[] residuals = new double[maxIterations];
+		long[] nanos = new long[maxIterations];
+		int it = 0;
+		boolean converged = n == 0;
+		while (!converged && it < maxIterations) {
+			final long start = System.nanoTime();
+			final double[] cur = rank;
+			final double[] nxt = next;
+			final double dangling = IntStream.range(0, n).parallel().filter(u -> outWeight[u] == 0)
+					.mapToDouble(u -> cur[u]).sum();
+			final double base = (1 - damping) / n + damping * dangling / n;
+			residuals[it] = IntStream.range(0, n).parallel().mapToDouble(v -> {
+				double sum = 0;
+				for (int e = in.getFirstEdge(v); e < in.getFirstEdge(v + 1); e++) {
+					final int u = in.getTarget(e);
+					if (outWeight[u] > 0) {
+						sum += cur[u] * edgeWeight(in.getWeight(e)) / outWeight[u];
+					}
+				}
+				nxt[v] = base + damping * sum;
+				return Math.abs(nxt[v] - cur[v]);
+			}).sum();
+			nanos[it] = System.nanoTime() - start;
+			converged = residuals[it] < tolerance;
+			rank = nxt;
+			next = cur;
+			it++;
+		}
+		return new RankResult(csr, rank, Arrays.copyOf(residuals, it), Arrays.copyOf(nanos, it), converged);
+	}
+
+	private double edgeWeight(int w) {
+		return weighted ? Math.max(w, 0) : 1;
+	}
+
+}
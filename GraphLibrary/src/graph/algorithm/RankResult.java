@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import graph.CsrGraph;
+import graph.Vertex;
+
+/**
+ * Result of an iterative ranking such as {@link PageRank}. Scores are keyed by
+ * the dense vertex index of the snapshot the ranking ran on.
+ */
+public class RankResult {
+
+	private final CsrGraph csr;
+	private final double[] scores;
+	private final double[] residuals;
+	private final long[] iterationNanos;
+	private final boolean converged;
+
+	RankResult(CsrGraph csr, double[] scores, double[] residuals, long[] iterationNanos, boolean converged) {
+		this.csr = csr;
+		this.scores = scores;
+		this.residuals = residuals;
+		this.iterationNanos = iterationNanos;
+		this.converged = converged;
+	}
+
+	/**
+	 * @return the snapshot the scores are keyed by
+	 */
+	public CsrGraph getCsr() {
+		return csr;
+	}
+
+	/**
+	 * @return the scores by dense vertex index
+	 */
+	public double[] getScores() {
+		return scores;
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the score of the vertex, NaN if vertex was not in graph
+	 */
+	public double getScore(Vertex v) {
+		final int i = csr.indexOf(v);
+		return i < 0 ? Double.NaN : scores[i];
+	}
+
+	/**
+	 * @return the number of iterations run
+	 */
+	public int getIterations() {
+		return residuals.length;
+	}
+
+	/**
+	 * @return the L1 change of the scores in each iteration
+	 */
+	public double[] getResiduals() {
+		return residuals;
+	}
+
+	/**
+	 * @return the run time of each iteration in nanoseconds
+	 */
+	public long[] getIterationNanos() {
+		return iterationNanos;
+	}
+
+	/**
+	 * @return true if the tolerance was reached before the iteration limit
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RankResult: Iterations=" + getIterations() + " Converged=" + converged + " Residual="
+				+ (residuals.length == 0 ? 0 : residuals[residuals.length - 1]);
+	}
+
+}
@@ -0,0 +1,568 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.Arrays;
+
+import graph.IndexedGraph;
+
+/**
+ * Reachability index of dense integer nodes, answers "is there a path from u to
+ * v" without a search of the whole graph. Strongly connected components are
+ * found first (Tarjan) and every node is mapped to its component, so the index
+ * only has to cover the acyclic condensation. Components are numbered in
+ * reverse topological order: an edge between components always goes from a
+ * higher to a lower number.
+ * 
+ * With at most closureLimit components the index holds the full transitive
+ * closure of the condensation as one bitset per component and queries are a
+ * single bit test. Larger graphs get two interval labels per component from
+ * depth first post-order numbering (GRAIL): if the interval of v is not nested
+ * in the interval of u then u cannot reach v, otherwise a search of the
+ * condensation, pruned by the same test, decides.
+ * 
+ * Edges and nodes can be added online. The closure is updated in place, every
+ * component that reaches u also reaches all that v reaches. Interval labels are
+ * kept and added edges that open new paths are held as pending edges that
+ * queries take into account, the owner rebuilds the index when there are too
+ * many of them. Removing edges or nodes is not supported, rebuild instead.
+ */
+public class ReachabilityIndex {
+
+	/**
+	 * Default largest number of components indexed by a full closure, the closure
+	 * then takes 8 MB
+	 */
+	public static final int CLOSURE_LIMIT = 8192;
+
+	private static final int LABELS = 2;
+
+	private int nodes;
+	private int components;
+	private int[] comp;
+	private int[] size;
+	// Condensation edges, component c to dagTarget[dagOffset[c]..dagOffset[c+1]-1]
+	private int[] dagOffset;
+	private int[] dagTarget;
+	// Closure mode
+	private final boolean closure;
+	private final int closureLimit;
+	private long[][] reach;
+	private long[] reachedNodes;
+	// Interval mode
+	private int[][] low;
+	private int[][] post;
+	private int nextLabel;
+	private int[] pendingFrom = new int[8];
+	private int[] pendingTo = new int[8];
+	private int pending = 0;
+	private int root = -2;
+	private int[] mark;
+	private int[] stack;
+	private int stamp = 0;
+
+	/**
+	 * Custom constructor that takes a graph snapshot
+	 * 
+	 * @param g graph snapshot
+	 */
+	public ReachabilityIndex(IndexedGraph g) {
+		this(g, CLOSURE_LIMIT);
+	}
+
+	/**
+	 * Custom constructor that takes a graph snapshot and the closure limit
+	 * 
+	 * @param g            graph snapshot
+	 * @param closureLimit largest number of components indexed by a full closure,
+	 *                     larger graphs use interval labels
+	 */
+	public ReachabilityIndex(IndexedGraph g, int closureLimit) {
+		nodes = g.getVertexCount();
+		// Own copy of the adjacency, Tarjan resumes scans of successor lists
+		int[] offset = new int[nodes + 1];
+		int[] target = new int[g.getEdgeCount()];
+		int[] buf = new int[g.getMaxOutDegree()];
+		for (int v = 0; v < nodes; v++) {
+			final int d = g.getSuccessors(v, buf, null);
+			if (offset[v] + d > target.length) {
+				target = Arrays.copyOf(target, Math.max(offset[v] + d, target.length * 2));
+			}
+			System.arraycopy(buf, 0, target, offset[v], d);
+			offset[v + 1] = offset[v] + d;
+		}
+		comp = new int[Math.max(1, nodes)];
+		findComponents(offset, target);
+		size = new int[Math.max(1, components)];
+		for (int v = 0; v < nodes; v++) {
+			size[comp[v]]++;
+		}
+		condense(offset, target);
+		mark = new int[size.length];
+		stack = new int[size.length];
+		this.closureLimit = closureLimit;
+		closure = components <= closureLimit;
+		if (closure) {
+			buildClosure();
+		} else {
+			buildLabels();
+		}
+	}
+
+	/**
+	 * Iterative Tarjan, components are numbered in the order they complete, sinks
+	 * first
+	 */
+	private void findComponents(int[] offset, int[] target) {
+		int[] index = new int[nodes];
+		int[] lowLink = new int[nodes];
+		int[] pos = new int[nodes];
+		int[] calls = new int[nodes];
+		int[] open = new int[nodes];
+		boolean[] onStack = new boolean[nodes];
+		Arrays.fill(index, -1);
+		int counter = 0;
+		int openTop = 0;
+		for (int s = 0; s < nodes; s++) {
+			if (index[s] < 0) {
+				int top = 0;
+				calls[top++] = s;
+				index[s] = lowLink[s] = counter++;
+				pos[s] = offset[s];
+				open[openTop++] = s;
+				onStack[s] = true;
+				while (top > 0) {
+					final int v = calls[top - 1];
+					if (pos[v] < offset[v + 1]) {
+						final int w = target[pos[v]++];
+						if (index[w] < 0) {
+							index[w] = lowLink[w] = counter++;
+							pos[w] = offset[w];
+							open[openTop++] = w;
+							onStack[w] = true;
+							calls[top++] = w;
+						} else if (onStack[w]) {
+							lowLink[v] = Math.min(lowLink[v], index[w]);
+						}
+					} else {
+						top--;
+						if (lowLink[v] == index[v]) {
+							int w;
+							do {
+								w = open[--openTop];
+								onStack[w] = false;
+								comp[w] = components;
+							} while (w != v);
+							components++;
+						}
+						if (top > 0) {
+							final int p = calls[top - 1];
+							lowLink[p] = Math.min(lowLink[p], lowLink[v]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void condense(int[] offset, int[] target) {
+		// Group nodes by component, then collect distinct component successors
+		int[] first = new int[components + 1];
+		for (int v = 0; v < nodes; v++) {
+			first[comp[v] + 1]++;
+		}
+		for (int c = 0; c < components; c++) {
+			first[c + 1] += first[c];
+		}
+		int[] members = new int[nodes];
+		int[] fill = Arrays.copyOf(first, components);
+		for (int v = 0; v < nodes; v++) {
+			members[fill[comp[v]]++] = v;
+		}
+		int[] seen = new int[Math.max(1, components)];
+		Arrays.fill(seen, -1);
+		dagOffset = new int[size.length + 1];
+		dagTarget = new int[16];
+		int m = 0;
+		for (int c = 0; c < components; c++) {
+			for (int k = first[c]; k < first[c + 1]; k++) {
+				final int v = members[k];
+				for (int e = offset[v]; e < offset[v + 1]; e++) {
+					final int d = comp[target[e]];
+					if (d != c && seen[d] != c) {
+						seen[d] = c;
+						if (m == dagTarget.length) {
+							dagTarget = Arrays.copyOf(dagTarget, m * 2);
+						}
+						dagTarget[m++] = d;
+					}
+				}
+			}
+			dagOffset[c + 1] = m;
+		}
+	}
+
+	private void buildClosure() {
+		final int words = (size.length + 63) >> 6;
+		reach = new long[size.length][];
+		reachedNodes = new long[size.length];
+		// Successors have lower numbers, so they are complete when c is reached
+		for (int c = 0; c < components; c++) {
+			long[] r = new long[words];
+			r[c >> 6] |= 1L << c;
+			for (int e = dagOffset[c]; e < dagOffset[c + 1]; e++) {
+				final long[] rd = reach[dagTarget[e]];
+				for (int w = 0; w < words; w++) {
+					r[w] |= rd[w];
+				}
+			}
+			reach[c] = r;
+			reachedNodes[c] = countNodes(r);
+		}
+	}
+
+	private long countNodes(long[] r) {
+		long ret = 0;
+		for (int w = 0; w < r.length; w++) {
+			for (long bits = r[w]; bits != 0; bits &= bits - 1) {
+				ret += size[(w << 6) + Long.numberOfTrailingZeros(bits)];
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Post-order interval labels, one depth first pass over the condensation per
+	 * label with successors taken in a different order
+	 */
+	private void buildLabels() {
+		low = new int[LABELS][size.length];
+		post = new int[LABELS][size.length];
+		boolean[] hasParent = new boolean[components];
+		for (int e = 0; e < dagOffset[components]; e++) {
+			hasParent[dagTarget[e]] = true;
+		}
+		int[] pos = new int[components];
+		for (int j = 0; j < LABELS; j++) {
+			final boolean reverse = j % 2 == 1;
+			final int[] lj = low[j];
+			final int[] pj = post[j];
+			Arrays.fill(pj, -1);
+			int counter = 0;
+			for (int k = 0; k < components; k++) {
+				// Roots are the highest numbered components
+				final int s = reverse ? k : components - 1 - k;
+				if (!hasParent[s] && pj[s] < 0) {
+					int top = 0;
+					stack[top++] = s;
+					pos[s] = 0;
+					lj[s] = Integer.MAX_VALUE;
+					while (top > 0) {
+						final int c = stack[top - 1];
+						final int d = dagOffset[c + 1] - dagOffset[c];
+						if (pos[c] < d) {
+							final int i = pos[c]++;
+							final int w = dagTarget[reverse ? dagOffset[c + 1] - 1 - i : dagOffset[c] + i];
+							if (pj[w] < 0 && lj[w] != Integer.MAX_VALUE) {
+								pos[w] = 0;
+								lj[w] = Integer.MAX_VALUE;
+								stack[top++] = w;
+							} else if (pj[w] >= 0) {
+								lj[c] = Math.min(lj[c], lj[w]);
+							}
+						} else {
+							top--;
+							pj[c] = counter++;
+							lj[c] = Math.min(lj[c], pj[c]);
+							if (top > 0) {
+								final int p = stack[top - 1];
+								lj[p] = Math.min(lj[p], lj[c]);
+							}
+						}
+					}
+				}
+			}
+			nextLabel = Math.max(nextLabel, counter);
+		}
+	}
+
+	/**
+	 * @return true if reachability is answered from a full closure
+	 */
+	public boolean isClosure() {
+		return closure;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return the number of strongly connected components
+	 */
+	public int getComponents() {
+		return components;
+	}
+
+	/**
+	 * @param u node
+	 * @return the strongly connected component of u
+	 */
+	public int getComponent(int u) {
+		return comp[u];
+	}
+
+	/**
+	 * @return the number of added edges not yet covered by interval labels
+	 */
+	public int getPendingEdges() {
+		return pending;
+	}
+
+	/**
+	 * Add a node without edges, the new node is equal to the number of nodes
+	 * before the call
+	 * 
+	 * @return false if the closure has grown past its limit and the owner should
+	 *         rebuild the index
+	 */
+	public boolean addNode() {
+		if (components == size.length) {
+			final int cap = size.length * 2;
+			size = Arrays.copyOf(size, cap);
+			dagOffset = Arrays.copyOf(dagOffset, cap + 1);
+			mark = Arrays.copyOf(mark, cap);
+			stack = Arrays.copyOf(stack, cap);
+			if (closure) {
+				reach = Arrays.copyOf(reach, cap);
+				reachedNodes = Arrays.copyOf(reachedNodes, cap);
+				final int words = (cap + 63) >> 6;
+				for (int c = 0; c < components; c++) {
+					reach[c] = Arrays.copyOf(reach[c], words);
+				}
+			} else {
+				for (int j = 0; j < LABELS; j++) {
+					low[j] = Arrays.copyOf(low[j], cap);
+					post[j] = Arrays.copyOf(post[j], cap);
+				}
+			}
+		}
+		if (nodes == comp.length) {
+			comp = Arrays.copyOf(comp, nodes * 2);
+		}
+		final int c = components++;
+		size[c] = 1;
+		dagOffset[c + 1] = dagOffset[c];
+		if (closure) {
+			reach[c] = new long[(size.length + 63) >> 6];
+			reach[c][c >> 6] |= 1L << c;
+			reachedNodes[c] = 1;
+		} else {
+			// Interval of its own, neither nested in nor containing another
+			for (int j = 0; j < LABELS; j++) {
+				low[j][c] = nextLabel;
+				post[j][c] = nextLabel;
+			}
+			nextLabel++;
+		}
+		comp[nodes++] = c;
+		root = -2;
+		return !closure || components <= closureLimit;
+	}
+
+	/**
+	 * Add an edge
+	 * 
+	 * @param u source node
+	 * @param v target node
+	 * @return true if the edge created a path that did not exist before
+	 */
+	public boolean addEdge(int u, int v) {
+		final int cu = comp[u];
+		final int cv = comp[v];
+		final boolean ret = !reachable(cu, cv);
+		if (ret) {
+			if (closure) {
+				final long[] rv = reach[cv];
+				for (int x = 0; x < components; x++) {
+					final long[] rx = reach[x];
+					if ((rx[cu >> 6] & (1L << cu)) != 0) {
+						long added = 0;
+						for (int w = 0; w < rv.length; w++) {
+							final long bits = rv[w] & ~rx[w];
+							for (long b = bits; b != 0; b &= b - 1) {
+								added += size[(w << 6) + Long.numberOfTrailingZeros(b)];
+							}
+							rx[w] |= bits;
+						}
+						reachedNodes[x] += added;
+					}
+				}
+			} else {
+				if (pending == pendingFrom.length) {
+					pendingFrom = Arrays.copyOf(pendingFrom, pending * 2);
+					pendingTo = Arrays.copyOf(pendingTo, pending * 2);
+				}
+				pendingFrom[pending] = cu;
+				pendingTo[pending++] = cv;
+			}
+			root = -2;
+		}
+		return ret;
+	}
+
+	/**
+	 * @param u source node
+	 * @param v target node
+	 * @return true if there is a path from u to v, every node reaches itself
+	 */
+	public boolean isReachable(int u, int v) {
+		return reachable(comp[u], comp[v]);
+	}
+
+	private boolean reachable(int cu, int cv) {
+		boolean ret;
+		if (closure) {
+			ret = (reach[cu][cv >> 6] & (1L << cv)) != 0;
+		} else {
+			ret = labelled(cu, cv);
+			if (!ret && pending > 0) {
+				ret = viaPending(cu, cv);
+			}
+		}
+		return ret;
+	}
+
+	private boolean nested(int cu, int cv) {
+		boolean ret = true;
+		for (int j = 0; j < LABELS && ret; j++) {
+			ret = low[j][cu] <= low[j][cv] && post[j][cv] <= post[j][cu];
+		}
+		return ret;
+	}
+
+	/**
+	 * Reachability in the condensation the labels were built for
+	 */
+	private boolean labelled(int cu, int cv) {
+		boolean ret = cu == cv;
+		// Condensation edges go to lower numbers
+		if (!ret && cu > cv && nested(cu, cv)) {
+			if (++stamp == 0) {
+				Arrays.fill(mark, 0);
+				stamp = 1;
+			}
+			int top = 0;
+			stack[top++] = cu;
+			mark[cu] = stamp;
+			while (top > 0 && !ret) {
+				final int c = stack[--top];
+				for (int e = dagOffset[c]; e < dagOffset[c + 1] && !ret; e++) {
+					final int w = dagTarget[e];
+					ret = w == cv;
+					if (!ret && mark[w] != stamp && w > cv && nested(w, cv)) {
+						mark[w] = stamp;
+						stack[top++] = w;
+					}
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Paths that use pending edges: grow the set of components reached through
+	 * pending edges until one of them reaches cv in the labelled condensation
+	 */
+	private boolean viaPending(int cu, int cv) {
+		boolean[] used = new boolean[pending];
+		int[] heads = new int[pending + 1];
+		int count = 0;
+		heads[count++] = cu;
+		boolean ret = false;
+		boolean grown = true;
+		while (grown && !ret) {
+			grown = false;
+			for (int k = 0; k < pending && !ret; k++) {
+				if (!used[k]) {
+					for (int h = 0; h < count && !used[k]; h++) {
+						used[k] = labelled(heads[h], pendingFrom[k]);
+					}
+					if (used[k]) {
+						heads[count++] = pendingTo[k];
+						ret = labelled(pendingTo[k], cv);
+						grown = true;
+					}
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Check if u reaches every node. In the closure this is one counter. With
+	 * interval labels only the single root (component without incoming edges) of
+	 * the condensation can reach every node, it is found once and remembered
+	 * until the next change. Pending edges fall back to one query per component.
+	 * 
+	 * @param u node
+	 * @return true if there is a path from u to every node
+	 */
+	public boolean reachesAll(int u) {
+		boolean ret;
+		if (closure) {
+			ret = reachedNodes[comp[u]] == nodes;
+		} else if (pending > 0) {
+			ret = true;
+			for (int c = 0; c < components && ret; c++) {
+				ret = reachable(comp[u], c);
+			}
+		} else {
+			if (root == -2) {
+				root = findRoot();
+			}
+			ret = comp[u] == root;
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the only component without incoming edges, -1 if there are several
+	 */
+	private int findRoot() {
+		boolean[] entered = new boolean[components];
+		for (int e = 0; e < dagOffset[components]; e++) {
+			entered[dagTarget[e]] = true;
+		}
+		int ret = -1;
+		int roots = 0;
+		for (int c = 0; c < components; c++) {
+			if (!entered[c]) {
+				ret = c;
+				roots++;
+			}
+		}
+		// Every component is reached from some root, a single root reaches all
+		return roots == 1 ? ret : -1;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ReachabilityIndex: Nodes=" + nodes + " Components=" + components + " Closure=" + closure
+				+ " Pending=" + pending;
+	}
+
+}
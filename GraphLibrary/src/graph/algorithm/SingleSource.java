@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.Arrays;
+
+import graph.IndexedGraph;
+
+/**
+ * Reusable single source search over a graph snapshot: breadth first for hop
+ * counts or Dijkstra for (positive) edge weights. Optionally counts the number
+ * of shortest paths to every vertex, as needed for betweenness. Buffers are
+ * sized once and only the entries touched by the previous run are reset, so a
+ * thread can run one search per source vertex without allocating. Not
+ * thread-safe, use one instance per thread.
+ */
+class SingleSource {
+
+	static final long UNREACHED = Long.MAX_VALUE;
+
+	private final IndexedGraph graph;
+	private final boolean weighted;
+	private final long[] dist;
+	private final double[] sigma;
+	private final int[] order;
+	private final IndexedMinHeap heap;
+	private final int[] targets;
+	private final int[] weights;
+	private int reached = 0;
+
+	SingleSource(IndexedGraph graph, boolean weighted) {
+		this(graph, weighted, false);
+	}
+
+	SingleSource(IndexedGraph graph, boolean weighted, boolean countPaths) {
+		if (weighted) {
+			checkWeights(graph);
+		}
+		this.graph = graph;
+		this.weighted = weighted;
+		final int n = graph.getVertexCount();
+		dist = new long[n];
+		Arrays.fill(dist, UNREACHED);
+		sigma = countPaths ? new double[n] : null;
+		order = new int[n];
+		heap = weighted ? new IndexedMinHeap(n) : null;
+		targets = new int[graph.getMaxOutDegree()];
+		weights = weighted ? new int[targets.length] : null;
+	}
+
+	/**
+	 * Dijkstra needs positive weights: a negative weight settles vertices out of
+	 * order and a zero weight adds paths to vertices already settled, so the path
+	 * counts come out wrong
+	 * 
+	 * @param graph graph snapshot
+	 * @throws IllegalArgumentException error if an edge weight is not positive
+	 */
+	static void checkWeights(IndexedGraph graph) {
+		int[] targets = new int[graph.getMaxOutDegree()];
+		int[] weights = new int[targets.length];
+		for (int v = 0; v < graph.getVertexCount(); v++) {
+			final int d = graph.getSuccessors(v, targets, weights);
+			for (int k = 0; k < d; k++) {
+				if (weights[k] <= 0) {
+					throw new IllegalArgumentException("Edge weight not positive: " + graph.getVertex(v) + " -> "
+							+ graph.getVertex(targets[k]) + " weight " + weights[k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Run a search from source s
+	 * 
+	 * @param s dense index of source vertex
+	 * @return number of vertices reached, including s
+	 */
+	int run(int s) {
+		for (int i = 0; i < reached; i++) {
+			dist[order[i]] = UNREACHED;
+			if (sigma != null) {
+				sigma[order[i]] = 0;
+			}
+		}
+		reached = 0;
+		dist[s] = 0;
+		if (sigma != null) {
+			sigma[s] = 1;
+		}
+		if (weighted) {
+			// Every vertex offered to the heap is polled, so order covers all touched
+			// entries for the reset above
+			heap.offer(s, 0);
+			while (!heap.isEmpty()) {
+				final int v = heap.poll();
+				order[reached++] = v;
+				final long dv = dist[v];
+				final int d = graph.getSuccessors(v, targets, weights);
+				for (int k = 0; k < d; k++) {
+					final int w = targets[k];
+					final long nd = dv + weights[k];
+					if (nd < dist[w]) {
+						dist[w] = nd;
+						heap.offer(w, nd);
+						if (sigma != null) {
+							sigma[w] = sigma[v];
+						}
+					} else if (sigma != null && nd == dist[w]) {
+						sigma[w] += sigma[v];
+					}
+				}
+			}
+		} else {
+			// order doubles as the breadth first queue
+			order[reached++] = s;
+			for (int head = 0; head < reached; head++) {
+				final int v = order[head];
+				final long dv = dist[v] + 1;
+				final int d = graph.getSuccessors(v, targets, null);
+				for (int k = 0; k < d; k++) {
+					final int w = targets[k];
+					if (dist[w] == UNREACHED) {
+						dist[w] = dv;
+						order[reached++] = w;
+						if (sigma != null) {
+							sigma[w] = sigma[v];
+						}
+					} else if (sigma != null && dist[w] == dv) {
+						sigma[w] += sigma[v];
+					}
+				}
+			}
+		}
+		return reached;
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return distance from the source of the last run, UNREACHED if not reached
+	 */
+	long getDistance(int v) {
+		return dist[v];
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return number of shortest paths from the source of the last run
+	 */
+	double getPathCount(int v) {
+		return sigma[v];
+	}
+
+	/**
+	 * @return true if the search measures distance by edge weight
+	 */
+	boolean isWeighted() {
+		return weighted;
+	}
+
+	/**
+	 * @param i 0..reached-1
+	 * @return the i-th vertex settled by the last run, in order of distance
+	 */
+	int getSettled(int i) {
+		return order[i];
+	}
+
+	/**
+	 * @return the number of vertices reached by the last run
+	 */
+	int getReached() {
+		return reached;
+	}
+
+}
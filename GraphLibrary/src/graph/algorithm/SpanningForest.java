@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.List;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.UndirectedGraph;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.VertexAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Minimum spanning forest found by {@link SpanningTree}: one tree per connected
+ * component of the graph.
+ */
+public class SpanningForest {
+
+	private final CsrGraph csr;
+	private final List<Edge> edges;
+	private final long totalWeight;
+
+	SpanningForest(CsrGraph csr, List<Edge> edges, long totalWeight) {
+		this.csr = csr;
+		this.edges = edges;
+		this.totalWeight = totalWeight;
+	}
+
+	/**
+	 * @return the forest edges, one direction of each undirected edge
+	 */
+	public List<Edge> getEdges() {
+		return edges;
+	}
+
+	/**
+	 * @return the sum of the forest edge weights
+	 */
+	public long getTotalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * @return the number of trees, equal to the number of connected components
+	 */
+	public int getTreeCount() {
+		return csr.getVertexCount() - edges.size();
+	}
+
+	/**
+	 * @return true if the forest is a single spanning tree
+	 */
+	public boolean isSpanningTree() {
+		return getTreeCount() == 1;
+	}
+
+	/**
+	 * Create an undirected graph with all vertices of the original graph and the
+	 * forest edges
+	 * 
+	 * @return forest as a graph
+	 */
+	public UndirectedGraph toGraph() {
+		UndirectedGraph ret = new UndirectedGraph();
+		try {
+			for (int i = 0; i < csr.getVertexCount(); i++) {
+				ret.addVertex(csr.getVertex(i));
+			}
+			for (Edge e : edges) {
+				ret.addEdge(new Edge(e.getV1(), e.getV2(), e.getWeight(), e.getLabel()));
+			}
+		} catch (VertexAlreadyExistsException | VertexDoesNotExistException | EdgeAlreadyExistsException ex) {
+			// Built from a snapshot of a valid graph, cannot happen
+			throw new IllegalStateException(ex);
+		}
+		return ret;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "SpanningForest: Edges=" + edges.size() + " Trees=" + getTreeCount() + " TotalWeight=" + totalWeight;
+	}
+
+}
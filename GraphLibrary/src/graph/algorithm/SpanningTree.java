@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.UndirectedGraph;
+
+/**
+ * Minimum spanning tree, or forest for graphs that are not connected, of an
+ * undirected graph. Three algorithms give the same total weight:
+ * <ul>
+ * <li>Kruskal: edges sorted by weight with a parallel sort, joined with a
+ * union-find</li>
+ * <li>Prim: grows one tree at a time from an indexed primitive heap</li>
+ * <li>Boruvka: in rounds every component picks its cheapest outgoing edge, the
+ * search is parallel over vertices</li>
+ * </ul>
+ * Ties between equal weights are broken by edge number so that all three pick
+ * from the same unique minimum forest.
+ */
+public class SpanningTree {
+
+	private final CsrGraph csr;
+	// Undirected edges u < v, by edge number
+	private final int[] eu;
+	private final int[] ev;
+	private final int[] ew;
+	private final Edge[] ee;
+	// Undirected edge numbers incident to each vertex
+	private final int[] incOffsets;
+	private final int[] incEdges;
+
+	/**
+	 * Custom constructor that takes an undirected graph, a snapshot is taken
+	 * immediately
+	 * 
+	 * @param g undirected graph
+	 */
+	public SpanningTree(UndirectedGraph g) {
+		csr = new CsrGraph(g);
+		final int n = csr.getVertexCount();
+		int k = 0;
+		for (int u = 0; u < n; u++) {
+			for (int e = csr.getFirstEdge(u); e < csr.getFirstEdge(u + 1); e++) {
+				if (u < csr.getTarget(e)) {
+					k++;
+				}
+			}
+		}
+		eu = new int[k];
+		ev = new int[k];
+		ew = new int[k];
+		ee = new Edge[k];
+		incOffsets = new int[n + 1];
+		k = 0;
+		for (int u = 0; u < n; u++) {
+			for (int e = csr.getFirstEdge(u); e < csr.getFirstEdge(u + 1); e++) {
+				final int v = csr.getTarget(e);
+				if (u < v) {
+					eu[k] = u;
+					ev[k] = v;
+					ew[k] = csr.getWeight(e);
+					ee[k] = csr.getEdge(e);
+					incOffsets[u + 1]++;
+					incOffsets[v + 1]++;
+					k++;
+				}
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			incOffsets[i + 1] += incOffsets[i];
+		}
+		incEdges = new int[2 * k];
+		int[] pos = new int[n];
+		for (int i = 0; i < k; i++) {
+			incEdges[incOffsets[eu[i]] + pos[eu[i]]++] = i;
+			incEdges[incOffsets[ev[i]] + pos[ev[i]]++] = i;
+		}
+	}
+
+	/**
+	 * Sort key of an edge: weight first, edge number to break ties
+	 */
+	private long key(int i) {
+		return ((long) ew[i] << 32) | i;
+	}
+
+	private SpanningForest result(List<Integer> chosen) {
+		List<Edge> el = new ArrayList<Edge>(chosen.size());
+		long total = 0;
+		for (int i : chosen) {
+			el.add(ee[i]);
+			total += ew[i];
+		}
+		return new SpanningForest(csr, el, total);
+	}
+
+	/**
+	 * Kruskal's algorithm, O(E log E) dominated by the (parallel) sort
+	 * 
+	 * @return minimum spanning forest
+	 */
+	public SpanningForest kruskal() {
+		final int n = csr.getVertexCount();
+		long[] keys = new long[eu.length];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = key(i);
+		}
+		Arrays.parallelSort(keys);
+		UnionFind uf = new UnionFind(n);
+		for (int i = 0; i < n; i++) {
+			uf.add();
+		}
+		List<Integer> chosen = new ArrayList<Integer>();
+		for (int j = 0; j < keys.length && chosen.size() < n - 1; j++) {
+			final int i = (int) keys[j];
+			if (uf.union(eu[i], ev[i])) {
+				chosen.add(i);
+			}
+		}
+		return result(chosen);
+	}
+
+	/**
+	 * Prim's algorithm with an indexed heap, O(E log V), restarted from every
+	 * vertex not yet in a tree
+	 * 
+	 * @return minimum spanning forest
+	 */
+	public SpanningForest prim() {
+		final int n = csr.getVertexCount();
+		boolean[] inTree = new boolean[n];
+		int[] via = new int[n];
+		IndexedMinHeap heap = new IndexedMinHeap(n);
+		List<Integer> chosen = new ArrayList<Integer>();
+		for (int root = 0; root < n; root++) {
+			if (!inTree[root]) {
+				via[root] = -1;
+				heap.offer(root, Long.MIN_VALUE);
+				while (!heap.isEmpty()) {
+					final int u = heap.poll();
+					inTree[u] = true;
+					if (via[u] >= 0) {
+						chosen.add(via[u]);
+					}
+					for (int j = incOffsets[u]; j < incOffsets[u + 1]; j++) {
+						final int i = incEdges[j];
+						final int v = eu[i] == u ? ev[i] : eu[i];
+						if (!inTree[v] && heap.offer(v, key(i))) {
+							via[v] = i;
+						}
+					}
+				}
+			}
+		}
+		return result(chosen);
+	}
+
+	/**
+	 * Boruvka's algorithm, at most log V rounds. In each round the cheapest edge
+	 * leaving every component is found in parallel over vertices, the chosen
+	 * edges are then joined with a union-find.
+	 * 
+	 * @return minimum spanning forest
+	 */
+	public SpanningForest boruvka() {
+		final int n = csr.getVertexCount();
+		UnionFind uf = new UnionFind(n);
+		for (int i = 0; i < n; i++) {
+			uf.add();
+		}
+		final int[] comp = new int[n];
+		for (int i = 0; i < n; i++) {
+			comp[i] = i;
+		}
+		final AtomicLongArray cheapest = new AtomicLongArray(n);
+		List<Integer> chosen = new ArrayList<Integer>();
+		boolean merged = true;
+		while (merged) {
+			for (int i = 0; i < n; i++) {
+				cheapest.set(i, Long.MAX_VALUE);
+			}
+			IntStream.range(0, n).parallel().forEach(u -> {
+				final int cu = comp[u];
+				for (int j = incOffsets[u]; j < incOffsets[u + 1]; j++) {
+					final int i = incEdges[j];
+					final int v = eu[i] == u ? ev[i] : eu[i];
+					if (comp[v] != cu) {
+						final long k = key(i);
+						long cur = cheapest.get(cu);
+						while (k < cur && !cheapest.compareAndSet(cu, cur, k)) {
+							cur = cheapest.get(cu);
+						}
+					}
+				}
+			});
+			merged = false;
+			for (int c = 0; c < n; c++) {
+				final long k = cheapest.get(c);
+				if (k != Long.MAX_VALUE) {
+					final int i = (int) k;
+					if (uf.union(eu[i], ev[i])) {
+						chosen.add(i);
+						merged = true;
+					}
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				comp[i] = uf.find(i);
+			}
+		}
+		return result(chosen);
+	}
+
+}
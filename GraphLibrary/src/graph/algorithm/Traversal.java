@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.IndexedGraph;
+import graph.Vertex;
+
+/**
+ * Reusable breadth first and depth first traversal of a graph snapshot. All
+ * buffers (frontier, visited marks, depth, parent, successor buffer) are
+ * allocated once by the constructor. Visited marks carry the number of the run
+ * that set them, so starting a new run needs no clearing, and repeated
+ * traversals allocate nothing. Not thread-safe, use one instance per thread.
+ * 
+ * Results of the last run stay available until the next run: the visiting
+ * order, and depth and parent of every visited vertex. Vertices are dense
+ * indexes of {@link #getGraph()}.
+ */
+public class Traversal {
+
+	/**
+	 * Called for every vertex in visiting order
+	 */
+	@FunctionalInterface
+	public interface Visitor {
+
+		/**
+		 * @param v     dense vertex index
+		 * @param depth number of edges from the source
+		 * @return true to continue, false to stop the traversal
+		 */
+		boolean visit(int v, int depth);
+
+	}
+
+	private final IndexedGraph graph;
+	private final int[] mark;
+	private final int[] depth;
+	private final int[] parent;
+	private final int[] order;
+	private final int[] stack;
+	private final int[] stackDepth;
+	private final int[] stackParent;
+	private final int[] successors;
+	private int run = 0;
+	private int visited = 0;
+	private int maxDepth = Integer.MAX_VALUE;
+
+	/**
+	 * Custom constructor that takes a graph, a snapshot is taken immediately
+	 * 
+	 * @param g graph
+	 */
+	public Traversal(Graph g) {
+		this(new CsrGraph(g));
+	}
+
+	/**
+	 * Custom constructor that takes a snapshot of a graph
+	 * 
+	 * @param graph graph snapshot
+	 */
+	public Traversal(IndexedGraph graph) {
+		this.graph = graph;
+		final int n = graph.getVertexCount();
+		mark = new int[n];
+		depth = new int[n];
+		parent = new int[n];
+		order = new int[n];
+		// Depth first pushes every edge at most once, plus the source
+		stack = new int[graph.getEdgeCount() + 1];
+		stackDepth = new int[stack.length];
+		stackParent = new int[stack.length];
+		successors = new int[graph.getMaxOutDegree()];
+	}
+
+	/**
+	 * @return the snapshot traversed
+	 */
+	public IndexedGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the maximum depth
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @param maxDepth the maximum depth to set, vertices further from the source
+	 *                 are not visited (default unlimited)
+	 */
+	public void setMaxDepth(int maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+
+	private void start() {
+		if (++run == 0) {
+			// Run counter wrapped, old marks could match again
+			java.util.Arrays.fill(mark, 0);
+			run = 1;
+		}
+		visited = 0;
+	}
+
+	/**
+	 * Breadth first traversal, vertices are visited in order of depth
+	 * 
+	 * @param source  dense index of source vertex
+	 * @param visitor called for every vertex, may be null
+	 * @return number of vertices visited
+	 */
+	public int breadthFirst(int source, Visitor visitor) {
+		start();
+		mark[source] = run;
+		depth[source] = 0;
+		parent[source] = -1;
+		// order doubles as the queue
+		order[visited++] = source;
+		boolean more = true;
+		for (int head = 0; head < visited && more; head++) {
+			final int v = order[head];
+			more = visitor == null || visitor.visit(v, depth[v]);
+			if (more && depth[v] < maxDepth) {
+				final int d = graph.getSuccessors(v, successors, null);
+				for (int k = 0; k < d; k++) {
+					final int w = successors[k];
+					if (mark[w] != run) {
+						mark[w] = run;
+						depth[w] = depth[v] + 1;
+						parent[w] = v;
+						order[visited++] = w;
+					}
+				}
+			}
+			if (!more) {
+				// Queued but not visited
+				visited = head + 1;
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * Depth first traversal, vertices are visited in preorder and successors in
+	 * the order the snapshot returns them
+	 * 
+	 * @param source  dense index of source vertex
+	 * @param visitor called for every vertex, may be null
+	 * @return number of vertices visited
+	 */
+	public int depthFirst(int source, Visitor visitor) {
+		start();
+		int top = 0;
+		stack[top] = source;
+		stackDepth[top] = 0;
+		stackParent[top++] = -1;
+		boolean more = true;
+		while (top > 0 && more) {
+			top--;
+			final int v = stack[top];
+			if (mark[v] != run) {
+				mark[v] = run;
+				depth[v] = stackDepth[top];
+				parent[v] = stackParent[top];
+				order[visited++] = v;
+				more = visitor == null || visitor.visit(v, depth[v]);
+				if (more && depth[v] < maxDepth) {
+					final int d = graph.getSuccessors(v, successors, null);
+					// Pushed in reverse so the first successor is visited first
+					for (int k = d - 1; k >= 0; k--) {
+						if (mark[successors[k]] != run) {
+							stack[top] = successors[k];
+							stackDepth[top] = depth[v] + 1;
+							stackParent[top++] = v;
+						}
+					}
+				}
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * Breadth first traversal from a vertex
+	 * 
+	 * @param source  source vertex
+	 * @param visitor called for every vertex, may be null
+	 * @return number of vertices visited, 0 if source is not in the snapshot
+	 */
+	public int breadthFirst(Vertex source, Visitor visitor) {
+		final int s = graph.indexOf(source);
+		return s < 0 ? 0 : breadthFirst(s, visitor);
+	}
+
+	/**
+	 * Depth first traversal from a vertex
+	 * 
+	 * @param source  source vertex
+	 * @param visitor called for every vertex, may be null
+	 * @return number of vertices visited, 0 if source is not in the snapshot
+	 */
+	public int depthFirst(Vertex source, Visitor visitor) {
+		final int s = graph.indexOf(source);
+		return s < 0 ? 0 : depthFirst(s, visitor);
+	}
+
+	/**
+	 * @return the number of vertices visited by the last run
+	 */
+	public int getVisitedCount() {
+		return visited;
+	}
+
+	/**
+	 * @param i 0..getVisitedCount() - 1
+	 * @return the i-th vertex visited by the last run
+	 */
+	public int getVisited(int i) {
+		return order[i];
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return true if the last run discovered v, a breadth first run stopped by
+	 *         the visitor may have discovered vertices it did not visit
+	 */
+	public boolean isReached(int v) {
+		return mark[v] == run;
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return the depth of v in the last run, valid if v was reached
+	 */
+	public int getDepth(int v) {
+		return depth[v];
+	}
+
+	/**
+	 * @param v dense vertex index
+	 * @return the vertex v was reached from in the last run, -1 for the source
+	 */
+	public int getParent(int v) {
+		return parent[v];
+	}
+
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets of dense integer elements (union-find) with path compression
+ * and union by rank, so that find and union run in near constant amortised
+ * time. Elements are added one at a time and the arrays grow as needed.
+ * Deleting elements or splitting sets is not supported, rebuild instead.
+ */
+public class UnionFind {
+
+	private int[] parent;
+	private byte[] rank;
+	private int[] size;
+	private int elements = 0;
+	private int count = 0;
+
+	/**
+	 * Default constructor
+	 */
+	public UnionFind() {
+		this(16);
+	}
+
+	/**
+	 * Custom constructor that takes the initial capacity
+	 * 
+	 * @param capacity initial capacity
+	 */
+	public UnionFind(int capacity) {
+		capacity = Math.max(1, capacity);
+		parent = new int[capacity];
+		rank = new byte[capacity];
+		size = new int[capacity];
+	}
+
+	/**
+	 * Add a new element in a set of its own
+	 * 
+	 * @return the new element, equal to the number of elements before the call
+	 */
+	public int add() {
+		if (elements == parent.length) {
+			final int cap = parent.length * 2;
+			parent = Arrays.copyOf(parent, cap);
+			rank = Arrays.copyOf(rank, cap);
+			size = Arrays.copyOf(size, cap);
+		}
+		final int ret = elements++;
+		parent[ret] = ret;
+		size[ret] = 1;
+		count++;
+		return ret;
+	}
+
+	/**
+	 * Find the representative of the set containing x
+	 * 
+	 * @param x element
+	 * @return representative element
+	 */
+	public int find(int x) {
+		int r = x;
+		while (parent[r] != r) {
+			r = parent[r];
+		}
+		// Path compression
+		while (parent[x] != r) {
+			final int next = parent[x];
+			parent[x] = r;
+			x = next;
+		}
+		return r;
+	}
+
+	/**
+	 * Merge the sets containing x and y
+	 * 
+	 * @param x element
+	 * @param y element
+	 * @return true if x and y were in different sets
+	 */
+	public boolean union(int x, int y) {
+		int rx = find(x);
+		int ry = find(y);
+		boolean ret = rx != ry;
+		if (ret) {
+			if (rank[rx] < rank[ry]) {
+				final int t = rx;
+				rx = ry;
+				ry = t;
+			}
+			parent[ry] = rx;
+			size[rx] += size[ry];
+			if (rank[rx] == rank[ry]) {
+				rank[rx]++;
+			}
+			count--;
+		}
+		return ret;
+	}
+
+	/**
+	 * @param x element
+	 * @param y element
+	 * @return true if x and y are in the same set
+	 */
+	public boolean connected(int x, int y) {
+		return find(x) == find(y);
+	}
+
+	/**
+	 * @param x element
+	 * @return the number of elements in the set containing x
+	 */
+	public int getSize(int x) {
+		return size[find(x)];
+	}
+
+	/**
+	 * @return the number of sets
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of elements
+	 */
+	public int getElements() {
+		return elements;
+	}
+
+}
@@ -0,0 +1,411 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.compute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.Vertex;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Bulk synchronous parallel (Pregel style) engine that runs a
+ * {@link VertexProgram} over a snapshot of a graph. Vertices are partitioned
+ * over workers in contiguous blocks of dense indexes, so workers do not write
+ * to the same cache lines of the per vertex arrays, each worker computes its
+ * own vertices and buffers outgoing messages per destination
+ * worker. Between supersteps every worker drains the buffers addressed to it
+ * into the inboxes of its own vertices, applying the combiner if one is set.
+ * Workers never write to state owned by another worker during a phase, so
+ * neither the engine nor the program needs locks.
+ * 
+ * The run ends when every vertex has voted to halt and no messages are in
+ * flight, or when the superstep limit is reached.
+ * 
+ * @param <V> vertex value type
+ * @param <M> message type
+ */
+public class BspEngine<V, M> {
+
+	private final Graph graph;
+	private final VertexProgram<V, M> program;
+	private MessageCombiner<M> combiner = null;
+	private int workers = Runtime.getRuntime().availableProcessors();
+	private boolean virtualThreads = true;
+	private int maxSupersteps = Integer.MAX_VALUE;
+	private ExecutorService executor = null;
+
+	/**
+	 * Custom constructor that takes graph and program
+	 * 
+	 * @param g graph
+	 * @param p vertex program
+	 */
+	public BspEngine(Graph g, VertexProgram<V, M> p) {
+		graph = g;
+		program = p;
+	}
+
+	/**
+	 * @return the message combiner, null if none
+	 */
+	public MessageCombiner<M> getCombiner() {
+		return combiner;
+	}
+
+	/**
+	 * @param combiner the message combiner to set, null for none
+	 */
+	public void setCombiner(MessageCombiner<M> combiner) {
+		this.combiner = combiner;
+	}
+
+	/**
+	 * @return the number of workers
+	 */
+	public int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * @param workers the number of workers to set (default number of processors)
+	 */
+	public void setWorkers(int workers) {
+		this.workers = Math.max(1, workers);
+	}
+
+	/**
+	 * @return true if workers run on virtual threads
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * @param virtualThreads true to run workers on virtual threads (default),
+	 *                       false for a fixed pool of platform threads. Ignored
+	 *                       if an executor is set.
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * @return the maximum number of supersteps
+	 */
+	public int getMaxSupersteps() {
+		return maxSupersteps;
+	}
+
+	/**
+	 * @param maxSupersteps the maximum number of supersteps to set
+	 */
+	public void setMaxSupersteps(int maxSupersteps) {
+		this.maxSupersteps = maxSupersteps;
+	}
+
+	/**
+	 * @return the executor, null if the engine creates its own
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @param executor the executor to run workers on, null to let the engine
+	 *                 create (and shut down) its own for each run
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Run the program on a snapshot of the graph taken at the start of the run
+	 * 
+	 * @return final vertex values and statistics
+	 * @throws InterruptedException error if interrupted while waiting for workers
+	 * @throws ExecutionException   error thrown by the vertex program
+	 */
+	public ComputeResult<V> run() throws InterruptedException, ExecutionException {
+		CsrGraph csr = new CsrGraph(graph);
+		ExecutorService es = executor;
+		if (es == null) {
+			es = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(workers);
+		}
+		try {
+			return new Run(csr, es).execute();
+		} finally {
+			if (executor == null) {
+				es.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Messages buffered by one worker for one destination worker
+	 */
+	private static class Outbox {
+		int[] targets = new int[16];
+		Object[] messages = new Object[16];
+		int size = 0;
+
+		void add(int t, Object m) {
+			if (size == targets.length) {
+				targets = Arrays.copyOf(targets, size * 2);
+				messages = Arrays.copyOf(messages, size * 2);
+			}
+			targets[size] = t;
+			messages[size++] = m;
+		}
+
+		void clear() {
+			Arrays.fill(messages, 0, size, null);
+			size = 0;
+		}
+	}
+
+	/**
+	 * State of a single run
+	 */
+	private class Run {
+		final CsrGraph csr;
+		final ExecutorService es;
+		final int n;
+		final int w;
+		// Worker k owns vertices k * block up to (k + 1) * block
+		final int block;
+		final Object[] values;
+		final boolean[] active;
+		// Per vertex: combined message (with combiner) or list of messages
+		final Object[] inbox;
+		// outboxes[source worker][destination worker]
+		final Outbox[][] outboxes;
+		final long[] sent;
+		final int[] activeCount;
+		final long[] delivered;
+		int superstep = 0;
+
+		Run(CsrGraph csr, ExecutorService es) {
+			this.csr = csr;
+			this.es = es;
+			n = csr.getVertexCount();
+			w = Math.max(1, Math.min(workers, n));
+			block = Math.max(1, (n + w - 1) / w);
+			values = new Object[n];
+			active = new boolean[n];
+			inbox = new Object[n];
+			outboxes = new Outbox[w][w];
+			for (int s = 0; s < w; s++) {
+				for (int d = 0; d < w; d++) {
+					outboxes[s][d] = new Outbox();
+				}
+			}
+			sent = new long[w];
+			activeCount = new int[w];
+			delivered = new long[w];
+		}
+
+		ComputeResult<V> execute() throws InterruptedException, ExecutionException {
+			List<Callable<Object>> init = new ArrayList<Callable<Object>>(w);
+			List<Callable<Object>> compute = new ArrayList<Callable<Object>>(w);
+			List<Callable<Object>> deliver = new ArrayList<Callable<Object>>(w);
+			for (int k = 0; k < w; k++) {
+				final int wk = k;
+				init.add(() -> {
+					for (int i = first(wk); i < first(wk + 1); i++) {
+						values[i] = program.initialValue(csr.getVertex(i));
+						active[i] = true;
+					}
+					return null;
+				});
+				compute.add(() -> {
+					computeWorker(wk);
+					return null;
+				});
+				deliver.add(() -> {
+					deliverWorker(wk);
+					return null;
+				});
+			}
+			invokeAll(init);
+			long messages = 0;
+			boolean halted = false;
+			while (!halted && superstep < maxSupersteps) {
+				invokeAll(compute);
+				invokeAll(deliver);
+				long inFlight = 0;
+				int stillActive = 0;
+				for (int k = 0; k < w; k++) {
+					messages += sent[k];
+					inFlight += delivered[k];
+					stillActive += activeCount[k];
+				}
+				superstep++;
+				halted = inFlight == 0 && stillActive == 0;
+			}
+			return new ComputeResult<V>(csr, values, superstep, messages, halted);
+		}
+
+		// First vertex of worker wk, wk == w gives n
+		int first(int wk) {
+			return (int) Math.min(n, (long) wk * block);
+		}
+
+		void invokeAll(List<Callable<Object>> tasks) throws InterruptedException, ExecutionException {
+			for (Future<Object> f : es.invokeAll(tasks)) {
+				f.get();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void computeWorker(int wk) {
+			Context ctx = new Context(this, wk);
+			int ac = 0;
+			for (int i = first(wk); i < first(wk + 1); i++) {
+				final Object in = inbox[i];
+				inbox[i] = null;
+				List<M> msgs;
+				if (in == null) {
+					msgs = Collections.emptyList();
+				} else if (combiner != null) {
+					msgs = Collections.singletonList((M) in);
+				} else {
+					msgs = (List<M>) in;
+				}
+				if (active[i] || in != null) {
+					active[i] = true;
+					ctx.index = i;
+					program.compute(ctx, msgs);
+					if (active[i]) {
+						ac++;
+					}
+				}
+			}
+			sent[wk] = ctx.sent;
+			activeCount[wk] = ac;
+		}
+
+		@SuppressWarnings("unchecked")
+		void deliverWorker(int wk) {
+			long dc = 0;
+			for (int s = 0; s < w; s++) {
+				Outbox ob = outboxes[s][wk];
+				for (int k = 0; k < ob.size; k++) {
+					final int t = ob.targets[k];
+					final M m = (M) ob.messages[k];
+					if (combiner != null) {
+						inbox[t] = inbox[t] == null ? m : combiner.combine((M) inbox[t], m);
+					} else {
+						if (inbox[t] == null) {
+							inbox[t] = new ArrayList<M>();
+						}
+						((List<M>) inbox[t]).add(m);
+					}
+				}
+				dc += ob.size;
+				ob.clear();
+			}
+			delivered[wk] = dc;
+		}
+	}
+
+	/**
+	 * Vertex context reused by a worker for all of its vertices
+	 */
+	private class Context implements VertexContext<V, M> {
+		final Run run;
+		final Outbox[] out;
+		int index;
+		long sent = 0;
+
+		Context(Run run, int wk) {
+			this.run = run;
+			out = run.outboxes[wk];
+		}
+
+		private void send(int t, M msg) {
+			out[t / run.block].add(t, msg);
+			sent++;
+		}
+
+		@Override
+		public Vertex getVertex() {
+			return run.csr.getVertex(index);
+		}
+
+		@Override
+		public int getSuperstep() {
+			return run.superstep;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V getValue() {
+			return (V) run.values[index];
+		}
+
+		@Override
+		public void setValue(V value) {
+			run.values[index] = value;
+		}
+
+		@Override
+		public int getOutDegree() {
+			return run.csr.getOutDegree(index);
+		}
+
+		@Override
+		public Vertex getTarget(int i) {
+			return run.csr.getVertex(run.csr.getTarget(run.csr.getFirstEdge(index) + i));
+		}
+
+		@Override
+		public int getWeight(int i) {
+			return run.csr.getWeight(run.csr.getFirstEdge(index) + i);
+		}
+
+		@Override
+		public void sendAlongEdge(int i, M msg) {
+			send(run.csr.getTarget(run.csr.getFirstEdge(index) + i), msg);
+		}
+
+		@Override
+		public void sendToNeighbours(M msg) {
+			final int end = run.csr.getFirstEdge(index + 1);
+			for (int e = run.csr.getFirstEdge(index); e < end; e++) {
+				send(run.csr.getTarget(e), msg);
+			}
+		}
+
+		@Override
+		public void sendMessage(Vertex v, M msg) throws VertexDoesNotExistException {
+			final int t = run.csr.indexOf(v);
+			if (t < 0) {
+				throw new VertexDoesNotExistException(v);
+			}
+			send(t, msg);
+		}
+
+		@Override
+		public void voteToHalt() {
+			run.active[index] = false;
+		}
+	}
+
+}
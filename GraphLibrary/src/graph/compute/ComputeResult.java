@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.compute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import graph.CsrGraph;
+import graph.Vertex;
+
+/**
+ * Result of a {@link BspEngine} run, final vertex values and run statistics
+ * 
+ * @param <V> vertex value type
+ */
+public class ComputeResult<V> {
+
+	private final CsrGraph csr;
+	private final Object[] values;
+	private final int supersteps;
+	private final long messages;
+	private final boolean halted;
+
+	ComputeResult(CsrGraph csr, Object[] values, int supersteps, long messages, boolean halted) {
+		this.csr = csr;
+		this.values = values;
+		this.supersteps = supersteps;
+		this.messages = messages;
+		this.halted = halted;
+	}
+
+	/**
+	 * @param v vertex
+	 * @return the final value of the vertex, null if vertex was not in graph
+	 */
+	@SuppressWarnings("unchecked")
+	public V getValue(Vertex v) {
+		final int i = csr.indexOf(v);
+		return i < 0 ? null : (V) values[i];
+	}
+
+	/**
+	 * @return the final values of all vertices
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<Vertex, V> getValues() {
+		Map<Vertex, V> ret = new HashMap<Vertex, V>(values.length * 2);
+		for (int i = 0; i < values.length; i++) {
+			ret.put(csr.getVertex(i), (V) values[i]);
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the number of supersteps executed
+	 */
+	public int getSupersteps() {
+		return supersteps;
+	}
+
+	/**
+	 * @return the number of messages sent, before combining
+	 */
+	public long getMessages() {
+		return messages;
+	}
+
+	/**
+	 * @return true if the run ended because all vertices halted, false if it was
+	 *         stopped by the superstep limit
+	 */
+	public boolean isHalted() {
+		return halted;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ComputeResult: Supersteps=" + supersteps + " Messages=" + messages + " Halted=" + halted;
+	}
+
+}
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.compute;
+
+/**
+ * Combines two messages sent to the same vertex into one, example minimum for
+ * shortest paths or sum for rank scores. The combiner must be commutative and
+ * associative because the order of combining is not defined.
+ * 
+ * @param <M> message type
+ */
+public interface MessageCombiner<M> {
+
+	/**
+	 * @param m1 first message
+	 * @param m2 second message
+	 * @return combined message
+	 */
+	M combine(M m1, M m2);
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.compute;
+
+import graph.Vertex;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * View of a single vertex passed to {@link VertexProgram#compute}. The context
+ * is only valid for the duration of the compute call.
+ * 
+ * @param <V> vertex value type
+ * @param <M> message type
+ */
+public interface VertexContext<V, M> {
+
+	/**
+	 * @return the vertex being computed
+	 */
+	Vertex getVertex();
+
+	/**
+	 * @return the current superstep, starting at 0
+	 */
+	int getSuperstep();
+
+	/**
+	 * @return the vertex value
+	 */
+	V getValue();
+
+	/**
+	 * @param value the vertex value to set
+	 */
+	void setValue(V value);
+
+	/**
+	 * @return the number of out-edges of this vertex
+	 */
+	int getOutDegree();
+
+	/**
+	 * @param i out-edge number, 0..getOutDegree() - 1
+	 * @return the target vertex of out-edge i
+	 */
+	Vertex getTarget(int i);
+
+	/**
+	 * @param i out-edge number, 0..getOutDegree() - 1
+	 * @return the weight of out-edge i
+	 */
+	int getWeight(int i);
+
+	/**
+	 * Send a message to the target of out-edge i, delivered in the next superstep
+	 * 
+	 * @param i   out-edge number, 0..getOutDegree() - 1
+	 * @param msg message
+	 */
+	void sendAlongEdge(int i, M msg);
+
+	/**
+	 * Send a message to the targets of all out-edges, delivered in the next
+	 * superstep
+	 * 
+	 * @param msg message
+	 */
+	void sendToNeighbours(M msg);
+
+	/**
+	 * Send a message to any vertex, delivered in the next superstep
+	 * 
+	 * @param v   target vertex
+	 * @param msg message
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	void sendMessage(Vertex v, M msg) throws VertexDoesNotExistException;
+
+	/**
+	 * Deactivate this vertex until it receives a message
+	 */
+	void voteToHalt();
+
+}
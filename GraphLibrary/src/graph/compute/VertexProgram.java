@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.compute;
+
+import java.util.List;
+
+import graph.Vertex;
+
+/**
+ * Vertex-centric ("think like a vertex") program run by {@link BspEngine}. In
+ * every superstep compute is called once for each active vertex with the
+ * messages sent to it in the previous superstep. A vertex becomes inactive when
+ * it votes to halt and is woken up again by an incoming message.
+ * 
+ * Compute is called concurrently for different vertices, but never
+ * concurrently for the same vertex, so a program needs no locking as long as it
+ * only touches the vertex value through its context.
+ * 
+ * @param <V> vertex value type
+ * @param <M> message type
+ */
+public interface VertexProgram<V, M> {
+
+	/**
+	 * Initial value of a vertex, called once before the first superstep
+	 * 
+	 * @param v vertex
+	 * @return initial value
+	 */
+	V initialValue(Vertex v);
+
+	/**
+	 * Compute step for a single vertex
+	 * 
+	 * @param vertex   context of the vertex being computed
+	 * @param messages messages sent to this vertex in the previous superstep
+	 */
+	void compute(VertexContext<V, M> vertex, List<M> messages);
+
+}
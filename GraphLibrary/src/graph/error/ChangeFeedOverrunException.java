@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.error;
+
+/**
+ * A change feed reader fell more than the feed capacity behind the graph and
+ * the events it had not read yet were overwritten.
+ */
+public class ChangeFeedOverrunException extends Exception {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	private final long sequence;
+
+	public ChangeFeedOverrunException(long sequence) {
+		super("Change feed overrun, events from sequence " + sequence + " are lost.");
+		this.sequence = sequence;
+	}
+
+	/**
+	 * @return the sequence number of the first lost event
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.error;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import graph.Vertex;
+
+/**
+ * Operation needs a graph without cycles (directed acyclic graph), the graph
+ * has at least one cycle.
+ */
+public class CycleDetectedException extends Exception {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	private final static String message = "Graph contains a cycle.";
+	// Vertex is not serializable, a deserialized exception keeps the cycle only
+	// in its message
+	private final transient List<Vertex> cycle;
+
+	public CycleDetectedException() {
+		super(message);
+		cycle = new ArrayList<Vertex>();
+	}
+
+	public CycleDetectedException(List<Vertex> c) {
+		super("Graph contains a cycle through " + c + ".");
+		cycle = c;
+	}
+
+	/**
+	 * @return the vertices of one cycle in edge order, the last vertex has an
+	 *         edge to the first. Empty if unknown or deserialized.
+	 */
+	public List<Vertex> getCycle() {
+		return cycle == null ? new ArrayList<Vertex>() : cycle;
+	}
+
+}
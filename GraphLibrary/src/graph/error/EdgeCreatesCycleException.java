@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.error;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import graph.Edge;
+import graph.Vertex;
+
+/**
+ * Edge would close a cycle in an acyclic graph, the graph already has a path
+ * from the edge vertex v2 back to v1. Unchecked so that it can be thrown from
+ * Graph#addEdge without being taken for a duplicate edge.
+ */
+public class EdgeCreatesCycleException extends IllegalArgumentException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	// Vertex is not serializable, a deserialized exception keeps the cycle only
+	// in its message
+	private final transient List<Vertex> cycle;
+
+	public EdgeCreatesCycleException(Edge e, List<Vertex> c) {
+		super("Edge from " + e.getV1() + " to " + e.getV2() + " would create cycle " + c + ".");
+		cycle = c;
+	}
+
+	/**
+	 * @return the vertices of the cycle in edge order, starting with edge vertex
+	 *         v1, the last vertex has an edge to the first. Empty if deserialized.
+	 */
+	public List<Vertex> getCycle() {
+		return cycle == null ? new ArrayList<Vertex>() : cycle;
+	}
+
+}
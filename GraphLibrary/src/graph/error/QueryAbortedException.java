@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.error;
+
+/**
+ * Query stopped before completion because its budget was exhausted or it was
+ * cancelled.
+ */
+public class QueryAbortedException extends Exception {
+
+	/**
+	 * Reason the query was stopped
+	 */
+	public enum Reason {
+		DEADLINE, MAX_VISITED, MAX_PATHS, CANCELLED, INTERRUPTED
+	}
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	private final static String message = "Query aborted.";
+	private final Reason reason;
+
+	public QueryAbortedException() {
+		super(message);
+		reason = null;
+	}
+
+	public QueryAbortedException(Reason r) {
+		super("Query aborted, reason " + r + ".");
+		reason = r;
+	}
+
+	/**
+	 * @return the reason, null if unknown
+	 */
+	public Reason getReason() {
+		return reason;
+	}
+
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Barabási–Albert preferential attachment graph: vertex v attaches d edges to
+ * earlier vertices chosen with probability proportional to their degree. The
+ * usual sequential process picks a uniform position in the list of all edge
+ * endpoints so far; here the endpoint at a position is found by hashing the
+ * position and following earlier positions back to a known source vertex, so
+ * every edge is computed on its own and chunks need no shared state. Self
+ * loops are dropped, duplicate edges are dropped when a graph is built.
+ */
+public class BarabasiAlbert extends GraphGenerator {
+
+	private final int n;
+	private final int d;
+
+	/**
+	 * Custom constructor that takes the number of vertices and edges per vertex
+	 * 
+	 * @param n number of vertices
+	 * @param d edges added with every vertex
+	 */
+	public BarabasiAlbert(int n, int d) {
+		if (n < 1 || d < 1) {
+			throw new IllegalArgumentException("Invalid Barabasi-Albert: n=" + n + " d=" + d);
+		}
+		this.n = n;
+		this.d = d;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#getVertexCount()
+	 */
+	@Override
+	public int getVertexCount() {
+		return n;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#isDirected()
+	 */
+	@Override
+	public boolean isDirected() {
+		return false;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#generateChunk(int, int,
+	 *      java.util.SplittableRandom, graph.generator.EdgeList)
+	 */
+	@Override
+	void generateChunk(int chunk, int chunks, SplittableRandom rnd, EdgeList out) {
+		final long edges = (long) n * d;
+		final long seed = getSeed();
+		for (long k = edges * chunk / chunks; k < edges * (chunk + 1) / chunks; k++) {
+			final int u = (int) (k / d);
+			// Endpoint list: position 2j is the source of edge j, 2j + 1 its target
+			long j = k;
+			long r = (mix(seed + GOLDEN * j) >>> 1) % (2 * j + 1);
+			while ((r & 1) == 1) {
+				j = r >>> 1;
+				r = (mix(seed + GOLDEN * j) >>> 1) % (2 * j + 1);
+			}
+			final int v = (int) ((r >>> 1) / d);
+			if (u != v) {
+				out.add(u, v);
+			}
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "BarabasiAlbert: N=" + n + " D=" + d;
+	}
+
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+import java.util.Arrays;
+
+/**
+ * Generated edges as primitive columns of vertex IDs and weights, in the order
+ * they were generated. Duplicate edges are kept, they are dropped when a graph
+ * is built from the list.
+ */
+public final class EdgeList {
+
+	private int[] v1s;
+	private int[] v2s;
+	private int[] weights;
+	private int size = 0;
+
+	EdgeList() {
+		this(16);
+	}
+
+	EdgeList(int capacity) {
+		v1s = new int[Math.max(16, capacity)];
+		v2s = new int[v1s.length];
+		weights = null;
+	}
+
+	void add(int v1, int v2) {
+		if (size == v1s.length) {
+			v1s = Arrays.copyOf(v1s, size * 2);
+			v2s = Arrays.copyOf(v2s, size * 2);
+		}
+		v1s[size] = v1;
+		v2s[size] = v2;
+		size++;
+	}
+
+	void setWeights(int[] weights) {
+		this.weights = weights;
+	}
+
+	/**
+	 * Join the chunks of a generator run in chunk order
+	 * 
+	 * @param parts chunks
+	 * @return the joined list
+	 */
+	static EdgeList concat(EdgeList[] parts) {
+		long total = 0;
+		for (EdgeList p : parts) {
+			total += p.size;
+		}
+		if (total > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Too many edges: " + total);
+		}
+		EdgeList ret = new EdgeList((int) total);
+		ret.weights = new int[ret.v1s.length];
+		for (EdgeList p : parts) {
+			System.arraycopy(p.v1s, 0, ret.v1s, ret.size, p.size);
+			System.arraycopy(p.v2s, 0, ret.v2s, ret.size, p.size);
+			if (p.weights == null) {
+				Arrays.fill(ret.weights, ret.size, ret.size + p.size, 1);
+			} else {
+				System.arraycopy(p.weights, 0, ret.weights, ret.size, p.size);
+			}
+			ret.size += p.size;
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i edge number, 0..size() - 1
+	 * @return the vertex ID of edge vertex v1
+	 */
+	public int getV1(int i) {
+		return v1s[i];
+	}
+
+	/**
+	 * @param i edge number, 0..size() - 1
+	 * @return the vertex ID of edge vertex v2
+	 */
+	public int getV2(int i) {
+		return v2s[i];
+	}
+
+	/**
+	 * @param i edge number, 0..size() - 1
+	 * @return the edge weight
+	 */
+	public int getWeight(int i) {
+		return weights == null ? 1 : weights[i];
+	}
+
+	/**
+	 * @param sink called for every edge in order
+	 */
+	public void forEach(EdgeSink sink) {
+		for (int i = 0; i < size; i++) {
+			sink.accept(v1s[i], v2s[i], getWeight(i));
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "EdgeList: Size=" + size;
+	}
+
+}
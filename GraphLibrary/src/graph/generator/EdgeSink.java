@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+/**
+ * Callback for the edges of an {@link EdgeList}, primitive so that streaming a
+ * large generated graph creates no objects
+ */
+@FunctionalInterface
+public interface EdgeSink {
+
+	/**
+	 * @param v1     vertex ID of edge vertex v1
+	 * @param v2     vertex ID of edge vertex v2
+	 * @param weight edge weight
+	 */
+	void accept(int v1, int v2, int weight);
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Erdős–Rényi G(n, p) random graph: every pair of distinct vertices is an edge
+ * with probability p, independently. Pairs are not tested one by one, the gap
+ * to the next edge is drawn from the geometric distribution so generating
+ * takes time proportional to the number of edges.
+ */
+public class ErdosRenyi extends GraphGenerator {
+
+	private final int n;
+	private final double p;
+	private final boolean directed;
+
+	/**
+	 * Custom constructor that takes the number of vertices and edge probability
+	 * 
+	 * @param n        number of vertices
+	 * @param p        edge probability
+	 * @param directed true for ordered pairs, false for unordered pairs
+	 */
+	public ErdosRenyi(int n, double p, boolean directed) {
+		if (n < 0 || !(p >= 0 && p <= 1)) {
+			throw new IllegalArgumentException("Invalid G(n, p): n=" + n + " p=" + p);
+		}
+		this.n = n;
+		this.p = p;
+		this.directed = directed;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#getVertexCount()
+	 */
+	@Override
+	public int getVertexCount() {
+		return n;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#isDirected()
+	 */
+	@Override
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#generateChunk(int, int,
+	 *      java.util.SplittableRandom, graph.generator.EdgeList)
+	 */
+	@Override
+	void generateChunk(int chunk, int chunks, SplittableRandom rnd, EdgeList out) {
+		if (directed) {
+			// Column w of row v skips the diagonal
+			skipPairs(n, p, true, split(n, chunk, chunks), split(n, chunk + 1, chunks), rnd,
+					(v, w) -> out.add(v, w >= v ? w + 1 : w));
+		} else {
+			skipPairs(n, p, false, splitTriangle(n, chunk, chunks), splitTriangle(n, chunk + 1, chunks), rnd,
+					(v, w) -> out.add(w, v));
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ErdosRenyi: N=" + n + " P=" + p + " Directed=" + directed;
+	}
+
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.UndirectedGraph;
+
+/**
+ * Base of the random graph generators. The work is split into a fixed number
+ * of chunks that are generated in parallel, every chunk with its own random
+ * stream derived from the seed, so the same seed and chunk count always give
+ * the same graph regardless of the number of threads. Vertex IDs are 0..n-1.
+ */
+public abstract class GraphGenerator {
+
+	private static final int DEFAULT_CHUNKS = 64;
+	static final long GOLDEN = 0x9e3779b97f4a7c15L;
+	private long seed = 0;
+	private int chunks = DEFAULT_CHUNKS;
+	private int minWeight = 1;
+	private int maxWeight = 1;
+
+	/**
+	 * @return the number of vertices
+	 */
+	public abstract int getVertexCount();
+
+	/**
+	 * @return true if edges are directed, false if every edge stands for both
+	 *         directions and is generated once
+	 */
+	public abstract boolean isDirected();
+
+	/**
+	 * Generate the edges of one chunk
+	 * 
+	 * @param chunk  chunk number, 0..chunks - 1
+	 * @param chunks number of chunks
+	 * @param rnd    random stream of the chunk
+	 * @param out    edge list of the chunk
+	 */
+	abstract void generateChunk(int chunk, int chunks, SplittableRandom rnd, EdgeList out);
+
+	/**
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed the seed to set
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @param chunks the number of chunks to set, part of what determines the
+	 *               result together with the seed
+	 */
+	public void setChunks(int chunks) {
+		if (chunks < 1) {
+			throw new IllegalArgumentException("Chunks must be positive: " + chunks);
+		}
+		this.chunks = chunks;
+	}
+
+	/**
+	 * Draw edge weights uniformly from a range, default every weight is 1. The
+	 * weights come from a separate random stream, changing them does not change
+	 * the edges.
+	 * 
+	 * @param minWeight smallest weight
+	 * @param maxWeight largest weight
+	 */
+	public void setWeights(int minWeight, int maxWeight) {
+		if (minWeight > maxWeight) {
+			throw new IllegalArgumentException("Empty weight range: " + minWeight + ".." + maxWeight);
+		}
+		this.minWeight = minWeight;
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * Generate the edges in parallel chunks
+	 * 
+	 * @return the edges, in chunk order
+	 */
+	public EdgeList generate() {
+		final int k = chunks;
+		EdgeList[] parts = new EdgeList[k];
+		IntStream.range(0, k).parallel().forEach(c -> {
+			EdgeList part = new EdgeList();
+			generateChunk(c, k, new SplittableRandom(mix(seed + GOLDEN * (2 * c + 1))), part);
+			if (minWeight != 1 || maxWeight != 1) {
+				SplittableRandom wr = new SplittableRandom(mix(seed + GOLDEN * (2 * c + 2)));
+				int[] w = new int[part.size()];
+				for (int i = 0; i < w.length; i++) {
+					w[i] = minWeight == maxWeight ? minWeight : wr.nextInt(minWeight, maxWeight + 1);
+				}
+				part.setWeights(w);
+			}
+			parts[c] = part;
+		});
+		return EdgeList.concat(parts);
+	}
+
+	/**
+	 * Generate a graph with all vertices 0..n-1. A directed generator builds a
+	 * {@link Graph}, an undirected one an {@link UndirectedGraph} with both
+	 * directions of every edge. Duplicate edges are dropped.
+	 * 
+	 * @return graph
+	 */
+	public Graph build() {
+		EdgeList el = generate();
+		final boolean directed = isDirected();
+		GraphBuilder gb = new GraphBuilder(directed ? el.size() : el.size() * 2, directed);
+		for (int v = 0; v < getVertexCount(); v++) {
+			gb.addVertex(v);
+		}
+		el.forEach((v1, v2, w) -> gb.addEdge(v1, v2, w, null));
+		return gb.build();
+	}
+
+	/**
+	 * First vertex of a chunk when rows are split evenly
+	 * 
+	 * @return first row of the chunk, chunk == chunks gives n
+	 */
+	static int split(int n, int chunk, int chunks) {
+		return (int) ((long) n * chunk / chunks);
+	}
+
+	/**
+	 * First vertex of a chunk when the rows below the diagonal are split into
+	 * chunks with about the same number of pairs
+	 * 
+	 * @return first row of the chunk, chunk == chunks gives n
+	 */
+	static int splitTriangle(int n, int chunk, int chunks) {
+		return (int) Math.round(n * Math.sqrt((double) chunk / chunks));
+	}
+
+	/**
+	 * Walk the pairs of rows first..last-1 with geometric skips (Batagelj and
+	 * Brandes), so the time is proportional to the edges and not to the pairs.
+	 * Row v holds the pairs (v, 0..length(v) - 1).
+	 * 
+	 * @param directed true for rows of n - 1 pairs, false for row v holding the
+	 *                 v pairs below the diagonal
+	 * @param sink     called with row and column of every chosen pair
+	 */
+	static void skipPairs(int n, double p, boolean directed, int first, int last, SplittableRandom rnd,
+			PairSink sink) {
+		if (p > 0) {
+			final double lp = Math.log1p(-Math.min(p, 1));
+			int v = first;
+			long w = -1;
+			while (v < last) {
+				final double skip = p >= 1 ? 0 : Math.floor(Math.log(1 - rnd.nextDouble()) / lp);
+				w += 1 + (long) Math.min(skip, 1L << 62);
+				while (v < last && w >= (directed ? n - 1 : v)) {
+					w -= directed ? n - 1 : v;
+					v++;
+				}
+				if (v < last) {
+					sink.accept(v, (int) w);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Callback for the pairs chosen by skipPairs
+	 */
+	@FunctionalInterface
+	interface PairSink {
+		void accept(int row, int column);
+	}
+
+	/**
+	 * Mixing function of SplitMix64, turns consecutive numbers into independent
+	 * looking ones
+	 * 
+	 * @param z input
+	 * @return mixed value
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Two dimensional grid graph, vertex r * cols + c is joined to its right and
+ * lower neighbours. Only the weights are random.
+ */
+public class Grid extends GraphGenerator {
+
+	private final int rows;
+	private final int cols;
+
+	/**
+	 * Custom constructor that takes the grid size
+	 * 
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 */
+	public Grid(int rows, int cols) {
+		if (rows < 1 || cols < 1 || (long) rows * cols > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid grid: rows=" + rows + " cols=" + cols);
+		}
+		this.rows = rows;
+		this.cols = cols;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#getVertexCount()
+	 */
+	@Override
+	public int getVertexCount() {
+		return rows * cols;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#isDirected()
+	 */
+	@Override
+	public boolean isDirected() {
+		return false;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#generateChunk(int, int,
+	 *      java.util.SplittableRandom, graph.generator.EdgeList)
+	 */
+	@Override
+	void generateChunk(int chunk, int chunks, SplittableRandom rnd, EdgeList out) {
+		for (int r = split(rows, chunk, chunks); r < split(rows, chunk + 1, chunks); r++) {
+			for (int c = 0; c < cols; c++) {
+				final int v = r * cols + c;
+				if (c + 1 < cols) {
+					out.add(v, v + 1);
+				}
+				if (r + 1 < rows) {
+					out.add(v, v + cols);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Grid: Rows=" + rows + " Cols=" + cols;
+	}
+
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * R-MAT (recursive matrix) graph, the stochastic Kronecker graph of a 2 x 2
+ * initiator. Every edge picks one quadrant of the adjacency matrix per level
+ * with probabilities a, b, c and d = 1 - a - b - c, giving the skewed degrees
+ * and community structure of real networks. Self loops are dropped, duplicate
+ * edges are kept in the edge list and dropped when a graph is built.
+ */
+public class RMat extends GraphGenerator {
+
+	private final int scale;
+	private final long edges;
+	private final double a, b, c;
+
+	/**
+	 * Custom constructor that takes the size, with the Graph500 quadrant
+	 * probabilities a = 0.57, b = c = 0.19
+	 * 
+	 * @param scale      log2 of the number of vertices
+	 * @param edgeFactor edges per vertex
+	 */
+	public RMat(int scale, int edgeFactor) {
+		this(scale, edgeFactor, 0.57, 0.19, 0.19);
+	}
+
+	/**
+	 * Custom constructor that takes the size and quadrant probabilities
+	 * 
+	 * @param scale      log2 of the number of vertices
+	 * @param edgeFactor edges per vertex
+	 * @param a          probability of the top left quadrant
+	 * @param b          probability of the top right quadrant
+	 * @param c          probability of the bottom left quadrant
+	 */
+	public RMat(int scale, int edgeFactor, double a, double b, double c) {
+		if (scale < 1 || scale > 30 || edgeFactor < 1 || a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+			throw new IllegalArgumentException("Invalid R-MAT: scale=" + scale + " edgeFactor=" + edgeFactor + " a="
+					+ a + " b=" + b + " c=" + c);
+		}
+		this.scale = scale;
+		this.edges = (long) edgeFactor << scale;
+		this.a = a;
+		this.b = b;
+		this.c = c;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#getVertexCount()
+	 */
+	@Override
+	public int getVertexCount() {
+		return 1 << scale;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#isDirected()
+	 */
+	@Override
+	public boolean isDirected() {
+		return true;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#generateChunk(int, int,
+	 *      java.util.SplittableRandom, graph.generator.EdgeList)
+	 */
+	@Override
+	void generateChunk(int chunk, int chunks, SplittableRandom rnd, EdgeList out) {
+		final long first = edges * chunk / chunks;
+		final long last = edges * (chunk + 1) / chunks;
+		final double ab = a + b;
+		final double abc = a + b + c;
+		for (long k = first; k < last; k++) {
+			int u = 0;
+			int v = 0;
+			for (int bit = 1 << (scale - 1); bit > 0; bit >>>= 1) {
+				final double r = rnd.nextDouble();
+				if (r >= abc) {
+					u |= bit;
+					v |= bit;
+				} else if (r >= ab) {
+					u |= bit;
+				} else if (r >= a) {
+					v |= bit;
+				}
+			}
+			if (u != v) {
+				out.add(u, v);
+			}
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RMat: Scale=" + scale + " Edges=" + edges + " A=" + a + " B=" + b + " C=" + c;
+	}
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random directed acyclic graph: every pair of distinct vertices is an edge
+ * with probability p, directed along a random order of the vertices. The order
+ * is given by a hash of the seed and vertex ID, so it needs no shared state
+ * between chunks and the vertex IDs are not already topologically sorted.
+ */
+public class RandomDag extends GraphGenerator {
+
+	private final int n;
+	private final double p;
+
+	/**
+	 * Custom constructor that takes the number of vertices and edge probability
+	 * 
+	 * @param n number of vertices
+	 * @param p edge probability
+	 */
+	public RandomDag(int n, double p) {
+		if (n < 0 || !(p >= 0 && p <= 1)) {
+			throw new IllegalArgumentException("Invalid random DAG: n=" + n + " p=" + p);
+		}
+		this.n = n;
+		this.p = p;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#getVertexCount()
+	 */
+	@Override
+	public int getVertexCount() {
+		return n;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#isDirected()
+	 */
+	@Override
+	public boolean isDirected() {
+		return true;
+	}
+
+	/**
+	 * @see graph.generator.GraphGenerator#generateChunk(int, int,
+	 *      java.util.SplittableRandom, graph.generator.EdgeList)
+	 */
+	@Override
+	void generateChunk(int chunk, int chunks, SplittableRandom rnd, EdgeList out) {
+		final long seed = getSeed();
+		skipPairs(n, p, false, splitTriangle(n, chunk, chunks), splitTriangle(n, chunk + 1, chunks), rnd, (v, w) -> {
+			final long rv = mix(seed + GOLDEN * v);
+			final long rw = mix(seed + GOLDEN * w);
+			// Ties broken by ID keep the order total
+			if (rw < rv || (rw == rv && w < v)) {
+				out.add(w, v);
+			} else {
+				out.add(v, w);
+			}
+		});
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RandomDag: N=" + n + " P=" + p;
+	}
+
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.io;
+
+/**
+ * When a journaled mutation is written to the journal file
+ */
+public enum Durability {
+	/**
+	 * Records are kept in memory until the buffer fills, sync is called or the
+	 * journal is closed. A crash loses the buffered records.
+	 */
+	BUFFERED,
+	/**
+	 * Records are written to the file before the mutation returns but not forced
+	 * to disk. Survives a process crash, not an operating system crash.
+	 */
+	WRITE,
+	/**
+	 * Records are written and forced to disk before the mutation returns.
+	 * Concurrent mutations share one force (group commit).
+	 */
+	FSYNC
+}
@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import graph.Edge;
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.UndirectedGraph;
+import graph.Vertex;
+
+/**
+ * Bulk importer of edge list files with one edge per line: "v1 v2 [weight
+ * [label]]". Fields are separated by spaces, tabs or commas, the label is the
+ * rest of the line. Empty lines and lines starting with '#' or '%' are
+ * skipped.
+ * 
+ * The file is split into chunks at line boundaries, each chunk is memory mapped
+ * and parsed by its own worker directly from the mapped bytes, numbers are
+ * parsed without creating strings. Parsed chunks are fed to a
+ * {@link GraphBuilder} in file order, so the graph does not depend on the
+ * number of workers. Malformed lines are reported with their byte offset and
+ * skipped. An undirected import adds both directions of every line and builds
+ * an {@link UndirectedGraph}.
+ */
+public class EdgeListImporter {
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private long chunkSize = 64L << 20;
+	private int maxErrors = 1000;
+	private boolean directed = true;
+
+	/**
+	 * @return the number of parser threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @param threads the number of parser threads to set (default number of
+	 *                processors)
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * @return the chunk size in bytes
+	 */
+	public long getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize the chunk size in bytes to set (default 64 MB), at most 1
+	 *                  GB
+	 */
+	public void setChunkSize(long chunkSize) {
+		this.chunkSize = Math.max(64, Math.min(chunkSize, 1L << 30));
+	}
+
+	/**
+	 * @return the maximum number of malformed lines reported
+	 */
+	public int getMaxErrors() {
+		return maxErrors;
+	}
+
+	/**
+	 * @param maxErrors the maximum number of malformed lines reported to set
+	 *                  (default 1000), further lines are only counted
+	 */
+	public void setMaxErrors(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	/**
+	 * @return true if the imported graph is directed
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * @param directed false to import an undirected graph (default true)
+	 */
+	public void setDirected(boolean directed) {
+		this.directed = directed;
+	}
+
+	/**
+	 * Import a graph, an UndirectedGraph if the importer is not directed
+	 * 
+	 * @param f edge list file
+	 * @return import result with graph
+	 * @throws IOException error reading file
+	 */
+	public ImportResult<Graph> importFile(File f) throws IOException {
+		return importFile(f, directed ? Graph::new : UndirectedGraph::new);
+	}
+
+	/**
+	 * Import a graph built by a factory, see
+	 * {@link GraphBuilder#build(BiFunction)}. Both directions of every line are
+	 * added if the importer is not directed.
+	 * 
+	 * @param <G>     graph type
+	 * @param f       edge list file
+	 * @param factory graph factory
+	 * @return import result with graph
+	 * @throws IOException error reading file
+	 */
+	public <G extends Graph> ImportResult<G> importFile(File f, BiFunction<List<Vertex>, List<Edge>, G> factory)
+			throws IOException {
+		final long start = System.nanoTime();
+		ImportResult<G> ret;
+		try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+			final long size = fc.size();
+			long[] bounds = split(fc, size);
+			final int chunks = bounds.length - 1;
+			GraphBuilder gb = new GraphBuilder((int) Math.min(Integer.MAX_VALUE / 2, size / 16), directed);
+			List<MalformedLine> malformed = new ArrayList<MalformedLine>();
+			long lines = 0;
+			long malformedCount = 0;
+			ExecutorService es = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, chunks)));
+			try {
+				// Feed chunks in file order while later chunks are still being parsed,
+				// at most two chunks per thread are parsed ahead
+				final int ahead = Math.max(1, threads) * 2;
+				ArrayDeque<Future<Chunk>> fl = new ArrayDeque<Future<Chunk>>(ahead);
+				int next = 0;
+				while (next < chunks || !fl.isEmpty()) {
+					while (next < chunks && fl.size() < ahead) {
+						final long cs = bounds[next];
+						final long ce = bounds[next + 1];
+						fl.add(es.submit(() -> parse(fc.map(FileChannel.MapMode.READ_ONLY, cs, ce - cs), cs)));
+						next++;
+					}
+					Chunk c = fl.poll().get();
+					for (int i = 0; i < c.count; i++) {
+						gb.addEdge(c.v1[i], c.v2[i], c.weight[i], c.label == null ? null : c.label[i]);
+					}
+					lines += c.lines;
+					malformedCount += c.malformedCount;
+					for (MalformedLine ml : c.malformed) {
+						if (malformed.size() < maxErrors) {
+							malformed.add(ml);
+						}
+					}
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Import interrupted.", ex);
+			} catch (ExecutionException ex) {
+				throw ex.getCause() instanceof IOException ? (IOException) ex.getCause()
+						: new IOException(ex.getCause());
+			} finally {
+				es.shutdownNow();
+			}
+			G g = gb.build(factory);
+			ret = new ImportResult<G>(g, size, lines, gb.getEdgeCount(), gb.getDuplicateCount(), malformedCount,
+					malformed, chunks, System.nanoTime() - start);
+		}
+		return ret;
+	}
+
+	/**
+	 * Chunk boundaries, every chunk starts at the start of a line
+	 */
+	private long[] split(FileChannel fc, long size) throws IOException {
+		List<Long> bl = new ArrayList<Long>();
+		bl.add(0L);
+		long pos = chunkSize;
+		while (pos < size) {
+			final long ls = nextLineStart(fc, pos, size);
+			if (ls < size) {
+				bl.add(ls);
+			}
+			pos = ls + chunkSize;
+		}
+		bl.add(size);
+		long[] ret = new long[bl.size()];
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = bl.get(i);
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the first line start at or after pos, size if there is none
+	 */
+	private static long nextLineStart(FileChannel fc, long pos, long size) throws IOException {
+		long ret = size;
+		ByteBuffer bb = ByteBuffer.allocate(4096);
+		long p = pos - 1;
+		while (ret == size && p < size) {
+			bb.clear();
+			final int r = fc.read(bb, p);
+			for (int i = 0; i < r && ret == size; i++) {
+				if (bb.get(i) == '\n') {
+					ret = p + i + 1;
+				}
+			}
+			p += Math.max(r, 1);
+		}
+		return ret;
+	}
+
+	/**
+	 * Edges parsed from one chunk
+	 */
+	private class Chunk {
+		int[] v1 = new int[1024];
+		int[] v2 = new int[1024];
+		int[] weight = new int[1024];
+		String[] label = null;
+		int count = 0;
+		long lines = 0;
+		long malformedCount = 0;
+		List<MalformedLine> malformed = new ArrayList<MalformedLine>();
+
+		void add(int s, int d, int w, String l) {
+			if (count == v1.length) {
+				final int cap = count * 2;
+				v1 = Arrays.copyOf(v1, cap);
+				v2 = Arrays.copyOf(v2, cap);
+				weight = Arrays.copyOf(weight, cap);
+				if (label != null) {
+					label = Arrays.copyOf(label, cap);
+				}
+			}
+			if (l != null && label == null) {
+				label = new String[v1.length];
+			}
+			v1[count] = s;
+			v2[count] = d;
+			weight[count] = w;
+			if (label != null) {
+				label[count] = l;
+			}
+			count++;
+		}
+
+		void error(ByteBuffer bb, int ls, int le, long base, String reason) {
+			malformedCount++;
+			if (malformed.size() < maxErrors) {
+				byte[] text = new byte[Math.min(le - ls, 80)];
+				bb.get(ls, text);
+				malformed.add(new MalformedLine(base + ls, reason, new String(text, StandardCharsets.UTF_8)));
+			}
+		}
+	}
+
+	private static boolean isSeparator(byte b) {
+		return b == ' ' || b == '\t' || b == ',';
+	}
+
+	/**
+	 * Parse the lines of a mapped chunk
+	 * 
+	 * @param bb   mapped chunk
+	 * @param base file offset of the chunk
+	 * @return parsed edges
+	 */
+	private Chunk parse(MappedByteBuffer bb, long base) {
+		Chunk ret = new Chunk();
+		final int limit = bb.limit();
+		long[] field = new long[3];
+		int ls = 0;
+		while (ls < limit) {
+			int le = ls;
+			while (le < limit && bb.get(le) != '\n') {
+				le++;
+			}
+			int end = le > ls && bb.get(le - 1) == '\r' ? le - 1 : le;
+			ret.lines++;
+			int p = ls;
+			while (p < end && isSeparator(bb.get(p))) {
+				p++;
+			}
+			if (p < end && bb.get(p) != '#' && bb.get(p) != '%') {
+				int fields = 0;
+				String reason = null;
+				while (fields < 3 && p < end && reason == null) {
+					// Parse one integer field
+					boolean negative = bb.get(p) == '-';
+					int q = negative ? p + 1 : p;
+					long value = 0;
+					final int digits = q;
+					while (q < end && bb.get(q) >= '0' && bb.get(q) <= '9') {
+						// Stop accumulating once out of range, the digits are still consumed
+						if (value <= Integer.MAX_VALUE + 1L) {
+							value = value * 10 + (bb.get(q) - '0');
+						}
+						q++;
+					}
+					if (q == digits || (q < end && !isSeparator(bb.get(q)))) {
+						reason = "Field " + (fields + 1) + " is not an integer";
+					} else if (value > Integer.MAX_VALUE + (negative ? 1L : 0L)) {
+						reason = "Field " + (fields + 1) + " is out of range";
+					} else {
+						field[fields++] = negative ? -value : value;
+						p = q;
+						while (p < end && isSeparator(bb.get(p))) {
+							p++;
+						}
+					}
+				}
+				if (reason == null && fields < 2) {
+					reason = "Missing vertex";
+				}
+				if (reason != null) {
+					ret.error(bb, ls, end, base, reason);
+				} else {
+					String l = null;
+					int le2 = end;
+					while (le2 > p && isSeparator(bb.get(le2 - 1))) {
+						le2--;
+					}
+					if (le2 > p) {
+						byte[] text = new byte[le2 - p];
+						bb.get(p, text);
+						l = new String(text, StandardCharsets.UTF_8);
+					}
+					ret.add((int) field[0], (int) field[1], fields == 3 ? (int) field[2] : 1, l);
+				}
+			}
+			ls = le + 1;
+		}
+		return ret;
+	}
+
+}
@@ -0,0 +1,784 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.zip.CRC32;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.EdgeDoesNotExistException;
+import graph.error.VertexAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Write-ahead journal of graph mutations. Every mutation made through the
+ * journal is applied to the graph and appended as a compact binary record
+ * (length, type, payload, CRC32) to the current journal segment, so saving a
+ * change costs O(change) instead of converting the whole graph to XML.
+ * 
+ * Records are appended in the same order as the mutations are applied to the
+ * graph. Writing to the file happens outside the graph lock: the first waiting
+ * mutation writes (and with {@link Durability#FSYNC} forces) all records
+ * appended so far, mutations that arrive meanwhile are committed together by
+ * the next writer (group commit).
+ * 
+ * {@link #compact()} starts a new segment and writes a binary snapshot of the
+ * graph in the background, the older segments and snapshots are then deleted.
+ * {@link #open(File, BiFunction)} recovers a graph by loading the newest valid
+ * snapshot and replaying the segments after it, a torn record at the end of
+ * the last segment is truncated.
+ * 
+ * @param <G> graph type
+ */
+public class GraphJournal<G extends Graph> implements AutoCloseable {
+
+	private static final int SNAPSHOT_MAGIC = 0x47534e50;
+	private static final int FORMAT = 1;
+	private static final String SEGMENT_PREFIX = "journal-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String SNAPSHOT_PREFIX = "snapshot-";
+	private static final String SNAPSHOT_SUFFIX = ".snap";
+	private static final int BUFFER_LIMIT = 1 << 16;
+
+	private static final byte ADD_VERTEX = 1;
+	private static final byte REMOVE_VERTEX = 2;
+	private static final byte ADD_EDGE = 3;
+	private static final byte REMOVE_EDGE = 4;
+	private static final byte SET_WEIGHT = 5;
+
+	private final File dir;
+	private final G graph;
+	private final Map<Integer, Vertex> vertexIndex;
+	private final Object appendLock = new Object();
+	private final ReentrantLock commitLock = new ReentrantLock();
+	private final ExecutorService compactor;
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+	private volatile Durability durability = Durability.FSYNC;
+	private long compactionThreshold = 0;
+	private FileChannel segment;
+	private long appendedSeq;
+	private volatile long committedSeq;
+	private long snapshotSeq;
+	private long syncs = 0;
+	private CompletableFuture<Long> compaction = null;
+	private boolean closed = false;
+
+	private GraphJournal(File dir, G graph, Map<Integer, Vertex> vertexIndex, long snapshotSeq, long seq)
+			throws IOException {
+		this.dir = dir;
+		this.graph = graph;
+		this.vertexIndex = vertexIndex;
+		this.snapshotSeq = snapshotSeq;
+		appendedSeq = seq;
+		committedSeq = seq;
+		segment = openSegment(seq);
+		compactor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "graph-journal-compactor");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Open a journal of a directed graph, see {@link #open(File, BiFunction)}
+	 * 
+	 * @param dir journal directory, created if it does not exist
+	 * @return journal with the recovered graph
+	 * @throws IOException error reading the journal
+	 */
+	public static GraphJournal<Graph> open(File dir) throws IOException {
+		return open(dir, Graph::new);
+	}
+
+	/**
+	 * Open a journal and recover its graph from the newest snapshot and the
+	 * journal segments written after it
+	 * 
+	 * @param <G>     graph type
+	 * @param dir     journal directory, created if it does not exist
+	 * @param factory creates the graph from snapshot vertices and edges, example
+	 *                UndirectedGraph::new
+	 * @return journal with the recovered graph
+	 * @throws IOException error reading the journal
+	 */
+	public static <G extends Graph> GraphJournal<G> open(File dir, BiFunction<List<Vertex>, List<Edge>, G> factory)
+			throws IOException {
+		Files.createDirectories(dir.toPath());
+		TreeMap<Long, File> snapshots = list(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+		TreeMap<Long, File> segments = list(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+		List<Vertex> vl = new ArrayList<Vertex>();
+		List<Edge> el = new ArrayList<Edge>();
+		long snap = -1;
+		for (Long s : snapshots.descendingKeySet()) {
+			if (snap < 0 && readSnapshot(snapshots.get(s), vl, el)) {
+				snap = s;
+			}
+		}
+		if (snap < 0) {
+			snap = 0;
+			vl.clear();
+			el.clear();
+		}
+		G g = factory.apply(vl, el);
+		Map<Integer, Vertex> vi = new HashMap<Integer, Vertex>(vl.size() * 2);
+		for (Vertex v : vl) {
+			vi.put(v.getVid(), v);
+		}
+		long seq = snap;
+		for (Map.Entry<Long, File> se : segments.tailMap(snap, true).entrySet()) {
+			if (se.getKey() != seq) {
+				throw new IOException("Journal segment " + se.getValue() + " does not follow record " + seq + ".");
+			}
+			seq += replay(se.getValue(), g, vi, se.getKey() == segments.lastKey());
+		}
+		return new GraphJournal<G>(dir, g, vi, snap, seq);
+	}
+
+	private static TreeMap<Long, File> list(File dir, String prefix, String suffix) {
+		TreeMap<Long, File> ret = new TreeMap<Long, File>();
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				final String n = f.getName();
+				if (n.startsWith(prefix) && n.endsWith(suffix)) {
+					try {
+						ret.put(Long.parseLong(n.substring(prefix.length(), n.length() - suffix.length())), f);
+					} catch (NumberFormatException ex) {
+						// Not a journal file
+					}
+				}
+			}
+		}
+		return ret;
+	}
+
+	private static String name(String prefix, long seq, String suffix) {
+		return prefix + String.format("%020d", seq) + suffix;
+	}
+
+	private FileChannel openSegment(long seq) throws IOException {
+		return FileChannel.open(new File(dir, name(SEGMENT_PREFIX, seq, SEGMENT_SUFFIX)).toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * @return true if snapshot was complete and its checksum matched
+	 */
+	private static boolean readSnapshot(File f, List<Vertex> vl, List<Edge> el) throws IOException {
+		boolean ret = false;
+		vl.clear();
+		el.clear();
+		CRC32 crc = new CRC32();
+		byte[] data = Files.readAllBytes(f.toPath());
+		if (data.length > 4) {
+			crc.update(data, 0, data.length - 4);
+			final int stored = ByteBuffer.wrap(data, data.length - 4, 4).getInt();
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+			if ((int) crc.getValue() == stored && in.readInt() == SNAPSHOT_MAGIC && in.readInt() == FORMAT) {
+				in.readLong();
+				Map<Integer, Vertex> vi = new HashMap<Integer, Vertex>();
+				final int nv = in.readInt();
+				for (int i = 0; i < nv; i++) {
+					Vertex v = new Vertex(in.readInt(), readString(in));
+					vi.put(v.getVid(), v);
+					vl.add(v);
+				}
+				final int ne = in.readInt();
+				for (int i = 0; i < ne; i++) {
+					Vertex v1 = vi.get(in.readInt());
+					Vertex v2 = vi.get(in.readInt());
+					el.add(new Edge(v1, v2, in.readInt(), readString(in)));
+				}
+				ret = true;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Replay the records of a segment, a torn record at the end of the last
+	 * segment is truncated
+	 * 
+	 * @return number of records replayed
+	 */
+	private static long replay(File f, Graph g, Map<Integer, Vertex> vi, boolean last) throws IOException {
+		long ret = 0;
+		long good = 0;
+		final long size = f.length();
+		CRC32 crc = new CRC32();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+			boolean more = true;
+			while (more && good < size) {
+				try {
+					final int len = in.readInt();
+					if (len <= 0 || len > size - good - 8) {
+						more = false;
+					} else {
+						byte[] body = new byte[len];
+						in.readFully(body);
+						crc.reset();
+						crc.update(body);
+						if ((int) crc.getValue() != in.readInt()) {
+							more = false;
+						} else {
+							apply(body, g, vi);
+							good += len + 8;
+							ret++;
+						}
+					}
+				} catch (EOFException ex) {
+					more = false;
+				}
+			}
+		}
+		if (good < size) {
+			if (!last) {
+				throw new IOException("Corrupt record in journal segment " + f + " at offset " + good + ".");
+			}
+			try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.WRITE)) {
+				fc.truncate(good);
+			}
+		}
+		return ret;
+	}
+
+	private static void apply(byte[] body, Graph g, Map<Integer, Vertex> vi) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+		final byte type = in.readByte();
+		try {
+			switch (type) {
+			case ADD_VERTEX: {
+				Vertex v = new Vertex(in.readInt(), readString(in));
+				g.addVertex(v);
+				vi.put(v.getVid(), v);
+				break;
+			}
+			case REMOVE_VERTEX: {
+				Vertex v = vertex(vi, in.readInt());
+				g.removeVertex(v);
+				vi.remove(v.getVid());
+				break;
+			}
+			case ADD_EDGE:
+				g.addEdge(new Edge(vertex(vi, in.readInt()), vertex(vi, in.readInt()), in.readInt(), readString(in)));
+				break;
+			case REMOVE_EDGE:
+				g.removeEdge(new Edge(vertex(vi, in.readInt()), vertex(vi, in.readInt())));
+				break;
+			case SET_WEIGHT:
+				g.updateWeight(storedEdge(g, new Edge(vertex(vi, in.readInt()), vertex(vi, in.readInt()))), in.readInt());
+				break;
+			default:
+				throw new IOException("Unknown journal record type " + type + ".");
+			}
+		} catch (VertexAlreadyExistsException | VertexDoesNotExistException | EdgeAlreadyExistsException
+				| EdgeDoesNotExistException ex) {
+			throw new IOException("Journal record does not apply to graph: " + ex.getMessage(), ex);
+		}
+	}
+
+	private static Vertex vertex(Map<Integer, Vertex> vi, int vid) throws VertexDoesNotExistException {
+		Vertex ret = vi.get(vid);
+		if (ret == null) {
+			throw new VertexDoesNotExistException(new Vertex(vid));
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the edge instance stored in the graph that equals e
+	 */
+	private static Edge storedEdge(Graph g, Edge e) throws VertexDoesNotExistException, EdgeDoesNotExistException {
+		for (Edge ge : g.findEdgesForVertex(e.getV1())) {
+			if (ge.equals(e)) {
+				return ge;
+			}
+		}
+		throw new EdgeDoesNotExistException(e);
+	}
+
+	/**
+	 * @return the graph, mutations made directly on the graph are not journaled
+	 */
+	public G getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the durability
+	 */
+	public Durability getDurability() {
+		return durability;
+	}
+
+	/**
+	 * @param durability the durability to set (default FSYNC)
+	 */
+	public void setDurability(Durability durability) {
+		this.durability = durability;
+	}
+
+	/**
+	 * @return the compaction threshold
+	 */
+	public synchronized long getCompactionThreshold() {
+		return compactionThreshold;
+	}
+
+	/**
+	 * @param records number of records since the last snapshot that starts a
+	 *                background compaction, 0 (default) for manual compaction
+	 *                only
+	 */
+	public synchronized void setCompactionThreshold(long records) {
+		compactionThreshold = records;
+	}
+
+	/**
+	 * Add a vertex and journal it
+	 * 
+	 * @param v vertex to be added
+	 * @throws VertexAlreadyExistsException error if vertex is already in graph
+	 * @throws IOException                  error writing the journal
+	 */
+	public void addVertex(Vertex v) throws VertexAlreadyExistsException, IOException {
+		final byte[] rec = record(ADD_VERTEX, v.getVid(), v.getVname());
+		long seq;
+		synchronized (graph) {
+			synchronized (appendLock) {
+				checkOpen();
+				graph.addVertex(v);
+				vertexIndex.put(v.getVid(), v);
+				seq = append(rec);
+			}
+		}
+		commit(seq);
+	}
+
+	/**
+	 * Remove a vertex and journal it
+	 * 
+	 * @param v vertex to be removed
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws IOException                 error writing the journal
+	 */
+	public void removeVertex(Vertex v) throws VertexDoesNotExistException, IOException {
+		final byte[] rec = record(REMOVE_VERTEX, v.getVid());
+		long seq;
+		synchronized (graph) {
+			synchronized (appendLock) {
+				checkOpen();
+				graph.removeVertex(v);
+				vertexIndex.remove(v.getVid());
+				seq = append(rec);
+			}
+		}
+		commit(seq);
+	}
+
+	/**
+	 * Add an edge and journal it
+	 * 
+	 * @param e edge to be added
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws EdgeAlreadyExistsException  error if edge already exists
+	 * @throws IOException                 error writing the journal
+	 */
+	public void addEdge(Edge e) throws VertexDoesNotExistException, EdgeAlreadyExistsException, IOException {
+		final byte[] rec = record(ADD_EDGE, e.getV1().getVid(), e.getV2().getVid(), e.getWeight(), e.getLabel());
+		long seq;
+		synchronized (graph) {
+			synchronized (appendLock) {
+				checkOpen();
+				graph.addEdge(e);
+				seq = append(rec);
+			}
+		}
+		commit(seq);
+	}
+
+	/**
+	 * Remove an edge and journal it
+	 * 
+	 * @param e edge to be removed
+	 * @throws EdgeDoesNotExistException error if edge does not exist
+	 * @throws IOException               error writing the journal
+	 */
+	public void removeEdge(Edge e) throws EdgeDoesNotExistException, IOException {
+		final byte[] rec = record(REMOVE_EDGE, e.getV1().getVid(), e.getV2().getVid());
+		long seq;
+		synchronized (graph) {
+			synchronized (appendLock) {
+				checkOpen();
+				graph.removeEdge(e);
+				seq = append(rec);
+			}
+		}
+		commit(seq);
+	}
+
+	/**
+	 * Set the weight of the graph edge between the vertices of e and journal it
+	 * 
+	 * @param e      edge with the vertices of the graph edge
+	 * @param weight new weight
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws EdgeDoesNotExistException   error if edge does not exist
+	 * @throws IOException                 error writing the journal
+	 */
+	public void setWeight(Edge e, int weight) throws VertexDoesNotExistException, EdgeDoesNotExistException,
+			IOException {
+		final byte[] rec = record(SET_WEIGHT, e.getV1().getVid(), e.getV2().getVid(), weight);
+		long seq;
+		synchronized (graph) {
+			synchronized (appendLock) {
+				checkOpen();
+				graph.updateWeight(storedEdge(graph, e), weight);
+				seq = append(rec);
+			}
+		}
+		commit(seq);
+	}
+
+	private static byte[] record(byte type, Object... fields) {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(32);
+		try (DataOutputStream out = new DataOutputStream(bos)) {
+			out.writeInt(0);
+			out.writeByte(type);
+			for (Object f : fields) {
+				if (f instanceof Integer) {
+					out.writeInt((Integer) f);
+				} else {
+					writeString(out, (String) f);
+				}
+			}
+			out.writeInt(0);
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		byte[] ret = bos.toByteArray();
+		final int len = ret.length - 8;
+		CRC32 crc = new CRC32();
+		crc.update(ret, 4, len);
+		ByteBuffer bb = ByteBuffer.wrap(ret);
+		bb.putInt(0, len);
+		bb.putInt(ret.length - 4, (int) crc.getValue());
+		return ret;
+	}
+
+	/**
+	 * Strings are written with a leading flag, vertex names can be null
+	 */
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		out.writeBoolean(str != null);
+		if (str != null) {
+			out.writeUTF(str);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * Called with the graph and append locks held before the graph is mutated, a
+	 * mutation is only applied if its record can be appended
+	 */
+	private void checkOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Journal is closed.");
+		}
+	}
+
+	/**
+	 * Append a record to the pending buffer, called while holding the graph and
+	 * append locks right after the mutation so that records are in mutation
+	 * order
+	 * 
+	 * @return sequence number of the record, counted from 1
+	 */
+	private long append(byte[] rec) {
+		pending.writeBytes(rec);
+		return ++appendedSeq;
+	}
+
+	/**
+	 * Make the record with sequence number seq durable as configured. Whoever
+	 * holds the commit lock writes all pending records, waiting mutations then
+	 * find their record already committed.
+	 */
+	private void commit(long seq) throws IOException {
+		final boolean write;
+		synchronized (appendLock) {
+			write = durability != Durability.BUFFERED || pending.size() >= BUFFER_LIMIT;
+		}
+		if (write && committedSeq < seq) {
+			commitLock.lock();
+			try {
+				if (committedSeq < seq) {
+					flush(durability == Durability.FSYNC);
+				}
+			} finally {
+				commitLock.unlock();
+			}
+		}
+		maybeCompact();
+	}
+
+	/**
+	 * Write all pending records to the current segment, must hold the commit lock.
+	 * Records leave the pending buffer only once they are written, after a failed
+	 * write the segment is cut back so that the next flush writes them again
+	 * without a partial copy in between.
+	 */
+	private void flush(boolean force) throws IOException {
+		byte[] data;
+		long upTo;
+		synchronized (appendLock) {
+			data = pending.toByteArray();
+			upTo = appendedSeq;
+		}
+		final long start = segment.size();
+		ByteBuffer bb = ByteBuffer.wrap(data);
+		try {
+			while (bb.hasRemaining()) {
+				segment.write(bb);
+			}
+		} catch (IOException ex) {
+			try {
+				segment.truncate(start);
+			} catch (IOException tex) {
+				ex.addSuppressed(tex);
+			}
+			throw ex;
+		}
+		synchronized (appendLock) {
+			if (pending.size() == data.length) {
+				pending.reset();
+			} else {
+				// Keep the records appended while writing
+				byte[] all = pending.toByteArray();
+				pending.reset();
+				pending.write(all, data.length, all.length - data.length);
+			}
+		}
+		if (force) {
+			segment.force(false);
+			synchronized (appendLock) {
+				syncs++;
+			}
+		}
+		committedSeq = upTo;
+	}
+
+	/**
+	 * Write and force all journaled mutations to disk, whatever the durability
+	 * 
+	 * @throws IOException error writing the journal
+	 */
+	public void sync() throws IOException {
+		commitLock.lock();
+		try {
+			flush(true);
+		} finally {
+			commitLock.unlock();
+		}
+	}
+
+	private synchronized void maybeCompact() {
+		if (compactionThreshold > 0 && (compaction == null || compaction.isDone())
+				&& getRecordCount() - snapshotSeq >= compactionThreshold) {
+			compaction = compact();
+		}
+	}
+
+	/**
+	 * Fold the journal into a new snapshot. A new segment is started and the
+	 * graph is copied under the graph lock, the snapshot is written and the old
+	 * segments are deleted in the background.
+	 * 
+	 * @return future completed with the number of records folded into the
+	 *         snapshot
+	 */
+	public synchronized CompletableFuture<Long> compact() {
+		final CsrGraph csr;
+		final List<Edge> el = new ArrayList<>();
+		final long seq;
+		try {
+			synchronized (graph) {
+				commitLock.lock();
+				try {
+					flush(true);
+					seq = committedSeq;
+					if (seq != snapshotSeq) {
+						segment.close();
+						segment = openSegment(seq);
+					}
+				} finally {
+					commitLock.unlock();
+				}
+				csr = new CsrGraph(graph);
+				graph.forEachEdge(e -> el.add(new Edge(e.getV1(), e.getV2(), e.getWeight(),
+						e.hasDefaultLabel() ? null : e.getLabel())));
+			}
+		} catch (IOException ex) {
+			return CompletableFuture.failedFuture(ex);
+		}
+		if (seq == snapshotSeq) {
+			return CompletableFuture.completedFuture(seq);
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				writeSnapshot(csr, el, seq);
+				synchronized (this) {
+					snapshotSeq = Math.max(snapshotSeq, seq);
+				}
+				for (Map.Entry<Long, File> se : list(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(seq).entrySet()) {
+					Files.deleteIfExists(se.getValue().toPath());
+				}
+				for (Map.Entry<Long, File> se : list(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(seq).entrySet()) {
+					Files.deleteIfExists(se.getValue().toPath());
+				}
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			return seq;
+		}, compactor);
+	}
+
+	private void writeSnapshot(CsrGraph csr, List<Edge> el, long seq) throws IOException {
+		File tmp = new File(dir, name(SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX) + ".tmp");
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bos)) {
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(FORMAT);
+			out.writeLong(seq);
+			out.writeInt(csr.getVertexCount());
+			for (int i = 0; i < csr.getVertexCount(); i++) {
+				out.writeInt(csr.getVertex(i).getVid());
+				writeString(out, csr.getVertex(i).getVname());
+			}
+			out.writeInt(el.size());
+			for (Edge e : el) {
+				out.writeInt(e.getV1().getVid());
+				out.writeInt(e.getV2().getVid());
+				out.writeInt(e.getWeight());
+				writeString(out, e.getLabel());
+			}
+		}
+		CRC32 crc = new CRC32();
+		byte[] data = bos.toByteArray();
+		crc.update(data);
+		try (FileOutputStream fos = new FileOutputStream(tmp);
+				BufferedOutputStream out = new BufferedOutputStream(fos)) {
+			out.write(data);
+			out.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+			out.flush();
+			fos.getFD().sync();
+		}
+		Files.move(tmp.toPath(), new File(dir, name(SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX)).toPath(),
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * @return the number of records journaled, including those folded into
+	 *         snapshots
+	 */
+	public long getRecordCount() {
+		synchronized (appendLock) {
+			return appendedSeq;
+		}
+	}
+
+	/**
+	 * @return the number of records written to the journal file
+	 */
+	public long getCommittedCount() {
+		return committedSeq;
+	}
+
+	/**
+	 * @return the number of records folded into the newest snapshot
+	 */
+	public synchronized long getSnapshotCount() {
+		return snapshotSeq;
+	}
+
+	/**
+	 * @return the number of times the journal was forced to disk, lower than the
+	 *         number of mutations when commits were grouped
+	 */
+	public long getSyncCount() {
+		synchronized (appendLock) {
+			return syncs;
+		}
+	}
+
+	/**
+	 * Write and force pending records, wait for a running compaction and close
+	 * the journal file
+	 * 
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		CompletableFuture<Long> c;
+		synchronized (this) {
+			c = compaction;
+		}
+		if (c != null) {
+			c.exceptionally(ex -> null).join();
+		}
+		commitLock.lock();
+		try {
+			if (!closed) {
+				flush(true);
+				synchronized (appendLock) {
+					closed = true;
+				}
+				segment.close();
+			}
+		} finally {
+			commitLock.unlock();
+		}
+		compactor.shutdown();
+	}
+
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.io;
+
+import java.util.List;
+
+import graph.Graph;
+
+/**
+ * Result of an edge list import, the graph and import statistics
+ * 
+ * @param <G> graph type
+ */
+public class ImportResult<G extends Graph> {
+
+	private final G graph;
+	private final long bytes;
+	private final long lines;
+	private final long edges;
+	private final long duplicates;
+	private final long malformedCount;
+	private final List<MalformedLine> malformed;
+	private final int chunks;
+	private final long nanos;
+
+	ImportResult(G graph, long bytes, long lines, long edges, long duplicates, long malformedCount,
+			List<MalformedLine> malformed, int chunks, long nanos) {
+		this.graph = graph;
+		this.bytes = bytes;
+		this.lines = lines;
+		this.edges = edges;
+		this.duplicates = duplicates;
+		this.malformedCount = malformedCount;
+		this.malformed = malformed;
+		this.chunks = chunks;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * @return the graph
+	 */
+	public G getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the number of bytes read
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the number of lines read, including comments and malformed lines
+	 */
+	public long getLines() {
+		return lines;
+	}
+
+	/**
+	 * @return the number of edges added to the graph
+	 */
+	public long getEdges() {
+		return edges;
+	}
+
+	/**
+	 * @return the number of duplicate edges dropped
+	 */
+	public long getDuplicates() {
+		return duplicates;
+	}
+
+	/**
+	 * @return the number of malformed lines
+	 */
+	public long getMalformedCount() {
+		return malformedCount;
+	}
+
+	/**
+	 * @return the malformed lines in file order, at most the configured maximum
+	 */
+	public List<MalformedLine> getMalformed() {
+		return malformed;
+	}
+
+	/**
+	 * @return the number of chunks parsed in parallel
+	 */
+	public int getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * @return the import time in nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * @return the import throughput in edges per second
+	 */
+	public double getEdgesPerSecond() {
+		return nanos == 0 ? 0 : edges * 1e9 / nanos;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ImportResult: Edges=" + edges + " Lines=" + lines + " Malformed=" + malformedCount + " Duplicates="
+				+ duplicates + " Chunks=" + chunks + " EdgesPerSecond=" + Math.round(getEdgesPerSecond());
+	}
+
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.io;
+
+/**
+ * Line of an imported file that could not be parsed
+ */
+public class MalformedLine {
+
+	private final long offset;
+	private final String reason;
+	private final String text;
+
+	MalformedLine(long offset, String reason, String text) {
+		this.offset = offset;
+		this.reason = reason;
+		this.text = text;
+	}
+
+	/**
+	 * @return the byte offset of the start of the line in the file
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @return the reason the line was rejected
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * @return the start of the line text
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Offset " + offset + ": " + reason + " '" + text + "'";
+	}
+
+}
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+/**
+ * Partitioner that spreads vertices evenly by a hash of the vertex ID
+ */
+public class HashPartitioner implements Partitioner {
+
+	/**
+	 * @see graph.shard.Partitioner#shardOf(int, int)
+	 */
+	@Override
+	public int shardOf(int vid, int shards) {
+		// Mix bits so that sequential IDs do not map to sequential shards
+		int h = vid * 0x9E3779B9;
+		h ^= (h >>> 16);
+		return Math.floorMod(h, shards);
+	}
+
+}
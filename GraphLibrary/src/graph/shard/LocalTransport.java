@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process transport, batches are handed over through a queue per receiving
+ * shard. Stands in for a network transport in tests and for running all shards
+ * of a graph in a single JVM.
+ */
+public class LocalTransport implements ShardTransport {
+
+	private final List<ConcurrentLinkedQueue<List<ShardMessage>>> queues;
+	private final AtomicLong messages = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+
+	/**
+	 * Custom constructor that takes the number of shards
+	 * 
+	 * @param shards number of shards
+	 */
+	public LocalTransport(int shards) {
+		queues = new ArrayList<ConcurrentLinkedQueue<List<ShardMessage>>>(shards);
+		for (int i = 0; i < shards; i++) {
+			queues.add(new ConcurrentLinkedQueue<List<ShardMessage>>());
+		}
+	}
+
+	/**
+	 * @see graph.shard.ShardTransport#send(int, int, java.util.List)
+	 */
+	@Override
+	public void send(int from, int to, List<ShardMessage> batch) {
+		if (!batch.isEmpty()) {
+			queues.get(to).add(batch);
+			messages.addAndGet(batch.size());
+			batches.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @see graph.shard.ShardTransport#receive(int)
+	 */
+	@Override
+	public List<ShardMessage> receive(int shard) {
+		List<ShardMessage> ret = new ArrayList<ShardMessage>();
+		ConcurrentLinkedQueue<List<ShardMessage>> q = queues.get(shard);
+		List<ShardMessage> b;
+		while ((b = q.poll()) != null) {
+			ret.addAll(b);
+		}
+		return ret;
+	}
+
+	/**
+	 * @see graph.shard.ShardTransport#getMessageCount()
+	 */
+	@Override
+	public long getMessageCount() {
+		return messages.get();
+	}
+
+	/**
+	 * @see graph.shard.ShardTransport#getBatchCount()
+	 */
+	@Override
+	public long getBatchCount() {
+		return batches.get();
+	}
+
+}
@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+/**
+ * Assigns a vertex to a shard based on its vertex ID. The assignment must not
+ * change for the lifetime of a sharded graph.
+ */
+public interface Partitioner {
+
+	/**
+	 * @param vid    vertex ID
+	 * @param shards number of shards
+	 * @return shard number, 0..shards - 1
+	 */
+	int shardOf(int vid, int shards);
+
+}
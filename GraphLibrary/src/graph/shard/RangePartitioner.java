@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+import java.util.Arrays;
+
+/**
+ * Partitioner that assigns contiguous ranges of vertex IDs to shards. Shard i
+ * holds IDs from bounds[i - 1] (inclusive) to bounds[i] (exclusive), the first
+ * shard holds all IDs below bounds[0] and the last shard all IDs from the last
+ * bound. Range partitioning keeps neighbouring IDs together, which lowers the
+ * edge cut when IDs were assigned with locality in mind.
+ */
+public class RangePartitioner implements Partitioner {
+
+	private final int[] bounds;
+
+	/**
+	 * Custom constructor that takes the ascending upper bounds of all shards
+	 * except the last
+	 * 
+	 * @param bounds shard upper bounds (exclusive)
+	 */
+	public RangePartitioner(int... bounds) {
+		this.bounds = bounds.clone();
+		Arrays.sort(this.bounds);
+	}
+
+	/**
+	 * Create a range partitioner that splits IDs 0..maxVid evenly
+	 * 
+	 * @param maxVid highest vertex ID expected
+	 * @param shards number of shards
+	 * @return range partitioner
+	 */
+	public static RangePartitioner evenly(int maxVid, int shards) {
+		int[] b = new int[shards - 1];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = (int) (((long) maxVid + 1) * (i + 1) / shards);
+		}
+		return new RangePartitioner(b);
+	}
+
+	/**
+	 * @see graph.shard.Partitioner#shardOf(int, int)
+	 */
+	@Override
+	public int shardOf(int vid, int shards) {
+		int p = Arrays.binarySearch(bounds, vid);
+		p = p >= 0 ? p + 1 : -p - 1;
+		return Math.min(p, shards - 1);
+	}
+
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.Edge;
+import graph.Vertex;
+
+/**
+ * Single shard of a {@link ShardedGraph}. Owns a subset of the vertices, their
+ * out-edges and, as a reverse index, the IDs of the sources of their in-edges.
+ * Access is guarded by the lock of the owning sharded graph.
+ */
+class Shard {
+
+	private final int number;
+	private final Map<Integer, Vertex> vertices = new LinkedHashMap<Integer, Vertex>();
+	private final Map<Integer, List<Edge>> outEdges = new HashMap<Integer, List<Edge>>();
+	private final Map<Integer, List<Integer>> inSources = new HashMap<Integer, List<Integer>>();
+	private int edgeCount = 0;
+
+	Shard(int number) {
+		this.number = number;
+	}
+
+	int getNumber() {
+		return number;
+	}
+
+	Vertex getVertex(int vid) {
+		return vertices.get(vid);
+	}
+
+	List<Vertex> getVertices() {
+		return new ArrayList<Vertex>(vertices.values());
+	}
+
+	int getVertexCount() {
+		return vertices.size();
+	}
+
+	int getEdgeCount() {
+		return edgeCount;
+	}
+
+	void addVertex(Vertex v) {
+		vertices.put(v.getVid(), v);
+		outEdges.put(v.getVid(), new ArrayList<Edge>());
+		inSources.put(v.getVid(), new ArrayList<Integer>());
+	}
+
+	void removeVertex(int vid) {
+		vertices.remove(vid);
+		List<Edge> el = outEdges.remove(vid);
+		edgeCount -= el == null ? 0 : el.size();
+		inSources.remove(vid);
+	}
+
+	List<Edge> getOutEdges(int vid) {
+		return outEdges.get(vid);
+	}
+
+	List<Integer> getInSources(int vid) {
+		return inSources.get(vid);
+	}
+
+	Edge findEdge(int v1, int v2) {
+		Edge ret = null;
+		List<Edge> el = outEdges.get(v1);
+		if (el != null) {
+			for (Edge e : el) {
+				if (e.getV2().getVid() == v2) {
+					ret = e;
+					break;
+				}
+			}
+		}
+		return ret;
+	}
+
+	void addOutEdge(Edge e) {
+		outEdges.get(e.getV1().getVid()).add(e);
+		edgeCount++;
+	}
+
+	boolean removeOutEdge(Edge e) {
+		boolean ret = false;
+		List<Edge> el = outEdges.get(e.getV1().getVid());
+		if (el != null && el.remove(e)) {
+			edgeCount--;
+			ret = true;
+		}
+		return ret;
+	}
+
+	void addInSource(int vid, int source) {
+		inSources.get(vid).add(source);
+	}
+
+	void removeInSource(int vid, int source) {
+		List<Integer> il = inSources.get(vid);
+		if (il != null) {
+			il.remove(Integer.valueOf(source));
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+/**
+ * Message sent between shards during a distributed query, addressed to a vertex
+ * owned by the receiving shard.
+ */
+public class ShardMessage {
+
+	private final int target;
+	private final int source;
+	private final long value;
+
+	/**
+	 * Custom constructor that takes target, source and value
+	 * 
+	 * @param target ID of the vertex the message is addressed to
+	 * @param source ID of the vertex the message was sent from
+	 * @param value  payload, example hop count or distance
+	 */
+	public ShardMessage(int target, int source, long value) {
+		this.target = target;
+		this.source = source;
+		this.value = value;
+	}
+
+	/**
+	 * @return the target vertex ID
+	 */
+	public int getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the source vertex ID
+	 */
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the value
+	 */
+	public long getValue() {
+		return value;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ShardMessage: " + source + " -> " + target + " Value=" + value;
+	}
+
+}
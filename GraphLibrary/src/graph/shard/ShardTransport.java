@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+import java.util.List;
+
+/**
+ * Transport used by shards to exchange messages during distributed queries.
+ * Messages are sent in batches, one batch per sending shard, destination shard
+ * and round. Batches sent in a round must be available to receive once all
+ * shards have finished sending for that round.
+ */
+public interface ShardTransport {
+
+	/**
+	 * Send a batch of messages, called concurrently by different shards
+	 * 
+	 * @param from  sending shard
+	 * @param to    receiving shard
+	 * @param batch messages
+	 */
+	void send(int from, int to, List<ShardMessage> batch);
+
+	/**
+	 * Receive and remove all messages sent to a shard
+	 * 
+	 * @param shard receiving shard
+	 * @return messages, empty if none
+	 */
+	List<ShardMessage> receive(int shard);
+
+	/**
+	 * @return the total number of messages sent
+	 */
+	long getMessageCount();
+
+	/**
+	 * @return the total number of batches sent
+	 */
+	long getBatchCount();
+
+}
@@ -0,0 +1,590 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.Vertex;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.EdgeDoesNotExistException;
+import graph.error.VertexAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Directed graph split over a number of shards. Each vertex is assigned to a
+ * shard by a {@link Partitioner} on its vertex ID, the shard owns the vertex
+ * and its out-edges. Queries run as rounds over all shards in parallel: every
+ * shard expands its own frontier, edges that leave the shard become messages
+ * sent through a {@link ShardTransport} to the owner of the target vertex.
+ * 
+ * Edge weights are expected to be positive, as for {@link Graph}. Mutations
+ * and queries are safe from multiple threads. Queries never run concurrently
+ * with mutations, and distributed traversals take turns on the transport.
+ */
+public class ShardedGraph {
+
+	private final Shard[] shards;
+	private final Partitioner partitioner;
+	private final ShardTransport transport;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ReentrantLock transportLock = new ReentrantLock();
+	private int vertexCount = 0;
+	private int edgeCount = 0;
+	private int edgeCut = 0;
+
+	/**
+	 * Custom constructor that takes the number of shards, vertices are hash
+	 * partitioned and shards exchange messages in-process
+	 * 
+	 * @param n number of shards
+	 */
+	public ShardedGraph(int n) {
+		this(n, new HashPartitioner(), new LocalTransport(n));
+	}
+
+	/**
+	 * Custom constructor that takes the number of shards, partitioner and
+	 * transport
+	 * 
+	 * @param n number of shards
+	 * @param p partitioner
+	 * @param t transport
+	 */
+	public ShardedGraph(int n, Partitioner p, ShardTransport t) {
+		shards = new Shard[n];
+		for (int i = 0; i < n; i++) {
+			shards[i] = new Shard(i);
+		}
+		partitioner = p;
+		transport = t;
+	}
+
+	/**
+	 * Create a sharded copy of a graph
+	 * 
+	 * @param g graph
+	 * @param n number of shards
+	 * @param p partitioner
+	 * @param t transport
+	 * @return sharded graph
+	 */
+	public static ShardedGraph fromGraph(Graph g, int n, Partitioner p, ShardTransport t) {
+		ShardedGraph ret = new ShardedGraph(n, p, t);
+		CsrGraph csr = new CsrGraph(g);
+		try {
+			for (int i = 0; i < csr.getVertexCount(); i++) {
+				ret.addVertex(csr.getVertex(i));
+			}
+			for (int e = 0; e < csr.getEdgeCount(); e++) {
+				ret.addEdge(csr.getEdge(e));
+			}
+		} catch (VertexAlreadyExistsException | VertexDoesNotExistException | EdgeAlreadyExistsException ex) {
+			// Snapshot of a valid graph, cannot happen
+			throw new IllegalStateException(ex);
+		}
+		return ret;
+	}
+
+	private Shard shardOf(int vid) {
+		return shards[partitioner.shardOf(vid, shards.length)];
+	}
+
+	private void validateVertex(Vertex v) throws VertexDoesNotExistException {
+		if (v == null || shardOf(v.getVid()).getVertex(v.getVid()) == null) {
+			throw new VertexDoesNotExistException(v);
+		}
+	}
+
+	/**
+	 * Add a vertex
+	 * 
+	 * @param v vertex to be added
+	 * @throws VertexAlreadyExistsException error if vertex is already in graph
+	 */
+	public void addVertex(Vertex v) throws VertexAlreadyExistsException {
+		if (v != null) {
+			lock.writeLock().lock();
+			try {
+				Shard s = shardOf(v.getVid());
+				if (s.getVertex(v.getVid()) != null) {
+					throw new VertexAlreadyExistsException(v);
+				}
+				s.addVertex(v);
+				vertexCount++;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Remove a vertex together with its in and out edges
+	 * 
+	 * @param v vertex to be removed
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public void removeVertex(Vertex v) throws VertexDoesNotExistException {
+		lock.writeLock().lock();
+		try {
+			validateVertex(v);
+			final int vid = v.getVid();
+			Shard s = shardOf(vid);
+			for (Edge e : new ArrayList<Edge>(s.getOutEdges(vid))) {
+				unlinkEdge(e);
+			}
+			for (Integer src : new ArrayList<Integer>(s.getInSources(vid))) {
+				Edge e = shardOf(src).findEdge(src, vid);
+				if (e != null) {
+					unlinkEdge(e);
+				}
+			}
+			s.removeVertex(vid);
+			vertexCount--;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Add an edge, stored in the shard of vertex v1
+	 * 
+	 * @param e edge to be added
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 * @throws EdgeAlreadyExistsException  error if edge already exists
+	 */
+	public void addEdge(Edge e) throws VertexDoesNotExistException, EdgeAlreadyExistsException {
+		if (e != null) {
+			lock.writeLock().lock();
+			try {
+				validateVertex(e.getV1());
+				validateVertex(e.getV2());
+				final int v1 = e.getV1().getVid();
+				final int v2 = e.getV2().getVid();
+				Shard s1 = shardOf(v1);
+				Shard s2 = shardOf(v2);
+				if (s1.findEdge(v1, v2) != null) {
+					throw new EdgeAlreadyExistsException(e);
+				}
+				s1.addOutEdge(e);
+				s2.addInSource(v2, v1);
+				edgeCount++;
+				if (s1 != s2) {
+					edgeCut++;
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Remove an edge
+	 * 
+	 * @param e edge to be removed
+	 * @throws EdgeDoesNotExistException error if edge does not exist
+	 */
+	public void removeEdge(Edge e) throws EdgeDoesNotExistException {
+		lock.writeLock().lock();
+		try {
+			if (e == null || shardOf(e.getV1().getVid()).findEdge(e.getV1().getVid(), e.getV2().getVid()) == null) {
+				throw new EdgeDoesNotExistException(e);
+			}
+			unlinkEdge(e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void unlinkEdge(Edge e) {
+		final int v1 = e.getV1().getVid();
+		final int v2 = e.getV2().getVid();
+		Shard s1 = shardOf(v1);
+		Shard s2 = shardOf(v2);
+		if (s1.removeOutEdge(e)) {
+			s2.removeInSource(v2, v1);
+			edgeCount--;
+			if (s1 != s2) {
+				edgeCut--;
+			}
+		}
+	}
+
+	/**
+	 * Find a list of edges that have vertex v as edge vertex v1
+	 * 
+	 * @param v vertex
+	 * @return list of edges with v1 equal to v
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public List<Edge> findEdgesForVertex(Vertex v) throws VertexDoesNotExistException {
+		lock.readLock().lock();
+		try {
+			validateVertex(v);
+			return new ArrayList<Edge>(shardOf(v.getVid()).getOutEdges(v.getVid()));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Per shard state of a distributed traversal, value is hop count or distance
+	 * from the sources, parent the vertex ID the value was reached from.
+	 */
+	private static class Traversal {
+		final Map<Integer, Long> value = new HashMap<Integer, Long>();
+		final Map<Integer, Integer> parent = new HashMap<Integer, Integer>();
+		Set<Integer> frontier = new LinkedHashSet<Integer>();
+
+		boolean relax(int v, int from, long nv, Set<Integer> exclude) {
+			boolean ret = false;
+			if (exclude == null || !exclude.contains(v)) {
+				Long cv = value.get(v);
+				if (cv == null || nv < cv) {
+					value.put(v, nv);
+					parent.put(v, from);
+					frontier.add(v);
+					ret = true;
+				}
+			}
+			return ret;
+		}
+	}
+
+	/**
+	 * Run a distributed traversal from a source vertex. Unweighted traversal
+	 * counts hops (breadth first), weighted traversal adds edge weights
+	 * (label-correcting shortest path). Reverse traversal follows in-edges.
+	 * Vertices in exclude are never entered.
+	 */
+	private Traversal[] traverse(int source, boolean weighted, boolean reverse, Set<Integer> exclude) {
+		final int n = shards.length;
+		Traversal[] st = new Traversal[n];
+		for (int i = 0; i < n; i++) {
+			st[i] = new Traversal();
+		}
+		st[partitioner.shardOf(source, n)].relax(source, source, 0, null);
+		transportLock.lock();
+		try {
+			// Any shortest path has fewer edges than vertices, more rounds mean a
+			// cycle of non-positive weight
+			int rounds = 0;
+			boolean active = true;
+			while (active && rounds++ <= vertexCount) {
+				IntStream.range(0, n).parallel().forEach(s -> expand(st, s, weighted, reverse, exclude));
+				IntStream.range(0, n).parallel().forEach(s -> {
+					for (ShardMessage m : transport.receive(s)) {
+						st[s].relax(m.getTarget(), m.getSource(), m.getValue(), exclude);
+					}
+				});
+				active = false;
+				for (Traversal t : st) {
+					active |= !t.frontier.isEmpty();
+				}
+			}
+		} finally {
+			// Drop messages left over if a round failed
+			for (int s = 0; s < n; s++) {
+				transport.receive(s);
+			}
+			transportLock.unlock();
+		}
+		return st;
+	}
+
+	private void expand(Traversal[] st, int s, boolean weighted, boolean reverse, Set<Integer> exclude) {
+		final int n = shards.length;
+		Shard sh = shards[s];
+		Traversal t = st[s];
+		// Outgoing messages per destination shard, null until the first one
+		List<List<ShardMessage>> out = new ArrayList<List<ShardMessage>>(Collections.nCopies(n, null));
+		Set<Integer> current = t.frontier;
+		t.frontier = new LinkedHashSet<Integer>();
+		for (Integer u : current) {
+			final long du = t.value.get(u);
+			if (reverse) {
+				for (Integer src : sh.getInSources(u)) {
+					send(st, s, out, src, u, du + 1, exclude);
+				}
+			} else {
+				for (Edge e : sh.getOutEdges(u)) {
+					send(st, s, out, e.getV2().getVid(), u, du + (weighted ? e.getWeight() : 1), exclude);
+				}
+			}
+		}
+		for (int d = 0; d < n; d++) {
+			if (out.get(d) != null) {
+				transport.send(s, d, out.get(d));
+			}
+		}
+	}
+
+	private void send(Traversal[] st, int s, List<List<ShardMessage>> out, int v, int from, long nv,
+			Set<Integer> exclude) {
+		final int d = partitioner.shardOf(v, shards.length);
+		if (d == s) {
+			st[s].relax(v, from, nv, exclude);
+		} else {
+			if (out.get(d) == null) {
+				out.set(d, new ArrayList<ShardMessage>());
+			}
+			out.get(d).add(new ShardMessage(v, from, nv));
+		}
+	}
+
+	/**
+	 * Breadth first search from a vertex, run across all shards
+	 * 
+	 * @param v starting vertex
+	 * @return reachable vertices (including v) mapped to their hop count from v
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public Map<Vertex, Integer> breadthFirstSearch(Vertex v) throws VertexDoesNotExistException {
+		lock.readLock().lock();
+		try {
+			validateVertex(v);
+			Map<Vertex, Integer> ret = new HashMap<Vertex, Integer>();
+			for (Traversal t : traverse(v.getVid(), false, false, null)) {
+				for (Map.Entry<Integer, Long> me : t.value.entrySet()) {
+					ret.put(shardOf(me.getKey()).getVertex(me.getKey()), me.getValue().intValue());
+				}
+			}
+			return ret;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the shortest path between vertex v1 and v2, run across all shards
+	 * 
+	 * @param v1 starting vertex
+	 * @param v2 ending vertex
+	 * @return shortest path between v1 and v2, null if there is none
+	 * @throws VertexDoesNotExistException error if vertex does not exist
+	 */
+	public Path findShortestPath(Vertex v1, Vertex v2) throws VertexDoesNotExistException {
+		lock.readLock().lock();
+		try {
+			validateVertex(v1);
+			validateVertex(v2);
+			Path ret = null;
+			final int s = v1.getVid();
+			final int t = v2.getVid();
+			if (s != t) {
+				Traversal[] st = traverse(s, true, false, null);
+				if (st[partitioner.shardOf(t, shards.length)].value.containsKey(t)) {
+					List<Edge> el = new ArrayList<Edge>();
+					int c = t;
+					while (c != s) {
+						final int p = st[partitioner.shardOf(c, shards.length)].parent.get(c);
+						el.add(shardOf(p).findEdge(p, c));
+						c = p;
+					}
+					Collections.reverse(el);
+					for (Edge e : el) {
+						ret = ret == null ? new Path(e) : new Path(ret, e);
+					}
+				}
+			}
+			return ret;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Find a list of vertices in graph that are connected. A connected vertex is
+	 * one that has a path to all other vertices in the graph. Connected vertices
+	 * all reach each other, so a single candidate is found first (the root of the
+	 * last traversal when every vertex is covered by traversals that never
+	 * re-enter visited vertices), checked with one forward traversal and the
+	 * connected set collected with one reverse traversal.
+	 * 
+	 * @return list of connected vertices
+	 */
+	public List<Vertex> getConnectedVertices() {
+		lock.readLock().lock();
+		try {
+			List<Vertex> ret = new ArrayList<Vertex>();
+			if (vertexCount > 1) {
+				Set<Integer> seen = new HashSet<Integer>();
+				int candidate = -1;
+				for (Shard sh : shards) {
+					for (Vertex v : sh.getVertices()) {
+						if (!seen.contains(v.getVid())) {
+							candidate = v.getVid();
+							for (Traversal t : traverse(candidate, false, false, seen)) {
+								seen.addAll(t.value.keySet());
+							}
+						}
+					}
+				}
+				int reached = 0;
+				for (Traversal t : traverse(candidate, false, false, null)) {
+					reached += t.value.size();
+				}
+				if (reached == vertexCount) {
+					for (Traversal t : traverse(candidate, false, true, null)) {
+						for (Integer vid : t.value.keySet()) {
+							ret.add(shardOf(vid).getVertex(vid));
+						}
+					}
+				}
+			}
+			return ret;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Calculates the percentage connectivity of graph as: (Number of connected
+	 * vertices * 100) / (Number of total vertices)
+	 * 
+	 * @return percentage connectivity
+	 */
+	public int calculateConnectivity() {
+		lock.readLock().lock();
+		try {
+			return (getConnectedVertices().size() * 100) / vertexCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of shards
+	 */
+	public int getShardCount() {
+		return shards.length;
+	}
+
+	/**
+	 * @return the number of vertices
+	 */
+	public int getVertexCount() {
+		lock.readLock().lock();
+		try {
+			return vertexCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public int getEdgeCount() {
+		lock.readLock().lock();
+		try {
+			return edgeCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param shard shard number
+	 * @return the number of vertices owned by the shard
+	 */
+	public int getVertexCount(int shard) {
+		lock.readLock().lock();
+		try {
+			return shards[shard].getVertexCount();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param shard shard number
+	 * @return the number of edges owned by the shard
+	 */
+	public int getEdgeCount(int shard) {
+		lock.readLock().lock();
+		try {
+			return shards[shard].getEdgeCount();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of edges whose vertices are owned by different shards
+	 */
+	public int getEdgeCut() {
+		lock.readLock().lock();
+		try {
+			return edgeCut;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the fraction of edges that cross shards, 0 for an empty graph
+	 */
+	public double getEdgeCutRatio() {
+		lock.readLock().lock();
+		try {
+			return edgeCount == 0 ? 0 : (double) edgeCut / edgeCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of messages sent between shards by queries so far
+	 */
+	public long getCrossShardMessages() {
+		return transport.getMessageCount();
+	}
+
+	/**
+	 * @return the number of message batches sent between shards by queries so far
+	 */
+	public long getCrossShardBatches() {
+		return transport.getBatchCount();
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder br = new StringBuilder(this.getClass().getSimpleName() + ":\n");
+		lock.readLock().lock();
+		try {
+			for (Shard sh : shards) {
+				br.append("\tShard " + sh.getNumber() + ": Vertices=" + sh.getVertexCount() + " Edges="
+						+ sh.getEdgeCount() + "\n");
+			}
+			br.append("\tEdge cut=" + edgeCut + " of " + edgeCount + "\n");
+		} finally {
+			lock.readLock().unlock();
+		}
+		return br.toString();
+	}
+
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import graph.ChangeEvent;
+import graph.ChangeFeed;
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.error.ChangeFeedOverrunException;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.EdgeDoesNotExistException;
+import graph.error.VertexAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Copy of a graph kept up to date from the change feed of the source graph.
+ * The replica is seeded from the source and then follows it by applying the
+ * published events in sequence order whenever {@link #poll()} is called, it
+ * never holds the source lock after construction.
+ */
+public class ChangeReplica {
+
+	private final Graph replica = new Graph();
+	private final ChangeFeed.Cursor cursor;
+	private long applied = 0;
+
+	/**
+	 * Custom constructor that takes the source graph
+	 * 
+	 * @param source graph to follow
+	 */
+	public ChangeReplica(Graph source) {
+		synchronized (source) {
+			cursor = source.getChangeFeed().subscribe();
+			CsrGraph csr = new CsrGraph(source);
+			List<Edge> el = new ArrayList<Edge>();
+			source.forEachEdge(ge -> el.add(new Edge(ge.getV1(), ge.getV2(), ge.getWeight(),
+					ge.hasDefaultLabel() ? null : ge.getLabel())));
+			try {
+				for (int i = 0; i < csr.getVertexCount(); i++) {
+					replica.addVertex(csr.getVertex(i));
+				}
+				// In insertion order, so the replica is equal to the source
+				for (Edge e : el) {
+					replica.addEdge(e);
+				}
+			} catch (VertexAlreadyExistsException | VertexDoesNotExistException | EdgeAlreadyExistsException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+
+	/**
+	 * Apply all events published since the last poll
+	 * 
+	 * @return the number of events applied
+	 * @throws ChangeFeedOverrunException error if the replica fell too far behind,
+	 *                                    it has to be replaced by a new one
+	 */
+	public synchronized int poll() throws ChangeFeedOverrunException {
+		int ret = 0;
+		ChangeEvent ce;
+		while ((ce = cursor.poll()) != null) {
+			try {
+				ce.apply(replica);
+			} catch (VertexAlreadyExistsException | VertexDoesNotExistException | EdgeAlreadyExistsException
+					| EdgeDoesNotExistException ex) {
+				// Events are applied in order on the same starting state
+				throw new IllegalStateException("Replica diverged at " + ce, ex);
+			}
+			ret++;
+		}
+		applied += ret;
+		return ret;
+	}
+
+	/**
+	 * @return the replica graph, it must only be read
+	 */
+	public Graph getGraph() {
+		return replica;
+	}
+
+	/**
+	 * @return the number of events applied
+	 */
+	public synchronized long getApplied() {
+		return applied;
+	}
+
+	/**
+	 * @return the number of published events not applied yet
+	 */
+	public synchronized long getLag() {
+		return cursor.getLag();
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "ChangeReplica: Applied=" + applied + " Lag=" + cursor.getLag();
+	}
+
+}
@@ -0,0 +1,489 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.stream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import graph.Graph;
+import graph.stream.MutationOutcome.Status;
+
+/**
+ * Stream processing stage that applies a stream of mutations to a graph and
+ * publishes one outcome per mutation. Mutations are collected into batches and
+ * each batch is applied while holding the graph lock once, so readers see a
+ * batch either completely or not at all and the lock is not taken per
+ * mutation. A batch is applied when it is full or when the linger time passed
+ * since its first mutation.
+ * 
+ * Demand is requested from upstream one batch at a time, and the batch size
+ * follows the apply latency: it halves when applying a batch took longer than
+ * the target latency and doubles, up to the maximum, when a full batch took
+ * less than half of it. A slow graph therefore slows the publisher down instead
+ * of filling a queue.
+ * 
+ * A mutation rejected by the graph does not end the stream, its outcome carries
+ * the exception (VertexDoesNotExistException, EdgeAlreadyExistsException, ...).
+ * A repeat of a mutation earlier in the same batch, with no other mutation of
+ * its vertices in between, is not applied again and reported as duplicate
+ * (streams with at-least-once delivery). Outcomes are published to subscribers
+ * of this stage; with none they are dropped, with a slow one the stage waits.
+ */
+public class IngestionStage extends SubmissionPublisher<MutationOutcome>
+		implements Flow.Processor<Mutation, MutationOutcome> {
+
+	private final Graph graph;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final ScheduledExecutorService timer;
+	private List<Mutation> pending = new ArrayList<Mutation>();
+	private Flow.Subscription subscription = null;
+	private int maxBatchSize = 1024;
+	private long targetLatency = TimeUnit.MILLISECONDS.toNanos(10);
+	private long linger = TimeUnit.MILLISECONDS.toNanos(5);
+	private int batchSize = 64;
+	private int outstanding = 0;
+	private long sequence = 0;
+	private long lingerBatch = -1;
+	private long batches = 0;
+	private long mutations = 0;
+	private long applied = 0;
+	private long failed = 0;
+	private long duplicates = 0;
+	private int lastBatchSize = 0;
+	private int maxQueueDepth = 0;
+	private long lastApplyNanos = 0;
+	private long totalApplyNanos = 0;
+
+	/**
+	 * Custom constructor that takes the graph the mutations are applied to
+	 * 
+	 * @param g graph
+	 */
+	public IngestionStage(Graph g) {
+		this.graph = g;
+		timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "graph-ingestion-linger");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * @return the graph
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the maximum batch size
+	 */
+	public int getMaxBatchSize() {
+		lock.lock();
+		try {
+			return maxBatchSize;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param maxBatchSize the maximum batch size to set, at least 1 (default
+	 *                     1024)
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		lock.lock();
+		try {
+			this.maxBatchSize = Math.max(1, maxBatchSize);
+			batchSize = Math.min(batchSize, this.maxBatchSize);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the target time to apply one batch
+	 */
+	public Duration getTargetLatency() {
+		return Duration.ofNanos(targetLatency);
+	}
+
+	/**
+	 * @param targetLatency the target time to apply one batch (default 10 ms)
+	 */
+	public void setTargetLatency(Duration targetLatency) {
+		this.targetLatency = targetLatency.toNanos();
+	}
+
+	/**
+	 * @return the longest time a mutation waits for its batch to fill
+	 */
+	public Duration getLinger() {
+		return Duration.ofNanos(linger);
+	}
+
+	/**
+	 * @param linger the longest time a mutation waits for its batch to fill
+	 *               (default 5 ms)
+	 */
+	public void setLinger(Duration linger) {
+		this.linger = linger.toNanos();
+	}
+
+	/**
+	 * @see java.util.concurrent.Flow.Subscriber#onSubscribe(java.util.concurrent.Flow.Subscription)
+	 */
+	@Override
+	public void onSubscribe(Flow.Subscription s) {
+		lock.lock();
+		try {
+			if (subscription != null) {
+				s.cancel();
+			} else {
+				subscription = s;
+				requestBatch();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Request what is missing for the next batch, called while holding the lock
+	 */
+	private void requestBatch() {
+		final int n = batchSize - pending.size() - outstanding;
+		if (n > 0 && subscription != null) {
+			outstanding += n;
+			subscription.request(n);
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.Flow.Subscriber#onNext(java.lang.Object)
+	 */
+	@Override
+	public void onNext(Mutation m) {
+		lock.lock();
+		try {
+			pending.add(m);
+			outstanding = Math.max(0, outstanding - 1);
+			maxQueueDepth = Math.max(maxQueueDepth, pending.size());
+			if (pending.size() >= batchSize) {
+				flush();
+			} else if (pending.size() == 1) {
+				final long batch = batches;
+				lingerBatch = batch;
+				timer.schedule(() -> lingerExpired(batch), linger, TimeUnit.NANOSECONDS);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void lingerExpired(long batch) {
+		lock.lock();
+		try {
+			// Only if the batch the timer was set for is still waiting
+			if (lingerBatch == batch && !pending.isEmpty()) {
+				flush();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Apply the pending mutations as one batch, publish their outcomes and request
+	 * the next batch. Called while holding the lock.
+	 */
+	private void flush() {
+		List<Mutation> batch = pending;
+		pending = new ArrayList<Mutation>(batchSize);
+		lingerBatch = -1;
+		List<MutationOutcome> outcomes = new ArrayList<MutationOutcome>(batch.size());
+		final long start = System.nanoTime();
+		synchronized (graph) {
+			Map<Mutation, Integer> seen = new HashMap<Mutation, Integer>();
+			Map<Integer, Integer> lastTouch = new HashMap<Integer, Integer>();
+			for (int i = 0; i < batch.size(); i++) {
+				final Mutation m = batch.get(i);
+				Status st;
+				Exception err = null;
+				try {
+					final Integer j = seen.get(m);
+					if (j != null && touchedLastAt(m, j, lastTouch)) {
+						// A repeat reports what the first one did
+						err = outcomes.get(j).getException();
+						st = err == null ? Status.DUPLICATE : Status.FAILED;
+					} else {
+						seen.put(m, i);
+						touch(m, i, lastTouch);
+						m.apply(graph);
+						st = Status.APPLIED;
+					}
+				} catch (Exception ex) {
+					st = Status.FAILED;
+					err = ex;
+				}
+				if (st == Status.APPLIED) {
+					applied++;
+				} else if (st == Status.DUPLICATE) {
+					duplicates++;
+				} else {
+					failed++;
+				}
+				outcomes.add(new MutationOutcome(m, sequence++, st, err));
+			}
+		}
+		lastApplyNanos = System.nanoTime() - start;
+		totalApplyNanos += lastApplyNanos;
+		lastBatchSize = batch.size();
+		mutations += batch.size();
+		batches++;
+		if (lastApplyNanos > targetLatency) {
+			batchSize = Math.max(1, batchSize / 2);
+		} else if (lastApplyNanos < targetLatency / 2 && batch.size() >= batchSize) {
+			batchSize = Math.min(maxBatchSize, batchSize * 2);
+		}
+		for (MutationOutcome mo : outcomes) {
+			// Blocks while a subscriber's buffer is full
+			submit(mo);
+		}
+		requestBatch();
+	}
+
+	/**
+	 * @return true if no other mutation of the batch touched the vertices of m
+	 *         after index j, false also for a mutation without vertices
+	 */
+	private static boolean touchedLastAt(Mutation m, int j, Map<Integer, Integer> lastTouch) {
+		boolean ret = false;
+		if (m.getVertex() != null) {
+			ret = Integer.valueOf(j).equals(lastTouch.get(m.getVertex().getVid()));
+		} else if (m.getEdge() != null) {
+			ret = Integer.valueOf(j).equals(lastTouch.get(m.getEdge().getV1().getVid()))
+					&& Integer.valueOf(j).equals(lastTouch.get(m.getEdge().getV2().getVid()));
+		}
+		return ret;
+	}
+
+	private static void touch(Mutation m, int i, Map<Integer, Integer> lastTouch) {
+		if (m.getVertex() != null) {
+			lastTouch.put(m.getVertex().getVid(), i);
+		} else if (m.getEdge() != null) {
+			lastTouch.put(m.getEdge().getV1().getVid(), i);
+			lastTouch.put(m.getEdge().getV2().getVid(), i);
+		}
+	}
+
+	/**
+	 * Apply the pending mutations and pass the error on to the outcome
+	 * subscribers
+	 * 
+	 * @see java.util.concurrent.Flow.Subscriber#onError(java.lang.Throwable)
+	 */
+	@Override
+	public void onError(Throwable t) {
+		lock.lock();
+		try {
+			if (!pending.isEmpty()) {
+				flush();
+			}
+		} catch (RuntimeException ex) {
+			t.addSuppressed(ex);
+		} finally {
+			subscription = null;
+			lock.unlock();
+		}
+		timer.shutdown();
+		closeExceptionally(t);
+	}
+
+	/**
+	 * Apply the pending mutations and complete the outcome subscribers
+	 * 
+	 * @see java.util.concurrent.Flow.Subscriber#onComplete()
+	 */
+	@Override
+	public void onComplete() {
+		RuntimeException err = null;
+		lock.lock();
+		try {
+			if (!pending.isEmpty()) {
+				flush();
+			}
+		} catch (RuntimeException ex) {
+			err = ex;
+		} finally {
+			subscription = null;
+			lock.unlock();
+		}
+		timer.shutdown();
+		// Outcome subscribers complete even if the last flush broke
+		if (err == null) {
+			close();
+		} else {
+			closeExceptionally(err);
+		}
+	}
+
+	/**
+	 * @return the number of mutations received and not yet applied
+	 */
+	public int getQueueDepth() {
+		lock.lock();
+		try {
+			return pending.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the largest number of mutations waiting at once
+	 */
+	public int getMaxQueueDepth() {
+		lock.lock();
+		try {
+			return maxQueueDepth;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the current batch size, the demand requested from upstream per
+	 *         batch
+	 */
+	public int getBatchSize() {
+		lock.lock();
+		try {
+			return batchSize;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the size of the last batch applied
+	 */
+	public int getLastBatchSize() {
+		lock.lock();
+		try {
+			return lastBatchSize;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of batches applied
+	 */
+	public long getBatchCount() {
+		lock.lock();
+		try {
+			return batches;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the average number of mutations per batch
+	 */
+	public double getAverageBatchSize() {
+		lock.lock();
+		try {
+			return batches == 0 ? 0 : (double) mutations / batches;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the time taken to apply the last batch
+	 */
+	public Duration getLastApplyTime() {
+		lock.lock();
+		try {
+			return Duration.ofNanos(lastApplyNanos);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the average time taken to apply a batch
+	 */
+	public Duration getAverageApplyTime() {
+		lock.lock();
+		try {
+			return Duration.ofNanos(batches == 0 ? 0 : totalApplyNanos / batches);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of mutations applied
+	 */
+	public long getApplied() {
+		lock.lock();
+		try {
+			return applied;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of mutations rejected by the graph
+	 */
+	public long getFailed() {
+		lock.lock();
+		try {
+			return failed;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of mutations dropped as duplicates
+	 */
+	public long getDuplicates() {
+		lock.lock();
+		try {
+			return duplicates;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "IngestionStage: Batches=" + getBatchCount() + " Applied=" + getApplied() + " Failed=" + getFailed()
+				+ " Duplicates=" + getDuplicates();
+	}
+
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.stream;
+
+import java.util.Objects;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+
+/**
+ * A single change to a graph carried by a mutation stream: add or remove a
+ * vertex or an edge
+ */
+public final class Mutation {
+
+	/**
+	 * Kind of change
+	 */
+	public enum Type {
+		ADD_VERTEX, REMOVE_VERTEX, ADD_EDGE, REMOVE_EDGE
+	}
+
+	private final Type type;
+	private final Vertex vertex;
+	private final Edge edge;
+
+	private Mutation(Type type, Vertex vertex, Edge edge) {
+		this.type = type;
+		this.vertex = vertex;
+		this.edge = edge;
+	}
+
+	/**
+	 * @param v vertex to be added
+	 * @return the mutation
+	 */
+	public static Mutation addVertex(Vertex v) {
+		return new Mutation(Type.ADD_VERTEX, v, null);
+	}
+
+	/**
+	 * @param v vertex to be removed
+	 * @return the mutation
+	 */
+	public static Mutation removeVertex(Vertex v) {
+		return new Mutation(Type.REMOVE_VERTEX, v, null);
+	}
+
+	/**
+	 * @param e edge to be added
+	 * @return the mutation
+	 */
+	public static Mutation addEdge(Edge e) {
+		return new Mutation(Type.ADD_EDGE, null, e);
+	}
+
+	/**
+	 * @param e edge to be removed
+	 * @return the mutation
+	 */
+	public static Mutation removeEdge(Edge e) {
+		return new Mutation(Type.REMOVE_EDGE, null, e);
+	}
+
+	/**
+	 * @return the type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the vertex, null for edge mutations
+	 */
+	public Vertex getVertex() {
+		return vertex;
+	}
+
+	/**
+	 * @return the edge, null for vertex mutations
+	 */
+	public Edge getEdge() {
+		return edge;
+	}
+
+	/**
+	 * Apply the mutation with the graph method of the same name
+	 * 
+	 * @param g graph
+	 * @throws Exception the exception of the graph method, example
+	 *                   VertexDoesNotExistException
+	 */
+	public void apply(Graph g) throws Exception {
+		switch (type) {
+		case ADD_VERTEX:
+			g.addVertex(vertex);
+			break;
+		case REMOVE_VERTEX:
+			g.removeVertex(vertex);
+			break;
+		case ADD_EDGE:
+			g.addEdge(edge);
+			break;
+		case REMOVE_EDGE:
+			g.removeEdge(edge);
+			break;
+		}
+	}
+
+	/**
+	 * Mutations are equal if they have the same type and the same vertex, or the
+	 * same edge with the same weight and label
+	 * 
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		boolean ret = (this == obj);
+		if (!ret && obj != null && obj instanceof Mutation) {
+			Mutation cm = (Mutation) obj;
+			ret = cm.type == type && Objects.equals(cm.vertex, vertex) && Objects.equals(cm.edge, edge);
+			if (ret && edge != null) {
+				ret = cm.edge.getWeight() == edge.getWeight() && cm.edge.getLabel().equals(edge.getLabel());
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(type, vertex, edge);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Mutation: " + type + " " + (vertex != null ? vertex : edge);
+	}
+
+}
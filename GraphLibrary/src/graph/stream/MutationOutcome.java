@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.stream;
+
+/**
+ * Result of one mutation applied by an {@link IngestionStage}. A mutation that
+ * fails does not stop the stream, its outcome carries the exception the graph
+ * method threw.
+ */
+public class MutationOutcome {
+
+	/**
+	 * What happened to the mutation
+	 */
+	public enum Status {
+		/**
+		 * Applied to the graph
+		 */
+		APPLIED,
+		/**
+		 * Repeat of an earlier mutation of the same batch, not applied again
+		 */
+		DUPLICATE,
+		/**
+		 * Rejected by the graph, see {@link MutationOutcome#getException()}
+		 */
+		FAILED
+	}
+
+	private final Mutation mutation;
+	private final long sequence;
+	private final Status status;
+	private final Exception exception;
+
+	MutationOutcome(Mutation mutation, long sequence, Status status, Exception exception) {
+		this.mutation = mutation;
+		this.sequence = sequence;
+		this.status = status;
+		this.exception = exception;
+	}
+
+	/**
+	 * @return the mutation
+	 */
+	public Mutation getMutation() {
+		return mutation;
+	}
+
+	/**
+	 * @return the position of the mutation in the stream, starting at 0
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the status
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the exception of a failed mutation, example
+	 *         VertexDoesNotExistException, else null
+	 */
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "MutationOutcome: Sequence=" + sequence + " Status=" + status
+				+ (exception == null ? "" : " Error=" + exception.getMessage());
+	}
+
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.AcyclicGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.EdgeCreatesCycleException;
+
+/**
+ * Tests for the acyclic graph with online topological order
+ */
+class AcyclicGraphOrder {
+
+	@Test
+	void testRejectCycle() {
+		AcyclicGraph ag = new AcyclicGraph();
+		try {
+			for (int i = 1; i <= 5; i++) {
+				ag.addVertex(new Vertex(i));
+			}
+			// Added against the initial order, forces reordering
+			ag.addEdge(new Edge(new Vertex(4), new Vertex(3)));
+			ag.addEdge(new Edge(new Vertex(3), new Vertex(2)));
+			ag.addEdge(new Edge(new Vertex(2), new Vertex(1)));
+			assertTrue(ag.isBefore(new Vertex(4), new Vertex(1)));
+			assertEquals(List.of(new Vertex(4), new Vertex(3), new Vertex(2), new Vertex(1)),
+					ag.topologicalOrder().subList(0, 4));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		EdgeCreatesCycleException ece = assertThrows(EdgeCreatesCycleException.class,
+				() -> ag.addEdge(new Edge(new Vertex(1), new Vertex(4))));
+		assertEquals(List.of(new Vertex(1), new Vertex(4), new Vertex(3), new Vertex(2)), ece.getCycle());
+		assertThrows(EdgeCreatesCycleException.class, () -> ag.addEdge(new Edge(new Vertex(5), new Vertex(5))));
+		assertThrows(EdgeAlreadyExistsException.class, () -> ag.addEdge(new Edge(new Vertex(4), new Vertex(3))));
+		// A caller skipping duplicates does not swallow a cycle
+		assertThrows(EdgeCreatesCycleException.class, () -> {
+			try {
+				ag.addEdge(new Edge(new Vertex(2), new Vertex(4)));
+			} catch (EdgeAlreadyExistsException ex) {
+				fail(ex.getMessage());
+			}
+		});
+		try {
+			// Removing an edge breaks the path, the edge is then allowed
+			ag.removeEdge(new Edge(new Vertex(3), new Vertex(2)));
+			ag.addEdge(new Edge(new Vertex(1), new Vertex(4)));
+			assertTrue(ag.isBefore(new Vertex(1), new Vertex(3)));
+			ag.removeVertex(new Vertex(4));
+			ag.addEdge(new Edge(new Vertex(3), new Vertex(1)));
+			assertTrue(ag.isAcyclic());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testRandomEdges() {
+		final int n = 150;
+		AcyclicGraph ag = new AcyclicGraph();
+		Graph dg = new Graph();
+		Random r = new Random(7);
+		try {
+			for (int i = 0; i < n; i++) {
+				ag.addVertex(new Vertex(i));
+				dg.addVertex(new Vertex(i));
+			}
+			List<Edge> added = new ArrayList<Edge>();
+			for (int i = 0; i < 600; i++) {
+				Edge e = new Edge(new Vertex(r.nextInt(n)), new Vertex(r.nextInt(n)));
+				if (added.contains(e)) {
+					continue;
+				}
+				// Reference: the edge closes a cycle if the plain graph becomes cyclic
+				dg.addEdge(e);
+				final boolean cyclic = !dg.isAcyclic();
+				try {
+					ag.addEdge(e);
+					assertFalse(cyclic);
+					added.add(e);
+				} catch (EdgeCreatesCycleException ex) {
+					assertTrue(cyclic);
+					dg.removeEdge(e);
+				}
+			}
+			List<Vertex> order = ag.topologicalOrder();
+			assertEquals(n, order.size());
+			for (Edge e : added) {
+				assertTrue(order.indexOf(e.getV1()) < order.indexOf(e.getV2()));
+				assertTrue(ag.isBefore(e.getV1(), e.getV2()));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
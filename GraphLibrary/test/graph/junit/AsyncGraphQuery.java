@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import graph.AsyncGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.Vertex;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Tests for the asynchronous graph facade
+ */
+class AsyncGraphQuery {
+
+	@Test
+	void testQueriesAndWrites() {
+		try (AsyncGraph ag = new AsyncGraph(new Graph())) {
+			List<CompletableFuture<Void>> fl = new ArrayList<CompletableFuture<Void>>();
+			for (int i = 1; i <= 4; i++) {
+				fl.add(ag.addVertex(new Vertex(i)));
+			}
+			CompletableFuture.allOf(fl.toArray(new CompletableFuture<?>[0])).join();
+			ag.addEdge(new Edge(new Vertex(1), new Vertex(2), 3, "1->2")).join();
+			ag.addEdge(new Edge(new Vertex(2), new Vertex(3), 4, "2->3")).join();
+			Path p = ag.findShortestPath(new Vertex(1), new Vertex(3)).join();
+			assertEquals(7, p.getLength());
+			assertEquals(0, ag.calculateConnectivity().join());
+			assertTrue(ag.convertToXML().join().contains("<vertex>"));
+			ExecutionException ee = assertThrows(ExecutionException.class,
+					() -> ag.findShortestPath(new Vertex(1), new Vertex(9)).get());
+			assertInstanceOf(VertexDoesNotExistException.class, ee.getCause());
+			// The last call may still be finishing after its future completed
+			assertTrue(ag.getCompleted() >= 9);
+		}
+	}
+
+	@Test
+	void testBackPressure() {
+		ExecutorService es = Executors.newFixedThreadPool(2);
+		CountDownLatch release = new CountDownLatch(1);
+		try (AsyncGraph ag = new AsyncGraph(new Graph(), es)) {
+			ag.setMaxConcurrency(1);
+			ag.setMaxQueueDepth(2);
+			CompletableFuture<Object> blocker = ag.read(g -> {
+				release.await();
+				return null;
+			});
+			CompletableFuture<Integer> q1 = ag.read(g -> 1);
+			CompletableFuture<Integer> q2 = ag.read(g -> 2);
+			CompletableFuture<Integer> q3 = ag.read(g -> 3);
+			assertEquals(1, ag.getActive());
+			assertEquals(2, ag.getQueueDepth());
+			assertEquals(1, ag.getRejected());
+			ExecutionException ee = assertThrows(ExecutionException.class, () -> q3.get());
+			assertInstanceOf(RejectedExecutionException.class, ee.getCause());
+			release.countDown();
+			blocker.join();
+			assertEquals(1, q1.join());
+			assertEquals(2, q2.join());
+			assertEquals(2, ag.getPeakQueueDepth());
+		} finally {
+			es.shutdown();
+		}
+	}
+
+	List<String> runOrder(AsyncGraph.Scheduling s) {
+		List<String> ret = Collections.synchronizedList(new ArrayList<String>());
+		ExecutorService es = Executors.newSingleThreadExecutor();
+		CountDownLatch release = new CountDownLatch(1);
+		try (AsyncGraph ag = new AsyncGraph(new Graph(), es)) {
+			ag.setScheduling(s);
+			ag.setMaxConcurrency(1);
+			ag.read(g -> {
+				release.await();
+				return null;
+			});
+			ag.read(g -> ret.add("r1"));
+			ag.write(g -> ret.add("w1"));
+			ag.read(g -> ret.add("r2"));
+			ag.write(g -> ret.add("w2"));
+			assertEquals(2, ag.getWriteQueueDepth());
+			release.countDown();
+		} finally {
+			es.shutdown();
+		}
+		return ret;
+	}
+
+	@Test
+	void testScheduling() {
+		assertEquals(List.of("w1", "w2", "r1", "r2"), runOrder(AsyncGraph.Scheduling.WRITER_PRIORITY));
+		assertEquals(List.of("r1", "w1", "r2", "w2"), runOrder(AsyncGraph.Scheduling.FAIR));
+	}
+
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.Vertex;
+import graph.VertexPair;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Tests for batched multi-pair shortest path queries
+ */
+class BatchedShortestPaths {
+
+	@Test
+	void testAgainstReference() {
+		final int n = 60;
+		Graph dg = ReferenceGraphs.createRandomGraph(n, 180, 9);
+		CsrGraph csr = new CsrGraph(dg);
+		long[][] d = ReferenceGraphs.allPairs(csr);
+		Random r = new Random(4);
+		List<VertexPair> pairs = new ArrayList<VertexPair>();
+		for (int i = 0; i < 400; i++) {
+			// Half of the pairs share a few sources, the rest a few targets
+			final int s = i % 2 == 0 ? r.nextInt(4) : r.nextInt(n);
+			final int t = i % 2 == 0 ? r.nextInt(n) : n - 1 - r.nextInt(4);
+			pairs.add(new VertexPair(new Vertex(s), new Vertex(t)));
+		}
+		try {
+			List<Path> pl = dg.findShortestPaths(pairs);
+			assertEquals(pairs.size(), pl.size());
+			for (int i = 0; i < pairs.size(); i++) {
+				final int s = csr.indexOf(pairs.get(i).getSource());
+				final int t = csr.indexOf(pairs.get(i).getTarget());
+				Path p = pl.get(i);
+				if (s == t || d[s][t] >= ReferenceGraphs.UNREACHED) {
+					assertNull(p);
+				} else {
+					assertEquals(d[s][t], p.getLength());
+					assertEquals(pairs.get(i).getSource(), p.getStart());
+					assertEquals(pairs.get(i).getTarget(), p.getEnd());
+					int sum = 0;
+					Vertex at = p.getStart();
+					for (Edge e : p.getEdges()) {
+						assertEquals(at, e.getV1());
+						at = e.getV2();
+						sum += e.getWeight();
+					}
+					assertEquals(p.getLength(), sum);
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testNonPositiveWeightsFallBack() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= 3; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), 0, "1->2"));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3), 4, "2->3"));
+			List<VertexPair> pairs = List.of(new VertexPair(new Vertex(1), new Vertex(3)),
+					new VertexPair(new Vertex(2), new Vertex(3)), new VertexPair(new Vertex(3), new Vertex(1)));
+			List<Path> pl = dg.findShortestPaths(pairs);
+			for (int i = 0; i < pairs.size(); i++) {
+				assertEquals(dg.findShortestPath(pairs.get(i).getSource(), pairs.get(i).getTarget()), pl.get(i));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testMissingVertex() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= 3; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), 2, null));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3), 4, null));
+			assertNotNull(dg.findShortestPaths(List.of(new VertexPair(new Vertex(1), new Vertex(3)))).get(0));
+			dg.removeVertex(new Vertex(3));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertThrows(VertexDoesNotExistException.class, () -> dg.findShortestPaths(
+				List.of(new VertexPair(new Vertex(1), new Vertex(2)), new VertexPair(new Vertex(1), new Vertex(3)))));
+		assertThrows(VertexDoesNotExistException.class,
+				() -> dg.findShortestPaths(List.of(new VertexPair(null, new Vertex(2)))));
+	}
+
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import graph.ChangeEvent;
+import graph.ChangeEvent.Type;
+import graph.ChangeFeed;
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+import graph.error.ChangeFeedOverrunException;
+import graph.stream.ChangeReplica;
+
+/**
+ * Tests for the graph change feed and replicas following it
+ */
+class ChangeDataCapture {
+
+	TreeSet<String> describe(Graph g) {
+		TreeSet<String> ret = new TreeSet<String>();
+		CsrGraph csr = new CsrGraph(g);
+		for (int i = 0; i < csr.getVertexCount(); i++) {
+			ret.add("V " + csr.getVertex(i).getVid() + " " + csr.getVertex(i).getVname());
+		}
+		for (int e = 0; e < csr.getEdgeCount(); e++) {
+			Edge ge = csr.getEdge(e);
+			ret.add("E " + ge.getV1().getVid() + " " + ge.getV2().getVid() + " " + ge.getWeight() + " " + ge.getLabel());
+		}
+		return ret;
+	}
+
+	@Test
+	void testEventsInSequence() {
+		Graph dg = new Graph();
+		ChangeFeed.Cursor cursor = dg.getChangeFeed().subscribe();
+		List<ChangeEvent> events = new ArrayList<ChangeEvent>();
+		try {
+			dg.addVertex(new Vertex(1, "a"));
+			dg.addVertex(new Vertex(2, "b"));
+			dg.addVertex(new Vertex(3, "c"));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), 4, "road"));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3)));
+			dg.updateWeight(new Edge(new Vertex(1), new Vertex(2)), 9);
+			dg.setEdgeLabel(new Edge(new Vertex(1), new Vertex(2)), "rail");
+			dg.removeVertex(new Vertex(2));
+			assertEquals(10, cursor.drain(events::add));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		for (int i = 0; i < events.size(); i++) {
+			assertEquals(i, events.get(i).getSequence());
+		}
+		assertEquals(Type.EDGE_ADDED, events.get(3).getType());
+		assertEquals(4, events.get(3).getWeight());
+		assertEquals("road", events.get(3).getLabel());
+		assertEquals(Type.WEIGHT_CHANGED, events.get(5).getType());
+		assertEquals(9, events.get(5).getWeight());
+		assertEquals(Type.LABEL_CHANGED, events.get(6).getType());
+		assertEquals("rail", events.get(6).getLabel());
+		// Edges of a removed vertex go first
+		assertEquals(Type.EDGE_REMOVED, events.get(7).getType());
+		assertEquals(Type.EDGE_REMOVED, events.get(8).getType());
+		assertEquals(Type.VERTEX_REMOVED, events.get(9).getType());
+		assertEquals(new Vertex(2), events.get(9).getVertex());
+		assertEquals(0, cursor.getLag());
+	}
+
+	@Test
+	void testReplicaFollowsWriter() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 0; i < 20; i++) {
+				dg.addVertex(new Vertex(i, "v" + i));
+			}
+			// Added in a different order than a snapshot groups them by source
+			dg.addEdge(new Edge(new Vertex(5), new Vertex(6), 2, null));
+			dg.addEdge(new Edge(new Vertex(0), new Vertex(1), 3, "seed"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		ChangeReplica cr = new ChangeReplica(dg);
+		assertEquals(dg, cr.getGraph());
+		assertEquals(describe(dg), describe(cr.getGraph()));
+		Thread writer = new Thread(() -> {
+			Random rnd = new Random(7);
+			for (int n = 0; n < 3000; n++) {
+				Vertex v1 = new Vertex(rnd.nextInt(30));
+				Vertex v2 = new Vertex(rnd.nextInt(30));
+				try {
+					switch (rnd.nextInt(6)) {
+					case 0:
+						dg.addVertex(new Vertex(v1.getVid(), "n" + n));
+						break;
+					case 1:
+						dg.removeVertex(v1);
+						break;
+					case 2:
+					case 3:
+						dg.addEdge(new Edge(v1, v2, rnd.nextInt(100), rnd.nextBoolean() ? null : "l" + n));
+						break;
+					case 4:
+						dg.updateWeight(new Edge(v1, v2), n);
+						break;
+					default:
+						dg.removeEdge(new Edge(v1, v2));
+						break;
+					}
+				} catch (Exception ex) {
+					// Rejected changes publish nothing
+				}
+				if (n % 64 == 0) {
+					Thread.yield();
+				}
+			}
+		});
+		writer.start();
+		try {
+			while (writer.isAlive()) {
+				cr.poll();
+			}
+			writer.join();
+			cr.poll();
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(0, cr.getLag());
+		assertTrue(cr.getApplied() > 0);
+		assertEquals(dg, cr.getGraph());
+		assertEquals(describe(dg), describe(cr.getGraph()));
+	}
+
+	@Test
+	void testSlowReaderOverrun() {
+		Graph dg = new Graph();
+		ChangeFeed feed = dg.getChangeFeed();
+		ChangeFeed.Cursor slow = feed.subscribe();
+		try {
+			// The writer never waits for the reader
+			for (int i = 0; i < feed.getCapacity() + 10; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		ChangeFeedOverrunException oe = assertThrows(ChangeFeedOverrunException.class, () -> slow.poll());
+		assertEquals(0, oe.getSequence());
+		ChangeFeed.Cursor fresh = feed.subscribe();
+		try {
+			assertNull(fresh.poll());
+			dg.addVertex(new Vertex(-1));
+			assertEquals(new Vertex(-1), fresh.poll().getVertex());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CompressedGraph;
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+import graph.algorithm.Centrality;
+
+/**
+ * Tests for the compressed read-only adjacency format
+ */
+class CompressedAdjacency {
+
+	/**
+	 * Web-like graph: targets close to the source, and neighbouring vertices
+	 * sharing most of their targets
+	 */
+	Graph createLocalGraph(int n, long seed) {
+		Graph dg = new Graph();
+		Random r = new Random(seed);
+		try {
+			for (int i = 0; i < n; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			for (int i = 0; i < n; i++) {
+				final int block = (i / 8) * 8;
+				for (int k = 0; k < 12; k++) {
+					final int t = r.nextInt(4) == 0 ? r.nextInt(n) : Math.min(n - 1, block + k);
+					Edge e = new Edge(new Vertex(i), new Vertex(t), 1 + r.nextInt(3), "");
+					if (t != i && !dg.findEdgesForVertex(new Vertex(i)).contains(e)) {
+						dg.addEdge(e);
+					}
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	void assertSameAdjacency(CsrGraph csr, CompressedGraph cg) {
+		assertEquals(csr.getVertexCount(), cg.getVertexCount());
+		assertEquals(csr.getEdgeCount(), cg.getEdgeCount());
+		int[] t1 = new int[csr.getMaxOutDegree()];
+		int[] w1 = new int[t1.length];
+		int[] t2 = new int[cg.getMaxOutDegree()];
+		int[] w2 = new int[t2.length];
+		for (int i = 0; i < csr.getVertexCount(); i++) {
+			assertEquals(csr.getVertex(i), cg.getVertex(i));
+			final int d = csr.getSuccessors(i, t1, w1);
+			assertEquals(d, cg.getOutDegree(i));
+			assertEquals(d, cg.getSuccessors(i, t2, w2));
+			long[] k1 = new long[d];
+			long[] k2 = new long[d];
+			for (int k = 0; k < d; k++) {
+				k1[k] = ((long) t1[k] << 32) | w1[k];
+				k2[k] = ((long) t2[k] << 32) | w2[k];
+				assertTrue(k == 0 || t2[k - 1] < t2[k]);
+			}
+			Arrays.sort(k1);
+			assertArrayEquals(k1, k2);
+		}
+	}
+
+	@Test
+	void testRoundTrip() {
+		Graph dg = createLocalGraph(300, 11);
+		CsrGraph csr = new CsrGraph(dg);
+		CompressedGraph plain = new CompressedGraph(dg);
+		CompressedGraph referenced = new CompressedGraph(csr, 7, 3);
+		assertSameAdjacency(csr, plain);
+		assertSameAdjacency(csr, referenced);
+		assertTrue(plain.getBitsPerEdge() < 16);
+		assertTrue(referenced.getBitsPerEdge() < plain.getBitsPerEdge());
+		assertEquals(-1, plain.indexOf(new Vertex(1000)));
+		assertEquals(dg.getVersion(), plain.getVersion());
+	}
+
+	@Test
+	void testCentralityOnCompressed() {
+		Graph dg = createLocalGraph(120, 5);
+		Centrality expected = new Centrality(dg);
+		Centrality actual = new Centrality(new CompressedGraph(new CsrGraph(dg), 4, 2));
+		assertArrayEquals(expected.inDegree(), actual.inDegree());
+		assertArrayEquals(expected.closeness(), actual.closeness(), 1e-12);
+		expected.setWeighted(true);
+		actual.setWeighted(true);
+		assertArrayEquals(expected.harmonic(), actual.harmonic(), 1e-12);
+	}
+
+}
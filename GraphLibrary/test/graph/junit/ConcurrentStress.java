@@ -0,0 +1,403 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.Vertex;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.EdgeDoesNotExistException;
+import graph.error.VertexAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Multi-threaded stress of a graph: writers and readers run together, the
+ * mutation history is checked for linearizability and the graph for broken
+ * invariants, and the sustained throughput is reported per thread count
+ */
+class ConcurrentStress {
+
+	// Small key space so that threads keep colliding on the same vertices
+	static final int KEYS = 10;
+	static final Pattern EDGE_TAG = Pattern.compile("<edge>");
+
+	/**
+	 * Graph that can check its own lists while holding its lock
+	 */
+	static class CheckedGraph extends Graph {
+		synchronized List<String> findViolations() {
+			List<String> ret = new ArrayList<String>();
+			Set<Vertex> vs = new HashSet<Vertex>();
+			for (Vertex v : getVertices()) {
+				if (!vs.add(v)) {
+					ret.add("Duplicate vertex " + v);
+				}
+			}
+			Set<Edge> es = new HashSet<Edge>();
+			for (Edge e : getEdges()) {
+				if (!vs.contains(e.getV1()) || !vs.contains(e.getV2())) {
+					ret.add("Edge without vertex " + e);
+				}
+				if (!es.add(e)) {
+					ret.add("Duplicate edge " + e);
+				}
+			}
+			return ret;
+		}
+	}
+
+	/**
+	 * Kind of recorded operation and its effect on the presence of one key
+	 */
+	enum Kind {
+		ADD, REMOVE, CLEAR
+	}
+
+	/**
+	 * Completed operation on one key (a vertex or an edge), with its real time
+	 * interval
+	 */
+	static class Op {
+		final String key;
+		final Kind kind;
+		final boolean ok;
+		final long start;
+		final long end;
+
+		Op(String key, Kind kind, boolean ok, long start, long end) {
+			this.key = key;
+			this.kind = kind;
+			this.ok = ok;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * @return presence after the operation, null if the outcome is impossible
+		 *         from the given presence
+		 */
+		Boolean apply(boolean present) {
+			Boolean ret = null;
+			switch (kind) {
+			case ADD:
+				ret = ok ? (present ? null : Boolean.TRUE) : (present ? Boolean.TRUE : null);
+				break;
+			case REMOVE:
+				ret = ok ? (present ? Boolean.FALSE : null) : (present ? null : Boolean.FALSE);
+				break;
+			case CLEAR:
+				ret = Boolean.FALSE;
+				break;
+			}
+			return ret;
+		}
+
+		@Override
+		public String toString() {
+			return kind + (ok ? " ok " : " failed ") + key + " [" + start + ", " + end + "]";
+		}
+	}
+
+	/**
+	 * Wing and Gong search for a linearization of the operations on one key,
+	 * starting absent. Only operations that were invoked before every remaining
+	 * operation returned can go next; states already tried are remembered.
+	 */
+	static boolean isLinearizable(List<Op> ops) {
+		ops.sort(Comparator.comparingLong(o -> o.start));
+		return linearize(ops, new BitSet(ops.size()), false, new HashSet<String>());
+	}
+
+	static boolean linearize(List<Op> ops, BitSet done, boolean present, Set<String> tried) {
+		boolean ret = done.cardinality() == ops.size();
+		if (!ret) {
+			long minEnd = Long.MAX_VALUE;
+			for (int i = done.nextClearBit(0); i < ops.size(); i = done.nextClearBit(i + 1)) {
+				minEnd = Math.min(minEnd, ops.get(i).end);
+			}
+			for (int i = done.nextClearBit(0); i < ops.size() && !ret && ops.get(i).start <= minEnd; i = done
+					.nextClearBit(i + 1)) {
+				Boolean next = ops.get(i).apply(present);
+				if (next != null) {
+					done.set(i);
+					if (tried.add(done.toString() + next)) {
+						ret = linearize(ops, done, next, tried);
+					}
+					done.clear(i);
+				}
+			}
+		}
+		return ret;
+	}
+
+	static String edgeKey(int v1, int v2) {
+		return "e" + v1 + "->" + v2;
+	}
+
+	/**
+	 * One random operation, mutations are recorded in the history
+	 * 
+	 * @return problem found by a read, null if none
+	 */
+	static String step(CheckedGraph g, Random rnd, List<Op> history) throws Exception {
+		String ret = null;
+		final int a = rnd.nextInt(KEYS);
+		// Edges go from lower to higher IDs so that path enumeration stays small
+		final int v1 = rnd.nextInt(KEYS - 1);
+		final int v2 = v1 + 1 + rnd.nextInt(KEYS - 1 - v1);
+		final int op = rnd.nextInt(20);
+		boolean ok = true;
+		final long start = System.nanoTime();
+		if (op < 4) {
+			try {
+				g.addVertex(new Vertex(a));
+			} catch (VertexAlreadyExistsException ex) {
+				ok = false;
+			}
+			history.add(new Op("v" + a, Kind.ADD, ok, start, System.nanoTime()));
+		} else if (op < 6) {
+			try {
+				g.removeVertex(new Vertex(a));
+			} catch (VertexDoesNotExistException ex) {
+				ok = false;
+			}
+			final long end = System.nanoTime();
+			history.add(new Op("v" + a, Kind.REMOVE, ok, start, end));
+			if (ok) {
+				// Every edge of the vertex is gone afterwards
+				for (int o = 0; o < KEYS; o++) {
+					if (o < a) {
+						history.add(new Op(edgeKey(o, a), Kind.CLEAR, true, start, end));
+					} else if (o > a) {
+						history.add(new Op(edgeKey(a, o), Kind.CLEAR, true, start, end));
+					}
+				}
+			}
+		} else if (op < 11) {
+			boolean known = true;
+			try {
+				g.addEdge(new Edge(new Vertex(v1), new Vertex(v2)));
+			} catch (EdgeAlreadyExistsException ex) {
+				ok = false;
+			} catch (VertexDoesNotExistException ex) {
+				// Says nothing about the edge
+				known = false;
+			}
+			if (known) {
+				history.add(new Op(edgeKey(v1, v2), Kind.ADD, ok, start, System.nanoTime()));
+			}
+		} else if (op < 14) {
+			try {
+				g.removeEdge(new Edge(new Vertex(v1), new Vertex(v2)));
+			} catch (EdgeDoesNotExistException ex) {
+				ok = false;
+			}
+			history.add(new Op(edgeKey(v1, v2), Kind.REMOVE, ok, start, System.nanoTime()));
+		} else if (op < 17) {
+			try {
+				Path p = g.findShortestPath(new Vertex(v1), new Vertex(v2));
+				if (p != null && (!p.getStart().equals(new Vertex(v1)) || !p.getEnd().equals(new Vertex(v2)))) {
+					ret = "Wrong shortest path " + p;
+				}
+			} catch (VertexDoesNotExistException ex) {
+				// Removed by another thread
+			}
+		} else if (op < 19) {
+			for (Path p : g.getPaths()) {
+				if (!p.isValid() || p.getLength() != p.getEdges().size()) {
+					ret = "Broken path " + p;
+				}
+			}
+		} else {
+			String xml = g.convertToXML();
+			Matcher m = EDGE_TAG.matcher(xml);
+			int edges = 0;
+			while (m.find()) {
+				edges++;
+			}
+			// Snapshots drop edges whose vertices are missing
+			if (new CsrGraph(Graph.createFromXML(xml)).getEdgeCount() != edges) {
+				ret = "XML with edge without vertex";
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Run threads for a number of steps each or until the deadline
+	 * 
+	 * @return the number of steps done by all threads
+	 */
+	static long run(CheckedGraph g, int threads, int steps, long deadline, List<List<Op>> histories)
+			throws Exception {
+		ExecutorService es = Executors.newFixedThreadPool(threads);
+		List<Future<Long>> fl = new ArrayList<Future<Long>>();
+		for (int t = 0; t < threads; t++) {
+			final Random rnd = new Random(31 * t + threads);
+			final List<Op> history = new ArrayList<Op>();
+			histories.add(history);
+			fl.add(es.submit(() -> {
+				long done = 0;
+				while (done < steps && System.nanoTime() < deadline) {
+					String problem = step(g, rnd, history);
+					if (problem != null) {
+						throw new IllegalStateException(problem);
+					}
+					done++;
+				}
+				return done;
+			}));
+		}
+		long ret = 0;
+		try {
+			for (Future<Long> f : fl) {
+				ret += f.get();
+			}
+		} finally {
+			es.shutdownNow();
+			es.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		return ret;
+	}
+
+	@Test
+	void testHistoryIsLinearizable() {
+		CheckedGraph g = new CheckedGraph();
+		List<List<Op>> histories = new ArrayList<List<Op>>();
+		try {
+			run(g, 4, 1500, Long.MAX_VALUE, histories);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(List.of(), g.findViolations());
+		Map<String, List<Op>> byKey = new HashMap<String, List<Op>>();
+		for (List<Op> h : histories) {
+			for (Op o : h) {
+				byKey.computeIfAbsent(o.key, k -> new ArrayList<Op>()).add(o);
+			}
+		}
+		assertTrue(byKey.size() > KEYS);
+		for (Map.Entry<String, List<Op>> me : byKey.entrySet()) {
+			assertTrue(isLinearizable(me.getValue()), "Not linearizable: " + me.getKey());
+		}
+	}
+
+	@Test
+	void testCheckerRejectsImpossibleHistory() {
+		List<Op> ops = new ArrayList<Op>();
+		// Two adds both succeed without a remove in between
+		ops.add(new Op("v0", Kind.ADD, true, 0, 10));
+		ops.add(new Op("v0", Kind.ADD, true, 20, 30));
+		assertFalse(isLinearizable(ops));
+		// Overlapping remove can go in between
+		ops.add(new Op("v0", Kind.REMOVE, true, 5, 25));
+		assertTrue(isLinearizable(ops));
+		ops.add(new Op("v0", Kind.REMOVE, false, 40, 50));
+		assertFalse(isLinearizable(ops));
+	}
+
+	@Test
+	void testEqualsDuringMutation() {
+		Graph a = new Graph();
+		Graph b = new Graph();
+		try {
+			for (int i = 0; i < 50; i++) {
+				a.addVertex(new Vertex(i));
+				b.addVertex(new Vertex(i));
+			}
+			for (int i = 0; i < 200; i++) {
+				Edge e = new Edge(new Vertex(i % 50), new Vertex((i * 7 + 3) % 50));
+				if (!e.getV1().equals(e.getV2()) && !a.findEdgesByLabel(e.getLabel()).contains(e)) {
+					a.addEdge(e);
+					b.addEdge(e);
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		ExecutorService es = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<?>> fl = new ArrayList<Future<?>>();
+			fl.add(es.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					Edge e = new Edge(new Vertex(i % 50), new Vertex(i % 50));
+					a.addEdge(e);
+					a.removeEdge(e);
+				}
+				return null;
+			}));
+			// Both orders at once, each side is copied under its own lock only
+			fl.add(es.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					a.equals(b);
+				}
+				return null;
+			}));
+			fl.add(es.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					b.equals(a);
+				}
+				return null;
+			}));
+			for (Future<?> f : fl) {
+				f.get(30, TimeUnit.SECONDS);
+			}
+		} catch (Exception ex) {
+			fail(ex.toString());
+		} finally {
+			es.shutdownNow();
+		}
+		assertEquals(a, b);
+	}
+
+	@Test
+	void testThroughputPerThreadCount(TestReporter reporter) {
+		final int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+			CheckedGraph g = new CheckedGraph();
+			final long begin = System.nanoTime();
+			long ops = 0;
+			try {
+				ops = run(g, threads, Integer.MAX_VALUE, begin + TimeUnit.MILLISECONDS.toNanos(250),
+						new ArrayList<List<Op>>());
+			} catch (Exception ex) {
+				fail(ex.getMessage());
+			}
+			final double seconds = (System.nanoTime() - begin) / 1e9;
+			assertTrue(ops > 0);
+			assertEquals(List.of(), g.findViolations());
+			reporter.publishEntry("threads=" + threads, String.format("%.0f ops/s", ops / seconds));
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.Vertex;
+import graph.error.CycleDetectedException;
+
+/**
+ * Tests for topological order and linear time paths on acyclic graphs
+ */
+class DirectedAcyclicGraph {
+
+	/**
+	 * Task graph: 1 -> {2, 3} -> 4 -> 5, vertex 6 is isolated
+	 */
+	Graph createTaskGraph() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= 6; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), 3, "1->2"));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(3), 2, "1->3"));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(4), 4, "2->4"));
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(4), 1, "3->4"));
+			dg.addEdge(new Edge(new Vertex(4), new Vertex(5), 2, "4->5"));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(5), 20, "1->5"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testTopologicalOrder() {
+		Graph dg = createTaskGraph();
+		try {
+			assertTrue(dg.isAcyclic());
+			List<Vertex> order = dg.topologicalOrder();
+			assertEquals(6, order.size());
+			for (Edge e : dg.findEdgesForVertex(new Vertex(1))) {
+				assertTrue(order.indexOf(e.getV1()) < order.indexOf(e.getV2()));
+			}
+			for (Edge e : dg.findEdgesForVertex(new Vertex(4))) {
+				assertTrue(order.indexOf(e.getV1()) < order.indexOf(e.getV2()));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testCycleReported() {
+		Graph dg = createTaskGraph();
+		try {
+			dg.addEdge(new Edge(new Vertex(5), new Vertex(2), 1, "5->2"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertFalse(dg.isAcyclic());
+		CycleDetectedException cde = assertThrows(CycleDetectedException.class, () -> dg.topologicalOrder());
+		List<Vertex> cycle = cde.getCycle();
+		assertEquals(3, cycle.size());
+		assertTrue(cycle.containsAll(List.of(new Vertex(2), new Vertex(4), new Vertex(5))));
+		try {
+			for (int i = 0; i < cycle.size(); i++) {
+				Vertex from = cycle.get(i);
+				Vertex to = cycle.get((i + 1) % cycle.size());
+				assertTrue(dg.findEdgesForVertex(from).stream()
+						.anyMatch(e -> e.getV1().equals(from) && e.getV2().equals(to)));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertThrows(CycleDetectedException.class, () -> dg.findLongestPath(new Vertex(1), new Vertex(5)));
+	}
+
+	@Test
+	void testShortestAndLongestPath() {
+		Graph dg = createTaskGraph();
+		try {
+			Path sp = dg.findShortestPath(new Vertex(1), new Vertex(5));
+			assertEquals(5, sp.getLength());
+			assertEquals(List.of(new Vertex(1), new Vertex(3), new Vertex(4), new Vertex(5)), sp.getVertices());
+			Path lp = dg.findLongestPath(new Vertex(1), new Vertex(5));
+			assertEquals(20, lp.getLength());
+			Path lp4 = dg.findLongestPath(new Vertex(1), new Vertex(4));
+			assertEquals(7, lp4.getLength());
+			assertEquals(List.of(new Vertex(1), new Vertex(2), new Vertex(4)), lp4.getVertices());
+			assertNull(dg.findShortestPath(new Vertex(1), new Vertex(6)));
+			assertNull(dg.findLongestPath(new Vertex(5), new Vertex(1)));
+			// Cached order is rebuilt after a change
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(5), 30, "2->5"));
+			assertEquals(33, dg.findLongestPath(new Vertex(1), new Vertex(5)).getLength());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testUnreachableWithoutEnumeration() {
+		Graph dg = new Graph();
+		try {
+			// Ladder with a Fibonacci number of paths between its ends
+			for (int i = 0; i < 24; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			for (int i = 0; i < 24; i++) {
+				if (i + 1 < 24) {
+					dg.addEdge(new Edge(new Vertex(i), new Vertex(i + 1)));
+				}
+				if (i + 2 < 24) {
+					dg.addEdge(new Edge(new Vertex(i), new Vertex(i + 2)));
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertTimeout(Duration.ofSeconds(2), () -> {
+			assertNull(dg.findShortestPath(new Vertex(23), new Vertex(0)));
+			assertNull(dg.findShortestPath(new Vertex(23), new Vertex(0), null));
+			assertEquals(12, dg.findShortestPath(new Vertex(0), new Vertex(23)).getLength());
+		});
+	}
+
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.ShortestPathTree;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.VertexPair;
+
+/**
+ * Tests for edge weight updates and incrementally repaired shortest path trees
+ */
+class DynamicShortestPath {
+
+	Graph createTriangle() {
+		Graph dg = new Graph();
+		try {
+			dg.addVertex(new Vertex(1));
+			dg.addVertex(new Vertex(2));
+			dg.addVertex(new Vertex(3));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), 10, null));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3), 10, null));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(3), 30, null));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testRepairMatchesDijkstra() {
+		final int n = 150;
+		Random rnd = new Random(11);
+		Graph dg = new Graph();
+		List<Edge> el = new ArrayList<Edge>();
+		try {
+			for (int i = 0; i < n; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			while (el.size() < 800) {
+				Edge e = new Edge(new Vertex(rnd.nextInt(n)), new Vertex(rnd.nextInt(n)), 1 + rnd.nextInt(100), null);
+				if (!e.getV1().equals(e.getV2()) && !el.contains(e)) {
+					dg.addEdge(e);
+					el.add(e);
+				}
+			}
+			List<VertexPair> pairs = new ArrayList<VertexPair>();
+			for (int i = 1; i < n; i++) {
+				pairs.add(new VertexPair(new Vertex(0), new Vertex(i)));
+			}
+			ShortestPathTree spt = dg.getShortestPathTree(new Vertex(0));
+			for (int u = 1; u <= 1000; u++) {
+				final long before = dg.getVersion();
+				Edge e = el.get(rnd.nextInt(el.size()));
+				final int old = e.getWeight();
+				final int w = Math.max(1, old + (rnd.nextBoolean() ? 1 + rnd.nextInt(50) : -rnd.nextInt(old)));
+				dg.updateWeight(new Edge(e.getV1(), e.getV2()), w);
+				assertEquals(w, e.getWeight());
+				assertEquals(w == old ? before : before + 1, dg.getVersion());
+				if (u % 100 == 0) {
+					assertSame(spt, dg.getShortestPathTree(new Vertex(0)));
+					assertFalse(spt.isStale());
+					List<Path> pl = dg.findShortestPaths(pairs);
+					for (int i = 0; i < pl.size(); i++) {
+						Vertex t = pairs.get(i).getTarget();
+						if (pl.get(i) == null) {
+							assertEquals(ShortestPathTree.UNREACHED, spt.getDistance(t));
+						} else {
+							assertEquals(pl.get(i).getLength(), spt.getDistance(t));
+							assertEquals(spt.getDistance(t), spt.getPath(t).getLength());
+						}
+					}
+				}
+			}
+			assertTrue(spt.getRepairs() > 0);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	Graph createCycle(int w12) {
+		Graph dg = new Graph();
+		try {
+			dg.addVertex(new Vertex(1));
+			dg.addVertex(new Vertex(2));
+			dg.addVertex(new Vertex(3));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), w12, null));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3), 1, null));
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(1), 1, null));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testSignChangeMatchesRebuild() {
+		Graph dg = createCycle(1);
+		try {
+			for (int w : new int[] { -5, 4, 0, 2 }) {
+				dg.getPaths();
+				dg.updateWeight(new Edge(new Vertex(1), new Vertex(2)), w);
+				Graph rebuilt = createCycle(w);
+				assertEquals(rebuilt.getPaths().size(), dg.getPaths().size());
+				Path p = dg.findShortestPath(new Vertex(1), new Vertex(2));
+				Path rp = rebuilt.findShortestPath(new Vertex(1), new Vertex(2));
+				assertEquals(rp == null, p == null);
+				if (rp != null) {
+					assertEquals(rp.getLength(), p.getLength());
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testCachedPathsFollowWeights() {
+		Graph dg = createTriangle();
+		try {
+			assertEquals(20, dg.findShortestPath(new Vertex(1), new Vertex(3)).getLength());
+			final long before = dg.getVersion();
+			dg.updateWeight(new Edge(new Vertex(1), new Vertex(2)), 50);
+			assertEquals(before + 1, dg.getVersion());
+			assertEquals(30, dg.findShortestPath(new Vertex(1), new Vertex(3)).getLength());
+			// Cyclic graph, answered from the enumerated paths
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(1), 5, null));
+			assertFalse(dg.getPaths().isEmpty());
+			dg.updateWeight(new Edge(new Vertex(2), new Vertex(3)), 1);
+			dg.updateWeight(new Edge(new Vertex(3), new Vertex(1)), 7);
+			for (Path p : dg.getPaths()) {
+				int sum = 0;
+				for (Edge e : p.getEdges()) {
+					sum += e.getWeight();
+				}
+				assertEquals(sum, p.getLength());
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testTreeRepairAndStaleness() {
+		Graph dg = createTriangle();
+		try {
+			ShortestPathTree spt = dg.getShortestPathTree(new Vertex(1));
+			assertEquals(20, spt.getDistance(new Vertex(3)));
+			assertEquals(new Edge(new Vertex(2), new Vertex(3)), spt.getParentEdge(new Vertex(3)));
+			// Tree edge gets heavier, vertex 3 moves to the direct edge
+			dg.updateWeight(new Edge(new Vertex(2), new Vertex(3)), 25);
+			assertEquals(30, spt.getDistance(new Vertex(3)));
+			assertEquals(new Edge(new Vertex(1), new Vertex(3)), spt.getParentEdge(new Vertex(3)));
+			// Non tree edge gets heavier, nothing to do
+			dg.updateWeight(new Edge(new Vertex(2), new Vertex(3)), 40);
+			assertEquals(0, spt.getLastVisits());
+			// Lower weight pulls vertex 3 back
+			dg.updateWeight(new Edge(new Vertex(2), new Vertex(3)), 2);
+			assertEquals(12, spt.getDistance(new Vertex(3)));
+			assertEquals(3, spt.getRepairs());
+			assertFalse(spt.isStale());
+			// First edge of the path gets lighter, the same tree is repaired
+			dg.updateWeight(new Edge(new Vertex(1), new Vertex(2)), 1);
+			ShortestPathTree kept = dg.getShortestPathTree(new Vertex(1));
+			assertSame(spt, kept);
+			assertEquals(3, kept.getDistance(new Vertex(3)));
+			assertEquals(3, dg.findShortestPath(new Vertex(1), new Vertex(3)).getLength());
+			dg.addVertex(new Vertex(4));
+			assertTrue(kept.isStale());
+			assertEquals(ShortestPathTree.UNREACHED, dg.getShortestPathTree(new Vertex(1)).getDistance(new Vertex(4)));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testUndirectedUpdatesBothDirections() {
+		UndirectedGraph ug = new UndirectedGraph();
+		try {
+			ug.addVertex(new Vertex(1));
+			ug.addVertex(new Vertex(2));
+			ug.addEdge(new Edge(new Vertex(1), new Vertex(2), 4, null));
+			ug.updateWeight(new Edge(new Vertex(2), new Vertex(1)), 9);
+			assertEquals(9, ug.getShortestPathTree(new Vertex(1)).getDistance(new Vertex(2)));
+			assertEquals(9, ug.getShortestPathTree(new Vertex(2)).getDistance(new Vertex(1)));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.LabelDictionary;
+import graph.PropertyStore;
+import graph.Vertex;
+
+/**
+ * Tests for interned edge labels and columnar vertex and edge properties
+ */
+class EdgeAttributeStore {
+
+	@Test
+	void testLabels() {
+		Vertex v1 = new Vertex(1, "A");
+		Vertex v2 = new Vertex(2, "B");
+		Edge e1 = new Edge(v1, v2);
+		assertTrue(e1.hasDefaultLabel());
+		assertEquals("A->B", e1.getLabel());
+		Edge e2 = new Edge(v2, v1, 3, "B->A");
+		assertTrue(e2.hasDefaultLabel());
+		Edge e3 = new Edge(v1, v2, 1, new String("road"));
+		Edge e4 = new Edge(v2, v1, 1, new String("road"));
+		assertFalse(e3.hasDefaultLabel());
+		assertEquals(e3.getLabel(), e4.getLabel());
+		e4.setLabel(null);
+		assertEquals("B->A", e4.getLabel());
+		// A null label is the default label
+		assertEquals("A->B", new Edge(v1, v2, 1, null).getLabel());
+		Graph dg = new Graph();
+		try {
+			dg.addVertex(v1);
+			dg.addVertex(v2);
+			dg.addEdge(e3);
+			dg.addEdge(e2);
+			String xml = dg.convertToXML();
+			// Default labels are written in full
+			assertTrue(xml.contains("<label>B-&gt;A</label>"), xml);
+			assertTrue(xml.contains("<label>road</label>"), xml);
+			Graph dg1 = Graph.createFromXML(xml);
+			assertEquals(dg, dg1);
+			for (Edge e : dg1.findEdgesForVertex(v1)) {
+				assertEquals("road", e.getLabel());
+			}
+			for (Edge e : dg1.findEdgesForVertex(v2)) {
+				assertEquals("B->A", e.getLabel());
+				assertTrue(e.hasDefaultLabel());
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		CsrGraph csr = new CsrGraph(dg);
+		LabelDictionary ld = csr.getLabelDictionary();
+		final int road = ld.findId("road");
+		assertTrue(road >= 0);
+		assertEquals(1, ld.size());
+		assertEquals("road", ld.getLabel(road));
+		assertEquals(road, csr.getLabelId(csr.getFirstEdge(csr.indexOf(v1))));
+		assertEquals(-1, csr.getLabelId(csr.getFirstEdge(csr.indexOf(v2))));
+	}
+
+	@Test
+	void testProperties() {
+		Graph dg = new Graph();
+		Edge e12 = new Edge(new Vertex(1), new Vertex(2));
+		Edge e23 = new Edge(new Vertex(2), new Vertex(3));
+		try {
+			for (int i = 1; i <= 3; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(e12);
+			dg.addEdge(e23);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		PropertyStore<Edge> ep = dg.getEdgeProperties();
+		PropertyStore<Edge>.IntColumn capacity = ep.defineInt("capacity", 100);
+		PropertyStore<Edge>.DoubleColumn cost = ep.defineDouble("cost", 0.5);
+		PropertyStore<Edge>.ObjectColumn<String> owner = ep.defineObject("owner", String.class);
+		capacity.set(e12, 40);
+		cost.set(e23, 2.5);
+		owner.set(e12, "north");
+		assertEquals(40, capacity.get(e12));
+		assertEquals(100, capacity.get(e23));
+		assertEquals(0.5, cost.get(e12));
+		assertEquals(2.5, cost.get(new Edge(new Vertex(2), new Vertex(3))));
+		assertEquals("north", owner.get(e12));
+		assertNull(owner.get(e23));
+		// Kept as set
+		String south = new String("south");
+		owner.set(e23, south);
+		assertSame(south, owner.get(e23));
+		owner.set(e23, null);
+		assertTrue(capacity.isSet(e12));
+		assertFalse(capacity.isSet(e23));
+		assertSame(capacity, ep.defineInt("capacity", 0));
+		assertThrows(IllegalArgumentException.class, () -> ep.defineDouble("capacity", 0));
+		assertThrows(IllegalArgumentException.class, () -> ep.defineObject("owner", Integer.class));
+		// Columns added later and growth past the initial capacity
+		PropertyStore<Vertex> vp = dg.getVertexProperties();
+		PropertyStore<Vertex>.IntColumn rank = vp.defineInt("rank", -1);
+		for (int i = 0; i < 100; i++) {
+			rank.set(new Vertex(i), i);
+		}
+		PropertyStore<Vertex>.DoubleColumn score = vp.defineDouble("score", 1.0);
+		assertEquals(1.0, score.get(new Vertex(99)));
+		assertEquals(99, rank.get(new Vertex(99)));
+		// Removing a vertex or edge drops its properties
+		try {
+			dg.removeEdge(e12);
+			dg.removeVertex(new Vertex(3));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(100, capacity.get(e12));
+		assertFalse(owner.isSet(e12));
+		assertEquals(-1, rank.get(new Vertex(3)));
+		// Edge 2->3 went with vertex 3
+		assertEquals(0, ep.size());
+		assertEquals(0.5, cost.get(e23));
+		rank.set(new Vertex(1000), 7);
+		assertEquals(1.0, score.get(new Vertex(1000)));
+		assertEquals(100, vp.size());
+	}
+
+}
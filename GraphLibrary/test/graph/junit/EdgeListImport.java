@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.io.EdgeListImporter;
+import graph.io.ImportResult;
+import graph.io.MalformedLine;
+
+/**
+ * Tests for the parallel edge list importer
+ */
+class EdgeListImport {
+
+	@TempDir
+	File dir;
+
+	@Test
+	void testParseAndReport() {
+		final String text = "# v1 v2 weight label\n" + "1 2 5 road A\n" + "2,3,7\r\n" + "\n" + "3\t1\n" + "1 2 9\n"
+				+ "4 x 1\n" + "% comment\n" + "5 99999999999 1\n" + "6\n" + "  4 -5 2 neg  \n";
+		try {
+			File f = new File(dir, "small.txt");
+			Files.write(f.toPath(), text.getBytes(StandardCharsets.UTF_8));
+			EdgeListImporter eli = new EdgeListImporter();
+			eli.setChunkSize(64);
+			eli.setThreads(3);
+			ImportResult<Graph> ir = eli.importFile(f);
+			assertTrue(ir.getChunks() > 1);
+			assertEquals(11, ir.getLines());
+			assertEquals(4, ir.getEdges());
+			assertEquals(1, ir.getDuplicates());
+			assertEquals(3, ir.getMalformedCount());
+			List<MalformedLine> ml = ir.getMalformed();
+			assertEquals(text.indexOf("4 x 1"), ml.get(0).getOffset());
+			assertEquals(text.indexOf("5 99999999999"), ml.get(1).getOffset());
+			assertTrue(ml.get(1).getReason().contains("range"));
+			assertEquals(text.indexOf("6\n"), ml.get(2).getOffset());
+			Graph g = ir.getGraph();
+			Edge e12 = g.findEdgesForVertex(new Vertex(1)).get(0);
+			assertEquals(5, e12.getWeight());
+			assertEquals("road A", e12.getLabel());
+			assertEquals(7, g.findEdgesForVertex(new Vertex(2)).get(0).getWeight());
+			assertEquals(1, g.findEdgesForVertex(new Vertex(3)).get(0).getWeight());
+			assertEquals(new Vertex(-5), g.findEdgesForVertex(new Vertex(4)).get(0).getV2());
+			assertTrue(ir.getEdgesPerSecond() > 0);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testChunksMatchSingleThread() {
+		try {
+			File f = new File(dir, "random.txt");
+			StringBuilder sb = new StringBuilder();
+			Random r = new Random(3);
+			for (int i = 0; i < 5000; i++) {
+				sb.append(r.nextInt(500)).append(' ').append(r.nextInt(500)).append(' ').append(1 + r.nextInt(9))
+						.append('\n');
+			}
+			Files.write(f.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+			EdgeListImporter single = new EdgeListImporter();
+			single.setThreads(1);
+			ImportResult<Graph> expected = single.importFile(f);
+			assertEquals(1, expected.getChunks());
+			EdgeListImporter parallel = new EdgeListImporter();
+			parallel.setThreads(4);
+			parallel.setChunkSize(1000);
+			ImportResult<Graph> actual = parallel.importFile(f);
+			assertTrue(actual.getChunks() > 20);
+			assertEquals(5000, actual.getLines());
+			assertEquals(expected.getEdges() + expected.getDuplicates(), 5000);
+			assertEquals(expected.getGraph(), actual.getGraph());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testBuilderCapsLargeEstimate() {
+		// Estimate of a multi-gigabyte file, tables start capped and grow
+		GraphBuilder gb = new GraphBuilder(Integer.MAX_VALUE);
+		for (int i = 0; i < 3000; i++) {
+			assertTrue(gb.addEdge(i, i + 1, 1, null));
+		}
+		assertFalse(gb.addEdge(0, 1, 1, null));
+		assertEquals(3000, gb.getEdgeCount());
+		assertEquals(3001, gb.getVertexCount());
+	}
+
+	@Test
+	void testUndirected() {
+		try {
+			File f = new File(dir, "undirected.txt");
+			Files.write(f.toPath(), "1 2 5\n2 3 7\n2 1 9\n".getBytes(StandardCharsets.UTF_8));
+			EdgeListImporter eli = new EdgeListImporter();
+			eli.setDirected(false);
+			eli.setChunkSize(64);
+			ImportResult<Graph> ir = eli.importFile(f);
+			assertTrue(ir.getGraph() instanceof UndirectedGraph);
+			assertEquals(4, ir.getEdges());
+			assertEquals(1, ir.getDuplicates());
+			UndirectedGraph ug = (UndirectedGraph) ir.getGraph();
+			assertEquals(5, ug.findEdgesForVertex(new Vertex(2)).stream()
+					.filter(e -> e.getV2().equals(new Vertex(1))).findFirst().get().getWeight());
+			// Both directions are in the graph, so removing an edge removes both
+			ug.removeEdge(new Edge(new Vertex(1), new Vertex(2)));
+			assertEquals(2, new CsrGraph(ug).getEdgeCount());
+			assertEquals(2, ug.getComponentCount());
+			UndirectedGraph fg = eli.importFile(f, UndirectedGraph::new).getGraph();
+			fg.removeEdge(new Edge(new Vertex(3), new Vertex(2)));
+			assertEquals(2, new CsrGraph(fg).getEdgeCount());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
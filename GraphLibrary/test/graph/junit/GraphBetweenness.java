@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.algorithm.Betweenness;
+import graph.algorithm.BetweennessResult;
+
+/**
+ * Tests for betweenness centrality
+ */
+class GraphBetweenness {
+
+	Graph createDiamond() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= 4; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2)));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(3)));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(4)));
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(4)));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	UndirectedGraph createPath(int n) {
+		UndirectedGraph ug = new UndirectedGraph();
+		try {
+			for (int i = 1; i <= n; i++) {
+				ug.addVertex(new Vertex(i));
+			}
+			for (int i = 1; i < n; i++) {
+				ug.addEdge(new Edge(new Vertex(i), new Vertex(i + 1)));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return ug;
+	}
+
+	@Test
+	void testDirectedDiamond() {
+		BetweennessResult br = new Betweenness(createDiamond()).compute();
+		assertTrue(br.isExact());
+		assertEquals(0.0, br.getScore(new Vertex(1)), 1e-9);
+		assertEquals(0.5, br.getScore(new Vertex(2)), 1e-9);
+		assertEquals(0.5, br.getScore(new Vertex(3)), 1e-9);
+		assertEquals(1.5, br.getScore(new Edge(new Vertex(1), new Vertex(2))), 1e-9);
+		assertEquals(1.5, br.getScore(new Edge(new Vertex(2), new Vertex(4))), 1e-9);
+	}
+
+	@Test
+	void testUndirectedPath() {
+		BetweennessResult br = new Betweenness(createPath(5)).compute();
+		assertEquals(0.0, br.getScore(new Vertex(1)), 1e-9);
+		assertEquals(3.0, br.getScore(new Vertex(2)), 1e-9);
+		assertEquals(4.0, br.getScore(new Vertex(3)), 1e-9);
+		assertEquals(0.0, br.getErrorBound(0.05));
+	}
+
+	@Test
+	void testUndirectedEdges() {
+		BetweennessResult br = new Betweenness(createPath(3)).compute();
+		// Edge {1,2} carries the pairs {1,2} and {1,3}, in either direction
+		assertEquals(2.0, br.getScore(new Edge(new Vertex(1), new Vertex(2))), 1e-9);
+		assertEquals(2.0, br.getScore(new Edge(new Vertex(2), new Vertex(1))), 1e-9);
+		assertEquals(2.0, br.getScore(new Edge(new Vertex(2), new Vertex(3))), 1e-9);
+		assertEquals(1.0, br.getScore(new Vertex(2)), 1e-9);
+		// Path of 5: edge {2,3} carries 2 x 3 pairs
+		assertEquals(6.0, new Betweenness(createPath(5)).compute().getScore(new Edge(new Vertex(2), new Vertex(3))),
+				1e-9);
+	}
+
+	@Test
+	void testWeighted() {
+		Graph dg = new Graph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		try {
+			dg.addVertex(v1);
+			dg.addVertex(v2);
+			dg.addVertex(v3);
+			dg.addEdge(new Edge(v1, v2, 1, "1->2"));
+			dg.addEdge(new Edge(v2, v3, 1, "2->3"));
+			dg.addEdge(new Edge(v1, v3, 5, "1->3"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		Betweenness b = new Betweenness(dg);
+		assertEquals(0.0, b.compute().getScore(v2), 1e-9);
+		b.setWeighted(true);
+		assertEquals(1.0, b.compute().getScore(v2), 1e-9);
+	}
+
+	@Test
+	void testWeightsNotPositive() {
+		Graph dg = new Graph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		try {
+			dg.addVertex(v1);
+			dg.addVertex(v2);
+			dg.addVertex(v3);
+			dg.addEdge(new Edge(v1, v2, 1, "1->2"));
+			dg.addEdge(new Edge(v2, v3, -1, "2->3"));
+			dg.addEdge(new Edge(v3, v1, 1, "3->1"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		Betweenness b = new Betweenness(dg);
+		assertEquals(1.0, b.compute().getScore(v2), 1e-9);
+		b.setWeighted(true);
+		assertThrows(IllegalArgumentException.class, () -> b.compute());
+		try {
+			dg.updateWeight(dg.findEdgesByLabel("2->3").get(0), 0);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		Betweenness z = new Betweenness(dg);
+		z.setWeighted(true);
+		assertThrows(IllegalArgumentException.class, () -> z.compute());
+	}
+
+	@Test
+	void testSampled() {
+		UndirectedGraph ug = createPath(30);
+		BetweennessResult exact = new Betweenness(ug).compute();
+		Betweenness b = new Betweenness(ug);
+		b.setSamples(10);
+		b.setSeed(42);
+		BetweennessResult approx = b.compute();
+		assertFalse(approx.isExact());
+		assertEquals(10, approx.getSamples());
+		final double bound = approx.getErrorBound(0.05);
+		assertTrue(bound > 0);
+		for (int i = 1; i <= 30; i++) {
+			Vertex v = new Vertex(i);
+			assertTrue(Math.abs(exact.getScore(v) - approx.getScore(v)) <= bound);
+		}
+	}
+
+}
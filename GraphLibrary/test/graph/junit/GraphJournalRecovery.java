@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.io.Durability;
+import graph.io.GraphJournal;
+
+/**
+ * Tests for the write-ahead mutation journal and recovery
+ */
+class GraphJournalRecovery {
+
+	@TempDir
+	File dir;
+
+	void journalChain(GraphJournal<? extends Graph> gj, int from, int to) throws Exception {
+		for (int i = from; i <= to; i++) {
+			gj.addVertex(new Vertex(i, "v" + i));
+			if (i > 1) {
+				gj.addEdge(new Edge(new Vertex(i - 1), new Vertex(i), i, "e" + i));
+			}
+		}
+	}
+
+	@Test
+	void testReplay() {
+		try {
+			Graph expected;
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				journalChain(gj, 1, 10);
+				gj.setWeight(new Edge(new Vertex(2), new Vertex(3)), 99);
+				gj.removeEdge(new Edge(new Vertex(5), new Vertex(6)));
+				gj.removeVertex(new Vertex(10));
+				assertEquals(22, gj.getRecordCount());
+				expected = gj.getGraph();
+			}
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				Graph g = gj.getGraph();
+				assertEquals(expected, g);
+				assertEquals(22, gj.getRecordCount());
+				assertEquals(99, g.findEdgesForVertex(new Vertex(2)).get(0).getWeight());
+				assertEquals("v7", g.findEdgesForVertex(new Vertex(7)).get(0).getV1().getVname());
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testCompactionAndTornTail() {
+		try {
+			UndirectedGraph expected;
+			try (GraphJournal<UndirectedGraph> gj = GraphJournal.open(dir, UndirectedGraph::new)) {
+				gj.setDurability(Durability.WRITE);
+				journalChain(gj, 1, 20);
+				assertEquals(39, gj.compact().get());
+				assertEquals(39, gj.getSnapshotCount());
+				journalChain(gj, 21, 25);
+				expected = gj.getGraph();
+			}
+			File[] segments = dir.listFiles((d, n) -> n.startsWith("journal-"));
+			assertEquals(1, segments.length);
+			assertEquals(1, dir.listFiles((d, n) -> n.startsWith("snapshot-")).length);
+			// Torn record at the end of the log, example a crash during write
+			final long size = segments[0].length();
+			try (FileOutputStream out = new FileOutputStream(segments[0], true)) {
+				out.write(new byte[] { 0, 0, 0, 40, 3, 1 });
+			}
+			try (GraphJournal<UndirectedGraph> gj = GraphJournal.open(dir, UndirectedGraph::new)) {
+				assertEquals(expected, gj.getGraph());
+				assertEquals(1, gj.getGraph().getComponentCount());
+				assertEquals(49, gj.getRecordCount());
+				assertEquals(size, segments[0].length());
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testGroupCommit() {
+		final int threads = 4;
+		final int perThread = 50;
+		ExecutorService es = Executors.newFixedThreadPool(threads);
+		try {
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				gj.setCompactionThreshold(64);
+				List<Future<?>> fl = new ArrayList<Future<?>>();
+				for (int t = 0; t < threads; t++) {
+					final int base = t * perThread;
+					fl.add(es.submit(() -> {
+						for (int i = 0; i < perThread; i++) {
+							gj.addVertex(new Vertex(base + i));
+						}
+						return null;
+					}));
+				}
+				for (Future<?> f : fl) {
+					f.get();
+				}
+				assertEquals(threads * perThread, gj.getCommittedCount());
+				assertTrue(gj.getSyncCount() <= threads * perThread + 1);
+			}
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				assertEquals(threads * perThread, gj.getRecordCount());
+				assertEquals(threads * perThread, new CsrGraph(gj.getGraph()).getVertexCount());
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		} finally {
+			es.shutdown();
+		}
+	}
+
+	@Test
+	void testNullNamesAndClosedJournal() {
+		try {
+			Graph g;
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				gj.addVertex(new Vertex(1, null));
+				gj.addVertex(new Vertex(2, "v2"));
+				gj.compact().get();
+				gj.addVertex(new Vertex(3, null));
+				g = gj.getGraph();
+			}
+			// Not applied to the graph when it cannot be journaled
+			GraphJournal<Graph> closed = GraphJournal.open(dir);
+			closed.close();
+			assertThrows(IOException.class, () -> closed.addVertex(new Vertex(4)));
+			assertEquals(3, new CsrGraph(closed.getGraph()).getVertexCount());
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				assertEquals(g, gj.getGraph());
+				CsrGraph csr = new CsrGraph(gj.getGraph());
+				assertNull(csr.getVertex(csr.indexOf(new Vertex(1))).getVname());
+				assertNull(csr.getVertex(csr.indexOf(new Vertex(3))).getVname());
+				assertEquals("v2", csr.getVertex(csr.indexOf(new Vertex(2))).getVname());
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testSnapshotKeepsEdgeOrder() {
+		try {
+			Graph g;
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				for (int i = 1; i <= 3; i++) {
+					gj.addVertex(new Vertex(i));
+				}
+				// Added in a different order than the snapshot groups them by source
+				gj.addEdge(new Edge(new Vertex(2), new Vertex(3), 5, "b"));
+				gj.addEdge(new Edge(new Vertex(1), new Vertex(2), 7, null));
+				gj.compact().get();
+				g = gj.getGraph();
+			}
+			try (GraphJournal<Graph> gj = GraphJournal.open(dir)) {
+				assertEquals(g, gj.getGraph());
+				assertEquals(5, gj.getRecordCount());
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CancellationToken;
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.QueryOptions;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.error.QueryAbortedException;
+import graph.error.QueryAbortedException.Reason;
+
+/**
+ * Tests for query budgets on traversals and path searches
+ */
+class GraphQueryBudget {
+
+	Graph createCompleteGraph(int n) {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= n; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			for (int i = 1; i <= n; i++) {
+				for (int j = 1; j <= n; j++) {
+					if (i != j) {
+						dg.addEdge(new Edge(new Vertex(i), new Vertex(j)));
+					}
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testUnlimited() {
+		Graph dg = createCompleteGraph(4);
+		try {
+			List<Path> gp = dg.getPaths(new QueryOptions());
+			assertEquals(dg.getPaths().size(), gp.size());
+			assertEquals(100, dg.calculateConnectivity(new QueryOptions()));
+		} catch (QueryAbortedException ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testMaxVisited() {
+		Graph dg = createCompleteGraph(6);
+		QueryOptions qo = new QueryOptions();
+		qo.setMaxVisited(3);
+		QueryAbortedException ex = assertThrows(QueryAbortedException.class, () -> dg.getPaths(qo));
+		assertEquals(Reason.MAX_VISITED, ex.getReason());
+	}
+
+	@Test
+	void testPartialResults() {
+		Graph dg = createCompleteGraph(5);
+		QueryOptions qo = new QueryOptions();
+		qo.setMaxPaths(10);
+		qo.setPartialResults(true);
+		try {
+			List<Path> gp = dg.getPaths(qo);
+			assertEquals(10, gp.size());
+			// Partial result must not be cached
+			assertTrue(dg.getPaths().size() > 10);
+			Path sp = dg.findShortestPath(new Vertex(1), new Vertex(2), qo);
+			assertNotNull(sp);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testCancelled() {
+		Graph dg = createCompleteGraph(5);
+		CancellationToken ct = new CancellationToken();
+		ct.cancel();
+		QueryOptions qo = new QueryOptions();
+		qo.setCancellationToken(ct);
+		QueryAbortedException ex = assertThrows(QueryAbortedException.class, () -> dg.getConnectedVertices(qo));
+		assertEquals(Reason.CANCELLED, ex.getReason());
+	}
+
+	@Test
+	void testDeadline() {
+		Graph dg = createCompleteGraph(5);
+		QueryOptions qo = new QueryOptions();
+		qo.setDeadline(Instant.now().minus(Duration.ofSeconds(1)));
+		QueryAbortedException ex = assertThrows(QueryAbortedException.class,
+				() -> dg.findShortestPath(new Vertex(1), new Vertex(5), qo));
+		assertEquals(Reason.DEADLINE, ex.getReason());
+		qo.setDeadline(null);
+		qo.setTimeout(Duration.ofMinutes(1));
+		try {
+			Path sp = dg.findShortestPath(new Vertex(1), new Vertex(5), qo);
+			assertEquals(dg.findShortestPath(new Vertex(1), new Vertex(5)), sp);
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	void testInterrupted() {
+		Graph dg = createCompleteGraph(5);
+		QueryOptions qo = new QueryOptions();
+		Thread.currentThread().interrupt();
+		try {
+			QueryAbortedException ex = assertThrows(QueryAbortedException.class, () -> dg.getPaths(qo));
+			assertEquals(Reason.INTERRUPTED, ex.getReason());
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	void testUndirectedHonoursOptions() {
+		UndirectedGraph ug = new UndirectedGraph();
+		try {
+			for (int i = 1; i <= 3; i++) {
+				ug.addVertex(new Vertex(i));
+			}
+			ug.addEdge(new Edge(new Vertex(1), new Vertex(2)));
+			ug.addEdge(new Edge(new Vertex(2), new Vertex(3)));
+			assertEquals(3, ug.getConnectedVertices(null).size());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		CancellationToken ct = new CancellationToken();
+		ct.cancel();
+		QueryOptions qo = new QueryOptions();
+		qo.setCancellationToken(ct);
+		QueryAbortedException ex = assertThrows(QueryAbortedException.class, () -> ug.getConnectedVertices(qo));
+		assertEquals(Reason.CANCELLED, ex.getReason());
+		qo.setPartialResults(true);
+		try {
+			assertTrue(ug.getConnectedVertices(qo).isEmpty());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.algorithm.Centrality;
+import graph.algorithm.PageRank;
+import graph.algorithm.RankResult;
+
+/**
+ * Tests for PageRank and centrality scores
+ */
+class GraphRanking {
+
+	Graph createStarGraph(int n) {
+		Graph dg = new Graph();
+		try {
+			for (int i = 0; i < n; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			for (int i = 1; i < n; i++) {
+				dg.addEdge(new Edge(new Vertex(i), new Vertex(0)));
+				dg.addEdge(new Edge(new Vertex(0), new Vertex(i)));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testPageRankStar() {
+		PageRank pr = new PageRank(createStarGraph(6));
+		RankResult rr = pr.compute();
+		assertTrue(rr.isConverged());
+		double sum = 0;
+		for (double s : rr.getScores()) {
+			sum += s;
+		}
+		assertEquals(1.0, sum, 1e-6);
+		for (int i = 1; i < 6; i++) {
+			assertTrue(rr.getScore(new Vertex(0)) > rr.getScore(new Vertex(i)));
+			assertEquals(rr.getScore(new Vertex(1)), rr.getScore(new Vertex(i)), 1e-9);
+		}
+		double[] res = rr.getResiduals();
+		assertTrue(res[res.length - 1] < res[0]);
+		assertEquals(res.length, rr.getIterationNanos().length);
+	}
+
+	@Test
+	void testPageRankWeightedAndDangling() {
+		Graph dg = new Graph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		try {
+			dg.addVertex(v1);
+			dg.addVertex(v2);
+			dg.addVertex(v3);
+			dg.addEdge(new Edge(v1, v2, 9, "1->2"));
+			dg.addEdge(new Edge(v1, v3, 1, "1->3"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		PageRank pr = new PageRank(dg);
+		RankResult ur = pr.compute();
+		assertEquals(ur.getScore(v2), ur.getScore(v3), 1e-9);
+		pr.setWeighted(true);
+		RankResult wr = pr.compute();
+		assertTrue(wr.getScore(v2) > wr.getScore(v3));
+		double sum = wr.getScore(v1) + wr.getScore(v2) + wr.getScore(v3);
+		assertEquals(1.0, sum, 1e-6);
+	}
+
+	@Test
+	void testCentralityPath() {
+		UndirectedGraph ug = new UndirectedGraph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		try {
+			ug.addVertex(v1);
+			ug.addVertex(v2);
+			ug.addVertex(v3);
+			ug.addEdge(new Edge(v1, v2));
+			ug.addEdge(new Edge(v2, v3));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		Centrality c = new Centrality(ug);
+		final int i1 = c.getSnapshot().indexOf(v1);
+		final int i2 = c.getSnapshot().indexOf(v2);
+		assertEquals(2.0, c.outDegree()[i2]);
+		assertEquals(1.0, c.inDegree()[i1]);
+		double[] cl = c.closeness();
+		assertEquals(1.0, cl[i2], 1e-9);
+		assertEquals(2.0 / 3, cl[i1], 1e-9);
+		double[] hc = c.harmonic();
+		assertEquals(1.0, hc[i2], 1e-9);
+		assertEquals(0.75, hc[i1], 1e-9);
+	}
+
+	@Test
+	void testWeightedCloseness() {
+		Graph dg = new Graph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		try {
+			dg.addVertex(v1);
+			dg.addVertex(v2);
+			dg.addVertex(v3);
+			dg.addEdge(new Edge(v1, v2, 10, "1->2"));
+			dg.addEdge(new Edge(v2, v3, 10, "2->3"));
+			dg.addEdge(new Edge(v1, v3, 30, "1->3"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		Centrality c = new Centrality(dg);
+		c.setWeighted(true);
+		double[] cl = c.closeness();
+		// 1 reaches 2 at 10 and 3 at 20
+		assertEquals(2.0 / 30, cl[c.getSnapshot().indexOf(v1)], 1e-9);
+		// 2 reaches only 3
+		assertEquals(0.5 * (1.0 / 10), cl[c.getSnapshot().indexOf(v2)], 1e-9);
+		assertEquals(0.0, cl[c.getSnapshot().indexOf(v3)]);
+	}
+
+	@Test
+	void testWeightsNotPositive() {
+		Graph dg = new Graph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		try {
+			dg.addVertex(v1);
+			dg.addVertex(v2);
+			dg.addVertex(v3);
+			dg.addEdge(new Edge(v1, v2, 10, "1->2"));
+			dg.addEdge(new Edge(v2, v3, 0, "2->3"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		Centrality c = new Centrality(dg);
+		assertEquals(1.0 / 1.5, c.closeness()[c.getSnapshot().indexOf(v1)], 1e-9);
+		c.setWeighted(true);
+		assertThrows(IllegalArgumentException.class, () -> c.closeness());
+		assertThrows(IllegalArgumentException.class, () -> c.harmonic());
+	}
+
+}
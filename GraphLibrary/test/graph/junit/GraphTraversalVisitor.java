@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+import graph.algorithm.Traversal;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Tests for the edge visitor and the reusable traversal
+ */
+class GraphTraversalVisitor {
+
+	/**
+	 * Binary tree 1..n, i has edges to 2i and 2i+1, plus back edges to 1
+	 */
+	Graph createTree(int n) {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= n; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			for (int i = 1; i <= n; i++) {
+				for (int c = 2 * i; c <= Math.min(2 * i + 1, n); c++) {
+					dg.addEdge(new Edge(new Vertex(i), new Vertex(c)));
+				}
+				if (2 * i > n) {
+					dg.addEdge(new Edge(new Vertex(i), new Vertex(1)));
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testForEachOutEdge() {
+		Graph dg = createTree(7);
+		try {
+			for (int i = 1; i <= 7; i++) {
+				Set<Edge> visited = new HashSet<Edge>();
+				dg.forEachOutEdge(new Vertex(i), e -> visited.add(e));
+				Set<Edge> expected = new HashSet<Edge>();
+				for (Edge e : dg.findEdgesForVertex(new Vertex(i))) {
+					if (e.getV1().equals(new Vertex(i))) {
+						expected.add(e);
+					}
+				}
+				assertEquals(expected, visited);
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(7)));
+			List<Edge> out = new ArrayList<Edge>();
+			dg.forEachOutEdge(new Vertex(1), e -> out.add(e));
+			assertEquals(3, out.size());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertThrows(VertexDoesNotExistException.class, () -> dg.forEachOutEdge(new Vertex(99), e -> {
+		}));
+	}
+
+	@Test
+	void testBreadthAndDepthFirst() {
+		Graph dg = createTree(7);
+		CsrGraph csr = new CsrGraph(dg);
+		Traversal t = new Traversal(csr);
+		assertEquals(7, t.breadthFirst(new Vertex(1), null));
+		int last = 0;
+		for (int i = 0; i < t.getVisitedCount(); i++) {
+			int v = t.getVisited(i);
+			int d = t.getDepth(v);
+			assertTrue(d >= last);
+			last = d;
+			int vid = csr.getVertex(v).getVid();
+			assertEquals(31 - Integer.numberOfLeadingZeros(vid), d);
+			assertEquals(vid == 1 ? -1 : csr.indexOf(new Vertex(vid / 2)), t.getParent(v));
+		}
+		List<Integer> preorder = new ArrayList<Integer>();
+		assertEquals(7, t.depthFirst(new Vertex(1), (v, d) -> preorder.add(csr.getVertex(v).getVid())));
+		// Children of a vertex follow it before the next sibling subtree
+		int a = preorder.indexOf(2);
+		int b = preorder.indexOf(3);
+		int first = Math.min(a, b);
+		int second = Math.max(a, b);
+		int left = preorder.get(first);
+		assertEquals(1, preorder.get(0));
+		assertEquals(Set.of(2 * left, 2 * left + 1), Set.of(preorder.get(first + 1), preorder.get(first + 2)));
+		assertEquals(4, second);
+		// Depth limit and early stop
+		t.setMaxDepth(1);
+		assertEquals(3, t.breadthFirst(new Vertex(1), null));
+		assertFalse(t.isReached(csr.indexOf(new Vertex(4))));
+		t.setMaxDepth(Integer.MAX_VALUE);
+		// Stops at the first vertex of depth 2
+		assertEquals(3, t.depthFirst(new Vertex(1), (v, d) -> d < 2));
+		assertEquals(2, t.breadthFirst(new Vertex(1), (v, d) -> d < 1));
+		assertEquals(0, t.breadthFirst(new Vertex(99), null));
+	}
+
+	@Test
+	void testRepeatedTraversalsDoNotAllocate() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(mx.isThreadAllocatedMemorySupported() && mx.isThreadAllocatedMemoryEnabled());
+		Traversal t = new Traversal(createTree(2000));
+		Traversal.Visitor visitor = (v, d) -> true;
+		long visited = 0;
+		for (int i = 0; i < 200; i++) {
+			visited += t.breadthFirst(i, visitor) + t.depthFirst(i, visitor);
+		}
+		final long tid = Thread.currentThread().threadId();
+		long before = mx.getThreadAllocatedBytes(tid);
+		for (int i = 0; i < 1000; i++) {
+			visited += t.breadthFirst(i, visitor) + t.depthFirst(i, visitor);
+		}
+		long allocated = mx.getThreadAllocatedBytes(tid) - before;
+		assertTrue(visited > 0);
+		// 2000 traversals over 2000 vertices, a per-run buffer would be MBs
+		assertTrue(allocated < 64 * 1024, "allocated " + allocated);
+	}
+
+}
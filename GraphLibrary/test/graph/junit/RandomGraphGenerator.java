@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.UndirectedGraph;
+import graph.generator.BarabasiAlbert;
+import graph.generator.EdgeList;
+import graph.generator.ErdosRenyi;
+import graph.generator.Grid;
+import graph.generator.RMat;
+import graph.generator.RandomDag;
+
+/**
+ * Tests for the seeded parallel random graph generators
+ */
+class RandomGraphGenerator {
+
+	void assertSameEdges(EdgeList l1, EdgeList l2) {
+		assertEquals(l1.size(), l2.size());
+		for (int i = 0; i < l1.size(); i++) {
+			assertEquals(l1.getV1(i), l2.getV1(i));
+			assertEquals(l1.getV2(i), l2.getV2(i));
+			assertEquals(l1.getWeight(i), l2.getWeight(i));
+		}
+	}
+
+	@Test
+	void testDeterministicFromSeed() {
+		RMat r1 = new RMat(10, 8);
+		RMat r2 = new RMat(10, 8);
+		r1.setSeed(42);
+		r2.setSeed(42);
+		r1.setWeights(1, 50);
+		r2.setWeights(1, 50);
+		assertSameEdges(r1.generate(), r2.generate());
+		// Weights come from their own stream and leave the edges alone
+		RMat r3 = new RMat(10, 8);
+		r3.setSeed(42);
+		EdgeList l1 = r1.generate();
+		EdgeList l3 = r3.generate();
+		assertEquals(l1.size(), l3.size());
+		for (int i = 0; i < l1.size(); i++) {
+			assertEquals(l1.getV1(i), l3.getV1(i));
+			assertTrue(l1.getWeight(i) >= 1 && l1.getWeight(i) <= 50);
+			assertEquals(1, l3.getWeight(i));
+		}
+		r3.setSeed(43);
+		EdgeList l4 = r3.generate();
+		boolean differs = l4.size() != l1.size();
+		for (int i = 0; i < Math.min(l1.size(), l4.size()) && !differs; i++) {
+			differs = l1.getV1(i) != l4.getV1(i) || l1.getV2(i) != l4.getV2(i);
+		}
+		assertTrue(differs);
+	}
+
+	@Test
+	void testErdosRenyiEdgeCount() {
+		final int n = 2000;
+		ErdosRenyi dg = new ErdosRenyi(n, 0.01, true);
+		dg.setSeed(1);
+		EdgeList el = dg.generate();
+		final double expected = n * (n - 1) * 0.01;
+		assertEquals(expected, el.size(), expected * 0.05);
+		ErdosRenyi ug = new ErdosRenyi(n, 0.01, false);
+		ug.setSeed(1);
+		EdgeList ul = ug.generate();
+		assertEquals(expected / 2, ul.size(), expected * 0.05);
+		for (int i = 0; i < ul.size(); i++) {
+			assertTrue(ul.getV1(i) < ul.getV2(i));
+			assertTrue(el.getV1(i) != el.getV2(i));
+			assertTrue(el.getV2(i) >= 0 && el.getV2(i) < n);
+		}
+		assertEquals(n * (n - 1), new ErdosRenyi(n, 1, true).generate().size());
+		assertEquals(0, new ErdosRenyi(n, 0, true).generate().size());
+	}
+
+	@Test
+	void testSkewedDegrees() {
+		RMat rm = new RMat(12, 8);
+		rm.setSeed(3);
+		EdgeList el = rm.generate();
+		int[] out = new int[rm.getVertexCount()];
+		for (int i = 0; i < el.size(); i++) {
+			assertNotEquals(el.getV1(i), el.getV2(i));
+			out[el.getV1(i)]++;
+		}
+		int max = 0;
+		for (int d : out) {
+			max = Math.max(max, d);
+		}
+		assertTrue(max > 20 * 8);
+		BarabasiAlbert ba = new BarabasiAlbert(5000, 3);
+		ba.setSeed(3);
+		Graph g = ba.build();
+		assertTrue(g instanceof UndirectedGraph);
+		assertEquals(5000, new CsrGraph(g).getVertexCount());
+		Map<Integer, Integer> degree = new HashMap<Integer, Integer>();
+		EdgeList bl = ba.generate();
+		for (int i = 0; i < bl.size(); i++) {
+			assertTrue(bl.getV2(i) < bl.getV1(i));
+			degree.merge(bl.getV1(i), 1, Integer::sum);
+			degree.merge(bl.getV2(i), 1, Integer::sum);
+		}
+		assertTrue(degree.values().stream().mapToInt(Integer::intValue).max().getAsInt() > 10 * 6);
+	}
+
+	@Test
+	void testGridAndDag() {
+		Grid gr = new Grid(10, 20);
+		gr.setWeights(5, 5);
+		UndirectedGraph ug = (UndirectedGraph) gr.build();
+		assertEquals(200, new CsrGraph(ug).getVertexCount());
+		assertEquals(2 * (10 * 19 + 9 * 20), new CsrGraph(ug).getEdgeCount());
+		assertEquals(1, ug.getComponentCount());
+		RandomDag rd = new RandomDag(300, 0.05);
+		rd.setSeed(9);
+		Graph dag = rd.build();
+		assertTrue(dag.isAcyclic());
+		assertEquals(300 * 299 / 2 * 0.05, new CsrGraph(dag).getEdgeCount(), 300 * 299 / 2 * 0.05 * 0.15);
+	}
+
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+import graph.algorithm.ReachabilityIndex;
+import graph.algorithm.Traversal;
+
+/**
+ * Tests for the reachability index, closure and interval label modes against
+ * breadth first search
+ */
+class ReachabilityQuery {
+
+	Graph createRandomGraph(Random r, int n, int m) {
+		Graph dg = new Graph();
+		try {
+			for (int i = 0; i < n; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			for (int k = 0; k < m; k++) {
+				Edge e = new Edge(new Vertex(r.nextInt(n)), new Vertex(r.nextInt(n)));
+				if (!e.getV1().equals(e.getV2()) && dg.findEdgesByLabel(e.getLabel()).isEmpty()) {
+					dg.addEdge(e);
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	void assertSameAsSearch(Graph dg, ReachabilityIndex ri, int[] node) {
+		CsrGraph csr = new CsrGraph(dg);
+		Traversal t = new Traversal(csr);
+		for (int u = 0; u < csr.getVertexCount(); u++) {
+			t.breadthFirst(u, null);
+			final int nu = node[csr.getVertex(u).getVid()];
+			boolean all = true;
+			for (int v = 0; v < csr.getVertexCount(); v++) {
+				final boolean expected = t.isReached(v);
+				all &= expected;
+				assertEquals(expected, ri.isReachable(nu, node[csr.getVertex(v).getVid()]), u + " -> " + v);
+			}
+			assertEquals(all, ri.reachesAll(nu));
+		}
+	}
+
+	@Test
+	void testClosureAndIntervals() {
+		Random r = new Random(7);
+		for (int round = 0; round < 5; round++) {
+			Graph dg = createRandomGraph(r, 60, 70 + 10 * round);
+			CsrGraph csr = new CsrGraph(dg);
+			int[] node = new int[80];
+			for (int i = 0; i < csr.getVertexCount(); i++) {
+				node[csr.getVertex(i).getVid()] = i;
+			}
+			ReachabilityIndex closure = new ReachabilityIndex(csr);
+			ReachabilityIndex intervals = new ReachabilityIndex(csr, 0);
+			assertTrue(closure.isClosure());
+			assertFalse(intervals.isClosure());
+			assertEquals(closure.getComponents(), intervals.getComponents());
+			assertSameAsSearch(dg, closure, node);
+			assertSameAsSearch(dg, intervals, node);
+			// Incremental: new vertices and edges
+			try {
+				for (int k = 0; k < 20; k++) {
+					final int n = 60 + k / 2;
+					if (k % 2 == 0) {
+						dg.addVertex(new Vertex(n));
+						node[n] = closure.getNodes();
+						assertEquals(node[n], intervals.getNodes());
+						assertTrue(closure.addNode());
+						assertTrue(intervals.addNode());
+					}
+					Edge e = new Edge(new Vertex(r.nextInt(n + 1)), new Vertex(r.nextInt(n + 1)));
+					if (!dg.findEdgesByLabel(e.getLabel()).isEmpty()) {
+						continue;
+					}
+					dg.addEdge(e);
+					final int u = node[e.getV1().getVid()];
+					final int v = node[e.getV2().getVid()];
+					final boolean opened = !closure.isReachable(u, v);
+					assertEquals(opened, closure.addEdge(u, v));
+					assertEquals(opened, intervals.addEdge(u, v));
+				}
+			} catch (Exception ex) {
+				fail(ex.getMessage());
+			}
+			assertSameAsSearch(dg, closure, node);
+			assertSameAsSearch(dg, intervals, node);
+		}
+	}
+
+	@Test
+	void testGraphQueries() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= 5; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2)));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3)));
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(1)));
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(4)));
+			assertTrue(dg.isReachable(new Vertex(2), new Vertex(4)));
+			assertFalse(dg.isReachable(new Vertex(4), new Vertex(1)));
+			assertFalse(dg.isReachable(new Vertex(1), new Vertex(5)));
+			assertTrue(dg.getConnectedVertices().isEmpty());
+			// Updated in place
+			dg.addEdge(new Edge(new Vertex(4), new Vertex(5)));
+			assertTrue(dg.isReachable(new Vertex(1), new Vertex(5)));
+			assertEquals(dg.getConnectedVertices(null), dg.getConnectedVertices());
+			assertEquals(3, dg.getConnectedVertices().size());
+			assertEquals(60, dg.calculateConnectivity());
+			dg.addVertex(new Vertex(6));
+			assertFalse(dg.isReachable(new Vertex(1), new Vertex(6)));
+			assertEquals(0, dg.calculateConnectivity());
+			dg.addEdge(new Edge(new Vertex(6), new Vertex(1)));
+			assertEquals(1, dg.getConnectedVertices().size());
+			// Rebuilt after a removal
+			dg.removeEdge(new Edge(new Vertex(3), new Vertex(4)));
+			assertFalse(dg.isReachable(new Vertex(6), new Vertex(4)));
+			assertEquals(dg.getConnectedVertices(null), dg.getConnectedVertices());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testClosureLimit() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 0; i < 4; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(new Edge(new Vertex(0), new Vertex(1)));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		CsrGraph csr = new CsrGraph(dg);
+		ReachabilityIndex ri = new ReachabilityIndex(csr, 5);
+		assertTrue(ri.isClosure());
+		assertTrue(ri.addNode());
+		// Past the limit the index still answers but asks to be rebuilt
+		assertFalse(ri.addNode());
+		assertEquals(6, ri.getNodes());
+		assertTrue(ri.addEdge(5, 4));
+		assertTrue(ri.isReachable(5, 4));
+		// Rebuilt in interval mode
+		ri = new ReachabilityIndex(csr, 3);
+		assertFalse(ri.isClosure());
+		assertTrue(ri.addNode());
+		assertTrue(ri.addNode());
+	}
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+
+/**
+ * Random graphs and reference answers shared by the shortest path tests
+ */
+class ReferenceGraphs {
+
+	/**
+	 * Distance of an unreachable pair in {@link #allPairs(CsrGraph)}, two of them
+	 * still add without overflow
+	 */
+	static final long UNREACHED = Long.MAX_VALUE / 4;
+
+	/**
+	 * Random graph with vertices 0 to n - 1 and m distinct edges without loops,
+	 * weights 1 to 20
+	 */
+	static Graph createRandomGraph(int n, int m, long seed) {
+		Graph dg = new Graph();
+		Random r = new Random(seed);
+		try {
+			for (int i = 0; i < n; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			int added = 0;
+			while (added < m) {
+				Edge e = new Edge(new Vertex(r.nextInt(n)), new Vertex(r.nextInt(n)), 1 + r.nextInt(20), null);
+				if (!e.getV1().equals(e.getV2()) && !dg.findEdgesForVertex(e.getV1()).contains(e)) {
+					dg.addEdge(e);
+					added++;
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	/**
+	 * Reference all pairs shortest distances (Floyd-Warshall) by dense index
+	 */
+	static long[][] allPairs(CsrGraph csr) {
+		final int n = csr.getVertexCount();
+		long[][] d = new long[n][n];
+		for (int i = 0; i < n; i++) {
+			Arrays.fill(d[i], UNREACHED);
+			for (int e = csr.getFirstEdge(i); e < csr.getFirstEdge(i + 1); e++) {
+				d[i][csr.getTarget(e)] = Math.min(d[i][csr.getTarget(e)], csr.getWeight(e));
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+				}
+			}
+		}
+		return d;
+	}
+
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+
+/**
+ * Tests for the vertex name and edge label indexes
+ */
+class SecondaryIndex {
+
+	Graph createCityGraph() {
+		Graph dg = new Graph();
+		String[] names = { "Berlin", "Bern", "Bonn", "Paris", "Prague" };
+		try {
+			for (int i = 0; i < names.length; i++) {
+				dg.addVertex(new Vertex(i + 1, names[i]));
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), 1, "rail"));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3), 1, "road"));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(4), 1, "rail"));
+			dg.addEdge(new Edge(new Vertex(4), new Vertex(5), 1, "river"));
+			// Default label from the edge vertices
+			dg.addEdge(new Edge(new Vertex(5), new Vertex(1), 1, null));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testFindByName() {
+		Graph dg = createCityGraph();
+		assertEquals(4, dg.findVertexByName("Paris").getVid());
+		assertNull(dg.findVertexByName("Rome"));
+		try {
+			dg.addVertex(new Vertex(6, "Rome"));
+			dg.addVertex(new Vertex(7, "Paris"));
+			assertEquals(6, dg.findVertexByName("Rome").getVid());
+			assertEquals(2, dg.findVerticesByName("Paris").size());
+			dg.removeVertex(new Vertex(4));
+			assertEquals(7, dg.findVertexByName("Paris").getVid());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		List<Vertex> b = dg.findVerticesByNamePrefix("Be");
+		assertEquals(List.of(new Vertex(1), new Vertex(2)), b);
+		List<Vertex> r = dg.findVerticesByNameRange("Bonn", "Prague");
+		assertEquals(List.of(new Vertex(3), new Vertex(7)), r);
+		assertEquals(3, dg.findVerticesByNameRange("Paris", null).size());
+		try {
+			// Sorted index is maintained once built
+			dg.addVertex(new Vertex(8, "Bremen"));
+			dg.removeVertex(new Vertex(1));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(List.of(new Vertex(2)), dg.findVerticesByNamePrefix("Be"));
+		assertEquals(List.of(new Vertex(3), new Vertex(8)), dg.findVerticesByNamePrefix("B").subList(1, 3));
+	}
+
+	@Test
+	void testFindByLabel() {
+		Graph dg = createCityGraph();
+		assertEquals(2, dg.findEdgesByLabel("rail").size());
+		assertEquals(List.of(new Edge(new Vertex(5), new Vertex(1))), dg.findEdgesByLabel("5->1"));
+		assertEquals(4, dg.findEdgesByLabelPrefix("r").size());
+		assertEquals(List.of(new Edge(new Vertex(4), new Vertex(5)), new Edge(new Vertex(2), new Vertex(3))),
+				dg.findEdgesByLabelRange("ri", null));
+		try {
+			dg.removeEdge(new Edge(new Vertex(1), new Vertex(2)));
+			assertEquals(1, dg.findEdgesByLabel("rail").size());
+			dg.setEdgeLabel(new Edge(new Vertex(1), new Vertex(4)), "ferry");
+			assertTrue(dg.findEdgesByLabel("rail").isEmpty());
+			assertEquals(1, dg.findEdgesByLabel("ferry").size());
+			assertEquals(1, dg.findEdgesByLabelPrefix("f").size());
+			// Back to the default label and on to another
+			dg.setEdgeLabel(new Edge(new Vertex(1), new Vertex(4)), null);
+			assertEquals(1, dg.findEdgesByLabel("1->4").size());
+			dg.setEdgeLabel(dg.findEdgesByLabel("road").get(0), "track");
+			assertTrue(dg.findEdgesByLabel("road").isEmpty());
+			assertEquals(new Edge(new Vertex(2), new Vertex(3)), dg.findEdgesByLabel("track").get(0));
+			dg.removeVertex(new Vertex(5));
+			assertTrue(dg.findEdgesByLabel("river").isEmpty());
+			assertTrue(dg.findEdgesByLabel("5->1").isEmpty());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.Vertex;
+import graph.error.VertexDoesNotExistException;
+import graph.shard.HashPartitioner;
+import graph.shard.LocalTransport;
+import graph.shard.RangePartitioner;
+import graph.shard.ShardedGraph;
+
+/**
+ * Tests for a graph split over shards
+ */
+class ShardedGraphQuery {
+
+	@Test
+	void testShortestPath() {
+		Graph dg = ReferenceGraphs.createRandomGraph(8, 16, 7);
+		CsrGraph csr = new CsrGraph(dg);
+		long[][] d = ReferenceGraphs.allPairs(csr);
+		ShardedGraph sg = ShardedGraph.fromGraph(dg, 3, new HashPartitioner(), new LocalTransport(3));
+		try {
+			for (int i = 0; i < 8; i++) {
+				for (int j = 0; j < 8; j++) {
+					Path sp = sg.findShortestPath(csr.getVertex(i), csr.getVertex(j));
+					if (i == j || d[i][j] >= ReferenceGraphs.UNREACHED) {
+						assertNull(sp);
+					} else {
+						assertEquals(d[i][j], sp.getLength(), "Path " + i + " to " + j);
+						assertEquals(csr.getVertex(i), sp.getStart());
+						assertEquals(csr.getVertex(j), sp.getEnd());
+					}
+				}
+			}
+		} catch (VertexDoesNotExistException ex) {
+			fail(ex.getMessage());
+		}
+		assertTrue(sg.getCrossShardMessages() > 0);
+	}
+
+	@Test
+	void testBreadthFirstSearch() {
+		ShardedGraph sg = new ShardedGraph(2, new RangePartitioner(3), new LocalTransport(2));
+		try {
+			for (int i = 1; i <= 5; i++) {
+				sg.addVertex(new Vertex(i));
+			}
+			sg.addEdge(new Edge(new Vertex(1), new Vertex(2)));
+			sg.addEdge(new Edge(new Vertex(2), new Vertex(3)));
+			sg.addEdge(new Edge(new Vertex(3), new Vertex(4)));
+			sg.addEdge(new Edge(new Vertex(1), new Vertex(4)));
+			assertEquals(2, sg.getVertexCount(0));
+			assertEquals(3, sg.getVertexCount(1));
+			assertEquals(2, sg.getEdgeCut());
+			Map<Vertex, Integer> hops = sg.breadthFirstSearch(new Vertex(1));
+			assertEquals(4, hops.size());
+			assertEquals(0, hops.get(new Vertex(1)));
+			assertEquals(2, hops.get(new Vertex(3)));
+			assertEquals(1, hops.get(new Vertex(4)));
+			assertNull(hops.get(new Vertex(5)));
+			sg.removeVertex(new Vertex(4));
+			assertEquals(1, sg.getEdgeCut());
+			assertEquals(2, sg.getEdgeCount());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testConnectivityMatchesGraph() {
+		for (long seed = 1; seed <= 5; seed++) {
+			Graph dg = ReferenceGraphs.createRandomGraph(7, 14, seed);
+			ShardedGraph sg = ShardedGraph.fromGraph(dg, 4, new HashPartitioner(), new LocalTransport(4));
+			List<Vertex> ecv = dg.getConnectedVertices();
+			List<Vertex> scv = sg.getConnectedVertices();
+			assertEquals(new HashSet<Vertex>(ecv), new HashSet<Vertex>(scv), "Seed " + seed);
+			assertEquals(dg.calculateConnectivity(), sg.calculateConnectivity());
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+import graph.error.EdgeAlreadyExistsException;
+import graph.error.VertexDoesNotExistException;
+import graph.stream.IngestionStage;
+import graph.stream.Mutation;
+import graph.stream.MutationOutcome;
+import graph.stream.MutationOutcome.Status;
+
+/**
+ * Tests for the batching mutation stream stage
+ */
+class StreamIngestion {
+
+	@Test
+	void testOutcomes() {
+		Graph dg = new Graph();
+		IngestionStage stage = new IngestionStage(dg);
+		List<MutationOutcome> outcomes = Collections.synchronizedList(new ArrayList<MutationOutcome>());
+		CompletableFuture<Void> done = stage.consume(outcomes::add);
+		try (SubmissionPublisher<Mutation> source = new SubmissionPublisher<Mutation>()) {
+			source.subscribe(stage);
+			for (int i = 1; i <= 4; i++) {
+				source.submit(Mutation.addVertex(new Vertex(i)));
+			}
+			source.submit(Mutation.addEdge(new Edge(new Vertex(1), new Vertex(2))));
+			// Redelivered
+			source.submit(Mutation.addEdge(new Edge(new Vertex(1), new Vertex(2))));
+			source.submit(Mutation.addEdge(new Edge(new Vertex(1), new Vertex(9))));
+			source.submit(Mutation.addEdge(new Edge(new Vertex(2), new Vertex(3))));
+			source.submit(Mutation.removeVertex(new Vertex(3)));
+			// Not a duplicate, vertex 3 changed in between
+			source.submit(Mutation.addEdge(new Edge(new Vertex(2), new Vertex(3))));
+			source.submit(Mutation.addEdge(new Edge(new Vertex(2), new Vertex(4))));
+			source.submit(Mutation.addEdge(new Edge(new Vertex(2), new Vertex(4), 5, "again")));
+		}
+		try {
+			done.get(10, TimeUnit.SECONDS);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(12, outcomes.size());
+		for (int i = 0; i < outcomes.size(); i++) {
+			assertEquals(i, outcomes.get(i).getSequence());
+		}
+		assertEquals(Status.APPLIED, outcomes.get(4).getStatus());
+		assertEquals(Status.DUPLICATE, outcomes.get(5).getStatus());
+		assertEquals(Status.FAILED, outcomes.get(6).getStatus());
+		assertTrue(outcomes.get(6).getException() instanceof VertexDoesNotExistException);
+		assertEquals(Status.APPLIED, outcomes.get(8).getStatus());
+		assertTrue(outcomes.get(9).getException() instanceof VertexDoesNotExistException);
+		// Different weight and label, applied and rejected by the graph
+		assertTrue(outcomes.get(11).getException() instanceof EdgeAlreadyExistsException);
+		assertEquals(8, stage.getApplied());
+		assertEquals(3, stage.getFailed());
+		assertEquals(1, stage.getDuplicates());
+		assertEquals(0, stage.getQueueDepth());
+		assertTrue(stage.getBatchCount() >= 1);
+		try {
+			assertEquals(2, dg.findEdgesForVertex(new Vertex(1)).size() + dg.findEdgesForVertex(new Vertex(2)).size());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testNullsAndFailedRepeats() {
+		Graph dg = new Graph();
+		IngestionStage stage = new IngestionStage(dg);
+		List<MutationOutcome> outcomes = Collections.synchronizedList(new ArrayList<MutationOutcome>());
+		CompletableFuture<Void> done = stage.consume(outcomes::add);
+		try (SubmissionPublisher<Mutation> source = new SubmissionPublisher<Mutation>()) {
+			source.subscribe(stage);
+			source.submit(Mutation.addVertex(new Vertex(1)));
+			source.submit(Mutation.addVertex(null));
+			source.submit(Mutation.removeVertex(null));
+			source.submit(Mutation.removeVertex(null));
+			source.submit(Mutation.addEdge(new Edge(new Vertex(1), new Vertex(2))));
+			source.submit(Mutation.addEdge(new Edge(new Vertex(1), new Vertex(2))));
+			source.submit(Mutation.addVertex(new Vertex(2)));
+		}
+		try {
+			done.get(10, TimeUnit.SECONDS);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(7, outcomes.size());
+		// Same as the graph method, adding null is ignored
+		assertEquals(Status.APPLIED, outcomes.get(1).getStatus());
+		assertTrue(outcomes.get(2).getException() instanceof VertexDoesNotExistException);
+		assertTrue(outcomes.get(3).getException() instanceof VertexDoesNotExistException);
+		// A repeat of a failed mutation fails the same way
+		assertEquals(Status.FAILED, outcomes.get(5).getStatus());
+		assertSame(outcomes.get(4).getException(), outcomes.get(5).getException());
+		assertEquals(Status.APPLIED, outcomes.get(6).getStatus());
+		assertEquals(0, stage.getDuplicates());
+		assertEquals(4, stage.getFailed());
+	}
+
+	@Test
+	void testDemandFollowsLatency() {
+		Graph fast = new Graph();
+		IngestionStage grow = new IngestionStage(fast);
+		grow.setMaxBatchSize(256);
+		grow.setTargetLatency(Duration.ofHours(1));
+		Graph slow = new Graph();
+		IngestionStage shrink = new IngestionStage(slow);
+		shrink.setTargetLatency(Duration.ZERO);
+		CompletableFuture<Void> d1 = grow.consume(mo -> {
+		});
+		CompletableFuture<Void> d2 = shrink.consume(mo -> {
+		});
+		try (SubmissionPublisher<Mutation> source = new SubmissionPublisher<Mutation>()) {
+			source.subscribe(grow);
+			source.subscribe(shrink);
+			for (int i = 0; i < 3000; i++) {
+				source.submit(Mutation.addVertex(new Vertex(i)));
+			}
+		}
+		try {
+			d1.get(30, TimeUnit.SECONDS);
+			d2.get(30, TimeUnit.SECONDS);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(256, grow.getBatchSize());
+		assertEquals(1, shrink.getBatchSize());
+		assertTrue(grow.getAverageBatchSize() > shrink.getAverageBatchSize());
+		assertEquals(3000, grow.getApplied());
+		assertEquals(3000, shrink.getApplied());
+		assertTrue(grow.getMaxQueueDepth() <= 256);
+	}
+
+	@Test
+	void testLingerFlushesPartialBatch() {
+		Graph dg = new Graph();
+		IngestionStage stage = new IngestionStage(dg);
+		// Long enough for both mutations to arrive before the timer fires
+		stage.setLinger(Duration.ofMillis(200));
+		SubmissionPublisher<Mutation> source = new SubmissionPublisher<Mutation>();
+		source.subscribe(stage);
+		source.submit(Mutation.addVertex(new Vertex(1)));
+		source.submit(Mutation.addVertex(new Vertex(2)));
+		// Stream stays open, the linger timer applies the batch
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (stage.getApplied() < 2 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(2, stage.getApplied());
+		assertEquals(2, stage.getLastBatchSize());
+		source.close();
+	}
+
+}
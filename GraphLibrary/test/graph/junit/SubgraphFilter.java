@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import graph.CsrGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.SubgraphView;
+import graph.Vertex;
+import graph.algorithm.Centrality;
+import graph.algorithm.Traversal;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Tests for lazy filtered subgraph views
+ */
+class SubgraphFilter {
+
+	Graph createWeightedGraph() {
+		Graph dg = new Graph();
+		try {
+			for (int i = 1; i <= 5; i++) {
+				dg.addVertex(new Vertex(i));
+			}
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(2), 10, "road"));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(3), 20, "road"));
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(4), 20, "rail"));
+			dg.addEdge(new Edge(new Vertex(2), new Vertex(4), 50, "road"));
+			dg.addEdge(new Edge(new Vertex(1), new Vertex(5), 5, "rail"));
+			dg.addEdge(new Edge(new Vertex(5), new Vertex(4), 5, "rail"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testEdgeFilter() {
+		Graph dg = createWeightedGraph();
+		SubgraphView all = dg.subgraph(null, null);
+		SubgraphView roads = dg.subgraph(null, e -> "road".equals(e.getLabel()));
+		SubgraphView light = dg.subgraph(null, e -> e.getWeight() < 20);
+		try {
+			assertEquals(6, all.getEdgeCount());
+			assertEquals(3, roads.getEdgeCount());
+			assertEquals(3, light.getEdgeCount());
+			assertEquals(10, all.findShortestPath(new Vertex(1), new Vertex(4)).getLength());
+			assertEquals(60, roads.findShortestPath(new Vertex(1), new Vertex(4)).getLength());
+			assertNull(light.findShortestPath(new Vertex(1), new Vertex(3)));
+			Path p = roads.findShortestPath(new Vertex(1), new Vertex(3));
+			assertEquals(new Vertex(1), p.getStart());
+			assertEquals(new Vertex(3), p.getEnd());
+			assertEquals(30, p.getLength());
+			Set<Edge> out = new HashSet<Edge>();
+			roads.forEachOutEdge(roads.indexOf(new Vertex(1)), e -> out.add(e));
+			assertEquals(Set.of(new Edge(new Vertex(1), new Vertex(2))), out);
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		// Algorithms on IndexedGraph run on the view unchanged
+		Traversal t = new Traversal(roads);
+		assertEquals(4, t.breadthFirst(new Vertex(1), null));
+		assertFalse(t.isReached(roads.indexOf(new Vertex(5))));
+		double[] in = new Centrality(light).inDegree();
+		assertEquals(1, in[light.indexOf(new Vertex(4))]);
+		assertEquals(0, in[light.indexOf(new Vertex(3))]);
+	}
+
+	@Test
+	void testVertexFilter() {
+		Graph dg = createWeightedGraph();
+		SubgraphView view = dg.subgraph(v -> v.getVid() != 5, null);
+		assertEquals(4, view.getVertexCount());
+		assertEquals(4, view.getEdgeCount());
+		assertEquals(-1, view.indexOf(new Vertex(5)));
+		for (int i = 0; i < view.getVertexCount(); i++) {
+			assertEquals(i, view.indexOf(view.getVertex(i)));
+		}
+		try {
+			assertEquals(50, view.findShortestPath(new Vertex(1), new Vertex(4)).getLength());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertThrows(VertexDoesNotExistException.class, () -> view.findShortestPath(new Vertex(1), new Vertex(5)));
+		// Same selection by bitsets over the snapshot indexes
+		CsrGraph csr = new CsrGraph(dg);
+		BitSet vertices = new BitSet();
+		vertices.set(0, csr.getVertexCount());
+		vertices.clear(csr.indexOf(new Vertex(5)));
+		SubgraphView bits = new SubgraphView(csr, vertices, null);
+		assertEquals(4, bits.getEdgeCount());
+		BitSet edges = new BitSet();
+		edges.set(csr.getFirstEdge(csr.indexOf(new Vertex(1))));
+		SubgraphView one = new SubgraphView(csr, null, edges);
+		assertEquals(1, one.getEdgeCount());
+		assertEquals(1, one.getOutDegree(csr.indexOf(new Vertex(1))));
+		assertFalse(one.isStale());
+	}
+
+	@Test
+	void testVersioning() {
+		Graph dg = createWeightedGraph();
+		SubgraphView roads = dg.subgraph(null, e -> "road".equals(e.getLabel()));
+		assertFalse(roads.isStale());
+		assertSame(roads, roads.refresh());
+		try {
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(5), 1, "road"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertTrue(roads.isStale());
+		assertEquals(3, roads.getEdgeCount());
+		SubgraphView current = roads.refresh();
+		assertFalse(current.isStale());
+		assertEquals(dg.getVersion(), current.getVersion());
+		assertEquals(4, current.getEdgeCount());
+	}
+
+	@Test
+	void testNegativeCycle() {
+		Graph dg = createWeightedGraph();
+		try {
+			dg.addEdge(new Edge(new Vertex(3), new Vertex(2), -30, "ferry"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		// Cycle 2-3-2 of length -10 reachable from 1
+		SubgraphView view = dg.subgraph(v -> v.getVid() != 5, null);
+		assertThrows(IllegalArgumentException.class, () -> view.findShortestPath(new Vertex(1), new Vertex(4)));
+		// Filtered out, the search is not affected
+		SubgraphView roads = dg.subgraph(null, e -> "road".equals(e.getLabel()));
+		try {
+			assertEquals(60, roads.findShortestPath(new Vertex(1), new Vertex(4)).getLength());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.TemporalGraph;
+import graph.Vertex;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Tests for the sliding window temporal graph
+ */
+class TemporalWindow {
+
+	Edge edge(int v1, int v2, int weight) {
+		return new Edge(new Vertex(v1), new Vertex(v2), weight, null);
+	}
+
+	@Test
+	void testAsOfQueries() {
+		// Edges valid for 10, history kept for 30 in buckets of 5
+		TemporalGraph tg = new TemporalGraph(10, 30, 6);
+		tg.addEdge(edge(1, 2, 5), 0);
+		tg.addEdge(edge(2, 3, 5), 4);
+		tg.addEdge(edge(1, 3, 20), 6);
+		tg.addEdge(edge(3, 4, 1), 12);
+		try {
+			// At 6 both routes to 3 are valid
+			assertEquals(10, tg.findShortestPath(new Vertex(1), new Vertex(3), 6).getLength());
+			// At 11 the edge 1->2 (from 0) has expired
+			Path p = tg.findShortestPath(new Vertex(1), new Vertex(3), 11);
+			assertEquals(20, p.getLength());
+			assertEquals(1, p.getEdges().size());
+			assertFalse(tg.isReachable(new Vertex(1), new Vertex(4), 11));
+			assertTrue(tg.isReachable(new Vertex(1), new Vertex(4), 12));
+			assertFalse(tg.isReachable(new Vertex(1), new Vertex(4), 16));
+			assertTrue(tg.isReachable(new Vertex(2), new Vertex(4), 12));
+			// A repeated event extends the edge and the latest weight is used
+			tg.addEdge(edge(1, 3, 2), 15);
+			assertEquals(3, tg.findShortestPath(new Vertex(1), new Vertex(4), 15).getLength());
+			assertEquals(20, tg.findShortestPath(new Vertex(1), new Vertex(3), 14).getLength());
+			Graph g = tg.snapshot(15);
+			assertEquals(1, g.findEdgesForVertex(new Vertex(1)).size());
+			assertEquals(2, g.findEdgesForVertex(new Vertex(1)).get(0).getWeight());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(15, tg.getWatermark());
+		assertEquals(5, tg.getEventCount());
+	}
+
+	@Test
+	void testExpiryInBuckets() {
+		TemporalGraph tg = new TemporalGraph(10, 10, 2);
+		tg.addVertex(new Vertex(99, "depot"));
+		for (int t = 0; t < 10; t++) {
+			assertTrue(tg.addEdge(edge(t, t + 1, 1), t));
+		}
+		assertEquals(10, tg.getEventCount());
+		assertEquals(12, tg.getVertexCount());
+		// Buckets [0,5) and [5,10): at 14 the first bucket is out of retention
+		assertEquals(5, tg.advanceTo(14));
+		assertEquals(5, tg.getEventCount());
+		assertEquals(5, tg.getExpiredCount());
+		assertFalse(tg.addEdge(edge(1, 2, 1), 3));
+		assertEquals(1, tg.getLateCount());
+		assertThrows(VertexDoesNotExistException.class, () -> tg.isReachable(new Vertex(0), new Vertex(1), 14));
+		try {
+			assertTrue(tg.isReachable(new Vertex(5), new Vertex(10), 9));
+			// Only 9->10 is valid at 18
+			assertFalse(tg.isReachable(new Vertex(5), new Vertex(10), 18));
+			assertFalse(tg.isReachable(new Vertex(99), new Vertex(5), 14));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		// A jump past every bucket empties the window, pinned vertex stays
+		assertEquals(5, tg.advanceTo(1000));
+		assertEquals(0, tg.getEventCount());
+		assertEquals(1, tg.getVertexCount());
+		assertTrue(tg.addEdge(edge(99, 1, 1), 1001));
+		try {
+			Graph g = tg.snapshot();
+			assertEquals("depot->1", g.findEdgesForVertex(new Vertex(99)).get(0).getLabel());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}
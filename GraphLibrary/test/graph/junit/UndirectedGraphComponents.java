@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.error.VertexDoesNotExistException;
+
+/**
+ * Tests for connected components of an undirected graph
+ */
+class UndirectedGraphComponents {
+
+	@Test
+	void testIncrementalComponents() {
+		UndirectedGraph ug = new UndirectedGraph();
+		try {
+			for (int i = 1; i <= 6; i++) {
+				ug.addVertex(new Vertex(i));
+			}
+			assertEquals(6, ug.getComponentCount());
+			assertEquals(0, ug.calculateConnectivity());
+			ug.addEdge(new Edge(new Vertex(1), new Vertex(2)));
+			ug.addEdge(new Edge(new Vertex(2), new Vertex(3)));
+			ug.addEdge(new Edge(new Vertex(4), new Vertex(5)));
+			assertEquals(3, ug.getComponentCount());
+			assertTrue(ug.isConnected(new Vertex(1), new Vertex(3)));
+			assertFalse(ug.isConnected(new Vertex(1), new Vertex(4)));
+			assertEquals(3, ug.getComponentSize(new Vertex(2)));
+			assertEquals(new HashSet<Vertex>(List.of(new Vertex(4), new Vertex(5))),
+					new HashSet<Vertex>(ug.getComponent(new Vertex(5))));
+			ug.addEdge(new Edge(new Vertex(3), new Vertex(4)));
+			ug.addEdge(new Edge(new Vertex(5), new Vertex(6)));
+			assertEquals(1, ug.getComponentCount());
+			assertEquals(6, ug.getConnectedVertices().size());
+			assertEquals(100, ug.calculateConnectivity());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testRemovalRebuild() {
+		UndirectedGraph ug = new UndirectedGraph();
+		Edge bridge = new Edge(new Vertex(2), new Vertex(3));
+		try {
+			for (int i = 1; i <= 4; i++) {
+				ug.addVertex(new Vertex(i));
+			}
+			ug.addEdge(new Edge(new Vertex(1), new Vertex(2)));
+			ug.addEdge(bridge);
+			ug.addEdge(new Edge(new Vertex(3), new Vertex(4)));
+			assertEquals(100, ug.calculateConnectivity());
+			ug.removeEdge(bridge);
+			assertEquals(2, ug.getComponentCount());
+			assertFalse(ug.isConnected(new Vertex(1), new Vertex(4)));
+			assertTrue(ug.getConnectedVertices().isEmpty());
+			ug.addEdge(new Edge(new Vertex(1), new Vertex(4)));
+			assertEquals(1, ug.getComponentCount());
+			ug.removeVertex(new Vertex(4));
+			assertEquals(2, ug.getComponentCount());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertThrows(VertexDoesNotExistException.class, () -> ug.isConnected(new Vertex(1), new Vertex(4)));
+	}
+
+	@Test
+	void testSingleVertex() {
+		UndirectedGraph ug = new UndirectedGraph();
+		try {
+			ug.addVertex(new Vertex(1));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		assertEquals(1, ug.getComponentCount());
+		assertTrue(ug.getConnectedVertices().isEmpty());
+		assertEquals(0, ug.calculateConnectivity());
+	}
+
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.algorithm.SpanningForest;
+import graph.algorithm.SpanningTree;
+import graph.error.EdgeAlreadyExistsException;
+
+/**
+ * Tests for minimum spanning trees of undirected graphs
+ */
+class UndirectedGraphSpanningTree {
+
+	UndirectedGraph createRandomGraph(int n, int m, long seed) {
+		UndirectedGraph ug = new UndirectedGraph();
+		Random r = new Random(seed);
+		try {
+			for (int i = 1; i <= n; i++) {
+				ug.addVertex(new Vertex(i));
+			}
+			for (int k = 0; k < m; k++) {
+				Vertex v1 = new Vertex(1 + r.nextInt(n));
+				Vertex v2 = new Vertex(1 + r.nextInt(n));
+				if (!v1.equals(v2)) {
+					try {
+						ug.addEdge(new Edge(v1, v2, r.nextInt(20), v1.getVname() + "-" + v2.getVname()));
+					} catch (EdgeAlreadyExistsException ex) {
+						// Duplicate random edge, skip
+					}
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return ug;
+	}
+
+	@Test
+	void testKnownTree() {
+		UndirectedGraph ug = new UndirectedGraph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		Vertex v4 = new Vertex(4);
+		try {
+			ug.addVertex(v1);
+			ug.addVertex(v2);
+			ug.addVertex(v3);
+			ug.addVertex(v4);
+			ug.addEdge(new Edge(v1, v2, 1, "1-2"));
+			ug.addEdge(new Edge(v2, v3, 2, "2-3"));
+			ug.addEdge(new Edge(v1, v3, 3, "1-3"));
+			ug.addEdge(new Edge(v3, v4, 4, "3-4"));
+			ug.addEdge(new Edge(v2, v4, 5, "2-4"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		SpanningTree st = new SpanningTree(ug);
+		for (SpanningForest sf : new SpanningForest[] { st.kruskal(), st.prim(), st.boruvka() }) {
+			assertEquals(7, sf.getTotalWeight());
+			assertTrue(sf.isSpanningTree());
+			assertEquals(3, sf.getEdges().size());
+			UndirectedGraph tg = sf.toGraph();
+			assertEquals(100, tg.calculateConnectivity());
+			assertEquals(1, tg.getComponentCount());
+		}
+	}
+
+	@Test
+	void testAlgorithmsAgree() {
+		for (long seed = 1; seed <= 10; seed++) {
+			UndirectedGraph ug = createRandomGraph(40, 70, seed);
+			SpanningTree st = new SpanningTree(ug);
+			SpanningForest k = st.kruskal();
+			SpanningForest p = st.prim();
+			SpanningForest b = st.boruvka();
+			assertEquals(k.getTotalWeight(), p.getTotalWeight(), "Seed " + seed);
+			assertEquals(k.getTotalWeight(), b.getTotalWeight(), "Seed " + seed);
+			assertEquals(new HashSet<Edge>(k.getEdges()), new HashSet<Edge>(b.getEdges()));
+			assertEquals(ug.getComponentCount(), k.getTreeCount());
+			assertEquals(ug.getComponentCount(), p.getTreeCount());
+			assertEquals(ug.getComponentCount(), b.getTreeCount());
+		}
+	}
+
+}
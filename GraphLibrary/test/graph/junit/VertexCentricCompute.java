@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Rajnish R Lal <rajnishlal@gmail.com>
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package graph.junit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Edge;
+import graph.Graph;
+import graph.UndirectedGraph;
+import graph.Vertex;
+import graph.compute.BspEngine;
+import graph.compute.ComputeResult;
+import graph.compute.VertexContext;
+import graph.compute.VertexProgram;
+
+/**
+ * Tests for the vertex-centric compute engine
+ */
+class VertexCentricCompute {
+
+	/**
+	 * Single source shortest path, messages carry candidate distances
+	 */
+	static class ShortestPathProgram implements VertexProgram<Integer, Integer> {
+		final Vertex source;
+
+		ShortestPathProgram(Vertex source) {
+			this.source = source;
+		}
+
+		@Override
+		public Integer initialValue(Vertex v) {
+			return Integer.MAX_VALUE;
+		}
+
+		@Override
+		public void compute(VertexContext<Integer, Integer> vertex, List<Integer> messages) {
+			int best = vertex.getSuperstep() == 0 && vertex.getVertex().equals(source) ? 0 : Integer.MAX_VALUE;
+			for (Integer m : messages) {
+				best = Math.min(best, m);
+			}
+			if (best < vertex.getValue()) {
+				vertex.setValue(best);
+				for (int i = 0; i < vertex.getOutDegree(); i++) {
+					vertex.sendAlongEdge(i, best + vertex.getWeight(i));
+				}
+			}
+			vertex.voteToHalt();
+		}
+	}
+
+	/**
+	 * Connected components by propagating the minimum vertex ID
+	 */
+	static class ComponentProgram implements VertexProgram<Integer, Integer> {
+		@Override
+		public Integer initialValue(Vertex v) {
+			return v.getVid();
+		}
+
+		@Override
+		public void compute(VertexContext<Integer, Integer> vertex, List<Integer> messages) {
+			int min = vertex.getValue();
+			for (Integer m : messages) {
+				min = Math.min(min, m);
+			}
+			if (vertex.getSuperstep() == 0 || min < vertex.getValue()) {
+				vertex.setValue(min);
+				vertex.sendToNeighbours(min);
+			}
+			vertex.voteToHalt();
+		}
+	}
+
+	Graph createWeightedGraph() {
+		Graph dg = new Graph();
+		Vertex v1 = new Vertex(1);
+		Vertex v2 = new Vertex(2);
+		Vertex v3 = new Vertex(3);
+		Vertex v4 = new Vertex(4);
+		Vertex v5 = new Vertex(5);
+		try {
+			dg.addVertex(v1);
+			dg.addVertex(v2);
+			dg.addVertex(v3);
+			dg.addVertex(v4);
+			dg.addVertex(v5);
+			dg.addEdge(new Edge(v1, v2, 10, "1->2"));
+			dg.addEdge(new Edge(v2, v3, 20, "2->3"));
+			dg.addEdge(new Edge(v3, v4, 20, "3->4"));
+			dg.addEdge(new Edge(v2, v4, 50, "2->4"));
+			dg.addEdge(new Edge(v4, v1, 5, "4->1"));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		return dg;
+	}
+
+	@Test
+	void testShortestPathWithCombiner() {
+		Graph dg = createWeightedGraph();
+		BspEngine<Integer, Integer> be = new BspEngine<Integer, Integer>(dg, new ShortestPathProgram(new Vertex(1)));
+		be.setCombiner((m1, m2) -> Math.min(m1, m2));
+		be.setWorkers(3);
+		try {
+			ComputeResult<Integer> cr = be.run();
+			assertTrue(cr.isHalted());
+			assertEquals(0, cr.getValue(new Vertex(1)));
+			assertEquals(10, cr.getValue(new Vertex(2)));
+			assertEquals(30, cr.getValue(new Vertex(3)));
+			assertEquals(50, cr.getValue(new Vertex(4)));
+			assertEquals(Integer.MAX_VALUE, cr.getValue(new Vertex(5)));
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testComponentsPlatformThreads() {
+		UndirectedGraph ug = new UndirectedGraph();
+		try {
+			for (int i = 1; i <= 20; i++) {
+				ug.addVertex(new Vertex(i));
+			}
+			// Two chains: 1..10 and 11..20
+			for (int i = 1; i < 20; i++) {
+				if (i != 10) {
+					ug.addEdge(new Edge(new Vertex(i), new Vertex(i + 1)));
+				}
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+		BspEngine<Integer, Integer> be = new BspEngine<Integer, Integer>(ug, new ComponentProgram());
+		be.setVirtualThreads(false);
+		be.setWorkers(4);
+		try {
+			ComputeResult<Integer> cr = be.run();
+			assertTrue(cr.isHalted());
+			for (int i = 1; i <= 20; i++) {
+				assertEquals(i <= 10 ? 1 : 11, cr.getValue(new Vertex(i)));
+			}
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+	@Test
+	void testMaxSupersteps() {
+		Graph dg = createWeightedGraph();
+		BspEngine<Integer, Integer> be = new BspEngine<Integer, Integer>(dg, new ComponentProgram());
+		be.setMaxSupersteps(1);
+		try {
+			ComputeResult<Integer> cr = be.run();
+			assertFalse(cr.isHalted());
+			assertEquals(1, cr.getSupersteps());
+			assertEquals(5, cr.getMessages());
+		} catch (Exception ex) {
+			fail(ex.getMessage());
+		}
+	}
+
+}